@@ -48,6 +48,7 @@ public class SimpleMarshalledValue<T> implements MarshalledValue<T, MarshallingC
     private transient volatile MarshallingContext context;
     private transient volatile T object;
     private transient volatile byte[] bytes;
+    private transient volatile MarshalledValueWriteListener listener;
 
     public SimpleMarshalledValue(T object, MarshallingContext context) {
         this.context = context;
@@ -95,6 +96,32 @@ public class SimpleMarshalledValue<T> implements MarshalledValue<T, MarshallingC
         }
     }
 
+    /**
+     * Marshals the object now, and keeps the bytes, which are written in place of the later state of the object.
+     * @throws IOException if the object could not be marshalled
+     */
+    void snapshot() throws IOException {
+        this.bytes = this.getBytes();
+    }
+
+    /**
+     * Indicates whether the marshalled form of the object, once known, is kept and written in place of the current state of
+     * the object.
+     * @return false, by default
+     */
+    protected boolean retainBytes() {
+        return false;
+    }
+
+    /**
+     * Registers a listener notified of the number of bytes of this value the next time it is written, so that the size of
+     * a replicated value is known without marshalling it ahead of time.
+     * @param listener a listener, or null to remove the current one
+     */
+    public void setWriteListener(MarshalledValueWriteListener listener) {
+        this.listener = listener;
+    }
+
     /**
      * {@inheritDoc}
      * @see org.jboss.as.clustering.MarshalledValue#get(java.lang.Object)
@@ -126,7 +153,9 @@ public class SimpleMarshalledValue<T> implements MarshalledValue<T, MarshallingC
                         }
                     }
                     unmarshaller.finish();
-                    this.bytes = null; // Free up memory
+                    if (!this.retainBytes()) {
+                        this.bytes = null; // Free up memory
+                    }
                 } finally {
                     unmarshaller.close();
                 }
@@ -179,6 +208,11 @@ public class SimpleMarshalledValue<T> implements MarshalledValue<T, MarshallingC
         } else {
             out.writeInt(0);
         }
+        MarshalledValueWriteListener listener = this.listener;
+        if (listener != null) {
+            this.listener = null;
+            listener.written((bytes != null) ? bytes.length : 0);
+        }
     }
 
     @Override
@@ -0,0 +1,47 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.clustering;
+
+import java.io.IOException;
+
+/**
+ * A non-hashable marshalled value that is serialized eagerly, and that keeps the state of its object at that time: later
+ * changes to the object are never marshalled, nor are the bytes discarded once the object is deserialized.
+ */
+public class SnapshotMarshalledValue<T> extends SimpleMarshalledValue<T> {
+    private static final long serialVersionUID = -2716433593719524706L;
+
+    public SnapshotMarshalledValue(T object, MarshallingContext context) throws IOException {
+        super(object, context);
+        this.snapshot();
+    }
+
+    public SnapshotMarshalledValue() {
+        // Required for externalization
+    }
+
+    @Override
+    protected boolean retainBytes() {
+        return true;
+    }
+}
@@ -28,6 +28,9 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.UUID;
 
 import org.jboss.marshalling.Marshalling;
@@ -139,6 +142,29 @@ public class SimpleMarshalledValueFactoryTestCase {
         assertEquals(0, mv.hashCode());
     }
 
+    /**
+     * Test method for {@link SimpleMarshalledValue#setWriteListener(MarshalledValueWriteListener)}.
+     */
+    @Test
+    public void writeListener() throws Exception {
+        UUID uuid = UUID.randomUUID();
+        SimpleMarshalledValue<UUID> mv = this.factory.createMarshalledValue(uuid);
+        final List<Integer> written = new ArrayList<Integer>();
+        mv.setWriteListener(new MarshalledValueWriteListener() {
+            @Override
+            public void written(int bytes) {
+                written.add(bytes);
+            }
+        });
+
+        replicate(mv);
+        assertEquals(Collections.singletonList(mv.getBytes().length), written);
+
+        // the listener is only notified of the next write
+        replicate(mv);
+        assertEquals(1, written.size());
+    }
+
     <T> void validateHashCode(T original, SimpleMarshalledValue<T> copy) {
         assertEquals(0, copy.hashCode());
     }
@@ -24,6 +24,7 @@ package org.jboss.as.clustering.web.infinispan;
 import java.io.IOException;
 import java.util.Map;
 
+import org.jboss.as.clustering.MarshalledValueWriteListener;
 import org.jboss.as.clustering.web.OutgoingSessionGranularitySessionData;
 import org.jboss.as.clustering.web.SessionAttributeMarshaller;
 import org.jboss.metadata.web.jboss.ReplicationGranularity;
@@ -43,13 +44,17 @@ public class CoarseSessionAttributeStorage implements SessionAttributeStorage<Ou
     /**
      * {@inheritDoc}
      *
-     * @see org.jboss.as.clustering.web.infinispan.SessionAttributeStorage#store(java.util.Map, org.jboss.as.clustering.web.OutgoingDistributableSessionData)
+     * @see org.jboss.as.clustering.web.infinispan.SessionAttributeStorage#store(java.util.Map, org.jboss.as.clustering.web.OutgoingDistributableSessionData, org.jboss.as.clustering.MarshalledValueWriteListener)
      */
     @Override
-    public void store(Map<Object, Object> map, OutgoingSessionGranularitySessionData sessionData) throws IOException {
+    public void store(Map<Object, Object> map, OutgoingSessionGranularitySessionData sessionData, MarshalledValueWriteListener listener) throws IOException {
         Map<String, Object> attributes = sessionData.getSessionAttributes();
         if (attributes != null) {
-            SessionMapEntry.ATTRIBUTES.put(map, this.marshaller.marshal(attributes));
+            Object marshalledAttributes = this.marshaller.marshal(attributes);
+            if (listener != null) {
+                this.marshaller.setWriteListener(marshalledAttributes, listener);
+            }
+            SessionMapEntry.ATTRIBUTES.put(map, marshalledAttributes);
         }
     }
 
@@ -43,6 +43,7 @@ import org.infinispan.notifications.cachelistener.event.CacheEntryActivatedEvent
 import org.infinispan.notifications.cachelistener.event.CacheEntryModifiedEvent;
 import org.infinispan.notifications.cachelistener.event.CacheEntryRemovedEvent;
 import org.infinispan.remoting.transport.Address;
+import org.jboss.as.clustering.MarshalledValueWriteListener;
 import org.jboss.as.clustering.infinispan.affinity.KeyAffinityServiceFactory;
 import org.jboss.as.clustering.infinispan.invoker.CacheInvoker;
 import org.jboss.as.clustering.lock.SharedLocalYieldingClusterLockManager;
@@ -152,10 +153,10 @@ public class DistributedCacheManager<T extends OutgoingDistributableSessionData>
     /**
      * {@inheritDoc}
      *
-     * @see org.jboss.as.clustering.web.DistributedCacheManager#storeSessionData(org.jboss.as.clustering.web.OutgoingDistributableSessionData)
+     * @see org.jboss.as.clustering.web.DistributedCacheManager#storeSessionData(org.jboss.as.clustering.web.OutgoingDistributableSessionData, org.jboss.as.clustering.MarshalledValueWriteListener)
      */
     @Override
-    public void storeSessionData(final T sessionData) {
+    public void storeSessionData(final T sessionData, final MarshalledValueWriteListener listener) {
         final String sessionId = sessionData.getRealId();
 
         this.trace("storeSessionData(%s)", sessionId);
@@ -169,7 +170,7 @@ public class DistributedCacheManager<T extends OutgoingDistributableSessionData>
                 SessionMapEntry.METADATA.put(map, sessionData.getMetadata());
                 SessionMapEntry.TIMESTAMP.put(map, sessionData.getTimestamp());
                 try {
-                    DistributedCacheManager.this.attributeStorage.store(map, sessionData);
+                    DistributedCacheManager.this.attributeStorage.store(map, sessionData, listener);
                 } catch (IOException e) {
                     throw MESSAGES.failedToStoreSessionAttributes(e, sessionId);
                 }
@@ -22,21 +22,44 @@
 package org.jboss.as.clustering.web.infinispan;
 
 import java.io.IOException;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.WeakHashMap;
 
+import org.jboss.as.clustering.MarshalledValueWriteListener;
+import org.jboss.as.clustering.web.DeltaSessionAttribute;
 import org.jboss.as.clustering.web.OutgoingAttributeGranularitySessionData;
 import org.jboss.as.clustering.web.SessionAttributeMarshaller;
 import org.jboss.metadata.web.jboss.ReplicationGranularity;
 
 /**
  * Handles session attribute load/store operations for {@link ReplicationGranularity#ATTRIBUTE} distributed session managers.
+ * <p>
+ * A modified {@link DeltaSessionAttribute} whose changes are known is stored as a separate delta entry alongside its last full
+ * value, so only the change is replicated; the deltas are applied when the session is next loaded. The full value is written
+ * again, replacing its deltas, once {@link #MAX_DELTAS} have accumulated.
+ * </p>
+ * <p>
+ * A delta is only stored if the previous write of the attribute from this node is still in the session, since the changes
+ * of a write that failed or was rolled back are lost to the next delta. Otherwise the full value is stored again.
+ * </p>
  *
  * @author Paul Ferraro
  */
 public class FineSessionAttributeStorage implements SessionAttributeStorage<OutgoingAttributeGranularitySessionData> {
+    /** The number of deltas an attribute may accumulate before its full value is stored again */
+    static final int MAX_DELTAS = 16;
+
     private final SessionAttributeMarshaller marshaller;
+    // Deltas already reflected in the attribute instances of this node, i.e. stored or applied here.
+    // Deltas are wrapped in single element arrays, whose identity is stable for as long as the delta entry exists.
+    private final Map<Serializable[], Boolean> appliedDeltas = Collections.synchronizedMap(new WeakHashMap<Serializable[], Boolean>());
+    // The entry last written to the session for each delta aware attribute instance of this node
+    private final Map<DeltaSessionAttribute, Map.Entry<Object, Object>> lastWrites = Collections.synchronizedMap(new WeakHashMap<DeltaSessionAttribute, Map.Entry<Object, Object>>());
 
     public FineSessionAttributeStorage(SessionAttributeMarshaller marshaller) {
         this.marshaller = marshaller;
@@ -45,15 +68,39 @@ public class FineSessionAttributeStorage implements SessionAttributeStorage<Outg
     /**
      * {@inheritDoc}
      *
-     * @see org.jboss.as.clustering.web.infinispan.SessionAttributeStorage#store(java.util.Map, org.jboss.as.clustering.web.OutgoingDistributableSessionData)
+     * @see org.jboss.as.clustering.web.infinispan.SessionAttributeStorage#store(java.util.Map, org.jboss.as.clustering.web.OutgoingDistributableSessionData, org.jboss.as.clustering.MarshalledValueWriteListener)
      */
     @Override
-    public void store(Map<Object, Object> map, OutgoingAttributeGranularitySessionData sessionData) throws IOException {
+    public void store(Map<Object, Object> map, OutgoingAttributeGranularitySessionData sessionData, MarshalledValueWriteListener listener) throws IOException {
         Map<String, Object> modified = sessionData.getModifiedSessionAttributes();
 
         if (modified != null) {
             for (Map.Entry<String, Object> entry : modified.entrySet()) {
-                map.put(entry.getKey(), this.marshaller.marshal(entry.getValue()));
+                String attribute = entry.getKey();
+                Object value = entry.getValue();
+                DeltaSessionAttribute deltaAttribute = (value instanceof DeltaSessionAttribute) ? (DeltaSessionAttribute) value : null;
+                // Always collect the delta, so the next one starts from this request
+                Serializable delta = (deltaAttribute != null) ? deltaAttribute.getDelta() : null;
+                // Forget the previous write until this one is done, so that a failure forces the next one to store the full value
+                Map.Entry<Object, Object> lastWrite = (deltaAttribute != null) ? this.lastWrites.remove(deltaAttribute) : null;
+                int deltas = countDeltas(map, attribute);
+                Object key;
+                Object marshalledValue;
+                if ((delta != null) && (deltas < MAX_DELTAS) && isStored(map, lastWrite)) {
+                    Serializable[] holder = new Serializable[] { delta };
+                    this.appliedDeltas.put(holder, Boolean.TRUE);
+                    key = deltaKey(attribute, deltas);
+                    marshalledValue = this.marshal(holder, listener);
+                    map.put(key, marshalledValue);
+                } else {
+                    key = attribute;
+                    marshalledValue = this.marshal(value, listener);
+                    map.put(key, marshalledValue);
+                    removeDeltas(map, attribute, deltas);
+                }
+                if (deltaAttribute != null) {
+                    this.lastWrites.put(deltaAttribute, new AbstractMap.SimpleImmutableEntry<Object, Object>(key, marshalledValue));
+                }
             }
         }
 
@@ -62,6 +109,7 @@ public class FineSessionAttributeStorage implements SessionAttributeStorage<Outg
         if (removed != null) {
             for (String attribute : removed) {
                 map.remove(attribute);
+                removeDeltas(map, attribute, countDeltas(map, attribute));
             }
         }
     }
@@ -79,10 +127,62 @@ public class FineSessionAttributeStorage implements SessionAttributeStorage<Outg
             Object key = entry.getKey();
             if (key instanceof String) {
                 String attribute = (String) key;
-                result.put(attribute, this.marshaller.unmarshal(entry.getValue()));
+                Object value = this.marshaller.unmarshal(entry.getValue());
+                if (value instanceof DeltaSessionAttribute) {
+                    this.applyDeltas(data, attribute, (DeltaSessionAttribute) value);
+                }
+                result.put(attribute, value);
             }
         }
 
         return result;
     }
+
+    private void applyDeltas(Map<Object, Object> data, String attribute, DeltaSessionAttribute value) throws IOException, ClassNotFoundException {
+        for (int i = 0; i < MAX_DELTAS; ++i) {
+            Object marshalledDelta = data.get(deltaKey(attribute, i));
+            if (marshalledDelta == null) return;
+            Serializable[] holder = (Serializable[]) this.marshaller.unmarshal(marshalledDelta);
+            if (this.appliedDeltas.put(holder, Boolean.TRUE) == null) {
+                value.applyDelta(holder[0]);
+            }
+        }
+    }
+
+    private Object marshal(Object value, MarshalledValueWriteListener listener) throws IOException {
+        Object marshalledValue = this.marshaller.marshal(value);
+        if (listener != null) {
+            this.marshaller.setWriteListener(marshalledValue, listener);
+        }
+        return marshalledValue;
+    }
+
+    /**
+     * Indicates whether a previous write is still in the session, i.e. was neither rolled back nor overwritten by another node.
+     */
+    private static boolean isStored(Map<Object, Object> map, Map.Entry<Object, Object> write) {
+        return (write != null) && (map.get(write.getKey()) == write.getValue());
+    }
+
+    private static int countDeltas(Map<Object, Object> map, String attribute) {
+        int count = 0;
+        while ((count < MAX_DELTAS) && map.containsKey(deltaKey(attribute, count))) {
+            count += 1;
+        }
+        return count;
+    }
+
+    private static void removeDeltas(Map<Object, Object> map, String attribute, int count) {
+        for (int i = 0; i < count; ++i) {
+            map.remove(deltaKey(attribute, i));
+        }
+    }
+
+    /**
+     * Delta entries are keyed by attribute name and sequence number, using a JDK type so any node can unmarshal the key.
+     * Such keys are never mistaken for attribute names, which are strings.
+     */
+    private static Object deltaKey(String attribute, int index) {
+        return new AbstractMap.SimpleImmutableEntry<String, Integer>(attribute, Integer.valueOf(index));
+    }
 }
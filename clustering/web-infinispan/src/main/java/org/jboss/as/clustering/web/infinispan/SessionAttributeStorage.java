@@ -24,6 +24,7 @@ package org.jboss.as.clustering.web.infinispan;
 import java.io.IOException;
 import java.util.Map;
 
+import org.jboss.as.clustering.MarshalledValueWriteListener;
 import org.jboss.as.clustering.web.OutgoingDistributableSessionData;
 
 /**
@@ -32,7 +33,11 @@ import org.jboss.as.clustering.web.OutgoingDistributableSessionData;
  * @author Paul Ferraro
  */
 public interface SessionAttributeStorage<T extends OutgoingDistributableSessionData> {
-    void store(Map<Object, Object> data, T sessionData) throws IOException;
+    /**
+     * Writes the modified attributes of the specified session to its cache entry.
+     * @param listener notified of the number of bytes of each marshalled value written as it is replicated, or null
+     */
+    void store(Map<Object, Object> data, T sessionData, MarshalledValueWriteListener listener) throws IOException;
 
     Map<String, Object> load(Map<Object, Object> data) throws IOException, ClassNotFoundException;
 }
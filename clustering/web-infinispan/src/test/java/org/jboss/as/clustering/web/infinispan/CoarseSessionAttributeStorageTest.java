@@ -27,6 +27,7 @@ import java.io.IOException;
 import java.util.Collections;
 import java.util.Map;
 
+import org.jboss.as.clustering.MarshalledValueWriteListener;
 import org.jboss.as.clustering.web.OutgoingSessionGranularitySessionData;
 import org.jboss.as.clustering.web.SessionAttributeMarshaller;
 import org.junit.After;
@@ -57,8 +58,10 @@ public class CoarseSessionAttributeStorageTest {
         when(data.getSessionAttributes()).thenReturn(attributes);
         when(this.marshaller.marshal(attributes)).thenReturn(marshalledAttributes);
 
-        this.storage.store(map, data);
+        MarshalledValueWriteListener listener = mock(MarshalledValueWriteListener.class);
+        this.storage.store(map, data, listener);
 
+        verify(this.marshaller).setWriteListener(same(marshalledAttributes), same(listener));
         verify(map).put(eq((byte) SessionMapEntry.ATTRIBUTES.ordinal()), same(marshalledAttributes));
     }
 
@@ -70,7 +73,7 @@ public class CoarseSessionAttributeStorageTest {
 
         when(data.getSessionAttributes()).thenReturn(null);
 
-        this.storage.store(map, data);
+        this.storage.store(map, data, null);
 
         verifyZeroInteractions(map);
     }
@@ -56,6 +56,7 @@ import org.infinispan.notifications.cachelistener.event.CacheEntryActivatedEvent
 import org.infinispan.notifications.cachelistener.event.CacheEntryModifiedEvent;
 import org.infinispan.notifications.cachelistener.event.CacheEntryRemovedEvent;
 import org.infinispan.remoting.transport.Address;
+import org.jboss.as.clustering.MarshalledValueWriteListener;
 import org.jboss.as.clustering.infinispan.affinity.KeyAffinityServiceFactory;
 import org.jboss.as.clustering.infinispan.invoker.CacheInvoker;
 import org.jboss.as.clustering.lock.SharedLocalYieldingClusterLockManager;
@@ -179,7 +180,9 @@ public class DistributedCacheManagerTest {
 //        when(this.sessionCache.startBatch()).thenReturn(true);
         when(this.invoker.invoke(same(this.cache), capturedOperation.capture())).thenReturn(null);
 
-        this.manager.storeSessionData(data);
+        MarshalledValueWriteListener listener = mock(MarshalledValueWriteListener.class);
+
+        this.manager.storeSessionData(data, listener);
 
 //        verify(this.sessionCache).endBatch(true);
 
@@ -201,7 +204,7 @@ public class DistributedCacheManagerTest {
 
         operation.invoke(this.cache);
 
-        verify(this.storage).store(same(map), same(data));
+        verify(this.storage).store(same(map), same(data), same(listener));
 //        verify(this.sessionCache).endBatch(true);
     }
 
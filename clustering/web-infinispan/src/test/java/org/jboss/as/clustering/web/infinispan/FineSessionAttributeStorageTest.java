@@ -24,15 +24,24 @@ package org.jboss.as.clustering.web.infinispan;
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
 import java.util.AbstractMap;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import org.jboss.as.clustering.MarshalledValueWriteListener;
+import org.jboss.as.clustering.web.DeltaSessionAttribute;
 import org.jboss.as.clustering.web.OutgoingAttributeGranularitySessionData;
 import org.jboss.as.clustering.web.SessionAttributeMarshaller;
 import org.junit.After;
@@ -64,8 +73,10 @@ public class FineSessionAttributeStorageTest {
         when(this.marshaller.marshal("value")).thenReturn(marshalledAttribute);
         when(data.getRemovedSessionAttributes()).thenReturn(removedAttributes);
 
-        this.storage.store(map, data);
+        MarshalledValueWriteListener listener = mock(MarshalledValueWriteListener.class);
+        this.storage.store(map, data, listener);
 
+        verify(this.marshaller).setWriteListener(same(marshalledAttribute), same(listener));
         verify(map).put(eq("key"), same(marshalledAttribute));
         verify(map).remove("removed");
     }
@@ -79,7 +90,7 @@ public class FineSessionAttributeStorageTest {
         when(data.getModifiedSessionAttributes()).thenReturn(null);
         when(data.getRemovedSessionAttributes()).thenReturn(null);
 
-        this.storage.store(map, data);
+        this.storage.store(map, data, null);
 
         verifyZeroInteractions(map);
     }
@@ -106,4 +117,211 @@ public class FineSessionAttributeStorageTest {
         assertEquals("value", result.get("key"));
     }
 
+    @Test
+    public void storeDelta() throws Exception {
+        SessionAttributeMarshaller marshaller = new TestMarshaller();
+        SessionAttributeStorage<OutgoingAttributeGranularitySessionData> storage = new FineSessionAttributeStorage(marshaller);
+        Map<Object, Object> map = new HashMap<Object, Object>();
+        Cart cart = new Cart();
+        cart.add("a");
+
+        // The first store has no delta to offer
+        storage.store(map, modified("cart", cart), null);
+        assertEquals(1, map.size());
+
+        cart.add("b");
+        storage.store(map, modified("cart", cart), null);
+        cart.add("c");
+        storage.store(map, modified("cart", cart), null);
+        assertEquals(3, map.size());
+
+        // Loading on the node that stored the deltas must not apply them again
+        assertEquals(Arrays.asList("a", "b", "c"), ((Cart) storage.load(map).get("cart")).items);
+
+        // Another node applies the deltas to the full value it received, once
+        Map<Object, Object> replica = replicate(map);
+        SessionAttributeStorage<OutgoingAttributeGranularitySessionData> remoteStorage = new FineSessionAttributeStorage(marshaller);
+        Cart remoteCart = (Cart) remoteStorage.load(replica).get("cart");
+        assertEquals(Arrays.asList("a", "b", "c"), remoteCart.items);
+        assertSame(remoteCart, remoteStorage.load(replica).get("cart"));
+        assertEquals(Arrays.asList("a", "b", "c"), remoteCart.items);
+
+        // ... and still hands on the full value as it was replicated, e.g. during state transfer
+        Cart transferredCart = (Cart) new FineSessionAttributeStorage(marshaller).load(replicate(replica)).get("cart");
+        assertEquals(Arrays.asList("a", "b", "c"), transferredCart.items);
+
+        // Removing the attribute removes its deltas
+        OutgoingAttributeGranularitySessionData data = mock(OutgoingAttributeGranularitySessionData.class);
+        when(data.getRemovedSessionAttributes()).thenReturn(Collections.singleton("cart"));
+        storage.store(map, data, null);
+        assertTrue(map.toString(), map.isEmpty());
+    }
+
+    @Test
+    public void storeFullAfterMaxDeltas() throws Exception {
+        SessionAttributeStorage<OutgoingAttributeGranularitySessionData> storage = new FineSessionAttributeStorage(new TestMarshaller());
+        Map<Object, Object> map = new HashMap<Object, Object>();
+        Cart cart = new Cart();
+        storage.store(map, modified("cart", cart), null);
+
+        for (int i = 0; i < FineSessionAttributeStorage.MAX_DELTAS; ++i) {
+            cart.add(Integer.toString(i));
+            storage.store(map, modified("cart", cart), null);
+        }
+        assertEquals(FineSessionAttributeStorage.MAX_DELTAS + 1, map.size());
+
+        cart.add("last");
+        storage.store(map, modified("cart", cart), null);
+        assertEquals(1, map.size());
+
+        Cart remoteCart = (Cart) new FineSessionAttributeStorage(new TestMarshaller()).load(replicate(map)).get("cart");
+        assertEquals(cart.items, remoteCart.items);
+    }
+
+    @Test
+    public void storeFullAfterRollback() throws Exception {
+        SessionAttributeStorage<OutgoingAttributeGranularitySessionData> storage = new FineSessionAttributeStorage(new TestMarshaller());
+        Map<Object, Object> map = new HashMap<Object, Object>();
+        Cart cart = new Cart();
+        storage.store(map, modified("cart", cart), null);
+        cart.add("a");
+        storage.store(map, modified("cart", cart), null);
+        assertEquals(2, map.size());
+
+        // The delta of this request is lost with its transaction
+        Map<Object, Object> committed = new HashMap<Object, Object>(map);
+        cart.add("b");
+        storage.store(map, modified("cart", cart), null);
+        map = committed;
+
+        cart.add("c");
+        storage.store(map, modified("cart", cart), null);
+        assertEquals(1, map.size());
+
+        Cart remoteCart = (Cart) new FineSessionAttributeStorage(new TestMarshaller()).load(replicate(map)).get("cart");
+        assertEquals(Arrays.asList("a", "b", "c"), remoteCart.items);
+    }
+
+    @Test
+    public void storeFullAfterFailure() throws Exception {
+        final IOException failure = new IOException();
+        SessionAttributeMarshaller marshaller = new TestMarshaller() {
+            @Override
+            public Object marshal(Object object) throws IOException {
+                if ((object instanceof Serializable[]) && ((List<?>) ((Serializable[]) object)[0]).contains("b")) {
+                    throw failure;
+                }
+                return super.marshal(object);
+            }
+        };
+        SessionAttributeStorage<OutgoingAttributeGranularitySessionData> storage = new FineSessionAttributeStorage(marshaller);
+        Map<Object, Object> map = new HashMap<Object, Object>();
+        Cart cart = new Cart();
+        storage.store(map, modified("cart", cart), null);
+
+        cart.add("b");
+        try {
+            storage.store(map, modified("cart", cart), null);
+            fail();
+        } catch (IOException e) {
+            assertSame(failure, e);
+        }
+
+        cart.add("c");
+        storage.store(map, modified("cart", cart), null);
+        assertEquals(1, map.size());
+
+        Cart remoteCart = (Cart) new FineSessionAttributeStorage(marshaller).load(replicate(map)).get("cart");
+        assertEquals(Arrays.asList("b", "c"), remoteCart.items);
+    }
+
+    private static OutgoingAttributeGranularitySessionData modified(String attribute, Object value) {
+        OutgoingAttributeGranularitySessionData data = mock(OutgoingAttributeGranularitySessionData.class);
+        when(data.getModifiedSessionAttributes()).thenReturn(Collections.singletonMap(attribute, value));
+        return data;
+    }
+
+    /**
+     * Simulates the copy of the session held by another node.
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<Object, Object> replicate(Map<Object, Object> map) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream output = new ObjectOutputStream(bytes);
+        output.writeObject(map);
+        output.close();
+        return (Map<Object, Object>) new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject();
+    }
+
+    /**
+     * Replicates attribute values as is, except for delta-aware attributes, which are marshalled to a snapshot like
+     * {@link org.jboss.as.clustering.SnapshotMarshalledValue}.
+     */
+    static class TestMarshaller implements SessionAttributeMarshaller {
+        @Override
+        public Object marshal(Object object) throws IOException {
+            return (object instanceof DeltaSessionAttribute) ? new Snapshot(object) : object;
+        }
+
+        @Override
+        public Object unmarshal(Object object) throws IOException, ClassNotFoundException {
+            return (object instanceof Snapshot) ? ((Snapshot) object).get() : object;
+        }
+
+        @Override
+        public boolean setWriteListener(Object object, MarshalledValueWriteListener listener) {
+            return false;
+        }
+    }
+
+    static class Snapshot implements Serializable {
+        private static final long serialVersionUID = -5207301950612931585L;
+
+        private final byte[] bytes;
+        private transient Object object;
+
+        Snapshot(Object object) throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            ObjectOutputStream output = new ObjectOutputStream(bytes);
+            output.writeObject(object);
+            output.close();
+            this.bytes = bytes.toByteArray();
+            this.object = object;
+        }
+
+        Object get() throws IOException, ClassNotFoundException {
+            if (this.object == null) {
+                this.object = new ObjectInputStream(new ByteArrayInputStream(this.bytes)).readObject();
+            }
+            return this.object;
+        }
+    }
+
+    static class Cart implements DeltaSessionAttribute {
+        private static final long serialVersionUID = 6349123847569240236L;
+
+        final List<String> items = new ArrayList<String>();
+        private transient ArrayList<String> added;
+
+        void add(String item) {
+            this.items.add(item);
+            if (this.added != null) {
+                this.added.add(item);
+            }
+        }
+
+        @Override
+        public Serializable getDelta() {
+            ArrayList<String> delta = this.added;
+            this.added = new ArrayList<String>();
+            return delta;
+        }
+
+        @Override
+        public void applyDelta(Serializable delta) {
+            @SuppressWarnings("unchecked")
+            List<String> added = (List<String>) delta;
+            this.items.addAll(added);
+        }
+    }
 }
@@ -0,0 +1,47 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.clustering.web;
+
+import java.io.Serializable;
+
+/**
+ * Implemented by session attributes that can describe what changed in them, so that a request that modifies a small part of a
+ * large attribute replicates only that change rather than the whole attribute. Only honoured by sessions using
+ * {@link org.jboss.metadata.web.jboss.ReplicationGranularity#ATTRIBUTE} replication granularity; the whole attribute is still
+ * replicated periodically, and whenever its changes are not known. The marshalled form of the last full replication of the
+ * attribute is kept in memory, so that the deltas can be applied to it on another node.
+ */
+public interface DeltaSessionAttribute extends Serializable {
+    /**
+     * Returns the changes made to this attribute since the previous call, and starts recording the next ones.
+     * The returned delta must not be modified afterwards.
+     * @return the accumulated changes, or null if they are not known (e.g. for a newly created or deserialized instance)
+     */
+    Serializable getDelta();
+
+    /**
+     * Applies changes previously returned by {@link #getDelta()} by another instance of this attribute.
+     * @param delta the changes to apply
+     */
+    void applyDelta(Serializable delta);
+}
@@ -24,6 +24,8 @@ package org.jboss.as.clustering.web;
 
 import java.util.Map;
 
+import org.jboss.as.clustering.MarshalledValueWriteListener;
+
 /**
  * SPI implemented by the distributed caching layer.
  * @author Brian Stansberry
@@ -53,8 +55,9 @@ public interface DistributedCacheManager<T extends OutgoingDistributableSessionD
     /**
      * Store or update a session in the distributed cache.
      * @param sessionData the session
+     * @param listener notified of the number of bytes of each marshalled session attribute value as it is replicated, or null
      */
-    void storeSessionData(T sessionData);
+    void storeSessionData(T sessionData, MarshalledValueWriteListener listener);
 
     /**
      * Globally remove a session from the distributed cache.
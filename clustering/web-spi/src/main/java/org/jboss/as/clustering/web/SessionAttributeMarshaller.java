@@ -23,6 +23,8 @@ package org.jboss.as.clustering.web;
 
 import java.io.IOException;
 
+import org.jboss.as.clustering.MarshalledValueWriteListener;
+
 /**
  * @author Paul Ferraro
  */
@@ -30,4 +32,13 @@ public interface SessionAttributeMarshaller {
     Object marshal(Object object) throws IOException;
 
     Object unmarshal(Object object) throws IOException, ClassNotFoundException;
+
+    /**
+     * Registers a listener notified of the number of bytes a value returned by {@link #marshal(Object)} occupies when it is
+     * next replicated. The value is not marshalled any earlier than it would be otherwise.
+     * @param object a marshalled value
+     * @param listener the listener to notify
+     * @return false if the value is replicated as is, in which case the listener is never notified
+     */
+    boolean setWriteListener(Object object, MarshalledValueWriteListener listener);
 }
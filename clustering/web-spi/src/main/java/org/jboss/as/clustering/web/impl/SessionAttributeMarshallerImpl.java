@@ -24,14 +24,19 @@ package org.jboss.as.clustering.web.impl;
 import java.io.IOException;
 import java.io.Serializable;
 
+import org.jboss.as.clustering.MarshalledValueWriteListener;
 import org.jboss.as.clustering.MarshallingContext;
 import org.jboss.as.clustering.SimpleMarshalledValue;
+import org.jboss.as.clustering.SnapshotMarshalledValue;
+import org.jboss.as.clustering.web.DeltaSessionAttribute;
 import org.jboss.as.clustering.web.SessionAttributeMarshaller;
 
 import static org.jboss.as.clustering.web.impl.ClusteringWebMessages.MESSAGES;
 
 /**
  * Session attribute marshaller that marshals attribute values using a {@link SimpleMarshalledValue}.
+ * A {@link DeltaSessionAttribute} is marshalled as a {@link SnapshotMarshalledValue}, since later changes to it are
+ * replicated as deltas and must not leak into its replicated state.
  *
  * @author Paul Ferraro
  */
@@ -55,6 +60,9 @@ public class SessionAttributeMarshallerImpl implements SessionAttributeMarshalle
         if (!(value instanceof Serializable)) {
             throw MESSAGES.interfaceNotImplemented(value, Serializable.class.getName());
         }
+        if (value instanceof DeltaSessionAttribute) {
+            return new SnapshotMarshalledValue<Object>(value, this.context);
+        }
         return new SimpleMarshalledValue<Object>(value, this.context);
     }
 
@@ -72,6 +80,18 @@ public class SessionAttributeMarshallerImpl implements SessionAttributeMarshalle
         return value.get(this.context);
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @see org.jboss.as.clustering.web.SessionAttributeMarshaller#setWriteListener(Object, MarshalledValueWriteListener)
+     */
+    @Override
+    public boolean setWriteListener(Object object, MarshalledValueWriteListener listener) {
+        if (!(object instanceof SimpleMarshalledValue)) return false;
+        ((SimpleMarshalledValue<?>) object).setWriteListener(listener);
+        return true;
+    }
+
     public static boolean isTypeExcluded(Class<?> type) {
         return type.equals(String.class) || type.isPrimitive() || type.equals(Void.class) || type.equals(Boolean.class)
                 || type.equals(Character.class) || type.equals(Byte.class) || type.equals(Short.class)
@@ -31,6 +31,7 @@ import java.util.concurrent.ExecutorService;
 import org.jboss.as.controller.client.OperationAttachments;
 import org.jboss.as.controller.client.OperationMessageHandler;
 import org.jboss.as.controller.descriptions.DescriptionProvider;
+import org.jboss.as.controller.persistence.BackupXmlConfigurationPersister;
 import org.jboss.as.controller.persistence.ConfigurationPersistenceException;
 import org.jboss.as.controller.persistence.ConfigurationPersister;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
@@ -176,6 +177,9 @@ public abstract class AbstractControllerService implements Service<ModelControll
                 processState, executorService, expressionResolver);
         initModel(controller.getRootResource(), controller.getRootRegistration());
         this.controller = controller;
+        if (processType.isServer()) {
+            registerReadLockStatistics(controller.getRootRegistration());
+        }
 
         final long bootStackSize = getBootStackSize();
         final Thread bootThread = new Thread(null, new Runnable() {
@@ -237,6 +241,10 @@ public abstract class AbstractControllerService implements Service<ModelControll
 
     public void stop(final StopContext context) {
         controller = null;
+        if (configurationPersister instanceof BackupXmlConfigurationPersister) {
+            // don't lose the changes still waiting to be written asynchronously
+            ((BackupXmlConfigurationPersister) configurationPersister).flush();
+        }
     }
 
     public ModelController getValue() throws IllegalStateException, IllegalArgumentException {
@@ -257,5 +265,15 @@ public abstract class AbstractControllerService implements Service<ModelControll
 
     protected abstract void initModel(Resource rootResource, ManagementResourceRegistration rootRegistration);
 
+    /**
+     * Registers the operation reporting the lock statistics of this controller. Servers register it on their root
+     * resource; a host controller registers it on its host resource, since the root resource of its model is the domain.
+     *
+     * @param registration the registration of the resource
+     */
+    protected void registerReadLockStatistics(final ManagementResourceRegistration registration) {
+        registration.registerOperationHandler(ReadLockStatisticsHandler.DEFINITION, new ReadLockStatisticsHandler(controller.getLockStatistics()));
+    }
+
 
 }
@@ -26,6 +26,7 @@ import static org.jboss.logging.Logger.Level.ERROR;
 import static org.jboss.logging.Logger.Level.WARN;
 
 import java.io.Closeable;
+import java.io.File;
 import java.net.InetAddress;
 import java.util.Set;
 import javax.xml.stream.XMLStreamWriter;
@@ -395,4 +396,14 @@ public interface ControllerLogger extends BasicLogger {
     @LogMessage(level = Level.INFO)
     @Message(id = 14627, value = "Attribute %s is deprecated, and it might be removed in future version!")
     void attributeDeprecated(String name);
+
+    /**
+     * Logs a warning message indicating the boot operations could not be written to the cache.
+     *
+     * @param cause the cause of the error.
+     * @param file  the cache file.
+     */
+    @LogMessage(level = Level.WARN)
+    @Message(id = 14628, value = "Could not write the boot operations cache %s")
+    void cannotWriteBootOperationsCache(@Cause Throwable cause, File file);
 }
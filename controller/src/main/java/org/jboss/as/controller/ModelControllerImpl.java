@@ -42,6 +42,7 @@ import java.util.List;
 import java.util.Set;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
@@ -76,6 +77,7 @@ class ModelControllerImpl implements ModelController {
     private final ServiceTarget serviceTarget;
     private final ManagementResourceRegistration rootRegistration;
     private final Lock writeLock = new ReentrantLock();
+    private final OperationLockStatistics lockStatistics = new OperationLockStatistics();
     private final ContainerStateMonitor stateMonitor;
     private final RootResource model = new RootResource();
     private final ConfigurationPersister persister;
@@ -130,7 +132,9 @@ class ModelControllerImpl implements ModelController {
             }
         };
 
-        OperationContextImpl context = new OperationContextImpl(this, processType, runningModeControl.getRunningMode(), contextFlags, handler, attachments, model, originalResultTxControl, processState, bootingFlag.get());
+        // Read-only operations run against the model as it was when they started, without taking the lock.
+        // The model is never updated in place, so the snapshot stays consistent while writers commit
+        OperationContextImpl context = new OperationContextImpl(this, processType, runningModeControl.getRunningMode(), contextFlags, handler, attachments, getCurrentModel(), originalResultTxControl, processState, bootingFlag.get());
         context.addStep(response, operation, prepareStep, OperationContext.Stage.MODEL);
         context.executeOperation();
 
@@ -155,7 +159,7 @@ class ModelControllerImpl implements ModelController {
                 ? EnumSet.of(OperationContextImpl.ContextFlag.ROLLBACK_ON_FAIL)
                 : EnumSet.noneOf(OperationContextImpl.ContextFlag.class);
         final OperationContextImpl context = new OperationContextImpl(this, processType, runningModeControl.getRunningMode(),
-                contextFlags, handler, null, model, control, processState, bootingFlag.get());
+                contextFlags, handler, null, getCurrentModel(), control, processState, bootingFlag.get());
 
         // Add to the context all ops prior to the first ExtensionAddHandler as well as all ExtensionAddHandlers; save the rest.
         // This gets extensions registered before proceeding to other ops that count on these registrations
@@ -167,7 +171,7 @@ class ModelControllerImpl implements ModelController {
 
             // Success. Now any extension handlers are registered. Continue with remaining ops
             final OperationContextImpl postExtContext = new OperationContextImpl(this, processType, runningModeControl.getRunningMode(),
-                    contextFlags, handler, null, model, control, processState, bootingFlag.get());
+                    contextFlags, handler, null, getCurrentModel(), control, processState, bootingFlag.get());
 
             for (ParsedBootOp parsedOp : postExtensionOps) {
                 final OperationStepHandler stepHandler = parsedOp.handler == null ? rootRegistration.getOperationHandler(parsedOp.address, parsedOp.operationName) : parsedOp.handler;
@@ -293,6 +297,20 @@ class ModelControllerImpl implements ModelController {
         return model;
     }
 
+    /**
+     * Gets the last committed model. Committed models are replaced as a whole and never modified afterwards, except
+     * for their runtime-only resources, so the result can be read without holding the lock.
+     *
+     * @return the current model
+     */
+    Resource getCurrentModel() {
+        return model.getDelegate();
+    }
+
+    OperationLockStatistics getLockStatistics() {
+        return lockStatistics;
+    }
+
     ManagementResourceRegistration getRootRegistration() {
         return rootRegistration;
     }
@@ -417,7 +435,8 @@ class ModelControllerImpl implements ModelController {
         };
     }
 
-    void acquireLock(final boolean interruptibly) throws InterruptedException {
+    void acquireLock(final boolean interruptibly, final String operationName) throws InterruptedException {
+        final long start = System.nanoTime();
         if (interruptibly) {
             //noinspection LockAcquiredButNotSafelyReleased
             writeLock.lockInterruptibly();
@@ -425,6 +444,11 @@ class ModelControllerImpl implements ModelController {
             //noinspection LockAcquiredButNotSafelyReleased
             writeLock.lock();
         }
+        final long waited = System.nanoTime() - start;
+        lockStatistics.record(operationName, waited);
+        if (MGMT_OP_LOGGER.isTraceEnabled()) {
+            MGMT_OP_LOGGER.tracef("Operation %s waited %d ms for the controller lock", operationName, TimeUnit.NANOSECONDS.toMillis(waited));
+        }
     }
 
     void releaseLock() {
@@ -48,6 +48,7 @@ import org.jboss.as.controller.client.OperationMessageHandler;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.persistence.ConfigurationPersistenceException;
 import org.jboss.as.controller.persistence.ConfigurationPersister;
+import org.jboss.as.controller.registry.CopyOnWriteResourceTree;
 import org.jboss.as.controller.registry.DelegatingImmutableManagementResourceRegistration;
 import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
@@ -98,7 +99,10 @@ final class OperationContextImpl extends AbstractOperationContext {
     /** Tracks whether any steps have gotten write access to the management resource registration*/
     private volatile boolean affectsResourceRegistration;
 
+    /** The model snapshot this operation reads from, replaced by the copy once any step got write access to the model */
     private volatile Resource model;
+    /** The copy of the model being updated, once any step got write access to the model */
+    private volatile CopyOnWriteResourceTree modelCopy;
 
     private volatile Resource originalModel;
 
@@ -355,7 +359,7 @@ final class OperationContextImpl extends AbstractOperationContext {
                 throw MESSAGES.invalidModificationAfterCompletedStep();
             }
             try {
-                modelController.acquireLock(respectInterruption);
+                modelController.acquireLock(respectInterruption, activeStep.operation.require(OP).asString());
                 lockStep = activeStep;
             } catch (InterruptedException e) {
                 cancelled = true;
@@ -416,7 +420,7 @@ final class OperationContextImpl extends AbstractOperationContext {
         authorizeModelUpdate();
         if (!isModelAffected()) {
             takeWriteLock();
-            model = model.clone();
+            copyModel();
         }
         affectsModel.put(address, NULL);
         Resource model = this.model;
@@ -435,13 +439,13 @@ final class OperationContextImpl extends AbstractOperationContext {
                         throw MESSAGES.noChildType(key);
                     }
                     final Resource newModel = Resource.Factory.create();
-                    model.registerChild(element, newModel);
+                    modelCopy.registerChild(model, element, newModel);
                     model = newModel;
                 } else {
-                    model = requireChild(model, element, address);
+                    model = requireChildForUpdate(model, element, address);
                 }
             } else {
-                model = requireChild(model, element, address);
+                model = requireChildForUpdate(model, element, address);
             }
         }
         if(model == null) {
@@ -520,15 +524,22 @@ final class OperationContextImpl extends AbstractOperationContext {
         authorizeModelUpdate();
         if (!isModelAffected()) {
             takeWriteLock();
-            model = model.clone();
+            copyModel();
         }
         affectsModel.put(address, NULL);
+        if (address.size() == 0) {
+            return modelCopy.getRootSubtreeForUpdate();
+        }
         Resource resource = this.model;
-        for (PathElement element : address) {
+        final Iterator<PathElement> i = address.iterator();
+        while (i.hasNext()) {
+            final PathElement element = i.next();
             if (element.isMultiTarget()) {
                 throw MESSAGES.cannotWriteTo("*");
             }
-            resource = requireChild(resource, element, address);
+            requireChild(resource, element, address);
+            // the caller may modify anything below the resource, so that part of the model must not be shared
+            resource = i.hasNext() ? modelCopy.getChildForUpdate(resource, element) : modelCopy.getChildSubtreeForUpdate(resource, element);
         }
         return resource;
     }
@@ -560,7 +571,7 @@ final class OperationContextImpl extends AbstractOperationContext {
         authorizeModelUpdate();
         if (!isModelAffected()) {
             takeWriteLock();
-            model = model.clone();
+            copyModel();
         }
         affectsModel.put(absoluteAddress, NULL);
         Resource model = this.model;
@@ -580,11 +591,11 @@ final class OperationContextImpl extends AbstractOperationContext {
                     if(!childrenNames.contains(key)) {
                         throw MESSAGES.noChildType(key);
                     }
-                    model.registerChild(element, toAdd);
+                    modelCopy.registerChild(model, element, toAdd);
                     model = toAdd;
                 }
             } else {
-                model = model.getChild(element);
+                model = modelCopy.getChildForUpdate(model, element);
                 if (model == null) {
                     PathAddress ancestor = PathAddress.EMPTY_ADDRESS;
                     for (PathElement pe : absoluteAddress) {
@@ -612,7 +623,7 @@ final class OperationContextImpl extends AbstractOperationContext {
         authorizeModelUpdate();
         if (!isModelAffected()) {
             takeWriteLock();
-            model = model.clone();
+            copyModel();
         }
         affectsModel.put(address, NULL);
         Resource model = this.model;
@@ -623,9 +634,9 @@ final class OperationContextImpl extends AbstractOperationContext {
                 throw MESSAGES.cannotRemove("*");
             }
             if (! i.hasNext()) {
-                model = model.removeChild(element);
+                model = modelCopy.removeChild(model, element);
             } else {
-                model = requireChild(model, element, address);
+                model = requireChildForUpdate(model, element, address);
             }
         }
         return model;
@@ -696,6 +707,23 @@ final class OperationContextImpl extends AbstractOperationContext {
         }
     }
 
+    /**
+     * Starts updating the model. Only the parts of the model navigated to for update are copied.
+     */
+    private void copyModel() {
+        // the model this operation started with may have been replaced while waiting for the lock
+        final Resource current = modelController.getCurrentModel();
+        this.originalModel = current;
+        final CopyOnWriteResourceTree modelCopy = new CopyOnWriteResourceTree(current);
+        this.modelCopy = modelCopy;
+        model = modelCopy.getRoot();
+    }
+
+    private Resource requireChildForUpdate(final Resource resource, final PathElement childPath, final PathAddress fullAddress) {
+        requireChild(resource, childPath, fullAddress);
+        return modelCopy.getChildForUpdate(resource, childPath);
+    }
+
     private static Resource requireChild(final Resource resource, final PathElement childPath, final PathAddress fullAddress) {
         if (resource.hasChild(childPath)) {
             return resource.requireChild(childPath);
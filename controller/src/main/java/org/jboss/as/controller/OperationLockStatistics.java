@@ -0,0 +1,108 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller;
+
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records, per operation name, how long operations waited for the exclusive controller lock.
+ * <p/>
+ * Only operations that write to the model or the runtime take the lock, so read-only operations never show up here.
+ */
+final class OperationLockStatistics {
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<String, Entry>();
+
+    void record(final String operationName, final long waitNanos) {
+        Entry entry = entries.get(operationName);
+        if (entry == null) {
+            final Entry existing = entries.putIfAbsent(operationName, entry = new Entry());
+            if (existing != null) {
+                entry = existing;
+            }
+        }
+        entry.record(waitNanos);
+    }
+
+    /**
+     * Gets the names of the operations that acquired the lock at least once.
+     *
+     * @return the operation names, in alphabetical order
+     */
+    Set<String> getOperationNames() {
+        return new TreeSet<String>(entries.keySet());
+    }
+
+    /**
+     * Gets the number of times an operation acquired the lock.
+     *
+     * @param operationName the name of the operation
+     * @return the number of acquisitions
+     */
+    long getAcquisitionCount(final String operationName) {
+        final Entry entry = entries.get(operationName);
+        return entry == null ? 0 : entry.count.get();
+    }
+
+    /**
+     * Gets the total time an operation waited for the lock.
+     *
+     * @param operationName the name of the operation
+     * @return the total wait time, in milliseconds
+     */
+    long getTotalWaitTime(final String operationName) {
+        final Entry entry = entries.get(operationName);
+        return entry == null ? 0 : TimeUnit.NANOSECONDS.toMillis(entry.total.get());
+    }
+
+    /**
+     * Gets the longest time an operation waited for the lock.
+     *
+     * @param operationName the name of the operation
+     * @return the maximum wait time, in milliseconds
+     */
+    long getMaxWaitTime(final String operationName) {
+        final Entry entry = entries.get(operationName);
+        return entry == null ? 0 : TimeUnit.NANOSECONDS.toMillis(entry.max.get());
+    }
+
+    private static final class Entry {
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong total = new AtomicLong();
+        private final AtomicLong max = new AtomicLong();
+
+        void record(final long waitNanos) {
+            count.incrementAndGet();
+            total.addAndGet(waitNanos);
+            long current = max.get();
+            while (waitNanos > current && !max.compareAndSet(current, waitNanos)) {
+                current = max.get();
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller;
+
+import org.jboss.as.controller.descriptions.common.ControllerResolver;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+/**
+ * {@link OperationStepHandler} that reports, per operation name, how long operations waited for the exclusive
+ * controller lock, as recorded by {@link OperationLockStatistics}.
+ */
+class ReadLockStatisticsHandler implements OperationStepHandler {
+
+    static final String OPERATION_NAME = "read-lock-statistics";
+    static final String ACQUISITION_COUNT = "acquisition-count";
+    static final String TOTAL_WAIT_TIME = "total-wait-time";
+    static final String MAX_WAIT_TIME = "max-wait-time";
+
+    static final OperationDefinition DEFINITION = new SimpleOperationDefinitionBuilder(OPERATION_NAME, ControllerResolver.getResolver("global"))
+            .setReplyType(ModelType.OBJECT)
+            .setReplyValueType(ModelType.OBJECT)
+            .setReadOnly()
+            .setRuntimeOnly()
+            .build();
+
+    private final OperationLockStatistics statistics;
+
+    ReadLockStatisticsHandler(final OperationLockStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    @Override
+    public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+        final ModelNode result = context.getResult().setEmptyObject();
+        for (String operationName : statistics.getOperationNames()) {
+            final ModelNode entry = result.get(operationName);
+            entry.get(ACQUISITION_COUNT).set(statistics.getAcquisitionCount(operationName));
+            entry.get(TOTAL_WAIT_TIME).set(statistics.getTotalWaitTime(operationName));
+            entry.get(MAX_WAIT_TIME).set(statistics.getMaxWaitTime(operationName));
+        }
+        context.stepCompleted();
+    }
+}
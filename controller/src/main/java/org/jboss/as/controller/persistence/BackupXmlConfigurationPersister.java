@@ -22,6 +22,8 @@
 
 package org.jboss.as.controller.persistence;
 
+import static org.jboss.as.controller.ControllerLogger.ROOT_LOGGER;
+
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -40,8 +42,17 @@ import org.jboss.staxmapper.XMLElementWriter;
  */
 public class BackupXmlConfigurationPersister extends XmlConfigurationPersister {
 
+    /**
+     * The system property that can be used to write the configuration file asynchronously. Its value is the maximum time,
+     * in milliseconds, during which committed changes may not have been written to the file. Changes committed during
+     * that time are written at once. If the property is not set, or set to 0, the file is written as part of each
+     * operation.
+     */
+    public static final String FLUSH_DELAY_PROPERTY = "jboss.config.flush.delay";
+
     ConfigurationFile configurationFile;
     private final AtomicBoolean successfulBoot = new AtomicBoolean();
+    private final DeferredConfigurationFileWriter deferredWriter;
     /**
      * Construct a new instance.
      *
@@ -51,8 +62,36 @@ public class BackupXmlConfigurationPersister extends XmlConfigurationPersister {
      * @param rootDeparser the root model deparser
      */
     public BackupXmlConfigurationPersister(final ConfigurationFile file, final QName rootElement, final XMLElementReader<List<ModelNode>> rootParser, final XMLElementWriter<ModelMarshallingContext> rootDeparser) {
+        this(file, rootElement, rootParser, rootDeparser, getFlushDelay());
+    }
+
+    /**
+     * Construct a new instance.
+     *
+     * @param file the configuration base file
+     * @param rootElement the root element of the configuration file
+     * @param rootParser the root model parser
+     * @param rootDeparser the root model deparser
+     * @param flushDelay the maximum time, in milliseconds, during which committed changes may not have been written to
+     *                   the file, or {@code 0} to write the file as part of each operation
+     */
+    public BackupXmlConfigurationPersister(final ConfigurationFile file, final QName rootElement, final XMLElementReader<List<ModelNode>> rootParser, final XMLElementWriter<ModelMarshallingContext> rootDeparser, final int flushDelay) {
         super(file.getBootFile(), rootElement, rootParser, rootDeparser);
         this.configurationFile = file;
+        this.deferredWriter = flushDelay > 0 ? new DeferredConfigurationFileWriter(file, this, flushDelay) : null;
+    }
+
+    private static int getFlushDelay() {
+        final String prop = SecurityActions.getSystemProperty(FLUSH_DELAY_PROPERTY);
+        if (prop == null) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(prop.trim());
+        } catch (NumberFormatException e) {
+            ROOT_LOGGER.invalidSystemPropertyValue(prop, FLUSH_DELAY_PROPERTY, 0);
+            return 0;
+        }
     }
 
     public void registerAdditionalRootElement(final QName anotherRoot, final XMLElementReader<List<ModelNode>> parser){
@@ -77,11 +116,33 @@ public class BackupXmlConfigurationPersister extends XmlConfigurationPersister {
                 }
             };
         }
+        if (deferredWriter != null) {
+            // the model is marshalled when it is written, unless a later change replaced it before
+            return new PersistenceResource() {
+                public void commit() {
+                    deferredWriter.store(model);
+                }
+
+                public void rollback() {
+                }
+            };
+        }
         return new ConfigurationFilePersistenceResource(model, configurationFile, this);
     }
 
+    /**
+     * Writes any committed change not written to the configuration file yet. Does nothing unless the file is written
+     * asynchronously.
+     */
+    public void flush() {
+        if (deferredWriter != null) {
+            deferredWriter.flush();
+        }
+    }
+
     @Override
     public String snapshot() throws ConfigurationPersistenceException {
+        flush();
         return configurationFile.snapshot();
     }
 
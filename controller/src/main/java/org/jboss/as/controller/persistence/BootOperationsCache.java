@@ -0,0 +1,264 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.persistence;
+
+import static org.jboss.as.controller.ControllerLogger.ROOT_LOGGER;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.EXTENSION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.dmr.ModelNode;
+import org.jboss.modules.ModuleIdentifier;
+
+/**
+ * An on-disk cache of the boot operations parsed from a configuration file.
+ * <p/>
+ * The operations are stored in the DMR binary format together with the SHA-1 of the configuration file and a
+ * fingerprint of the modules whose parsers created them: the core modules given when the cache is created and the
+ * modules of the extensions added by the operations. A fingerprint lists the name, size and modification time of the
+ * files of the module directory in the module path. The cached operations are only used if the file and all the
+ * modules are unchanged, so an extension upgrade or an edit of the configuration file means the file is parsed again.
+ * Nothing is cached if a module cannot be found in the module path.
+ */
+public final class BootOperationsCache {
+
+    /**
+     * The system property that can be used to disable the cache, by setting it to {@code false}.
+     */
+    public static final String ENABLED_PROPERTY = "jboss.boot.operations.cache";
+
+    private static final int FORMAT_VERSION = 1;
+
+    private final File file;
+    private final String[] coreModules;
+    private final File[] modulePath;
+
+    /**
+     * Construct a new instance.
+     *
+     * @param file the file storing the cached operations
+     * @param coreModules the names of the modules providing the parsers of the configuration file, other than the
+     *                    extension modules
+     */
+    public BootOperationsCache(final File file, final String... coreModules) {
+        this.file = file;
+        this.coreModules = coreModules;
+        this.modulePath = getModulePath();
+    }
+
+    /**
+     * Gets whether the boot operations should be cached, according to the {@link #ENABLED_PROPERTY} system property.
+     *
+     * @return {@code true} unless the cache was disabled
+     */
+    public static boolean isEnabled() {
+        return !"false".equalsIgnoreCase(SecurityActions.getSystemProperty(ENABLED_PROPERTY));
+    }
+
+    /**
+     * Reads the cached operations.
+     *
+     * @param content the content of the configuration file
+     * @return the operations, or {@code null} if they are not cached for this content or the modules changed
+     */
+    public List<ModelNode> load(final byte[] content) {
+        if (modulePath == null || !file.exists()) {
+            return null;
+        }
+        final long start = System.currentTimeMillis();
+        DataInputStream input = null;
+        try {
+            input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            if (input.readInt() != FORMAT_VERSION) {
+                return null;
+            }
+            final byte[] hash = new byte[input.readInt()];
+            input.readFully(hash);
+            if (!Arrays.equals(hash, hash(content))) {
+                return null;
+            }
+            for (int i = input.readInt(); i > 0; i--) {
+                final String module = input.readUTF();
+                if (!input.readUTF().equals(getFingerprint(module))) {
+                    ROOT_LOGGER.debugf("Module %s changed, the boot operations cached in %s are not used", module, file);
+                    return null;
+                }
+            }
+            final long parsingTime = input.readLong();
+            final int size = input.readInt();
+            final List<ModelNode> operations = new ArrayList<ModelNode>(size);
+            for (int i = 0; i < size; i++) {
+                final ModelNode operation = new ModelNode();
+                operation.readExternal(input);
+                operations.add(operation);
+            }
+            ROOT_LOGGER.debugf("Loaded %d boot operations from %s in %d ms, parsing the configuration took %d ms",
+                    size, file, System.currentTimeMillis() - start, parsingTime);
+            return operations;
+        } catch (Exception e) {
+            // probably a partially written file, it is replaced once the configuration is parsed again
+            ROOT_LOGGER.debugf(e, "Could not read the boot operations cached in %s", file);
+            return null;
+        } finally {
+            safeClose(input);
+        }
+    }
+
+    /**
+     * Stores the operations parsed from a configuration file.
+     *
+     * @param content the content of the configuration file
+     * @param operations the operations
+     * @param parsingTime the time it took to parse the configuration file, in milliseconds
+     */
+    public void store(final byte[] content, final List<ModelNode> operations, final long parsingTime) {
+        if (modulePath == null) {
+            return;
+        }
+        final Map<String, String> fingerprints = new LinkedHashMap<String, String>();
+        final List<String> modules = new ArrayList<String>(Arrays.asList(coreModules));
+        for (final ModelNode operation : operations) {
+            if (ADD.equals(operation.get(OP).asString())) {
+                final PathAddress address = PathAddress.pathAddress(operation.get(OP_ADDR));
+                if (address.size() == 1 && EXTENSION.equals(address.getElement(0).getKey())) {
+                    modules.add(address.getElement(0).getValue());
+                }
+            }
+        }
+        for (final String module : modules) {
+            final String fingerprint = getFingerprint(module);
+            if (fingerprint == null) {
+                ROOT_LOGGER.debugf("Module %s was not found in the module path, the boot operations are not cached", module);
+                return;
+            }
+            fingerprints.put(module, fingerprint);
+        }
+
+        final File directory = file.getParentFile();
+        final File temp = new File(directory, file.getName() + ".tmp");
+        DataOutputStream output = null;
+        try {
+            if (!directory.isDirectory() && !directory.mkdirs() && !directory.isDirectory()) {
+                throw new IOException(directory.getPath());
+            }
+            output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+            output.writeInt(FORMAT_VERSION);
+            final byte[] hash = hash(content);
+            output.writeInt(hash.length);
+            output.write(hash);
+            output.writeInt(fingerprints.size());
+            for (final Map.Entry<String, String> entry : fingerprints.entrySet()) {
+                output.writeUTF(entry.getKey());
+                output.writeUTF(entry.getValue());
+            }
+            output.writeLong(parsingTime);
+            output.writeInt(operations.size());
+            for (final ModelNode operation : operations) {
+                operation.writeExternal(output);
+            }
+            output.close();
+            output = null;
+            if (!temp.renameTo(file)) {
+                // Windows does not replace an existing file
+                file.delete();
+                if (!temp.renameTo(file)) {
+                    throw new IOException(temp.getPath());
+                }
+            }
+        } catch (IOException e) {
+            ROOT_LOGGER.cannotWriteBootOperationsCache(e, file);
+            temp.delete();
+        } finally {
+            safeClose(output);
+        }
+    }
+
+    private String getFingerprint(final String moduleName) {
+        final ModuleIdentifier identifier = ModuleIdentifier.fromString(moduleName);
+        final String relativePath = identifier.getName().replace('.', File.separatorChar) + File.separatorChar + identifier.getSlot();
+        for (final File root : modulePath) {
+            final File moduleDirectory = new File(root, relativePath);
+            final String[] names = moduleDirectory.list();
+            if (names == null || !new File(moduleDirectory, "module.xml").isFile()) {
+                continue;
+            }
+            Arrays.sort(names);
+            final StringBuilder fingerprint = new StringBuilder();
+            for (final String name : names) {
+                final File moduleFile = new File(moduleDirectory, name);
+                if (moduleFile.isFile()) {
+                    fingerprint.append(name).append(':').append(moduleFile.length()).append(':').append(moduleFile.lastModified()).append(';');
+                }
+            }
+            return fingerprint.toString();
+        }
+        return null;
+    }
+
+    private static File[] getModulePath() {
+        final String modulePath = SecurityActions.getSystemProperty("module.path");
+        if (modulePath == null) {
+            return null;
+        }
+        final String[] roots = modulePath.split(File.pathSeparator);
+        final File[] files = new File[roots.length];
+        for (int i = 0; i < roots.length; i++) {
+            files[i] = new File(roots[i]);
+        }
+        return files;
+    }
+
+    private static byte[] hash(final byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-1").digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void safeClose(final Closeable closeable) {
+        if (closeable != null) try {
+            closeable.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.persistence;
+
+import static org.jboss.as.controller.ControllerLogger.MGMT_OP_LOGGER;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Writes a configuration file from a background thread, at most once per flush delay. The models committed in
+ * between are coalesced, so only the latest one is marshalled and written.
+ *
+ * @see BackupXmlConfigurationPersister#FLUSH_DELAY_PROPERTY
+ */
+final class DeferredConfigurationFileWriter {
+
+    private final ConfigurationFile configurationFile;
+    private final AbstractConfigurationPersister persister;
+    private final int flushDelay;
+    /** A single thread, which goes away when there is nothing to write */
+    private final Executor executor;
+    /** Serializes the writes to the file */
+    private final Object writeLock = new Object();
+
+    /** The latest model not written yet. Guarded by this */
+    private ModelNode pending;
+    /** Whether a flush task is waiting to run. Guarded by this */
+    private boolean scheduled;
+
+    private final Runnable flushTask = new Runnable() {
+        @Override
+        public void run() {
+            try {
+                Thread.sleep(flushDelay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            synchronized (DeferredConfigurationFileWriter.this) {
+                scheduled = false;
+            }
+            flush();
+        }
+    };
+
+    DeferredConfigurationFileWriter(final ConfigurationFile configurationFile, final AbstractConfigurationPersister persister, final int flushDelay) {
+        this.configurationFile = configurationFile;
+        this.persister = persister;
+        this.flushDelay = flushDelay;
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable r) {
+                final Thread thread = new Thread(r, "Configuration writer for " + configurationFile.getMainFile().getName());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        executor.allowCoreThreadTimeOut(true);
+        this.executor = executor;
+    }
+
+    /**
+     * Schedules writing a model, replacing any model not written yet.
+     *
+     * @param model the model
+     */
+    synchronized void store(final ModelNode model) {
+        pending = model;
+        if (!scheduled) {
+            scheduled = true;
+            executor.execute(flushTask);
+        }
+    }
+
+    /**
+     * Writes the latest model, if it was not written yet, from the calling thread.
+     */
+    void flush() {
+        synchronized (writeLock) {
+            final ModelNode model;
+            synchronized (this) {
+                model = pending;
+                pending = null;
+            }
+            if (model == null) {
+                return;
+            }
+            try {
+                new ConfigurationFilePersistenceResource(model, configurationFile, persister).commit();
+            } catch (ConfigurationPersistenceException e) {
+                MGMT_OP_LOGGER.failedToStoreConfiguration(e, configurationFile.getMainFile().getName());
+            }
+        }
+    }
+}
@@ -27,10 +27,14 @@ import static org.jboss.as.controller.ControllerMessages.MESSAGES;
 
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -39,6 +43,7 @@ import java.util.Set;
 
 import javax.xml.namespace.QName;
 import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
 
 import org.jboss.as.controller.PathAddress;
@@ -58,6 +63,7 @@ public class XmlConfigurationPersister extends AbstractConfigurationPersister {
     private final QName rootElement;
     private final XMLElementReader<List<ModelNode>> rootParser;
     private final Map<QName, XMLElementReader<List<ModelNode>>> additionalParsers;
+    private volatile BootOperationsCache bootOperationsCache;
 
     /**
      * Construct a new instance.
@@ -114,9 +120,52 @@ public class XmlConfigurationPersister extends AbstractConfigurationPersister {
         }
     }
 
+    /**
+     * Sets the cache of the operations parsed from the configuration file.
+     *
+     * @param bootOperationsCache the cache, or {@code null} to always parse the configuration file
+     */
+    public void setBootOperationsCache(final BootOperationsCache bootOperationsCache) {
+        this.bootOperationsCache = bootOperationsCache;
+    }
+
     /** {@inheritDoc} */
     @Override
     public List<ModelNode> load() throws ConfigurationPersistenceException {
+        final BootOperationsCache cache = bootOperationsCache;
+        if (cache == null) {
+            try {
+                final FileInputStream fis = new FileInputStream(fileName);
+                try {
+                    final List<ModelNode> updates = parse(new BufferedInputStream(fis));
+                    fis.close();
+                    return updates;
+                } finally {
+                    safeClose(fis);
+                }
+            } catch (Exception e) {
+                throw MESSAGES.failedToParseConfiguration(e);
+            }
+        }
+
+        final long start = System.currentTimeMillis();
+        try {
+            final byte[] content = readContent(fileName);
+            final List<ModelNode> cached = cache.load(content);
+            if (cached != null) {
+                return cached;
+            }
+            final List<ModelNode> updates = parse(new ByteArrayInputStream(content));
+            final long elapsed = System.currentTimeMillis() - start;
+            ROOT_LOGGER.debugf("Parsed %d boot operations from %s in %d ms", updates.size(), fileName, elapsed);
+            cache.store(content, updates, elapsed);
+            return updates;
+        } catch (Exception e) {
+            throw MESSAGES.failedToParseConfiguration(e);
+        }
+    }
+
+    private List<ModelNode> parse(final InputStream input) throws XMLStreamException, IOException {
         final XMLMapper mapper = XMLMapper.Factory.create();
         mapper.registerRootElement(rootElement, rootParser);
         synchronized (additionalParsers) {
@@ -125,22 +174,27 @@ public class XmlConfigurationPersister extends AbstractConfigurationPersister {
             }
         }
         final List<ModelNode> updates = new ArrayList<ModelNode>();
+        XMLStreamReader streamReader = XMLInputFactory.newInstance().createXMLStreamReader(input);
+        mapper.parseDocument(updates, streamReader);
+        streamReader.close();
+        input.close();
+        return updates;
+    }
+
+    private static byte[] readContent(final File file) throws IOException {
+        final FileInputStream fis = new FileInputStream(file);
         try {
-            final FileInputStream fis = new FileInputStream(fileName);
-            try {
-                BufferedInputStream input = new BufferedInputStream(fis);
-                XMLStreamReader streamReader = XMLInputFactory.newInstance().createXMLStreamReader(input);
-                mapper.parseDocument(updates, streamReader);
-                streamReader.close();
-                input.close();
-                fis.close();
-            } finally {
-                safeClose(fis);
+            final ByteArrayOutputStream content = new ByteArrayOutputStream((int) file.length());
+            final byte[] buffer = new byte[8192];
+            int read;
+            while ((read = fis.read(buffer)) != -1) {
+                content.write(buffer, 0, read);
             }
-        } catch (Exception e) {
-            throw MESSAGES.failedToParseConfiguration(e);
+            fis.close();
+            return content.toByteArray();
+        } finally {
+            safeClose(fis);
         }
-        return updates;
     }
 
     private static void safeClose(final Closeable closeable) {
@@ -234,6 +234,23 @@ public abstract class AbstractModelResource implements Resource {
                 return children.remove(name);
             }
         }
+
+        /**
+         * Replaces a registered child, keeping its position in the iteration order.
+         *
+         * @param name the name of the child
+         * @param resource the new child
+         * @return {@code false} if there is no child with the given name
+         */
+        boolean replace(String name, Resource resource) {
+            synchronized (children) {
+                if (!children.containsKey(name)) {
+                    return false;
+                }
+                children.put(name, resource);
+                return true;
+            }
+        }
     }
 
     abstract static class DelegateResource implements ResourceEntry {
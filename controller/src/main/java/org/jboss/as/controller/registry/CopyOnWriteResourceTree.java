@@ -0,0 +1,191 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.registry;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import org.jboss.as.controller.PathElement;
+
+/**
+ * A private copy of a {@link Resource} tree, which shares every resource it was not asked to modify with the
+ * original tree.
+ * <p/>
+ * The root and every resource navigated to through {@link #getChildForUpdate(Resource, PathElement)} are copied
+ * together with their own model, but not with their children, so modifying a single resource in a large model only
+ * copies the resources on the path from the root to it. Resources handed out through
+ * {@link #getChildSubtreeForUpdate(Resource, PathElement)} are copied with all their descendants, as callers may
+ * modify anything below them. Resources other than the standard {@link Resource.Factory#create() implementation} are
+ * always copied with their descendants, using {@link Resource#clone()}.
+ * <p/>
+ * Copies are only made once per tree, so a resource obtained from this tree keeps being the one in the tree for as
+ * long as it is not removed.
+ * <p/>
+ * Concurrency note: this class is thread safe, as the subsystems may update the model from several threads during
+ * boot. As with {@link Resource#clone()}, the original tree is only read.
+ */
+public final class CopyOnWriteResourceTree {
+
+    /** The resources owning their model, but possibly sharing their children with the original tree */
+    private final Set<Resource> copies = Collections.newSetFromMap(new IdentityHashMap<Resource, Boolean>());
+    /** The resources owning their model and all their descendants */
+    private final Set<Resource> subtrees = Collections.newSetFromMap(new IdentityHashMap<Resource, Boolean>());
+    private final Resource root;
+
+    public CopyOnWriteResourceTree(final Resource original) {
+        this.root = copy(original);
+    }
+
+    /**
+     * Gets the root of the copy. Its model may be modified, its children may not.
+     *
+     * @return the root
+     */
+    public Resource getRoot() {
+        return root;
+    }
+
+    /**
+     * Gets the root of the copy after copying all the resources still shared with the original tree.
+     *
+     * @return the root, which may be modified together with all its descendants
+     */
+    public synchronized Resource getRootSubtreeForUpdate() {
+        makeSubtree(root);
+        return root;
+    }
+
+    /**
+     * Gets a child whose model may be modified.
+     *
+     * @param parent a resource obtained from this tree
+     * @param element the address of the child
+     * @return the child, or {@code null} if {@code parent} has no such child
+     */
+    public synchronized Resource getChildForUpdate(final Resource parent, final PathElement element) {
+        assert copies.contains(parent) : "not part of this tree";
+        final Resource child = parent.getChild(element);
+        if (child == null || copies.contains(child)) {
+            return child;
+        }
+        if (subtrees.contains(parent)) {
+            // already part of a private copy
+            copies.add(child);
+            subtrees.add(child);
+            return child;
+        }
+        final Resource copy = copy(child);
+        replaceChild(parent, element, copy);
+        return copy;
+    }
+
+    /**
+     * Gets a child which may be modified together with all its descendants.
+     *
+     * @param parent a resource obtained from this tree
+     * @param element the address of the child
+     * @return the child, or {@code null} if {@code parent} has no such child
+     */
+    public synchronized Resource getChildSubtreeForUpdate(final Resource parent, final PathElement element) {
+        final Resource child = getChildForUpdate(parent, element);
+        if (child != null) {
+            makeSubtree(child);
+        }
+        return child;
+    }
+
+    /**
+     * Registers a new child, which is considered private to this tree together with all its descendants.
+     *
+     * @param parent a resource obtained from this tree
+     * @param element the address of the child
+     * @param child the child
+     */
+    public synchronized void registerChild(final Resource parent, final PathElement element, final Resource child) {
+        parent.registerChild(element, child);
+        copies.add(child);
+        subtrees.add(child);
+    }
+
+    /**
+     * Removes a child.
+     *
+     * @param parent a resource obtained from this tree
+     * @param element the address of the child
+     * @return the removed child, which is no longer shared with the original tree, or {@code null} if {@code parent}
+     *         has no such child
+     */
+    public synchronized Resource removeChild(final Resource parent, final PathElement element) {
+        final Resource removed = parent.removeChild(element);
+        if (removed == null || subtrees.contains(removed)) {
+            return removed;
+        }
+        if (!copies.contains(removed)) {
+            return removed.clone();
+        }
+        makeSubtree(removed);
+        return removed;
+    }
+
+    private Resource copy(final Resource resource) {
+        final Resource copy;
+        if (resource instanceof BasicResource) {
+            copy = ((BasicResource) resource).shallowCopy();
+        } else {
+            copy = resource.clone();
+            subtrees.add(copy);
+        }
+        copies.add(copy);
+        return copy;
+    }
+
+    private void makeSubtree(final Resource resource) {
+        if (subtrees.contains(resource)) {
+            return;
+        }
+        for (final String childType : resource.getChildTypes()) {
+            for (final String name : resource.getChildrenNames(childType)) {
+                final PathElement element = PathElement.pathElement(childType, name);
+                final Resource child = resource.getChild(element);
+                if (child == null) {
+                    continue;
+                }
+                if (copies.contains(child)) {
+                    makeSubtree(child);
+                } else {
+                    final Resource copy = child.clone();
+                    copies.add(copy);
+                    subtrees.add(copy);
+                    replaceChild(resource, element, copy);
+                }
+            }
+        }
+        subtrees.add(resource);
+    }
+
+    private static void replaceChild(final Resource parent, final PathElement element, final Resource child) {
+        // only shallow copies still share their children, and those are always BasicResources
+        ((BasicResource) parent).replaceChild(element, child);
+    }
+}
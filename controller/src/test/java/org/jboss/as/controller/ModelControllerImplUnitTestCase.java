@@ -203,6 +203,21 @@ public class ModelControllerImplUnitTestCase {
         testGoodModelExecution();
     }
 
+    @Test
+    public void testReadLockStatistics() throws Exception {
+        ModelNode result = controller.execute(getOperation("good", "attr1", 5), null, null, null);
+        assertEquals(SUCCESS, result.get(OUTCOME).asString());
+
+        result = controller.execute(Util.getEmptyOperation(ReadLockStatisticsHandler.OPERATION_NAME, new ModelNode()), null, null, null);
+        assertEquals(SUCCESS, result.get(OUTCOME).asString());
+        final ModelNode statistics = result.get(RESULT);
+        assertEquals(1, statistics.get("good", ReadLockStatisticsHandler.ACQUISITION_COUNT).asLong());
+        assertTrue(statistics.get("good").hasDefined(ReadLockStatisticsHandler.MAX_WAIT_TIME));
+        assertTrue(statistics.get("good").hasDefined(ReadLockStatisticsHandler.TOTAL_WAIT_TIME));
+        // the read itself does not take the lock
+        assertFalse(statistics.has(ReadLockStatisticsHandler.OPERATION_NAME));
+    }
+
     /**
      * Test successfully updating the model but then having the caller roll back the transaction.
      */
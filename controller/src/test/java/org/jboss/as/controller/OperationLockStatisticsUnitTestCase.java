@@ -0,0 +1,57 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link OperationLockStatistics}.
+ */
+public class OperationLockStatisticsUnitTestCase {
+
+    @Test
+    public void testRecord() {
+        final OperationLockStatistics statistics = new OperationLockStatistics();
+        statistics.record("add", TimeUnit.MILLISECONDS.toNanos(5));
+        statistics.record("add", TimeUnit.MILLISECONDS.toNanos(20));
+        statistics.record("remove", TimeUnit.MILLISECONDS.toNanos(1));
+
+        assertEquals(2, statistics.getAcquisitionCount("add"));
+        assertEquals(25, statistics.getTotalWaitTime("add"));
+        assertEquals(20, statistics.getMaxWaitTime("add"));
+        assertEquals(1, statistics.getAcquisitionCount("remove"));
+        assertEquals(1, statistics.getMaxWaitTime("remove"));
+    }
+
+    @Test
+    public void testUnknownOperation() {
+        final OperationLockStatistics statistics = new OperationLockStatistics();
+        assertEquals(0, statistics.getAcquisitionCount("read-resource"));
+        assertEquals(0, statistics.getTotalWaitTime("read-resource"));
+        assertEquals(0, statistics.getMaxWaitTime("read-resource"));
+    }
+}
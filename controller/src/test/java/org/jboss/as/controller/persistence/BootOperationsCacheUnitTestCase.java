@@ -0,0 +1,131 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.persistence;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link BootOperationsCache}.
+ */
+public class BootOperationsCacheUnitTestCase {
+
+    private static final byte[] CONTENT = "<server/>".getBytes();
+
+    private File directory;
+    private File cacheFile;
+    private String modulePath;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = new File("target/boot-operations-cache").getAbsoluteFile();
+        deleteDirectory(directory);
+        cacheFile = new File(directory, "cache/standalone.xml.dmr");
+        writeFile(new File(directory, "modules/org/jboss/as/core/main/module.xml"), "core");
+        writeFile(new File(directory, "modules/org/jboss/as/foo/main/module.xml"), "foo");
+        modulePath = System.getProperty("module.path");
+        System.setProperty("module.path", new File(directory, "modules").getPath());
+    }
+
+    @After
+    public void cleanUp() {
+        if (modulePath == null) {
+            System.clearProperty("module.path");
+        } else {
+            System.setProperty("module.path", modulePath);
+        }
+        deleteDirectory(directory);
+    }
+
+    @Test
+    public void testStoreAndLoad() {
+        final BootOperationsCache cache = new BootOperationsCache(cacheFile, "org.jboss.as.core");
+        Assert.assertNull(cache.load(CONTENT));
+
+        final List<ModelNode> operations = createOperations();
+        cache.store(CONTENT, operations, 0);
+
+        Assert.assertEquals(operations, new BootOperationsCache(cacheFile, "org.jboss.as.core").load(CONTENT));
+        Assert.assertNull(cache.load("<server></server>".getBytes()));
+    }
+
+    @Test
+    public void testChangedModule() throws IOException {
+        final BootOperationsCache cache = new BootOperationsCache(cacheFile, "org.jboss.as.core");
+        cache.store(CONTENT, createOperations(), 0);
+        Assert.assertNotNull(cache.load(CONTENT));
+
+        writeFile(new File(directory, "modules/org/jboss/as/foo/main/foo.jar"), "foo");
+        Assert.assertNull(cache.load(CONTENT));
+    }
+
+    @Test
+    public void testMissingModule() {
+        final BootOperationsCache cache = new BootOperationsCache(cacheFile, "org.jboss.as.missing");
+        cache.store(CONTENT, createOperations(), 0);
+        Assert.assertFalse(cacheFile.exists());
+    }
+
+    private static List<ModelNode> createOperations() {
+        final List<ModelNode> operations = new ArrayList<ModelNode>();
+        final ModelNode extension = new ModelNode();
+        extension.get("operation").set("add");
+        extension.get("address").add("extension", "org.jboss.as.foo");
+        operations.add(extension);
+        final ModelNode property = new ModelNode();
+        property.get("operation").set("add");
+        property.get("address").add("system-property", "foo");
+        property.get("value").setExpression("${bar:baz}");
+        operations.add(property);
+        return operations;
+    }
+
+    private static void writeFile(final File file, final String content) throws IOException {
+        file.getParentFile().mkdirs();
+        final FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(content.getBytes());
+        } finally {
+            out.close();
+        }
+    }
+
+    private static void deleteDirectory(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteDirectory(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -563,6 +563,43 @@ public class PersistanceResourceTestCase {
         checkFiles(null, "std", "boot", "Four", "Four");
     }
 
+    @Test
+    public void testDeferredConfigurationFile() throws Exception {
+        assertFileContents(standardFile, "std");
+        ConfigurationFile configurationFile = new ConfigurationFile(standardDir, "standard.xml", null, true);
+        TestDeferredConfigurationFilePersister persister = new TestDeferredConfigurationFilePersister(configurationFile, 60000);
+
+        configurationFile.successfulBoot();
+        checkFiles(null, "std", "std", "std", "std");
+
+        // Nothing is written until the delay elapsed or the persister is flushed
+        store(persister, "One");
+        store(persister, "Two");
+        store(persister, "Three");
+        assertFileContents(standardFile, "std");
+
+        // The changes are coalesced, only the last one is written
+        persister.writer.flush();
+        checkFiles(null, "Three", "std", "std", "Three", "std");
+
+        persister.writer.flush();
+        checkFiles(null, "Three", "std", "std", "Three", "std");
+    }
+
+    @Test
+    public void testDeferredConfigurationFileFlushDelay() throws Exception {
+        ConfigurationFile configurationFile = new ConfigurationFile(standardDir, "standard.xml", null, true);
+        TestDeferredConfigurationFilePersister persister = new TestDeferredConfigurationFilePersister(configurationFile, 10);
+        configurationFile.successfulBoot();
+
+        store(persister, "One");
+        long end = System.currentTimeMillis() + 10000;
+        while (System.currentTimeMillis() < end && !readFile(standardFile).equals("One")) {
+            Thread.sleep(10);
+        }
+        assertFileContents(standardFile, "One");
+    }
+
     @Test(expected=IllegalStateException.class)
     public void testNonPersistentBadRawName() {
         new ConfigurationFile(standardDir, "standard.xml", "crap.xml", false);
@@ -728,6 +765,10 @@ public class PersistanceResourceTestCase {
 
     private void assertFileContents(File file, String expectedContents) throws Exception {
         Assert.assertTrue(file + " does not exist", file.exists());
+        Assert.assertEquals(expectedContents, readFile(file));
+    }
+
+    private String readFile(File file) throws Exception {
         StringBuilder sb = new StringBuilder();
         BufferedReader in = new BufferedReader(new FileReader(file));
         try {
@@ -739,7 +780,7 @@ public class PersistanceResourceTestCase {
         } finally {
             in.close();
         }
-        Assert.assertEquals(expectedContents, sb.toString());
+        return sb.toString();
     }
 
     private void checkVersionedHistory(String name, String...versions) throws Exception {
@@ -780,4 +821,24 @@ public class PersistanceResourceTestCase {
             return new ConfigurationFilePersistenceResource(model, configurationFile, this);
         }
     }
+
+    private class TestDeferredConfigurationFilePersister extends TestConfigurationPersister {
+        private final DeferredConfigurationFileWriter writer;
+
+        public TestDeferredConfigurationFilePersister(ConfigurationFile configurationFile, int flushDelay) {
+            this.writer = new DeferredConfigurationFileWriter(configurationFile, this, flushDelay);
+        }
+
+        @Override
+        PersistenceResource create(final ModelNode model) throws ConfigurationPersistenceException {
+            return new PersistenceResource() {
+                public void commit() {
+                    writer.store(model);
+                }
+
+                public void rollback() {
+                }
+            };
+        }
+    }
 }
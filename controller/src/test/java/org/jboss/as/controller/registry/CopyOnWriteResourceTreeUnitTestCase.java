@@ -0,0 +1,149 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.registry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jboss.as.controller.PathElement;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link CopyOnWriteResourceTree}.
+ */
+public class CopyOnWriteResourceTreeUnitTestCase {
+
+    private static final int CHILDREN = 100;
+
+    private Resource original;
+
+    @Before
+    public void setup() {
+        original = Resource.Factory.create();
+        original.getModel().get("root").set("original");
+        for (int i = 0; i < CHILDREN; i++) {
+            final Resource child = Resource.Factory.create();
+            child.getModel().get("index").set(i);
+            final Resource grandchild = Resource.Factory.create();
+            grandchild.getModel().get("value").set("original");
+            child.registerChild(grandchild(), grandchild);
+            original.registerChild(child(i), child);
+        }
+    }
+
+    @Test
+    public void testOnlyPathIsCopied() {
+        final CopyOnWriteResourceTree tree = new CopyOnWriteResourceTree(original);
+        final Resource root = tree.getRoot();
+        assertNotSame(original, root);
+
+        final Resource child = tree.getChildForUpdate(root, child(5));
+        assertNotSame(original.getChild(child(5)), child);
+        assertSame(child, root.getChild(child(5)));
+        child.getModel().get("index").set(-1);
+        assertEquals(5, original.getChild(child(5)).getModel().get("index").asInt());
+
+        // the siblings and children of the updated resource are shared
+        for (int i = 0; i < CHILDREN; i++) {
+            if (i != 5) {
+                assertSame(original.getChild(child(i)), root.getChild(child(i)));
+            }
+        }
+        assertSame(original.getChild(child(5)).getChild(grandchild()), child.getChild(grandchild()));
+
+        // a resource is only copied once
+        assertSame(child, tree.getChildForUpdate(root, child(5)));
+        assertEquals(childNames(original), childNames(root));
+    }
+
+    @Test
+    public void testSubtreeForUpdate() {
+        final CopyOnWriteResourceTree tree = new CopyOnWriteResourceTree(original);
+        final Resource root = tree.getRoot();
+        final Resource child = tree.getChildForUpdate(root, child(7));
+
+        assertSame(child, tree.getChildSubtreeForUpdate(root, child(7)));
+        final Resource grandchild = child.getChild(grandchild());
+        assertNotSame(original.getChild(child(7)).getChild(grandchild()), grandchild);
+        grandchild.getModel().get("value").set("updated");
+        assertEquals("original", original.getChild(child(7)).getChild(grandchild()).getModel().get("value").asString());
+
+        // resources below a private subtree are not copied again
+        assertSame(grandchild, tree.getChildForUpdate(child, grandchild()));
+        assertSame(original.getChild(child(8)), root.getChild(child(8)));
+    }
+
+    @Test
+    public void testRootSubtreeForUpdate() {
+        final CopyOnWriteResourceTree tree = new CopyOnWriteResourceTree(original);
+        final Resource child = tree.getChildForUpdate(tree.getRoot(), child(3));
+        final Resource root = tree.getRootSubtreeForUpdate();
+        assertSame(tree.getRoot(), root);
+        assertSame(child, root.getChild(child(3)));
+        for (int i = 0; i < CHILDREN; i++) {
+            assertNotSame(original.getChild(child(i)), root.getChild(child(i)));
+            assertNotSame(original.getChild(child(i)).getChild(grandchild()), root.getChild(child(i)).getChild(grandchild()));
+        }
+        assertEquals(childNames(original), childNames(root));
+    }
+
+    @Test
+    public void testRegisterAndRemove() {
+        final CopyOnWriteResourceTree tree = new CopyOnWriteResourceTree(original);
+        final Resource root = tree.getRoot();
+
+        final Resource added = Resource.Factory.create();
+        tree.registerChild(root, PathElement.pathElement("child", "new"), added);
+        assertSame(added, tree.getChildForUpdate(root, PathElement.pathElement("child", "new")));
+        assertFalse(original.hasChild(PathElement.pathElement("child", "new")));
+
+        final Resource removed = tree.removeChild(root, child(1));
+        assertNotSame(original.getChild(child(1)), removed);
+        assertEquals(1, removed.getModel().get("index").asInt());
+        assertFalse(root.hasChild(child(1)));
+        assertTrue(original.hasChild(child(1)));
+
+        assertNull(tree.getChildForUpdate(root, child(1)));
+        assertNull(tree.removeChild(root, child(1)));
+    }
+
+    private static PathElement child(final int i) {
+        return PathElement.pathElement("child", String.valueOf(i));
+    }
+
+    private static PathElement grandchild() {
+        return PathElement.pathElement("grandchild", "x");
+    }
+
+    private static List<String> childNames(final Resource resource) {
+        return new ArrayList<String>(resource.getChildrenNames("child"));
+    }
+}
@@ -22,14 +22,16 @@
 
 package org.jboss.as.repository;
 
-import java.io.BufferedInputStream;
 import java.io.Closeable;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.security.DigestOutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.security.DigestInputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 
@@ -117,8 +119,11 @@ public interface ContentRepository {
         private static class ContentRepositoryImpl implements ContentRepository, Service<ContentRepository> {
 
             protected static final String CONTENT = "content";
+            /**
+             * The number of bytes handed to {@link FileChannel#transferFrom} at a time
+             */
+            private static final long TRANSFER_CHUNK = 1024 * 1024;
             private final File repoRoot;
-            protected final MessageDigest messageDigest;
 
             protected ContentRepositoryImpl(final File repoRoot) {
                 if (repoRoot == null)
@@ -136,8 +141,16 @@ public interface ContentRepository {
                 }
                 this.repoRoot = repoRoot;
 
+                // fail fast if SHA-1 is not available
+                createMessageDigest();
+            }
+
+            /**
+             * Each upload gets its own digest, so that concurrent uploads do not serialize on a shared one.
+             */
+            private static MessageDigest createMessageDigest() {
                 try {
-                    this.messageDigest = MessageDigest.getInstance("SHA-1");
+                    return MessageDigest.getInstance("SHA-1");
                 } catch (NoSuchAlgorithmException e) {
                     throw DeploymentRepositoryMessages.MESSAGES.cannotObtainSha1(e, MessageDigest.class.getSimpleName());
                 }
@@ -145,42 +158,45 @@ public interface ContentRepository {
 
             @Override
             public byte[] addContent(InputStream stream) throws IOException {
-                byte[] sha1Bytes;
+                final MessageDigest messageDigest = createMessageDigest();
                 File tmp = File.createTempFile(CONTENT, "tmp", repoRoot);
                 FileOutputStream fos = new FileOutputStream(tmp);
-                synchronized (messageDigest) {
-                    messageDigest.reset();
-                    try {
-                        DigestOutputStream dos = new DigestOutputStream(fos, messageDigest);
-                        BufferedInputStream bis = new BufferedInputStream(stream);
-                        byte[] bytes = new byte[8192];
-                        int read;
-                        while ((read = bis.read(bytes)) > -1) {
-                            dos.write(bytes, 0, read);
+                try {
+                    final ReadableByteChannel in = Channels.newChannel(new DigestInputStream(stream, messageDigest));
+                    final FileChannel out = fos.getChannel();
+                    long position = 0;
+                    long transferred;
+                    while ((transferred = out.transferFrom(in, position, TRANSFER_CHUNK)) > 0) {
+                        position += transferred;
+                    }
+                    final byte[] sha1Bytes = messageDigest.digest();
+                    if (hasContent(sha1Bytes)) {
+                        // we've already got this content, no need to sync the copy
+                        fos.close();
+                        fos = null;
+                        if (!tmp.delete()) {
+                            tmp.deleteOnExit();
                         }
-                        fos.flush();
-                        fos.getFD().sync();
+                        DeploymentRepositoryLogger.ROOT_LOGGER.debugf("Content was already present in repository at location %s", getDeploymentContentFile(sha1Bytes).getAbsolutePath());
+                    } else {
+                        out.force(false);
                         fos.close();
                         fos = null;
+                        final File realFile = getDeploymentContentFile(sha1Bytes, true);
+                        moveTempToPermanent(tmp, realFile);
+                        DeploymentRepositoryLogger.ROOT_LOGGER.contentAdded(realFile.getAbsolutePath());
                     }
-                    finally {
-                        safeClose(fos);
-                    }
-                    sha1Bytes = messageDigest.digest();
-                }
-                final File realFile = getDeploymentContentFile(sha1Bytes, true);
-                if(hasContent(sha1Bytes)) {
-                    // we've already got this content
-                    if (!tmp.delete()) {
+                    return sha1Bytes;
+                } catch (IOException e) {
+                    safeClose(fos);
+                    fos = null;
+                    if (tmp.exists() && !tmp.delete()) {
                         tmp.deleteOnExit();
                     }
-                    DeploymentRepositoryLogger.ROOT_LOGGER.debugf("Content was already present in repository at location %s", realFile.getAbsolutePath());
-                } else {
-                    moveTempToPermanent(tmp, realFile);
-                    DeploymentRepositoryLogger.ROOT_LOGGER.contentAdded(realFile.getAbsolutePath());
+                    throw e;
+                } finally {
+                    safeClose(fos);
                 }
-
-                return sha1Bytes;
             }
 
             @Override
@@ -281,13 +297,14 @@ public interface ContentRepository {
                 try {
                     fos = new FileOutputStream(dest);
                     fis = new FileInputStream(src);
-                    byte[] bytes = new byte[8192];
-                    int read;
-                    while ((read = fis.read(bytes)) > -1) {
-                        fos.write(bytes, 0, read);
+                    final FileChannel in = fis.getChannel();
+                    final FileChannel out = fos.getChannel();
+                    final long size = in.size();
+                    long position = 0;
+                    while (position < size) {
+                        position += in.transferTo(position, size - position, out);
                     }
-                    fos.flush();
-                    fos.getFD().sync();
+                    out.force(false);
                     fos.close();
                     fos = null;
                 } finally {
@@ -34,6 +34,7 @@ interface CommonAttributes {
     String DEPLOYMENT_TIMEOUT = "deployment-timeout";
     String NAME = "name";
     String PATH = "path";
+    String RECONCILE_INTERVAL = "reconcile-interval";
     String RELATIVE_TO = "relative-to";
     String SCANNER = "scanner";
     String SCAN_ENABLED = "scan-enabled";
@@ -80,7 +80,13 @@ public class DeploymentScannerDefinition extends SimpleResourceDefinition {
                     .setAllowExpression(true)
                     .setDefaultValue(new ModelNode().set(600))
                     .build();
-    protected static final SimpleAttributeDefinition[] ALL_ATTRIBUTES = {PATH,RELATIVE_TO,SCAN_ENABLED,SCAN_INTERVAL,AUTO_DEPLOY_EXPLODED,AUTO_DEPLOY_XML,AUTO_DEPLOY_ZIPPED,DEPLOYMENT_TIMEOUT};
+    protected static final SimpleAttributeDefinition RECONCILE_INTERVAL =
+            new SimpleAttributeDefinitionBuilder(CommonAttributes.RECONCILE_INTERVAL, ModelType.INT, true)
+                    .setXmlName(Attribute.RECONCILE_INTERVAL.getLocalName())
+                    .setAllowExpression(true)
+                    .setDefaultValue(new ModelNode().set(0))
+                    .build();
+    protected static final SimpleAttributeDefinition[] ALL_ATTRIBUTES = {PATH,RELATIVE_TO,SCAN_ENABLED,SCAN_INTERVAL,AUTO_DEPLOY_EXPLODED,AUTO_DEPLOY_XML,AUTO_DEPLOY_ZIPPED,DEPLOYMENT_TIMEOUT,RECONCILE_INTERVAL};
 
     @Override
     public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
@@ -93,5 +99,6 @@ public class DeploymentScannerDefinition extends SimpleResourceDefinition {
         resourceRegistration.registerReadWriteAttribute(AUTO_DEPLOY_EXPLODED, null, WriteAutoDeployExplodedAttributeHandler.INSTANCE);
         resourceRegistration.registerReadWriteAttribute(AUTO_DEPLOY_XML, null, WriteAutoDeployXMLAttributeHandler.INSTANCE);
         resourceRegistration.registerReadWriteAttribute(DEPLOYMENT_TIMEOUT, null, WriteDeploymentTimeoutAttributeHandler.INSTANCE);
+        resourceRegistration.registerReadWriteAttribute(RECONCILE_INTERVAL, null, WriteReconcileIntervalAttributeHandler.INSTANCE);
     }
 }
@@ -0,0 +1,159 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.scanner;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Remembers directory listings between deployment scans, so that a directory is only listed again once its own
+ * modification time changes.
+ * <p/>
+ * Creating, deleting or renaming an entry updates the modification time of the directory holding it, so the
+ * snapshots pick up those changes on the next scan. Overwriting a file in place does not; that is only noticed on the
+ * next reconcile, which {@link #clear() clears} the cache. As most file systems only record modification times to a
+ * granularity of a second or more, a listing is only trusted once it was taken well after the last modification of
+ * its directory; until then the directory is listed again on every scan.
+ * <p/>
+ * Not thread safe; callers hold the scan lock.
+ *
+ * @see FileSystemDeploymentService
+ */
+class DirectorySnapshotCache {
+
+    /**
+     * The coarsest modification time granularity of the file systems we expect to scan (FAT records 2 seconds)
+     */
+    static final long MODIFICATION_TIME_GRANULARITY = 2000;
+
+    private final FileFilter filter;
+    private final Map<File, Snapshot> snapshots = new HashMap<File, Snapshot>();
+
+    /**
+     * @param filter the filter to apply to the listings, or {@code null} to list all entries
+     */
+    DirectorySnapshotCache(final FileFilter filter) {
+        this.filter = filter;
+    }
+
+    /**
+     * Lists the entries of a directory accepted by this cache's filter.
+     *
+     * @param directory the directory
+     * @return the entries, or {@code null} if {@code directory} is not a directory
+     */
+    File[] listFiles(final File directory) {
+        final Snapshot snapshot = snapshot(directory);
+        return snapshot == null ? null : snapshot.children;
+    }
+
+    /**
+     * Gets the most recent modification time of a file, or of a directory and everything below it. Only the
+     * directories are checked for changes; the modification times of the files are taken from the snapshot of
+     * their directory.
+     *
+     * @param file the file or directory
+     * @return the most recent modification time
+     */
+    long getLatestTimestamp(final File file) {
+        if (!file.isDirectory()) {
+            return file.lastModified();
+        }
+        final Snapshot snapshot = snapshot(file);
+        if (snapshot == null) {
+            // deleted since the isDirectory() check
+            return file.lastModified();
+        }
+        long latest = snapshot.latestTimestamp;
+        for (File directory : snapshot.directories) {
+            final long timestamp = getLatestTimestamp(directory);
+            if (timestamp > latest) {
+                latest = timestamp;
+            }
+        }
+        return latest;
+    }
+
+    /**
+     * Forgets all snapshots, so that every directory is listed again.
+     */
+    void clear() {
+        snapshots.clear();
+    }
+
+    private Snapshot snapshot(final File directory) {
+        final long lastModified = directory.lastModified();
+        Snapshot snapshot = snapshots.get(directory);
+        if (snapshot != null && snapshot.lastModified == lastModified
+                && snapshot.listedAt - lastModified > MODIFICATION_TIME_GRANULARITY) {
+            return snapshot;
+        }
+        final long listedAt = System.currentTimeMillis();
+        final File[] children = filter == null ? directory.listFiles() : directory.listFiles(filter);
+        if (children == null) {
+            snapshots.remove(directory);
+            return null;
+        }
+        snapshot = new Snapshot(lastModified, listedAt, children);
+        snapshots.put(directory, snapshot);
+        return snapshot;
+    }
+
+    private static final class Snapshot {
+        private final long lastModified;
+        private final long listedAt;
+        private final File[] children;
+        /**
+         * The child directories
+         */
+        private final File[] directories;
+        /**
+         * The most recent modification time of the directory itself and of the files directly in it
+         */
+        private final long latestTimestamp;
+
+        Snapshot(final long lastModified, final long listedAt, final File[] children) {
+            this.lastModified = lastModified;
+            this.listedAt = listedAt;
+            this.children = children;
+            final List<File> directories = new ArrayList<File>();
+            long latest = lastModified;
+            for (File child : children) {
+                if (child.isDirectory()) {
+                    directories.add(child);
+                } else {
+                    final long timestamp = child.lastModified();
+                    if (timestamp > latest) {
+                        latest = timestamp;
+                    }
+                }
+            }
+            this.directories = directories.toArray(new File[directories.size()]);
+            this.latestTimestamp = latest;
+        }
+    }
+}
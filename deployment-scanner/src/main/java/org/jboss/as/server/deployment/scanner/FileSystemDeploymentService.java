@@ -135,6 +135,14 @@ class FileSystemDeploymentService implements DeploymentScanner {
 
     private volatile long deploymentTimeout = DEFAULT_DEPLOYMENT_TIMEOUT;
 
+    /**
+     * Interval in ms between full scans when scanning incrementally, or 0 to always do full scans
+     */
+    private volatile long reconcileInterval;
+    private long lastReconcile;
+    private final DirectorySnapshotCache scannedDirectories = new DirectorySnapshotCache(filter);
+    private final DirectorySnapshotCache deploymentContent = new DirectorySnapshotCache(null);
+
     private final String relativeTo;
     private final String relativePath;
 
@@ -245,6 +253,16 @@ class FileSystemDeploymentService implements DeploymentScanner {
         this.deploymentTimeout = deploymentTimeout;
     }
 
+    @Override
+    public long getReconcileInterval() {
+        return reconcileInterval;
+    }
+
+    @Override
+    public void setReconcileInterval(long reconcileInterval) {
+        this.reconcileInterval = reconcileInterval;
+    }
+
     @Override
     public void bootTimeScan(final OperationContext context, final ServiceVerificationHandler verificationHandler, final List<ServiceController<?>> newControllers) {
 
@@ -353,9 +371,18 @@ class FileSystemDeploymentService implements DeploymentScanner {
         boolean scheduleRescan = false;
         try {
             if (scanEnabled || oneOffScan) { // confirm the scan is still wanted
-                ROOT_LOGGER.tracef("Scanning directory %s for deployment content changes", deploymentDir.getAbsolutePath());
+                final long reconcileInterval = this.reconcileInterval;
+                final boolean incremental = reconcileInterval > 0 && !oneOffScan && !firstScan
+                        && System.currentTimeMillis() - lastReconcile < reconcileInterval;
+                if (!incremental) {
+                    // forget the snapshots, so that every directory and file is looked at again
+                    scannedDirectories.clear();
+                    deploymentContent.clear();
+                    lastReconcile = System.currentTimeMillis();
+                }
+                ROOT_LOGGER.tracef("Scanning directory %s for deployment content changes (incremental: %s)", deploymentDir.getAbsolutePath(), incremental);
 
-                ScanContext scanContext = new ScanContext(deploymentOperations);
+                ScanContext scanContext = new ScanContext(deploymentOperations, reconcileInterval > 0);
                 scanDirectory(deploymentDir, relativePath, scanContext);
 
                 // WARN about markers with no associated content. Do this first in case any auto-deploy issue
@@ -394,6 +421,8 @@ class FileSystemDeploymentService implements DeploymentScanner {
                 // Deal with any incomplete or non-scannable auto-deploy content
                 ScanStatus status = handleAutoDeployFailures(scanContext);
                 if (status != ScanStatus.PROCEED) {
+                    // content still being copied may be overwritten in place, which the snapshots do not notice
+                    lastReconcile = 0;
                     if (status == ScanStatus.RETRY && scanInterval > 1000) {
                         // in finally block, schedule a non-repeating task to try again more quickly
                         scheduleRescan = true;
@@ -494,7 +523,7 @@ class FileSystemDeploymentService implements DeploymentScanner {
      * @param scanContext context of the scan
      */
     private void scanDirectory(final File directory, final String relativePath, final ScanContext scanContext) {
-        final File[] children = directory.listFiles(filter);
+        final File[] children = scanContext.useSnapshots ? scannedDirectories.listFiles(directory) : directory.listFiles(filter);
         if (children == null) {
             return;
         }
@@ -557,7 +586,7 @@ class FileSystemDeploymentService implements DeploymentScanner {
                     scanContext.ignoredMissingDeployments.add(deploymentName);
                     continue;
                 }
-                long timestamp = getDeploymentTimestamp(deploymentFile);
+                long timestamp = getDeploymentTimestamp(deploymentFile, scanContext);
                 final String path = relativeTo == null ? deploymentFile.getAbsolutePath() : relativePath + deploymentName; // TODO:
                 // sub-directories
                 // in
@@ -575,7 +604,7 @@ class FileSystemDeploymentService implements DeploymentScanner {
                 boolean autoDeployable = child.isDirectory() ? autoDeployExploded : autoDeployZip;
                 if (autoDeployable) {
                     if (!isAutoDeployDisabled(child)) {
-                        long timestamp = getDeploymentTimestamp(child);
+                        long timestamp = getDeploymentTimestamp(child, scanContext);
                         if (isFailedOrUndeployed(directory, fileName, timestamp)) continue;
 
                         DeploymentMarker marker = deployed.get(fileName);
@@ -606,7 +635,7 @@ class FileSystemDeploymentService implements DeploymentScanner {
             } else if (isXmlFile(fileName)) {
                 if (autoDeployXml) {
                     if (!isAutoDeployDisabled(child)) {
-                        long timestamp = getDeploymentTimestamp(child);
+                        long timestamp = getDeploymentTimestamp(child, scanContext);
                         if (isFailedOrUndeployed(directory, fileName, timestamp)) continue;
 
                         DeploymentMarker marker = deployed.get(fileName);
@@ -710,6 +739,10 @@ class FileSystemDeploymentService implements DeploymentScanner {
         return new File(parent, name + SKIP_DEPLOY).exists() || new File(parent, name + DO_DEPLOY).exists();
     }
 
+    private long getDeploymentTimestamp(File deploymentFile, ScanContext scanContext) {
+        return scanContext.useSnapshots ? deploymentContent.getLatestTimestamp(deploymentFile) : getDeploymentTimestamp(deploymentFile);
+    }
+
     private long getDeploymentTimestamp(File deploymentFile) {
         if (deploymentFile.isDirectory()) {
             // Scan for most recent file
@@ -1228,9 +1261,14 @@ class FileSystemDeploymentService implements DeploymentScanner {
          * Timestamp when the scan started
          */
         private final long scanStartTime = System.currentTimeMillis();
+        /**
+         * Whether directory listings and exploded content timestamps come from the snapshots of previous scans
+         */
+        private final boolean useSnapshots;
 
-        private ScanContext(final DeploymentOperations deploymentOperations) {
+        private ScanContext(final DeploymentOperations deploymentOperations, final boolean useSnapshots) {
             registeredDeployments = deploymentOperations.getDeploymentsStatus();
+            this.useSnapshots = useSnapshots;
         }
     }
 
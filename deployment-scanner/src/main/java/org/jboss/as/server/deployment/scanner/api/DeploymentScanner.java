@@ -60,6 +60,22 @@ public interface DeploymentScanner {
      */
     void setScanInterval(long scanInterval);
 
+    /**
+     * Get the interval between full scans when scanning incrementally.
+     *
+     * @return the reconcile interval in ms, or 0 if every scan is a full scan
+     */
+    long getReconcileInterval();
+
+    /**
+     * Set the interval between full scans. In between, scans only list the directories that changed since the
+     * previous scan and only look at the directories of exploded content, so that files overwritten in place within
+     * exploded content are noticed on the next full scan.
+     *
+     * @param reconcileInterval the reconcile interval in ms, or 0 to make every scan a full scan
+     */
+    void setReconcileInterval(long reconcileInterval);
+
     /**
      * Start the scanner, if not already started, using a default {@link DeploymentOperations}.
      *
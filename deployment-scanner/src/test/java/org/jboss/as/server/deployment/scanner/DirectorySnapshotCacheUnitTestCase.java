@@ -0,0 +1,162 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.scanner;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+
+import junit.framework.Assert;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link DirectorySnapshotCache}
+ */
+public class DirectorySnapshotCacheUnitTestCase {
+
+    /**
+     * A modification time old enough for the snapshots to trust listings of the directory
+     */
+    private static final long PAST = System.currentTimeMillis() - 60000;
+
+    private AutoDeployTestSupport testSupport;
+    private File dir;
+
+    @Before
+    public void setUp() throws Exception {
+        testSupport = new AutoDeployTestSupport(DirectorySnapshotCacheUnitTestCase.class.getSimpleName());
+        dir = new File(testSupport.getTempDir(), "snapshots");
+        Assert.assertTrue(dir.mkdirs());
+    }
+
+    @After
+    public void tearDown() {
+        testSupport.cleanupFiles();
+    }
+
+    @Test
+    public void testListingReusedUntilDirectoryChanges() throws Exception {
+        createFile(dir, "a.war", PAST);
+        dir.setLastModified(PAST);
+
+        final DirectorySnapshotCache cache = new DirectorySnapshotCache(null);
+        Assert.assertEquals(names("a.war"), names(cache.listFiles(dir)));
+
+        // a new entry changes the modification time of the directory
+        createFile(dir, "b.war", PAST);
+        Assert.assertEquals(names("a.war", "b.war"), names(cache.listFiles(dir)));
+
+        // an unchanged directory is not listed again
+        dir.setLastModified(PAST);
+        cache.listFiles(dir);
+        createFile(dir, "c.war", PAST);
+        dir.setLastModified(PAST);
+        Assert.assertEquals(names("a.war", "b.war"), names(cache.listFiles(dir)));
+
+        cache.clear();
+        Assert.assertEquals(names("a.war", "b.war", "c.war"), names(cache.listFiles(dir)));
+    }
+
+    @Test
+    public void testRecentlyModifiedDirectoryListedAgain() throws Exception {
+        final DirectorySnapshotCache cache = new DirectorySnapshotCache(null);
+        final long now = System.currentTimeMillis();
+        dir.setLastModified(now);
+        cache.listFiles(dir);
+        createFile(dir, "a.war", PAST);
+        // same modification time, but within the granularity of the file system
+        dir.setLastModified(now);
+        Assert.assertEquals(names("a.war"), names(cache.listFiles(dir)));
+    }
+
+    @Test
+    public void testLatestTimestamp() throws Exception {
+        final File war = new File(dir, "foo.war");
+        final File webInf = new File(war, "WEB-INF");
+        Assert.assertTrue(webInf.mkdirs());
+        createFile(war, "index.html", PAST);
+        createFile(webInf, "web.xml", PAST + 1000);
+        webInf.setLastModified(PAST);
+        war.setLastModified(PAST);
+
+        final DirectorySnapshotCache cache = new DirectorySnapshotCache(null);
+        Assert.assertEquals(PAST + 1000, cache.getLatestTimestamp(war));
+
+        // files replaced by a rename are noticed through their directory
+        final File replacement = createFile(war, "replacement", PAST + 5000);
+        Assert.assertTrue(replacement.renameTo(new File(war, "index.html")));
+        war.setLastModified(PAST + 2000);
+        Assert.assertEquals(PAST + 5000, cache.getLatestTimestamp(war));
+
+        // files overwritten in place are only noticed once the snapshots are cleared
+        war.setLastModified(PAST);
+        cache.getLatestTimestamp(war);
+        new File(webInf, "web.xml").setLastModified(PAST + 10000);
+        Assert.assertEquals(PAST + 5000, cache.getLatestTimestamp(war));
+        cache.clear();
+        Assert.assertEquals(PAST + 10000, cache.getLatestTimestamp(war));
+    }
+
+    @Test
+    public void testFilter() throws Exception {
+        createFile(dir, "a.war", PAST);
+        createFile(dir, "a.war.deployed", PAST);
+        createFile(dir, ".hidden", PAST);
+        final DirectorySnapshotCache cache = new DirectorySnapshotCache(new ExtensibleFilter());
+        Assert.assertEquals(names("a.war", "a.war.deployed"), names(cache.listFiles(dir)));
+        Assert.assertNull(cache.listFiles(new File(dir, "missing")));
+    }
+
+    private static File createFile(final File dir, final String name, final long lastModified) throws IOException {
+        final File file = new File(dir, name);
+        final FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(name.getBytes());
+        } finally {
+            out.close();
+        }
+        file.setLastModified(lastModified);
+        return file;
+    }
+
+    private static Set<String> names(final String... names) {
+        final Set<String> set = new HashSet<String>();
+        for (String name : names) {
+            set.add(name);
+        }
+        return set;
+    }
+
+    private static Set<String> names(final File[] files) {
+        final Set<String> set = new HashSet<String>();
+        for (File file : files) {
+            set.add(file.getName());
+        }
+        return set;
+    }
+}
@@ -49,8 +49,10 @@ public interface Constants {
      */
 
     String ACCEPT = "Accept";
+    String ACCEPT_ENCODING = "Accept-Encoding";
     String AUTHORIZATION_HEADER = "Authorization";
     String CONTENT_DISPOSITION = "Content-Disposition";
+    String CONTENT_ENCODING = "Content-Encoding";
     String CONTENT_TYPE = "Content-Type";
     String HOST = "Host";
     String LOCATION = "Location";
@@ -58,6 +60,7 @@ public interface Constants {
     String REFERER = "Referer";
     String RETRY_AFTER = "Retry-After";
     String USER_AGENT = "User-Agent";
+    String VARY = "Vary";
     String VIA = "Via";
     String WWW_AUTHENTICATE_HEADER = "WWW-Authenticate";
 
@@ -75,6 +78,13 @@ public interface Constants {
     String TEXT_CSS = "text/css";
     String TEXT_HTML = "text/html";
 
+    /*
+     * Content Codings
+     */
+
+    String DEFLATE = "deflate";
+    String GZIP = "gzip";
+
     /*
      * Charsets
      */
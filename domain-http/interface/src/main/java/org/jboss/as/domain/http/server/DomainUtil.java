@@ -22,18 +22,27 @@
 
 package org.jboss.as.domain.http.server;
 
+import static org.jboss.as.domain.http.server.Constants.ACCEPT_ENCODING;
 import static org.jboss.as.domain.http.server.Constants.APPLICATION_DMR_ENCODED;
 import static org.jboss.as.domain.http.server.Constants.APPLICATION_JSON;
+import static org.jboss.as.domain.http.server.Constants.CONTENT_ENCODING;
 import static org.jboss.as.domain.http.server.Constants.CONTENT_TYPE;
+import static org.jboss.as.domain.http.server.Constants.DEFLATE;
+import static org.jboss.as.domain.http.server.Constants.GZIP;
 import static org.jboss.as.domain.http.server.Constants.HOST;
 import static org.jboss.as.domain.http.server.Constants.HTTP;
 import static org.jboss.as.domain.http.server.Constants.HTTPS;
 import static org.jboss.as.domain.http.server.Constants.OK;
+import static org.jboss.as.domain.http.server.Constants.VARY;
 
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.PrintWriter;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
 
 import org.jboss.com.sun.net.httpserver.Headers;
 import org.jboss.com.sun.net.httpserver.HttpExchange;
@@ -53,6 +62,9 @@ class DomainUtil {
 
     /**
      * Writes the HTTP response to the output stream.
+     * <p/>
+     * The model is written straight to the response as it is rendered, compressed with gzip or deflate if the client
+     * accepts either.
      *
      * @param http The HttpExchange object that allows access to the request and response.
      * @param isGet Flag indicating whether or not the request was a GET request or POST request.
@@ -66,6 +78,11 @@ class DomainUtil {
             boolean encode, String contentType) throws IOException {
         final Headers responseHeaders = http.getResponseHeaders();
         responseHeaders.add(CONTENT_TYPE, contentType);
+        final String contentEncoding = selectContentEncoding(http.getRequestHeaders());
+        responseHeaders.add(VARY, ACCEPT_ENCODING);
+        if (contentEncoding != null) {
+            responseHeaders.add(CONTENT_ENCODING, contentEncoding);
+        }
         http.sendResponseHeaders(status, 0);
 
         // GET (read) operations will never have a compensating update, and the status is already
@@ -74,7 +91,8 @@ class DomainUtil {
             response = response.get("result");
         }
 
-        final OutputStream out = http.getResponseBody();
+        final OutputStream out = encodeContent(http.getResponseBody(), contentEncoding);
+        // PrintWriter buffers the characters it encodes, so the JSON is rendered into the stream piece by piece
         final PrintWriter print = new PrintWriter(out);
 
         try {
@@ -97,6 +115,61 @@ class DomainUtil {
          writeResponse(http, isGet, pretty, response, status, encode, contentType);
      }
 
+    /**
+     * Choose the content coding for a response from the Accept-Encoding headers of the request, preferring gzip over
+     * deflate.
+     *
+     * @param requestHeaders - The headers of the request
+     * @return gzip, deflate, or {@code null} if the response should not be compressed
+     */
+    static String selectContentEncoding(final Headers requestHeaders) {
+        final List<String> values = requestHeaders.get(ACCEPT_ENCODING);
+        if (values == null) {
+            return null;
+        }
+        boolean deflate = false;
+        for (String value : values) {
+            for (String coding : value.split(",")) {
+                final String[] parts = coding.split(";");
+                final String name = parts[0].trim().toLowerCase(Locale.ENGLISH);
+                if (!isAcceptable(parts)) {
+                    continue;
+                }
+                if (GZIP.equals(name) || "x-gzip".equals(name)) {
+                    return GZIP;
+                }
+                if (DEFLATE.equals(name)) {
+                    deflate = true;
+                }
+            }
+        }
+        return deflate ? DEFLATE : null;
+    }
+
+    private static boolean isAcceptable(final String[] codingParts) {
+        for (int i = 1; i < codingParts.length; i++) {
+            final String parameter = codingParts[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Float.parseFloat(parameter.substring(2).trim()) > 0;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static OutputStream encodeContent(final OutputStream out, final String contentEncoding) throws IOException {
+        if (GZIP.equals(contentEncoding)) {
+            return new GZIPOutputStream(out, 8192);
+        }
+        if (DEFLATE.equals(contentEncoding)) {
+            return new DeflaterOutputStream(out);
+        }
+        return out;
+    }
+
     static void safeClose(Closeable close) {
         try {
             close.close();
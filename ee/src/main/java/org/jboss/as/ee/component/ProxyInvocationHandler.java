@@ -24,14 +24,14 @@ package org.jboss.as.ee.component;
 
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
-import java.util.HashMap;
 import java.util.Map;
 
 import org.jboss.invocation.Interceptor;
 import org.jboss.invocation.InterceptorContext;
 
 /**
- * An invocation handler for a component proxy.
+ * An invocation handler for a component proxy. A handler holds no state of its own, so the proxies of a view with
+ * shareable client interceptors all use the same handler.
  *
  * @author <a href="mailto:david.lloyd@redhat.com">David M. Lloyd</a>
  */
@@ -67,8 +67,8 @@ public final class ProxyInvocationHandler implements InvocationHandler {
         context.putPrivateData(ComponentView.class, componentView);
         context.setParameters(args);
         context.setMethod(method);
-        // setup the public context data
-        context.setContextData(new HashMap());
+        // setup the public context data, which is only allocated if an interceptor uses it
+        context.setContextData(new LazyContextDataMap());
         return interceptor.processInvocation(context);
     }
 }
@@ -57,6 +57,7 @@ public class ViewConfiguration {
     private final Map<Class<?>, Object> privateData = new HashMap<Class<?>, Object>();
     private final List<DependencyConfigurator<ViewService>> dependencies = new ArrayList<DependencyConfigurator<ViewService>>();
     private ViewInstanceFactory viewInstanceFactory;
+    private boolean shareableClientInterceptors;
 
     /**
      * Construct a new instance.
@@ -277,6 +278,27 @@ public class ViewConfiguration {
         this.viewInstanceFactory = viewInstanceFactory;
     }
 
+    /**
+     * Returns {@code true} if the client interceptors of this view hold no state of their own for a client proxy, and
+     * so can be created once when the view starts and be shared by all the proxies of the view.
+     *
+     * @return {@code true} if the client interceptors can be shared
+     */
+    public boolean isShareableClientInterceptors() {
+        return shareableClientInterceptors;
+    }
+
+    /**
+     * Marks the client interceptors of this view as shareable between its client proxies. Only set this if none of
+     * the client interceptor factories use the context data passed to {@link ComponentView#createInstance(Map)}, nor
+     * return interceptors which keep state for a single proxy.
+     *
+     * @param shareableClientInterceptors {@code true} if the client interceptors can be shared
+     */
+    public void setShareableClientInterceptors(final boolean shareableClientInterceptors) {
+        this.shareableClientInterceptors = shareableClientInterceptors;
+    }
+
     /**
      * Attaches arbitrary private data to this view instance
      *
@@ -63,6 +63,7 @@ public final class ViewService implements Service<ComponentView> {
     private final Set<Method> asyncMethods;
     private final ViewInstanceFactory viewInstanceFactory;
     private final Map<Class<?>, Object> privateData;
+    private final boolean shareableClientInterceptors;
     private volatile ComponentView view;
 
 
@@ -87,6 +88,7 @@ public final class ViewService implements Service<ComponentView> {
         this.viewInterceptorFactories = viewInterceptorFactories;
         this.clientInterceptorFactories = clientInterceptorFactories;
         this.asyncMethods = viewConfiguration.getAsyncMethods();
+        this.shareableClientInterceptors = viewConfiguration.isShareableClientInterceptors();
         if (viewConfiguration.getViewInstanceFactory() == null) {
             viewInstanceFactory = new DefaultViewInstanceFactory();
         } else {
@@ -124,6 +126,7 @@ public final class ViewService implements Service<ComponentView> {
         private final Map<Method, Interceptor> viewInterceptors;
         private final Map<MethodDescription, Method> methods;
         private final Map<Class<?>, Object> privateData;
+        private ClientInterceptors sharedClientInterceptors;
 
         View(final Map<Class<?>, Object> privateData) {
             this.privateData = privateData;
@@ -147,6 +150,12 @@ public final class ViewService implements Service<ComponentView> {
                 methods.put(new MethodDescription(method.getName(), DescriptorUtils.methodDescriptor(method)), method);
             }
 
+            if (shareableClientInterceptors) {
+                final SimpleInterceptorFactoryContext clientFactoryContext = new SimpleInterceptorFactoryContext();
+                clientFactoryContext.getContextData().put(Component.class, component);
+                clientFactoryContext.getContextData().put(ComponentView.class, this);
+                sharedClientInterceptors = new ClientInterceptors(clientFactoryContext, component, this);
+            }
         }
 
         public ManagedReference createInstance() throws Exception {
@@ -243,24 +252,24 @@ public final class ViewService implements Service<ComponentView> {
     private class DefaultViewInstanceFactory implements ViewInstanceFactory {
 
         public ManagedReference createViewInstance(final ComponentView componentView, final Map<Object, Object> contextData) throws Exception {
-            final SimpleInterceptorFactoryContext factoryContext = new SimpleInterceptorFactoryContext();
             final Component component = componentView.getComponent();
-            factoryContext.getContextData().put(Component.class, component);
-            factoryContext.getContextData().put(ComponentView.class, componentView);
-            factoryContext.getContextData().putAll(contextData);
-
-            final Interceptor clientPostConstructInterceptor = clientPostConstruct.create(factoryContext);
-            final Interceptor clientPreDestroyInterceptor = clientPreDestroy.create(factoryContext);
-
-            final Map<Method, InterceptorFactory> clientInterceptorFactories = ViewService.this.clientInterceptorFactories;
-            IdentityHashMap<Method, Interceptor> clientEntryPoints = new IdentityHashMap<Method, Interceptor>(clientInterceptorFactories.size());
-            for (Method method : clientInterceptorFactories.keySet()) {
-                clientEntryPoints.put(method, clientInterceptorFactories.get(method).create(factoryContext));
+            ClientInterceptors clientInterceptors = null;
+            if (componentView instanceof View) {
+                clientInterceptors = ((View) componentView).sharedClientInterceptors;
+            }
+            if (clientInterceptors == null) {
+                final SimpleInterceptorFactoryContext factoryContext = new SimpleInterceptorFactoryContext();
+                factoryContext.getContextData().put(Component.class, component);
+                factoryContext.getContextData().put(ComponentView.class, componentView);
+                factoryContext.getContextData().putAll(contextData);
+                clientInterceptors = new ClientInterceptors(factoryContext, component, componentView);
             }
+            final Interceptor clientPostConstructInterceptor = clientInterceptors.postConstruct;
+            final Interceptor clientPreDestroyInterceptor = clientInterceptors.preDestroy;
 
             final Object proxy;
             try {
-                proxy = proxyFactory.newInstance(new ProxyInvocationHandler(clientEntryPoints, component, componentView));
+                proxy = proxyFactory.newInstance(clientInterceptors.invocationHandler);
             } catch (InstantiationException e) {
                 InstantiationError error = new InstantiationError(e.getMessage());
                 Throwable cause = e.getCause();
@@ -276,7 +285,7 @@ public final class ViewService implements Service<ComponentView> {
             InterceptorContext context = new InterceptorContext();
             context.putPrivateData(ComponentView.class, componentView);
             context.putPrivateData(Component.class, component);
-            context.setContextData(new HashMap<String, Object>());
+            context.setContextData(new LazyContextDataMap());
             clientPostConstructInterceptor.processInvocation(context);
 
             return new ManagedReference() {
@@ -300,5 +309,24 @@ public final class ViewService implements Service<ComponentView> {
             };
         }
     }
-}
 
+    /**
+     * The client interceptors of a view, either created for a single proxy or shared by all of the proxies of the view.
+     */
+    private final class ClientInterceptors {
+        private final Interceptor postConstruct;
+        private final Interceptor preDestroy;
+        private final ProxyInvocationHandler invocationHandler;
+
+        ClientInterceptors(final SimpleInterceptorFactoryContext factoryContext, final Component component, final ComponentView componentView) {
+            postConstruct = clientPostConstruct.create(factoryContext);
+            preDestroy = clientPreDestroy.create(factoryContext);
+            final Map<Method, InterceptorFactory> clientInterceptorFactories = ViewService.this.clientInterceptorFactories;
+            final IdentityHashMap<Method, Interceptor> clientEntryPoints = new IdentityHashMap<Method, Interceptor>(clientInterceptorFactories.size());
+            for (Map.Entry<Method, InterceptorFactory> entry : clientInterceptorFactories.entrySet()) {
+                clientEntryPoints.put(entry.getKey(), entry.getValue().create(factoryContext));
+            }
+            invocationHandler = new ProxyInvocationHandler(clientEntryPoints, component, componentView);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ee.component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.ee.component.interceptors.InterceptorOrder;
+import org.jboss.as.naming.ManagedReference;
+import org.jboss.as.naming.context.NamespaceContextSelector;
+import org.jboss.as.server.deployment.reflect.DeploymentReflectionIndex;
+import org.jboss.as.server.deployment.reflect.ProxyMetadataSource;
+import org.jboss.invocation.ImmediateInterceptorFactory;
+import org.jboss.invocation.Interceptor;
+import org.jboss.invocation.InterceptorContext;
+import org.jboss.invocation.InterceptorFactory;
+import org.jboss.invocation.InterceptorFactoryContext;
+import org.jboss.invocation.Interceptors;
+import org.jboss.invocation.proxy.ProxyConfiguration;
+import org.jboss.invocation.proxy.ProxyFactory;
+import org.jboss.msc.service.ServiceName;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+/**
+ * Bounds what a local invocation through a component proxy allocates, using the client interceptor chain of a
+ * stateless session bean view.
+ */
+public class ProxyInvocationHandlerAllocationTestCase {
+
+    private static final int WARM_UP = 20000;
+    private static final int INVOCATIONS = 200000;
+    private static final long MAX_BYTES_PER_INVOCATION = 1024;
+    private static final Integer RESULT = Integer.valueOf(42);
+    private static final AtomicInteger PROXY_ID = new AtomicInteger();
+
+    @Test
+    public void testContextDataIsOnlyAllocatedOnWrite() throws Throwable {
+        final Method method = Runnable.class.getMethod("run");
+        final ProxyInvocationHandler handler = handler(method, new Interceptor() {
+            public Object processInvocation(final InterceptorContext context) throws Exception {
+                final Map<String, Object> contextData = context.getContextData();
+                Assert.assertTrue(contextData.isEmpty());
+                Assert.assertNull(contextData.get("key"));
+                Assert.assertNull(contextData.remove("key"));
+                contextData.put("key", "value");
+                Assert.assertEquals(1, contextData.size());
+                Assert.assertEquals("value", contextData.get("key"));
+                return contextData.keySet().iterator().next();
+            }
+        });
+        Assert.assertEquals("key", handler.invoke(null, method, null));
+    }
+
+    @Test
+    public void testAllocationPerInvocation() throws Throwable {
+        final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        // per thread allocation counters are a HotSpot extension
+        Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported());
+        final com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) bean;
+        Assume.assumeTrue(threadMXBean.isThreadAllocatedMemoryEnabled());
+        final CountingInterceptorFactory clientPostConstruct = new CountingInterceptorFactory();
+        final ViewConfiguration configuration = viewConfiguration(clientPostConstruct);
+        final ViewService viewService = new ViewService(configuration);
+        viewService.getComponentInjector().inject(new TestComponent());
+        viewService.start(null);
+        final ManagedReference first = viewService.getValue().createInstance();
+        final ManagedReference second = viewService.getValue().createInstance();
+        Assert.assertEquals("proxies of a shareable view must share their client interceptors", 1, clientPostConstruct.created);
+
+        final Greeter greeter = (Greeter) first.getInstance();
+        Assert.assertEquals(RESULT, ((Greeter) second.getInstance()).greet());
+        for (int i = 0; i < WARM_UP; i++) {
+            greeter.greet();
+        }
+        final long threadId = Thread.currentThread().getId();
+        final long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < INVOCATIONS; i++) {
+            greeter.greet();
+        }
+        final long allocated = (threadMXBean.getThreadAllocatedBytes(threadId) - before) / INVOCATIONS;
+        Assert.assertTrue("Local invocation through a shared stateless view allocated " + allocated + " bytes, expected at most " + MAX_BYTES_PER_INVOCATION,
+                allocated <= MAX_BYTES_PER_INVOCATION);
+        first.release();
+        second.release();
+    }
+
+    /**
+     * Configures a view the way a stateless or singleton session bean view is configured: the client chain only
+     * dispatches to the view, and the client interceptors are shared by all of the proxies of the view.
+     */
+    private static ViewConfiguration viewConfiguration(final InterceptorFactory clientPostConstruct) throws Exception {
+        final ProxyConfiguration<Object> proxyConfiguration = new ProxyConfiguration<Object>();
+        proxyConfiguration.setProxyName(Greeter.class.getName() + "$$$view" + PROXY_ID.incrementAndGet());
+        proxyConfiguration.setClassLoader(Greeter.class.getClassLoader());
+        proxyConfiguration.setProtectionDomain(Greeter.class.getProtectionDomain());
+        proxyConfiguration.setMetadataSource(new ProxyMetadataSource(DeploymentReflectionIndex.create()));
+        proxyConfiguration.setSuperClass(Object.class);
+        proxyConfiguration.addAdditionalInterface(Greeter.class);
+        final ViewConfiguration configuration = new ViewConfiguration(Greeter.class, null, ServiceName.of("greeter"), new ProxyFactory<Object>(proxyConfiguration));
+        final Method method = Greeter.class.getMethod("greet");
+        configuration.addViewInterceptor(method, new ImmediateInterceptorFactory(new Interceptor() {
+            public Object processInvocation(final InterceptorContext context) throws Exception {
+                return RESULT;
+            }
+        }), InterceptorOrder.View.COMPONENT_DISPATCHER);
+        configuration.addClientInterceptor(method, ViewDescription.CLIENT_DISPATCHER_INTERCEPTOR_FACTORY, InterceptorOrder.Client.CLIENT_DISPATCHER);
+        configuration.addClientPostConstructInterceptor(clientPostConstruct, InterceptorOrder.ClientPostConstruct.TERMINAL_INTERCEPTOR);
+        configuration.addClientPreDestroyInterceptor(Interceptors.getTerminalInterceptorFactory(), InterceptorOrder.ClientPreDestroy.TERMINAL_INTERCEPTOR);
+        configuration.setShareableClientInterceptors(true);
+        return configuration;
+    }
+
+    private static ProxyInvocationHandler handler(final Method method, final Interceptor interceptor) {
+        return new ProxyInvocationHandler(Collections.singletonMap(method, interceptor), null, null);
+    }
+
+    public interface Greeter {
+        Integer greet();
+    }
+
+    private static final class CountingInterceptorFactory implements InterceptorFactory {
+        private int created;
+
+        public Interceptor create(final InterceptorFactoryContext context) {
+            created++;
+            return Interceptors.getTerminalInterceptor();
+        }
+    }
+
+    private static final class TestComponent implements Component {
+        public void start() {
+        }
+
+        public void stop() {
+        }
+
+        public Class<?> getComponentClass() {
+            return Greeter.class;
+        }
+
+        public ComponentInstance createInstance() {
+            throw new UnsupportedOperationException();
+        }
+
+        public NamespaceContextSelector getNamespaceContextSelector() {
+            return null;
+        }
+    }
+}
@@ -800,6 +800,26 @@ public interface EjbLogger extends BasicLogger {
     @Message(id = 14259, value = "BMT stateful bean '%s' did not complete user transaction properly status=%s")
     void transactionNotComplete(String componentName, String status);
 
+    @LogMessage(level = WARN)
+    @Message(id = 14260, value = "Timer journal segment %s is corrupt at offset %d, the remainder of the segment is discarded")
+    void timerJournalSegmentTruncated(File segment, long offset);
+
+    @LogMessage(level = ERROR)
+    @Message(id = 14261, value = "Could not compact the timer journal in %s")
+    void failToCompactTimerJournal(File directory, @Cause Throwable cause);
+
+    @LogMessage(level = WARN)
+    @Message(id = 14262, value = "Could not compact the passivation store in %s")
+    void failToCompactPassivationStore(File directory, @Cause Throwable cause);
+
+    @LogMessage(level = WARN)
+    @Message(id = 14263, value = "The timer data store %s contains timers persisted by the file store, they are imported into the journal when their beans are deployed")
+    void fileStoreTimersFound(File directory);
+
+    @LogMessage(level = INFO)
+    @Message(id = 14264, value = "Imported %d timers of %s from the file store in %s into the timer journal")
+    void importedFileStoreTimers(int count, String timedObjectId, File directory);
+
 
     // Don't add message ids greater that 14299!!! If you need more first check what EjbMessages is
     // using and take more (lower) numbers from the available range for this module. If the range for the module is
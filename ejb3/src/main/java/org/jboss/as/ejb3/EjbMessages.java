@@ -27,6 +27,7 @@ import javax.naming.Context;
 import javax.transaction.xa.Xid;
 import javax.xml.stream.Location;
 
+import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.ee.component.Component;
 import org.jboss.as.ee.component.ComponentCreateServiceFactory;
@@ -2079,6 +2080,12 @@ public interface EjbMessages {
     @Message(id = 14581, value = "EJB 3.1 FR 13.3.3: BMT bean %s should complete transaction before returning.")
     String transactionNotComplete(String componentName);
 
+    @Message(id = 14582, value = "Could not open timer journal in %s")
+    StartException failToOpenTimerJournal(File directory, @Cause Throwable cause);
+
+    @Message(id = 14583, value = "Attributes %s of %s can only have their default value on hosts running an earlier version of the ejb3 subsystem")
+    OperationFailedException attributesNotSupportedByLegacyModel(Set<String> attributes, PathAddress address);
+
     // STOP!!! Don't add message ids greater that 14599!!! If you need more first check what EjbLogger is
     // using and take more (lower) numbers from the available range for this module. If the range for the module is
     // all used, go to https://community.jboss.org/docs/DOC-16810 and allocate another block for this subsystem
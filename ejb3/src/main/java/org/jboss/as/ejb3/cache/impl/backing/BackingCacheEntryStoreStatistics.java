@@ -0,0 +1,77 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.cache.impl.backing;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.as.ejb3.component.invocationmetrics.LatencyHistogram;
+
+/**
+ * Statistics shared by the {@link SimpleBackingCacheEntryStore}s created from the same configuration, which also
+ * share its memory budget.
+ */
+public class BackingCacheEntryStoreStatistics {
+    private final AtomicLong residentBytes = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final LatencyHistogram passivationTimes = new LatencyHistogram();
+
+    void addResidentBytes(final long bytes) {
+        residentBytes.addAndGet(bytes);
+    }
+
+    void evicted(final int count) {
+        evictions.addAndGet(count);
+    }
+
+    void passivated(final long nanos) {
+        passivationTimes.record(nanos / 1000);
+    }
+
+    /**
+     * @return the estimated number of bytes retained by the cached objects
+     */
+    public long getResidentBytes() {
+        return residentBytes.get();
+    }
+
+    /**
+     * @return the number of objects passivated because their cache was too large
+     */
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    /**
+     * @return the number of objects passivated
+     */
+    public long getPassivationCount() {
+        return passivationTimes.getCount();
+    }
+
+    /**
+     * @param percentile the percentile, between 0 and 100
+     * @return the time it took to passivate an object at the percentile, in microseconds
+     */
+    public long getPassivationTimePercentile(final double percentile) {
+        return passivationTimes.getValueAtPercentile(percentile);
+    }
+}
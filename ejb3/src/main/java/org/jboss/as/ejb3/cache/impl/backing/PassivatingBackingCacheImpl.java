@@ -23,11 +23,9 @@
 package org.jboss.as.ejb3.cache.impl.backing;
 
 import java.io.Serializable;
-import java.util.Map;
+import java.util.List;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
@@ -49,6 +47,7 @@ import org.jboss.as.ejb3.cache.spi.ReplicationPassivationManager;
 import org.jboss.as.ejb3.cache.spi.impl.AbstractBackingCache;
 import org.jboss.as.ejb3.cache.spi.impl.PassivateTask;
 import org.jboss.as.ejb3.cache.spi.impl.RemoveTask;
+import org.jboss.as.ejb3.cache.spi.impl.TimeoutWheel;
 import org.jboss.as.ejb3.component.stateful.StatefulTimeoutInfo;
 import org.jboss.ejb.client.Affinity;
 import org.jboss.logging.Logger;
@@ -58,6 +57,9 @@ import org.jboss.logging.Logger;
  *
  */
 public class PassivatingBackingCacheImpl<K extends Serializable, V extends Cacheable<K>, E extends BackingCacheEntry<K, V>> extends AbstractBackingCache<K, V, E> implements PassivatingBackingCache<K, V, E> {
+    /** The resolution of the expiration and passivation timeouts, in milliseconds */
+    private static final long WHEEL_TICK = 100;
+
     protected final Logger log = Logger.getLogger(getClass().getName());
 
     private final StatefulObjectFactory<V> factory;
@@ -67,8 +69,20 @@ public class PassivatingBackingCacheImpl<K extends Serializable, V extends Cache
 
     private final ThreadFactory threadFactory;
     private volatile ScheduledExecutorService executor;
-    private final Map<K, Future<?>> expirationFutures = new ConcurrentHashMap<K, Future<?>>();
-    private final Map<K, Future<?>> passivationFutures = new ConcurrentHashMap<K, Future<?>>();
+    // expirations and passivations are scheduled on timing wheels, which time out all the due beans in a batch
+    private final TimeoutWheel<K> expirationWheel = new TimeoutWheel<K>(WHEEL_TICK, TimeUnit.MILLISECONDS, new TimeoutWheel.Listener<K>() {
+        @Override
+        public void timedOut(List<K> ids) {
+            run(removeTaskFactory, ids);
+        }
+    });
+    private final TimeoutWheel<K> passivationWheel = new TimeoutWheel<K>(WHEEL_TICK, TimeUnit.MILLISECONDS, new TimeoutWheel.Listener<K>() {
+        @Override
+        public void timedOut(List<K> ids) {
+            trace("passivating %d idle beans", ids.size());
+            run(passivateTaskFactory, ids);
+        }
+    });
 
     public PassivatingBackingCacheImpl(StatefulObjectFactory<V> factory, BackingCacheEntryFactory<K, V, E> entryFactory, ReplicationPassivationManager<K, E> passivationManager, BackingCacheEntryStore<K, V, E> store) {
         this(factory, entryFactory, passivationManager, store, null, null);
@@ -265,16 +279,9 @@ public class PassivatingBackingCacheImpl<K extends Serializable, V extends Cache
     private void cancelExpirationPassivation(K id) {
         if (this.executor != null) {
             if (this.store.getTimeout() != null) {
-                this.cancel(this.expirationFutures, id);
+                this.expirationWheel.cancel(id);
             }
-            this.cancel(this.passivationFutures, id);
-        }
-    }
-
-    private void cancel(Map<K, Future<?>> futures, K id) {
-        Future<?> future = futures.remove(id);
-        if (future != null) {
-            future.cancel(false);
+            this.passivationWheel.cancel(id);
         }
     }
 
@@ -282,17 +289,19 @@ public class PassivatingBackingCacheImpl<K extends Serializable, V extends Cache
         if (this.executor != null) {
             StatefulTimeoutInfo timeout = this.store.getTimeout();
             if (timeout != null && timeout.getValue() != -1) {
-                this.schedule(this.expirationFutures, id, this.removeTaskFactory, timeout.getValue(), timeout.getTimeUnit());
+                this.expirationWheel.schedule(id, timeout.getValue(), timeout.getTimeUnit());
             }
             BackingCacheEntryStoreConfig config = this.store.getConfig();
-            this.schedule(this.passivationFutures, id, this.passivateTaskFactory, config.getIdleTimeout(), config.getIdleTimeoutUnit());
+            this.passivationWheel.schedule(id, config.getIdleTimeout(), config.getIdleTimeoutUnit());
         }
     }
 
-    private void schedule(Map<K, Future<?>> futures, K id, TaskFactory<K> factory, long time, TimeUnit unit) {
-        Future<?> future = futures.put(id, this.executor.schedule(factory.createTask(id), time, unit));
-        if (future != null) {
-            future.cancel(false);
+    private void run(TaskFactory<K> factory, List<K> ids) {
+        for (K id : ids) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            factory.createTask(id).run();
         }
     }
 
@@ -304,6 +313,10 @@ public class PassivatingBackingCacheImpl<K extends Serializable, V extends Cache
             if (this.threadFactory != null) {
                 this.executor = Executors.newSingleThreadScheduledExecutor(this.threadFactory);
             }
+            if (this.executor != null) {
+                this.expirationWheel.start(this.executor);
+                this.passivationWheel.start(this.executor);
+            }
             notifyLifecycleListeners(LifecycleState.STARTED);
         } catch (RuntimeException e) {
             notifyLifecycleListeners(LifecycleState.FAILED);
@@ -315,6 +328,8 @@ public class PassivatingBackingCacheImpl<K extends Serializable, V extends Cache
     public void stop() {
         notifyLifecycleListeners(LifecycleState.STOPPING);
         try {
+            this.expirationWheel.stop();
+            this.passivationWheel.stop();
             if (this.threadFactory != null) {
                 this.executor.shutdownNow();
             }
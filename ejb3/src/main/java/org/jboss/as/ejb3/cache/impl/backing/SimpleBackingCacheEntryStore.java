@@ -38,6 +38,7 @@ import org.jboss.as.ejb3.cache.spi.BackingCacheEntry;
 import org.jboss.as.ejb3.cache.spi.BackingCacheEntryStore;
 import org.jboss.as.ejb3.cache.spi.BackingCacheEntryStoreConfig;
 import org.jboss.as.ejb3.cache.spi.GroupCompatibilityChecker;
+import org.jboss.as.ejb3.cache.spi.ObjectSizeEstimator;
 import org.jboss.as.ejb3.cache.spi.PersistentObjectStore;
 import org.jboss.as.ejb3.cache.spi.impl.AbstractBackingCacheEntryStore;
 import org.jboss.as.ejb3.cache.spi.impl.CacheableTimestamp;
@@ -49,6 +50,11 @@ import org.jboss.ejb.client.NodeAffinity;
 /**
  * A {@link BackingCacheEntryStore} that stores in a simple <code>Map</code> and delegates to a provided
  * {@link PersistentObjectStore} for persistence.
+ * <p/>
+ * Besides the number of cached objects, the estimated memory they retain can be bounded. The budget is shared with the
+ * other stores of the same configuration: whenever an object is inserted while the budget is exceeded, the least
+ * recently used objects of this store are passivated until enough memory is released. Estimating the memory retained by
+ * an object may be expensive, so it is only done while a memory budget is set.
  *
  * @author Brian Stansberry
  * @author Paul Ferraro
@@ -67,15 +73,30 @@ public class SimpleBackingCacheEntryStore<K extends Serializable, V extends Cach
      */
     private final SortedSet<CacheableTimestamp<K>> entries = new ConcurrentSkipListSet<CacheableTimestamp<K>>();
     private final ServerEnvironment environment;
+    private final ObjectSizeEstimator<? super E> estimator;
+    private final BackingCacheEntryStoreStatistics statistics;
 
     /**
      * Create a new SimpleIntegratedObjectStore.
      */
     public SimpleBackingCacheEntryStore(IdentifierFactory<K> identifierFactory, PersistentObjectStore<K, E> store, ServerEnvironment environment, StatefulTimeoutInfo timeout, BackingCacheEntryStoreConfig config) {
+        this(identifierFactory, store, environment, timeout, config, null, new BackingCacheEntryStoreStatistics());
+    }
+
+    /**
+     * Create a new SimpleIntegratedObjectStore which keeps track of the memory retained by the cached objects.
+     *
+     * @param estimator  estimates the memory retained by the cached objects while a memory budget is set, or null to not
+     *                   keep track of it
+     * @param statistics the statistics shared with the other stores of the same configuration
+     */
+    public SimpleBackingCacheEntryStore(IdentifierFactory<K> identifierFactory, PersistentObjectStore<K, E> store, ServerEnvironment environment, StatefulTimeoutInfo timeout, BackingCacheEntryStoreConfig config, ObjectSizeEstimator<? super E> estimator, BackingCacheEntryStoreStatistics statistics) {
         super(timeout, config);
         this.identifierFactory = identifierFactory;
         this.store = store;
         this.environment = environment;
+        this.estimator = estimator;
+        this.statistics = statistics;
     }
 
     @Override
@@ -110,7 +131,7 @@ public class SimpleBackingCacheEntryStore<K extends Serializable, V extends Cach
             E value = store.load(key);
             if (value != null) {
                 CacheableTimestamp<K> timestamp = new CacheableTimestamp<K>(value);
-                cache.put(key, new EntryHolder(value, timestamp));
+                this.put(new EntryHolder(value, timestamp, this.estimateSize(value)));
                 this.entries.add(timestamp);
             }
             return value;
@@ -125,22 +146,25 @@ public class SimpleBackingCacheEntryStore<K extends Serializable, V extends Cach
             throw EjbMessages.MESSAGES.duplicateCacheEntry(key);
         }
         CacheableTimestamp<K> timestamp = new CacheableTimestamp<K>(entry);
-        cache.put(key, new EntryHolder(entry, timestamp));
+        this.put(new EntryHolder(entry, timestamp, this.estimateSize(entry)));
         this.entries.add(timestamp);
         final Set<K> toPassivate = new HashSet<K>();
         int maxSize = this.getConfig().getMaxSize();
-        int thisSize = cache.size();
-        if (thisSize > maxSize) {
-            int remaining = thisSize - maxSize;
+        long maxMemory = this.getConfig().getMaxMemory();
+        int remaining = cache.size() - maxSize;
+        long excess = (maxMemory > 0) ? this.statistics.getResidentBytes() - maxMemory : 0;
+        if (remaining > 0 || excess > 0) {
             final Iterator<CacheableTimestamp<K>> iterator = this.entries.iterator();
-            while (remaining > 0 && iterator.hasNext()) {
+            while ((remaining > 0 || excess > 0) && iterator.hasNext()) {
                 // Passivate the oldest
                 final EntryHolder holder = this.cache.get(iterator.next().getId());
                 if (holder != null && !holder.value.getId().equals(timestamp.getId()) && !holder.value.isInUse()) {
                     remaining--;
+                    excess -= holder.size;
                     toPassivate.add(holder.value.getId());
                 }
             }
+            this.statistics.evicted(toPassivate.size());
         }
         return toPassivate;
     }
@@ -159,10 +183,12 @@ public class SimpleBackingCacheEntryStore<K extends Serializable, V extends Cach
     public void passivate(E entry) {
         synchronized (entry) {
             K key = entry.getId();
+            long start = System.nanoTime();
             store.store(entry);
+            this.statistics.passivated(System.nanoTime() - start);
             EntryHolder holder = cache.remove(key);
             if (holder != null) {
-                this.remove(holder.timestamp);
+                this.remove(holder);
             }
         }
     }
@@ -173,14 +199,25 @@ public class SimpleBackingCacheEntryStore<K extends Serializable, V extends Cach
         if (entry != null) {
             EntryHolder holder = cache.remove(id);
             if (holder != null) {
-                this.remove(holder.timestamp);
+                this.remove(holder);
             }
         }
         return entry;
     }
 
-    private void remove(CacheableTimestamp<K> timestamp) {
-        this.entries.remove(timestamp);
+    private void put(EntryHolder holder) {
+        EntryHolder previous = cache.put(holder.value.getId(), holder);
+        this.statistics.addResidentBytes((previous != null) ? holder.size - previous.size : holder.size);
+    }
+
+    private void remove(EntryHolder holder) {
+        this.entries.remove(holder.timestamp);
+        this.statistics.addResidentBytes(-holder.size);
+    }
+
+    private long estimateSize(E entry) {
+        // the budget is read on each call, so that it can be set or removed at runtime
+        return (this.estimator != null && this.getConfig().getMaxMemory() > 0) ? this.estimator.estimateSize(entry) : 0;
     }
 
     private void update(E entry) {
@@ -189,7 +226,7 @@ public class SimpleBackingCacheEntryStore<K extends Serializable, V extends Cach
         if (holder != null) {
             this.entries.remove(holder.timestamp);
         }
-        cache.put(entry.getId(), new EntryHolder(entry, timestamp));
+        this.put(new EntryHolder(entry, timestamp, (holder != null) ? holder.size : this.estimateSize(entry)));
         this.entries.add(timestamp);
     }
 
@@ -200,6 +237,12 @@ public class SimpleBackingCacheEntryStore<K extends Serializable, V extends Cach
 
     @Override
     public void stop() {
+        for (K key : cache.keySet()) {
+            EntryHolder holder = cache.remove(key);
+            if (holder != null) {
+                this.remove(holder);
+            }
+        }
         store.stop();
     }
 
@@ -214,10 +257,15 @@ public class SimpleBackingCacheEntryStore<K extends Serializable, V extends Cach
     private final class EntryHolder {
         private final CacheableTimestamp<K> timestamp;
         private final E value;
+        /**
+         * The estimated number of bytes retained by the value
+         */
+        private final long size;
 
-        private EntryHolder(final E value, final CacheableTimestamp<K> timestamp) {
+        private EntryHolder(final E value, final CacheableTimestamp<K> timestamp, final long size) {
             this.value = value;
             this.timestamp = timestamp;
+            this.size = size;
         }
     }
 }
@@ -29,13 +29,14 @@ import org.jboss.as.controller.services.path.PathManagerService;
 import org.jboss.as.ejb3.cache.Cacheable;
 import org.jboss.as.ejb3.cache.IdentifierFactory;
 import org.jboss.as.ejb3.cache.PassivationManager;
+import org.jboss.as.ejb3.cache.impl.backing.BackingCacheEntryStoreStatistics;
 import org.jboss.as.ejb3.cache.impl.backing.SimpleBackingCacheEntryStore;
 import org.jboss.as.ejb3.cache.spi.BackingCacheEntryStore;
 import org.jboss.as.ejb3.cache.spi.BackingCacheEntryStoreSource;
 import org.jboss.as.ejb3.cache.spi.SerializationGroup;
 import org.jboss.as.ejb3.cache.spi.SerializationGroupMember;
 import org.jboss.as.ejb3.cache.spi.impl.AbstractBackingCacheEntryStoreSource;
-import org.jboss.as.ejb3.cache.spi.impl.FilePersistentObjectStore;
+import org.jboss.as.ejb3.cache.spi.impl.SegmentedPersistentObjectStore;
 import org.jboss.as.ejb3.component.stateful.StatefulTimeoutInfo;
 import org.jboss.as.server.ServerEnvironment;
 import org.jboss.as.server.ServerEnvironmentService;
@@ -44,7 +45,7 @@ import org.jboss.msc.service.ServiceTarget;
 import org.jboss.msc.value.InjectedValue;
 
 /**
- * {@link BackingCacheEntryStoreSource} for a non-clustered cache. Uses a {@link FilePersistentObjectStore} store for
+ * {@link BackingCacheEntryStoreSource} for a non-clustered cache. Uses a {@link SegmentedPersistentObjectStore} store for
  * persistence.
  *
  * @author Brian Stansberry
@@ -71,21 +72,22 @@ public class NonClusteredBackingCacheEntryStoreSource<K extends Serializable, V
     private String relativeToRef = DEFAULT_RELATIVE_TO;
     private int subdirectoryCount = DEFAULT_SUBDIRECTORY_COUNT;
     private volatile PathManager.Callback.Handle callbackHandle;
+    private final BackingCacheEntryStoreStatistics statistics = new BackingCacheEntryStoreStatistics();
 
     @Override
     public <E extends SerializationGroup<K, V, G>> BackingCacheEntryStore<G, Cacheable<G>, E> createGroupIntegratedObjectStore(IdentifierFactory<G> identifierFactory, PassivationManager<G, E> passivationManager, StatefulTimeoutInfo timeout) {
-        FilePersistentObjectStore<G, E> objectStore = new FilePersistentObjectStore<G, E>(passivationManager, this.getStoragePath(null, this.groupDirectoryName), subdirectoryCount);
+        SegmentedPersistentObjectStore<G, E> objectStore = new SegmentedPersistentObjectStore<G, E>(passivationManager, this.getStoragePath(null, this.groupDirectoryName));
 
-        SimpleBackingCacheEntryStore<G, Cacheable<G>, E> store = new SimpleBackingCacheEntryStore<G, Cacheable<G>, E>(identifierFactory, objectStore, this.environment.getValue(), timeout, this);
+        SimpleBackingCacheEntryStore<G, Cacheable<G>, E> store = new SimpleBackingCacheEntryStore<G, Cacheable<G>, E>(identifierFactory, objectStore, this.environment.getValue(), timeout, this, objectStore, this.statistics);
 
         return store;
     }
 
     @Override
     public <E extends SerializationGroupMember<K, V, G>> BackingCacheEntryStore<K, V, E> createIntegratedObjectStore(String beanName, IdentifierFactory<K> identifierFactory, PassivationManager<K, E> passivationManager, StatefulTimeoutInfo timeout) {
-        FilePersistentObjectStore<K, E> objectStore = new FilePersistentObjectStore<K, E>(passivationManager, this.getStoragePath(beanName, this.sessionDirectoryName), subdirectoryCount);
+        SegmentedPersistentObjectStore<K, E> objectStore = new SegmentedPersistentObjectStore<K, E>(passivationManager, this.getStoragePath(beanName, this.sessionDirectoryName));
 
-        SimpleBackingCacheEntryStore<K, V, E> store = new SimpleBackingCacheEntryStore<K, V, E>(identifierFactory, objectStore, this.environment.getValue(), timeout, this);
+        SimpleBackingCacheEntryStore<K, V, E> store = new SimpleBackingCacheEntryStore<K, V, E>(identifierFactory, objectStore, this.environment.getValue(), timeout, this, objectStore, this.statistics);
 
         return store;
     }
@@ -101,6 +103,13 @@ public class NonClusteredBackingCacheEntryStoreSource<K extends Serializable, V
         return path.getAbsolutePath();
     }
 
+    /**
+     * Gets the statistics of the stores created by this source, which share its {@link #getMaxMemory() memory budget}.
+     */
+    public BackingCacheEntryStoreStatistics getStatistics() {
+        return this.statistics;
+    }
+
     /**
      * Gets the name of the subdirectory under the {@link #getBaseDirectoryName() base directory} under which sessions should be
      * stored. Default is {@link #DEFAULT_SESSION_DIRECTORY_NAME}.
@@ -137,6 +146,9 @@ public class NonClusteredBackingCacheEntryStoreSource<K extends Serializable, V
      * Gets the number of subdirectories under the session directory or the group directory into which the sessions/groups
      * should be divided. Using subdirectories helps overcome filesystem limits on the number of items that can be stored.
      * Default is {@link #DEFAULT_SUBDIRECTORY_COUNT}.
+     * <p/>
+     * Only applies to a {@link org.jboss.as.ejb3.cache.spi.impl.FilePersistentObjectStore}; the
+     * {@link SegmentedPersistentObjectStore} used by this source keeps a few segment files per cache instead.
      */
     public int getSubdirectoryCount() {
         return subdirectoryCount;
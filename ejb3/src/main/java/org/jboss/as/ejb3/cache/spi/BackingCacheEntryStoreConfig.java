@@ -29,6 +29,7 @@ import java.util.concurrent.TimeUnit;
  */
 public interface BackingCacheEntryStoreConfig {
     int DEFAULT_MAX_SIZE = 100000;
+    long DEFAULT_MAX_MEMORY = 0;
     long DEFAULT_IDLE_TIMEOUT = 300;
     TimeUnit DEFAULT_IDLE_TIMEOUT_UNIT = TimeUnit.SECONDS;
 
@@ -36,6 +37,14 @@ public interface BackingCacheEntryStoreConfig {
 
     void setMaxSize(int maxSize);
 
+    /**
+     * Gets the estimated number of bytes the cached objects may retain before the least recently used are passivated,
+     * or 0 if unbounded.
+     */
+    long getMaxMemory();
+
+    void setMaxMemory(long maxMemory);
+
     long getIdleTimeout();
 
     void setIdleTimeout(long timeout);
@@ -35,6 +35,7 @@ import org.jboss.as.ejb3.cache.spi.BackingCacheEntryStoreSource;
 public abstract class AbstractBackingCacheEntryStoreSource<K extends Serializable, V extends Cacheable<K>, G extends Serializable> implements BackingCacheEntryStoreSource<K, V, G> {
 
     private volatile int maxSize = BackingCacheEntryStoreConfig.DEFAULT_MAX_SIZE;
+    private volatile long maxMemory = BackingCacheEntryStoreConfig.DEFAULT_MAX_MEMORY;
     private volatile long idleTimeout = BackingCacheEntryStoreConfig.DEFAULT_IDLE_TIMEOUT;
     private volatile TimeUnit idleTimeoutUnit = BackingCacheEntryStoreConfig.DEFAULT_IDLE_TIMEOUT_UNIT;
 
@@ -48,6 +49,16 @@ public abstract class AbstractBackingCacheEntryStoreSource<K extends Serializabl
         this.maxSize = maxSize;
     }
 
+    @Override
+    public long getMaxMemory() {
+        return this.maxMemory;
+    }
+
+    @Override
+    public void setMaxMemory(long maxMemory) {
+        this.maxMemory = maxMemory;
+    }
+
     @Override
     public long getIdleTimeout() {
         return this.idleTimeout;
@@ -0,0 +1,510 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.cache.spi.impl;
+
+import static org.jboss.as.ejb3.EjbLogger.ROOT_LOGGER;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.security.PrivilegedActionException;
+import java.security.PrivilegedExceptionAction;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.ejb3.EjbMessages;
+import org.jboss.as.ejb3.cache.Cacheable;
+import org.jboss.as.ejb3.cache.PassivationManager;
+import org.jboss.as.ejb3.cache.spi.ObjectSizeEstimator;
+import org.jboss.as.ejb3.cache.spi.PersistentObjectStore;
+import org.jboss.logging.Logger;
+import org.jboss.marshalling.Marshaller;
+import org.jboss.marshalling.MarshallerFactory;
+import org.jboss.marshalling.Marshalling;
+import org.jboss.marshalling.MarshallingConfiguration;
+import org.jboss.marshalling.SimpleDataInput;
+import org.jboss.marshalling.SimpleDataOutput;
+import org.jboss.marshalling.Unmarshaller;
+
+/**
+ * Stores objects in a few large segment files rather than a file per object.
+ * <p/>
+ * Every stored object is appended to the current segment, and an index of the location of each object is kept in
+ * memory. Loading an object removes it from the store, as the state of an activated bean is never read twice. Once
+ * the current segment reaches its maximum size a new one is started; a segment none of whose objects are still
+ * stored is deleted straight away. Whenever a segment fills up, and less than half of the data held in the older
+ * segments is still stored, the remaining objects are copied to the current segment and the older segments are
+ * deleted, as the {@link org.jboss.as.ejb3.timerservice.persistence.journal.TimerJournal} does. The copy runs on a
+ * thread of the store, one object at a time, so passivation and activation wait for at most the copy of one object.
+ * <p/>
+ * Passivated state does not survive a restart, so nothing is synced to disk and the segments of each store are
+ * deleted when it stops.
+ * <p/>
+ * The store also estimates the memory retained by the objects of its cache, as the moving average of the size of the
+ * objects it marshalled, either to store them or to sample the objects whose size is estimated. The marshalled size
+ * of an object is only an approximation of the memory it retains, but it follows the growth of its state. Objects of
+ * a type which could not be marshalled are not sampled again.
+ *
+ * @param <K> the type of the object identifiers
+ * @param <V> the type of the objects
+ */
+public class SegmentedPersistentObjectStore<K extends Serializable, V extends Cacheable<K>> implements PersistentObjectStore<K, V>, ObjectSizeEstimator<V> {
+    private static final Logger log = Logger.getLogger(SegmentedPersistentObjectStore.class);
+
+    /**
+     * The default maximum size of a segment, in bytes
+     */
+    public static final long DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+
+    /**
+     * One in this number of the objects whose size is estimated is marshalled
+     */
+    private static final int SAMPLE_INTERVAL = 16;
+
+    private static final String SUFFIX = ".segment";
+    private static final AtomicInteger STORE_IDS = new AtomicInteger();
+
+    private final MarshallerFactory marshallerFactory = Marshalling.getMarshallerFactory("river", MarshallerFactory.class.getClassLoader());
+    private final PassivationManager<K, V> passivationManager;
+    private final File directory;
+    private final String prefix = "passivated-" + STORE_IDS.incrementAndGet() + "-";
+    private final long segmentSize;
+    private final ThreadFactory threadFactory;
+
+    /**
+     * The segments, ordered from oldest to newest. The last one is the one being appended to
+     */
+    private final TreeMap<Long, Segment> segments = new TreeMap<Long, Segment>();
+    private final Map<K, Location> index = new HashMap<K, Location>();
+    private Segment head;
+    private ExecutorService compactor;
+    private boolean compacting;
+
+    private final AtomicInteger estimates = new AtomicInteger();
+    private volatile long averageSize = -1;
+    private final Set<Class<?>> unmarshallableTypes = Collections.newSetFromMap(new ConcurrentHashMap<Class<?>, Boolean>());
+
+    public SegmentedPersistentObjectStore(PassivationManager<K, V> passivationManager, String directoryName) {
+        this(passivationManager, directoryName, DEFAULT_SEGMENT_SIZE);
+    }
+
+    public SegmentedPersistentObjectStore(PassivationManager<K, V> passivationManager, String directoryName, long segmentSize) {
+        this(passivationManager, directoryName, segmentSize, Executors.defaultThreadFactory());
+    }
+
+    public SegmentedPersistentObjectStore(PassivationManager<K, V> passivationManager, String directoryName, long segmentSize, ThreadFactory threadFactory) {
+        this.passivationManager = passivationManager;
+        this.directory = new File(directoryName);
+        this.segmentSize = segmentSize;
+        this.threadFactory = threadFactory;
+    }
+
+    @Override
+    public void start() {
+        if (!directory.exists()) {
+            if (!MkdirsFileAction.mkdirs(directory) && !directory.exists()) {
+                throw EjbMessages.MESSAGES.passivationDirectoryCreationFailed(directory.getPath());
+            }
+        }
+        if (!directory.isDirectory()) {
+            throw EjbMessages.MESSAGES.passivationPathNotADirectory(directory.getPath());
+        }
+        synchronized (this) {
+            compactor = Executors.newSingleThreadExecutor(threadFactory);
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (compactor != null) {
+            // a compaction still running only copies objects of the segments deleted here, so it stops copying
+            compactor.shutdown();
+            compactor = null;
+        }
+        compacting = false;
+        for (Segment segment : segments.values()) {
+            delete(segment);
+        }
+        segments.clear();
+        index.clear();
+        head = null;
+    }
+
+    @Override
+    public void store(V obj) {
+        final K key = obj.getId();
+        log.tracef("Storing state of %s to %s", key, directory);
+        try {
+            final byte[] bytes = marshal(obj);
+            sample(bytes.length);
+            synchronized (this) {
+                append(key, bytes);
+            }
+        } catch (IOException e) {
+            throw EjbMessages.MESSAGES.passivationFailed(e, key);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V load(K key) {
+        try {
+            final byte[] bytes;
+            synchronized (this) {
+                final Location location = index.remove(key);
+                if (location == null) {
+                    return null;
+                }
+                log.tracef("Loading state of %s from %s", key, location.segment.file);
+                bytes = read(location);
+                release(location);
+            }
+            final SimpleDataInput input = new SimpleDataInput(Marshalling.createByteInput(new ByteArrayInputStream(bytes)));
+            final int version = input.readInt();
+            final MarshallingConfiguration config = this.passivationManager.getMarshallingConfiguration(version);
+            final Unmarshaller unmarshaller = this.marshallerFactory.createUnmarshaller(config);
+            unmarshaller.start(input);
+            try {
+                final V value = (V) unmarshaller.readObject();
+                unmarshaller.finish();
+                return value;
+            } finally {
+                unmarshaller.close();
+            }
+        } catch (Exception e) {
+            throw EjbMessages.MESSAGES.activationFailed(e, key);
+        }
+    }
+
+    @Override
+    public long estimateSize(V obj) {
+        final Class<?> type = obj.getClass();
+        if ((averageSize < 0 || estimates.incrementAndGet() % SAMPLE_INTERVAL == 0) && !unmarshallableTypes.contains(type)) {
+            try {
+                sample(marshal(obj).length);
+            } catch (Exception e) {
+                // the object may only be marshallable once prepared for passivation; keep the current estimate, which
+                // the objects actually stored still update, rather than failing again on every sample
+                unmarshallableTypes.add(type);
+                log.tracef(e, "Could not estimate the size of %s", obj.getId());
+            }
+        }
+        return Math.max(averageSize, 0);
+    }
+
+    private void sample(final int size) {
+        // an approximate exponential moving average; concurrent samples may be lost, which does not matter
+        final long average = this.averageSize;
+        this.averageSize = (average < 0) ? size : average + (size - average) / 8;
+    }
+
+    /**
+     * @return the number of segment files
+     */
+    synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Waits for the compaction scheduled so far, if any, to complete.
+     */
+    void awaitCompaction() throws InterruptedException, ExecutionException {
+        final ExecutorService compactor;
+        synchronized (this) {
+            compactor = this.compactor;
+        }
+        if (compactor != null) {
+            // the compactor has a single thread, so this runs after any compaction submitted before it
+            compactor.submit(new Runnable() {
+                @Override
+                public void run() {
+                }
+            }).get();
+        }
+    }
+
+    /**
+     * Appends the state of an object to the current segment, starting a new segment, and scheduling a compaction if
+     * one is due, once the current one is full.
+     */
+    private void append(final K key, final byte[] bytes) throws IOException {
+        if (head == null) {
+            head = createSegment(segments.isEmpty() ? 0 : segments.lastKey() + 1);
+        }
+        final Location location = new Location(head, head.size, bytes.length);
+        write(head, bytes);
+        head.live += bytes.length;
+        release(index.put(key, location));
+        if (head.size >= segmentSize) {
+            head = createSegment(head.id + 1);
+            if (!compacting && compactor != null && needsCompaction()) {
+                compacting = true;
+                compactor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            compact();
+                        } catch (IOException e) {
+                            ROOT_LOGGER.failToCompactPassivationStore(directory, e);
+                        } finally {
+                            synchronized (SegmentedPersistentObjectStore.this) {
+                                compacting = false;
+                            }
+                        }
+                    }
+                });
+            }
+        }
+    }
+
+    private byte[] marshal(final V obj) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final SimpleDataOutput output = new SimpleDataOutput(Marshalling.createByteOutput(bytes));
+        final int version = this.passivationManager.getCurrentMarshallingVersion();
+        output.writeInt(version);
+        final MarshallingConfiguration config = this.passivationManager.getMarshallingConfiguration(version);
+        final Marshaller marshaller = this.marshallerFactory.createMarshaller(config);
+        marshaller.start(output);
+        try {
+            marshaller.writeObject(obj);
+            marshaller.finish();
+        } finally {
+            marshaller.close();
+        }
+        output.flush();
+        return bytes.toByteArray();
+    }
+
+    private static void write(final Segment segment, final byte[] bytes) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            segment.channel.write(buffer, segment.size + buffer.position());
+        }
+        segment.size += bytes.length;
+    }
+
+    private static byte[] read(final Location location) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(location.length);
+        while (buffer.hasRemaining()) {
+            if (location.segment.channel.read(buffer, location.position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of " + location.segment.file);
+            }
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Marks the data at a location as no longer stored, deleting its segment if nothing else in it is.
+     */
+    private void release(final Location location) {
+        if (location != null) {
+            final Segment segment = location.segment;
+            segment.live -= location.length;
+            if (segment.live == 0 && segment != head) {
+                segments.remove(segment.id);
+                delete(segment);
+            }
+        }
+    }
+
+    private Segment createSegment(final long id) throws IOException {
+        final Segment segment = new Segment(id, new File(directory, prefix + String.format("%016x", id) + SUFFIX));
+        segment.open();
+        segments.put(id, segment);
+        return segment;
+    }
+
+    private boolean needsCompaction() {
+        long size = 0;
+        long live = 0;
+        for (Segment segment : segments.headMap(head.id).values()) {
+            size += segment.size;
+            live += segment.live;
+        }
+        return size >= segmentSize && live * 2 < size;
+    }
+
+    /**
+     * Copies the objects still stored in the segments older than the current one to the current one, and deletes the
+     * older segments. The store is only locked for the copy of each object, so objects are stored and loaded while a
+     * compaction runs; an object loaded or stored again in the meantime is not copied.
+     */
+    void compact() throws IOException {
+        final List<Segment> old;
+        final List<K> keys = new ArrayList<K>();
+        synchronized (this) {
+            if (head == null) {
+                return;
+            }
+            old = new ArrayList<Segment>(segments.headMap(head.id).values());
+            for (Map.Entry<K, Location> entry : index.entrySet()) {
+                if (old.contains(entry.getValue().segment)) {
+                    keys.add(entry.getKey());
+                }
+            }
+        }
+        for (K key : keys) {
+            synchronized (this) {
+                final Location location = index.get(key);
+                // segments deleted by stop() are not in the index any more either
+                if (location != null && old.contains(location.segment)) {
+                    append(key, read(location));
+                }
+            }
+        }
+        synchronized (this) {
+            // a segment is deleted as soon as nothing in it is stored, except when that happens while it is current
+            for (Segment segment : old) {
+                if (segments.get(segment.id) == segment && segment.live == 0) {
+                    segments.remove(segment.id);
+                    delete(segment);
+                }
+            }
+        }
+    }
+
+    private static void delete(final Segment segment) {
+        segment.close();
+        DeleteFileAction.delete(segment.file);
+    }
+
+    private static final class Segment {
+        private final long id;
+        private final File file;
+        private long size;
+        /**
+         * The number of bytes of this segment that are referenced by the index
+         */
+        private long live;
+        private RandomAccessFile raf;
+        private FileChannel channel;
+
+        Segment(final long id, final File file) {
+            this.id = id;
+            this.file = file;
+        }
+
+        void open() throws IOException {
+            raf = RAFAction.open(file);
+            // a file of the same name may be left over from a previous run
+            raf.setLength(0);
+            channel = raf.getChannel();
+        }
+
+        void close() {
+            if (raf != null) {
+                try {
+                    raf.close();
+                } catch (IOException ignore) {
+                    //
+                }
+            }
+        }
+    }
+
+    private static final class Location {
+        private final Segment segment;
+        private final long position;
+        private final int length;
+
+        Location(final Segment segment, final long position, final int length) {
+            this.segment = segment;
+            this.position = position;
+            this.length = length;
+        }
+    }
+
+    private static class DeleteFileAction implements PrivilegedAction<Boolean> {
+        File file;
+
+        DeleteFileAction(File file) {
+            this.file = file;
+        }
+
+        @Override
+        public Boolean run() {
+            return file.delete();
+        }
+
+        static boolean delete(File file) {
+            return AccessController.doPrivileged(new DeleteFileAction(file));
+        }
+    }
+
+    private static class MkdirsFileAction implements PrivilegedAction<Boolean> {
+        File file;
+
+        MkdirsFileAction(File file) {
+            this.file = file;
+        }
+
+        @Override
+        public Boolean run() {
+            return file.mkdirs();
+        }
+
+        static boolean mkdirs(File file) {
+            return AccessController.doPrivileged(new MkdirsFileAction(file));
+        }
+    }
+
+    private static class RAFAction implements PrivilegedExceptionAction<RandomAccessFile> {
+        File file;
+
+        RAFAction(File file) {
+            this.file = file;
+        }
+
+        @Override
+        public RandomAccessFile run() throws FileNotFoundException {
+            return new RandomAccessFile(file, "rw");
+        }
+
+        static RandomAccessFile open(File file) throws FileNotFoundException {
+            try {
+                return AccessController.doPrivileged(new RAFAction(file));
+            } catch (PrivilegedActionException e) {
+                throw (FileNotFoundException) e.getException();
+            }
+        }
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.cache.spi.impl;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.logging.Logger;
+
+/**
+ * Times out keys with a single periodic task rather than a scheduled task per key: a hashed timing wheel.
+ * <p/>
+ * A key is placed into the bucket of the tick at which it times out. Every tick the task scans the buckets of the
+ * ticks elapsed since the previous scan, and hands the keys which have timed out to the {@link Listener} in a single
+ * batch, the longest timed out first. Keys which time out after more than a rotation of the wheel simply stay in their
+ * bucket until a later scan. Rescheduling or cancelling a key only updates a map, so it costs no more than the
+ * scheduling of a task.
+ * <p/>
+ * Unlike the {@link org.jboss.as.ejb3.timerservice.scheduler.TimingWheelTimeoutScheduler} of the timer service, the
+ * wheel has no thread of its own and does not dispatch each timeout separately: it runs on an executor supplied by its
+ * owner, which receives the keys in batches.
+ *
+ * @param <K> the type of the keys
+ */
+public class TimeoutWheel<K> {
+    private static final Logger log = Logger.getLogger(TimeoutWheel.class);
+
+    private static final int BUCKET_COUNT = 512;
+
+    /**
+     * Receives the keys which have timed out.
+     */
+    public interface Listener<K> {
+        /**
+         * Called from the task of the wheel with the keys which have timed out since the previous call.
+         *
+         * @param keys the keys, the longest timed out first
+         */
+        void timedOut(List<K> keys);
+    }
+
+    /**
+     * The source of the time of the wheel, which tests replace to turn the wheel without waiting.
+     */
+    interface Clock {
+        /**
+         * @return the current value of the clock, in nanoseconds, as {@link System#nanoTime()}
+         */
+        long nanoTime();
+    }
+
+    private static final Clock SYSTEM_CLOCK = new Clock() {
+        @Override
+        public long nanoTime() {
+            return System.nanoTime();
+        }
+    };
+
+    private final Listener<K> listener;
+    private final Clock clock;
+    private final long tickNanos;
+    private final List<Set<K>> buckets;
+    private final ConcurrentMap<K, Long> deadlines = new ConcurrentHashMap<K, Long>();
+    private final long origin;
+    private volatile long lastTick;
+    private volatile ScheduledFuture<?> future;
+
+    /**
+     * Creates a new wheel.
+     *
+     * @param tick     the resolution of the wheel
+     * @param unit     the unit of the resolution
+     * @param listener receives the keys which have timed out
+     */
+    public TimeoutWheel(final long tick, final TimeUnit unit, final Listener<K> listener) {
+        this(tick, unit, listener, SYSTEM_CLOCK);
+    }
+
+    TimeoutWheel(final long tick, final TimeUnit unit, final Listener<K> listener, final Clock clock) {
+        this.listener = listener;
+        this.clock = clock;
+        this.origin = clock.nanoTime();
+        this.tickNanos = unit.toNanos(tick);
+        final List<Set<K>> buckets = new ArrayList<Set<K>>(BUCKET_COUNT);
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.add(Collections.newSetFromMap(new ConcurrentHashMap<K, Boolean>()));
+        }
+        this.buckets = buckets;
+    }
+
+    /**
+     * Starts the periodic task of the wheel.
+     *
+     * @param executor the executor to run the task
+     */
+    public void start(final ScheduledExecutorService executor) {
+        lastTick = currentTick();
+        future = executor.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                tick();
+            }
+        }, tickNanos, tickNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Stops the periodic task of the wheel, and forgets all the scheduled keys.
+     */
+    public void stop() {
+        final ScheduledFuture<?> future = this.future;
+        if (future != null) {
+            future.cancel(false);
+            this.future = null;
+        }
+        deadlines.clear();
+        for (Set<K> bucket : buckets) {
+            bucket.clear();
+        }
+    }
+
+    /**
+     * Schedules the time out of a key, replacing any time out already scheduled for it.
+     *
+     * @param key     the key
+     * @param timeout the time after which the key times out
+     * @param unit    the unit of the timeout
+     */
+    public void schedule(final K key, final long timeout, final TimeUnit unit) {
+        final long deadline = clock.nanoTime() - origin + unit.toNanos(timeout);
+        final Long previous = deadlines.put(key, deadline);
+        if (previous != null) {
+            bucket(previous).remove(key);
+        }
+        bucket(deadline).add(key);
+    }
+
+    /**
+     * Cancels the time out of a key.
+     *
+     * @param key the key
+     * @return {@code true} if a time out was scheduled for the key
+     */
+    public boolean cancel(final K key) {
+        final Long deadline = deadlines.remove(key);
+        if (deadline == null) {
+            return false;
+        }
+        bucket(deadline).remove(key);
+        return true;
+    }
+
+    /**
+     * @return the number of keys whose time out is scheduled
+     */
+    public int size() {
+        return deadlines.size();
+    }
+
+    private Set<K> bucket(final long deadline) {
+        // the first tick at or after the deadline, but never one which has already been scanned
+        final long tick = Math.max((deadline + tickNanos - 1) / tickNanos, lastTick + 1);
+        return buckets.get((int) (tick % BUCKET_COUNT));
+    }
+
+    private long currentTick() {
+        return (clock.nanoTime() - origin) / tickNanos;
+    }
+
+    void tick() {
+        final long now = clock.nanoTime() - origin;
+        final long currentTick = now / tickNanos;
+        final long first = Math.max(lastTick + 1, currentTick - BUCKET_COUNT + 1);
+        final List<Map.Entry<K, Long>> timedOut = new ArrayList<Map.Entry<K, Long>>();
+        for (long tick = first; tick <= currentTick; tick++) {
+            final Set<K> bucket = buckets.get((int) (tick % BUCKET_COUNT));
+            for (K key : bucket) {
+                final Long deadline = deadlines.get(key);
+                if (deadline == null) {
+                    // cancelled concurrently
+                    bucket.remove(key);
+                } else if (deadline <= now && deadlines.remove(key, deadline)) {
+                    bucket.remove(key);
+                    timedOut.add(new AbstractMap.SimpleImmutableEntry<K, Long>(key, deadline));
+                }
+            }
+        }
+        lastTick = currentTick;
+        if (timedOut.isEmpty()) {
+            return;
+        }
+        Collections.sort(timedOut, new Comparator<Map.Entry<K, Long>>() {
+            @Override
+            public int compare(final Map.Entry<K, Long> o1, final Map.Entry<K, Long> o2) {
+                return o1.getValue().compareTo(o2.getValue());
+            }
+        });
+        final List<K> keys = new ArrayList<K>(timedOut.size());
+        for (Map.Entry<K, Long> entry : timedOut) {
+            keys.add(entry.getKey());
+        }
+        try {
+            listener.timedOut(keys);
+        } catch (RuntimeException e) {
+            // keep the wheel turning
+            log.warn(e.getMessage(), e);
+        }
+    }
+}
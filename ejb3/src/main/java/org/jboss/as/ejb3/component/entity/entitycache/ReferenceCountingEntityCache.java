@@ -24,7 +24,7 @@ package org.jboss.as.ejb3.component.entity.entitycache;
 
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.ejb.NoSuchEntityException;
 
@@ -33,101 +33,147 @@ import org.jboss.as.ejb3.component.entity.EntityBeanComponent;
 import org.jboss.as.ejb3.component.entity.EntityBeanComponentInstance;
 
 /**
+ * An entity cache which holds a single instance per primary key, for as long as the instance is referenced.
+ * <p/>
+ * Operations on different primary keys do not contend with each other: each cache entry is guarded by its own
+ * lock. An entry which has been removed from the cache is marked as such under its lock, and operations which
+ * find such an entry start again.
+ *
  * @author John Bailey
  */
 public class ReferenceCountingEntityCache implements ReadyEntityCache {
     private final ConcurrentMap<Object, CacheEntry> cache = new ConcurrentHashMap<Object, CacheEntry>();
     private final EntityBeanComponent component;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
 
     public ReferenceCountingEntityCache(final EntityBeanComponent component) {
         this.component = component;
     }
 
-    public synchronized void create(final EntityBeanComponentInstance instance) {
-        final CacheEntry entry = realCreate(instance);
-        entry.referenceCount.incrementAndGet();
-    }
-
-    private CacheEntry realCreate(final EntityBeanComponentInstance instance) {
+    public void create(final EntityBeanComponentInstance instance) {
+        final Object pk = instance.getPrimaryKey();
         final CacheEntry cacheEntry = new CacheEntry(instance);
-        final CacheEntry existing = cache.putIfAbsent(instance.getPrimaryKey(), cacheEntry);
-        if (existing != null) {
-            if (existing.instance.isRemoved()) {
-                //this happens in an instance is removed and then re-added in the space of the same transaction
-                existing.replacedInstance = instance;
-            } else {
-                throw EjbLogger.EJB3_LOGGER.instanceAlreadyRegisteredForPK(instance.getPrimaryKey());
+        for (;;) {
+            final CacheEntry existing = cache.putIfAbsent(pk, cacheEntry);
+            if (existing == null) {
+                synchronized (cacheEntry) {
+                    cacheEntry.referenceCount++;
+                }
+                return;
+            }
+            synchronized (existing) {
+                if (existing.evicted) {
+                    continue;
+                }
+                if (existing.instance.isRemoved()) {
+                    //this happens in an instance is removed and then re-added in the space of the same transaction
+                    existing.replacedInstance = instance;
+                    return;
+                } else {
+                    throw EjbLogger.EJB3_LOGGER.instanceAlreadyRegisteredForPK(pk);
+                }
             }
         }
-        return cacheEntry;
     }
 
-    public synchronized EntityBeanComponentInstance get(final Object key) throws NoSuchEntityException {
-        if (!cache.containsKey(key)) {
-            final EntityBeanComponentInstance instance = createInstance(key);
-            realCreate(instance);
-        }
-        final CacheEntry cacheEntry = cache.get(key);
-        cacheEntry.referenceCount.incrementAndGet();
-        if (cacheEntry.replacedInstance != null) {
-            return cacheEntry.replacedInstance;
-        } else {
-            return cacheEntry.instance;
+    public EntityBeanComponentInstance get(final Object key) throws NoSuchEntityException {
+        for (;;) {
+            CacheEntry cacheEntry = cache.get(key);
+            if (cacheEntry == null) {
+                final CacheEntry newEntry = new CacheEntry(null);
+                // hold the lock of the new entry while the instance is created, so concurrent callers for the same key wait for it
+                synchronized (newEntry) {
+                    cacheEntry = cache.putIfAbsent(key, newEntry);
+                    if (cacheEntry == null) {
+                        misses.incrementAndGet();
+                        try {
+                            newEntry.instance = createInstance(key);
+                        } catch (RuntimeException e) {
+                            newEntry.evicted = true;
+                            cache.remove(key, newEntry);
+                            throw e;
+                        }
+                        newEntry.referenceCount++;
+                        return newEntry.instance;
+                    }
+                }
+            }
+            synchronized (cacheEntry) {
+                if (cacheEntry.evicted) {
+                    continue;
+                }
+                hits.incrementAndGet();
+                cacheEntry.referenceCount++;
+                if (cacheEntry.replacedInstance != null) {
+                    return cacheEntry.replacedInstance;
+                } else {
+                    return cacheEntry.instance;
+                }
+            }
         }
     }
-    public synchronized void release(final EntityBeanComponentInstance instance, boolean success) {
+
+    public void release(final EntityBeanComponentInstance instance, boolean success) {
         if (instance.isDiscarded()) {
             return;
         }
-        if (instance.getPrimaryKey() == null) return;  // TODO: Should this be an Exception
-        final CacheEntry cacheEntry = cache.get(instance.getPrimaryKey());
+        final Object pk = instance.getPrimaryKey();
+        if (pk == null) return;  // TODO: Should this be an Exception
+        final CacheEntry cacheEntry = cache.get(pk);
         if (cacheEntry == null) {
             throw EjbLogger.EJB3_LOGGER.entityBeanInstanceNotFoundInCache(instance);
         }
-        if (cacheEntry.replacedInstance != null) {
-            //this can happen if an entity is removed and a new entity with the same PK is added in a transactions
-            if (instance == cacheEntry.replacedInstance) {
-                if (success) {
-                    cacheEntry.instance = cacheEntry.replacedInstance;
-                } else if (cacheEntry.instance.isDiscarded()) {
-                    //if the TX was a failure, and the previous instance has been discarded
-                    //we just remove the entry and return
-                    cache.remove(instance.getPrimaryKey());
-                    return;
+        synchronized (cacheEntry) {
+            if (cacheEntry.replacedInstance != null) {
+                //this can happen if an entity is removed and a new entity with the same PK is added in a transactions
+                if (instance == cacheEntry.replacedInstance) {
+                    if (success) {
+                        cacheEntry.instance = cacheEntry.replacedInstance;
+                    } else if (cacheEntry.instance.isDiscarded()) {
+                        //if the TX was a failure, and the previous instance has been discarded
+                        //we just remove the entry and return
+                        remove(pk, cacheEntry);
+                        return;
+                    }
+                    cacheEntry.replacedInstance = null;
                 }
-                cacheEntry.replacedInstance = null;
             }
-        }
-        //TODO: this should probably be somewhere else
-        //roll back unsuccessful removal
-        if (!success && instance.isRemoved()) {
-            instance.setRemoved(false);
-        }
-        if (cacheEntry.referenceCount.decrementAndGet() == 0) {
-            final Object pk = instance.getPrimaryKey();
-            try {
-                instance.passivate();
-                component.releaseEntityBeanInstance(instance);
-            } finally {
-                cache.remove(pk);
+            //TODO: this should probably be somewhere else
+            //roll back unsuccessful removal
+            if (!success && instance.isRemoved()) {
+                instance.setRemoved(false);
+            }
+            if (--cacheEntry.referenceCount == 0) {
+                try {
+                    instance.passivate();
+                    component.releaseEntityBeanInstance(instance);
+                } finally {
+                    remove(pk, cacheEntry);
+                    evictions.incrementAndGet();
+                }
             }
         }
     }
 
-    public synchronized void discard(final EntityBeanComponentInstance instance) {
-        if(instance.getPrimaryKey() == null) {
+    public void discard(final EntityBeanComponentInstance instance) {
+        final Object pk = instance.getPrimaryKey();
+        if (pk == null) {
             //instance has already been passivated
             return;
         }
-        final CacheEntry entry = cache.get(instance.getPrimaryKey());
+        final CacheEntry entry = cache.get(pk);
         if (entry != null) {
-            if (instance == entry.replacedInstance) {
-                //this instance that is being discarded is the new instance
-                //we can just set it to null
-                entry.replacedInstance = null;
-            } else if (entry.replacedInstance == null) {
-                //if there is a new instance we cannot discard the entry entirely
-                cache.remove(instance.getPrimaryKey());
+            synchronized (entry) {
+                if (instance == entry.replacedInstance) {
+                    //this instance that is being discarded is the new instance
+                    //we can just set it to null
+                    entry.replacedInstance = null;
+                } else if (entry.replacedInstance == null) {
+                    //if there is a new instance we cannot discard the entry entirely
+                    remove(pk, entry);
+                }
             }
         }
     }
@@ -138,16 +184,56 @@ public class ReferenceCountingEntityCache implements ReadyEntityCache {
     public void stop() {
     }
 
+    /**
+     * @return the number of lookups which found an instance in the cache
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of lookups which had to associate a new instance with the primary key
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * @return the number of instances which have been passivated and removed from the cache once no longer referenced
+     */
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    /**
+     * @return the number of primary keys currently in the cache
+     */
+    public int getCurrentSize() {
+        return cache.size();
+    }
+
+    /**
+     * Removes an entry from the cache. Must be called with the lock of the entry held.
+     */
+    private void remove(final Object pk, final CacheEntry cacheEntry) {
+        cacheEntry.evicted = true;
+        cache.remove(pk, cacheEntry);
+    }
+
     private EntityBeanComponentInstance createInstance(final Object pk) {
         final EntityBeanComponentInstance instance = component.acquireUnAssociatedInstance();
         instance.associate(pk);
         return instance;
     }
 
-    private class CacheEntry {
-        private final AtomicInteger referenceCount = new AtomicInteger(0);
-        private volatile EntityBeanComponentInstance instance;
-        private volatile EntityBeanComponentInstance replacedInstance;
+    /**
+     * An entry of the cache. All the fields are guarded by the lock of the entry.
+     */
+    private static class CacheEntry {
+        private int referenceCount;
+        private boolean evicted;
+        private EntityBeanComponentInstance instance;
+        private EntityBeanComponentInstance replacedInstance;
 
         private CacheEntry(EntityBeanComponentInstance instance) {
             this.instance = instance;
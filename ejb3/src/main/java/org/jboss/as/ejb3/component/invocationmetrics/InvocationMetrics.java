@@ -21,37 +21,90 @@
  */
 package org.jboss.as.ejb3.component.invocationmetrics;
 
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * @author <a href="mailto:cdewolf@redhat.com">Carlo de Wolf</a>
  */
 public class InvocationMetrics {
-    private static class Values {
-        final long invocations;
-        final long executionTime;
-        final long waitTime;
-
-        private Values(final long invocations, final long waitTime, final long executionTime) {
-            this.invocations = invocations;
-            this.executionTime = executionTime;
-            this.waitTime = waitTime;
+    /**
+     * The invocation statistics of a component, or of all methods of a component sharing the same name.
+     */
+    public static final class Values {
+        private static final int INVOCATIONS = 0;
+        private static final int WAIT_TIME = 1;
+        private static final int EXECUTION_TIME = 2;
+
+        private final StripedCounters counters = new StripedCounters(3);
+        private final LatencyHistogram waitTimes = new LatencyHistogram();
+        private final LatencyHistogram executionTimes = new LatencyHistogram();
+
+        void record(final long waitTime, final long executionTime) {
+            counters.add(INVOCATIONS, 1);
+            counters.add(WAIT_TIME, waitTime);
+            counters.add(EXECUTION_TIME, executionTime);
+            waitTimes.record(waitTime);
+            executionTimes.record(executionTime);
+        }
+
+        public long getInvocations() {
+            return counters.get(INVOCATIONS);
+        }
+
+        public long getWaitTime() {
+            return counters.get(WAIT_TIME);
+        }
+
+        public long getExecutionTime() {
+            return counters.get(EXECUTION_TIME);
+        }
+
+        /**
+         * @param percentile the percentile, between 0 and 100
+         * @return the wait time in milliseconds at the given percentile
+         */
+        public long getWaitTimePercentile(final double percentile) {
+            return waitTimes.getValueAtPercentile(percentile);
+        }
+
+        /**
+         * @param percentile the percentile, between 0 and 100
+         * @return the execution time in milliseconds at the given percentile
+         */
+        public long getExecutionTimePercentile(final double percentile) {
+            return executionTimes.getValueAtPercentile(percentile);
         }
     }
 
-    private final AtomicReference<Values> values = new AtomicReference<Values>(new Values(0, 0, 0));
+    private final Values values = new Values();
+    // keyed on method name, so overloaded methods share their statistics
+    private final ConcurrentMap<String, Values> methods = new ConcurrentHashMap<String, Values>();
     private final AtomicLong concurrent = new AtomicLong(0);
     private final AtomicLong peakConcurrent = new AtomicLong(0);
 
-    void finishInvocation(final long invocationWaitTime, final long invocationExecutionTime) {
+    void finishInvocation(final Method method, final long invocationWaitTime, final long invocationExecutionTime) {
         concurrent.decrementAndGet();
-        for(;;) {
-            final Values oldv = values.get();
-            final Values newv = new Values(oldv.invocations + 1, oldv.waitTime + invocationWaitTime, oldv.executionTime + invocationExecutionTime);
-            if (values.compareAndSet(oldv, newv))
-                return;
+        values.record(invocationWaitTime, invocationExecutionTime);
+        if (method != null) {
+            methodValues(method.getName()).record(invocationWaitTime, invocationExecutionTime);
+        }
+    }
+
+    private Values methodValues(final String name) {
+        Values methodValues = methods.get(name);
+        if (methodValues == null) {
+            final Values newValues = new Values();
+            methodValues = methods.putIfAbsent(name, newValues);
+            if (methodValues == null) {
+                methodValues = newValues;
+            }
         }
+        return methodValues;
     }
 
     public long getConcurrent() {
@@ -59,11 +112,11 @@ public class InvocationMetrics {
     }
 
     public long getExecutionTime() {
-        return values.get().executionTime;
+        return values.getExecutionTime();
     }
 
     public long getInvocations() {
-        return values.get().invocations;
+        return values.getInvocations();
     }
 
     public long getPeakConcurrent() {
@@ -71,13 +124,31 @@ public class InvocationMetrics {
     }
 
     public long getWaitTime() {
-        return values.get().waitTime;
+        return values.getWaitTime();
+    }
+
+    public long getExecutionTimePercentile(final double percentile) {
+        return values.getExecutionTimePercentile(percentile);
+    }
+
+    public long getWaitTimePercentile(final double percentile) {
+        return values.getWaitTimePercentile(percentile);
+    }
+
+    /**
+     * @return the statistics per invoked method name
+     */
+    public Map<String, Values> getMethods() {
+        return Collections.unmodifiableMap(methods);
     }
 
     void startInvocation() {
         final long v = concurrent.incrementAndGet();
-        // concurrent might decrement here, but we take that missing peak for granted.
-        if (peakConcurrent.get() < v)
-            peakConcurrent.incrementAndGet();
+        long peak = peakConcurrent.get();
+        while (peak < v) {
+            if (peakConcurrent.compareAndSet(peak, v))
+                return;
+            peak = peakConcurrent.get();
+        }
     }
 }
@@ -0,0 +1,122 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component.invocationmetrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A fixed size, log-linear histogram of non negative values, in the spirit of HdrHistogram. Values up to 2^40
+ * are recorded with a relative error of at most 1/8, larger values are clamped.
+ * <p/>
+ * The counts are striped by thread the same way as {@link StripedCounters}, so that threads recording concurrently
+ * do not contend on the same counts. The counts of a stripe are allocated by the first value recorded in it, after
+ * which recording a value does not allocate. Reads sum up all the stripes.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40;
+    private static final long MAX_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final AtomicReferenceArray<AtomicLongArray> stripes = new AtomicReferenceArray<AtomicLongArray>(StripedCounters.STRIPES);
+
+    public void record(final long value) {
+        final int stripe = StripedCounters.stripe();
+        AtomicLongArray counts = stripes.get(stripe);
+        if (counts == null) {
+            stripes.compareAndSet(stripe, null, new AtomicLongArray(BUCKETS));
+            counts = stripes.get(stripe);
+        }
+        counts.incrementAndGet(indexOf(value < 0 ? 0 : Math.min(value, MAX_VALUE)));
+    }
+
+    public long getCount() {
+        long count = 0;
+        for (long bucket : snapshot()) {
+            count += bucket;
+        }
+        return count;
+    }
+
+    /**
+     * Get the value at the given percentile.
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @return the highest value equivalent to the value at the percentile, or 0 if nothing was recorded
+     */
+    public long getValueAtPercentile(final double percentile) {
+        final long[] snapshot = snapshot();
+        long count = 0;
+        for (long bucket : snapshot) {
+            count += bucket;
+        }
+        if (count == 0) {
+            return 0;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(Math.min(percentile, 100.0) / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return highestValueOf(i);
+            }
+        }
+        return highestValueOf(BUCKETS - 1);
+    }
+
+    /**
+     * @return the counts of all the stripes summed up, by bucket
+     */
+    private long[] snapshot() {
+        final long[] snapshot = new long[BUCKETS];
+        for (int stripe = 0; stripe < stripes.length(); stripe++) {
+            final AtomicLongArray counts = stripes.get(stripe);
+            if (counts != null) {
+                for (int i = 0; i < BUCKETS; i++) {
+                    snapshot[i] += counts.get(i);
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    static int indexOf(final long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        final int shift = exponent - SUB_BUCKET_BITS;
+        final int subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long highestValueOf(final int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        final int shift = index / SUB_BUCKETS - 1;
+        final long subBucket = index & (SUB_BUCKETS - 1);
+        return ((SUB_BUCKETS + subBucket + 1) << shift) - 1;
+    }
+}
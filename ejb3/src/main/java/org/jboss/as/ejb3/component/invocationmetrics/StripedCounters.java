@@ -0,0 +1,78 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component.invocationmetrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A set of long counters which are updated without allocation and spread over a number of stripes, so that
+ * concurrent updates from different threads do not contend on the same memory location.
+ * Reads sum up all the stripes, and are therefore only weakly consistent with concurrent updates.
+ */
+final class StripedCounters {
+    // a cell per stripe spans a cache line, so that stripes do not share a line
+    private static final int CELL_SIZE = 8;
+
+    /**
+     * The number of stripes, the smallest power of two not below the number of processors
+     */
+    static final int STRIPES;
+
+    static {
+        int stripes = 1;
+        final int processors = Runtime.getRuntime().availableProcessors();
+        while (stripes < processors) {
+            stripes <<= 1;
+        }
+        STRIPES = stripes;
+    }
+
+    private final AtomicLongArray cells;
+    private final int counters;
+
+    StripedCounters(final int counters) {
+        assert counters > 0 && counters <= CELL_SIZE : "invalid number of counters " + counters;
+        this.counters = counters;
+        this.cells = new AtomicLongArray(STRIPES * CELL_SIZE);
+    }
+
+    void add(final int counter, final long delta) {
+        cells.getAndAdd(stripe() * CELL_SIZE + counter, delta);
+    }
+
+    long get(final int counter) {
+        assert counter < counters;
+        long sum = 0;
+        for (int i = counter; i < cells.length(); i += CELL_SIZE) {
+            sum += cells.get(i);
+        }
+        return sum;
+    }
+
+    /**
+     * @return the stripe of the current thread, between 0 and {@link #STRIPES} - 1
+     */
+    static int stripe() {
+        final long id = Thread.currentThread().getId();
+        return (int) (id ^ (id >>> 32)) & (STRIPES - 1);
+    }
+}
@@ -189,6 +189,9 @@ public class SingletonComponentDescription extends SessionBeanComponentDescripti
                     }
                 }
 
+                // the client interceptors of the view keep no state for a single proxy, so all proxies share them
+                configuration.setShareableClientInterceptors(true);
+
                 // add the singleton component instance associating interceptor
                 configuration.addViewInterceptor(SingletonComponentInstanceAssociationInterceptor.FACTORY, InterceptorOrder.View.ASSOCIATING_INTERCEPTOR);
             }
@@ -143,6 +143,9 @@ public class StatelessComponentDescription extends SessionBeanComponentDescripti
                     }
                 }
 
+                // the client interceptors of the view keep no state for a single proxy, so all proxies share them
+                configuration.setShareableClientInterceptors(true);
+
                 // add the stateless component instance associating interceptor
                 configuration.addViewInterceptor(StatelessComponentInstanceAssociatingFactory.instance(), InterceptorOrder.View.ASSOCIATING_INTERCEPTOR);
             }
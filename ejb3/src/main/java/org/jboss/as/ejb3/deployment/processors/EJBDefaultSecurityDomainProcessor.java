@@ -25,12 +25,15 @@ package org.jboss.as.ejb3.deployment.processors;
 import org.jboss.as.ee.component.ComponentDescription;
 import org.jboss.as.ee.component.EEModuleDescription;
 import org.jboss.as.ejb3.component.EJBComponentDescription;
+import org.jboss.as.server.deployment.AttachmentKey;
+import org.jboss.as.server.deployment.ConcurrentDeploymentUnitProcessor;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
 import org.jboss.as.server.deployment.DeploymentUnitProcessor;
 
 import java.util.Collection;
+import java.util.Set;
 
 import static org.jboss.as.ee.component.Attachments.EE_MODULE_DESCRIPTION;
 
@@ -41,7 +44,10 @@ import static org.jboss.as.ee.component.Attachments.EE_MODULE_DESCRIPTION;
  *
  * @author Jaikiran Pai
  */
-public class EJBDefaultSecurityDomainProcessor implements DeploymentUnitProcessor {
+public class EJBDefaultSecurityDomainProcessor implements ConcurrentDeploymentUnitProcessor {
+
+    private static final Set<AttachmentKey<?>> READ_ATTACHMENTS = AttachmentKey.setOf();
+    private static final Set<AttachmentKey<?>> WRITTEN_ATTACHMENTS = AttachmentKey.setOf(EE_MODULE_DESCRIPTION);
 
     private volatile String defaultSecurityDomainName;
 
@@ -49,6 +55,16 @@ public class EJBDefaultSecurityDomainProcessor implements DeploymentUnitProcesso
         this.defaultSecurityDomainName = defaultSecurityDomainName;
     }
 
+    @Override
+    public Set<AttachmentKey<?>> getReadAttachments() {
+        return READ_ATTACHMENTS;
+    }
+
+    @Override
+    public Set<AttachmentKey<?>> getWrittenAttachments() {
+        return WRITTEN_ATTACHMENTS;
+    }
+
     @Override
     public void deploy(DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
         final DeploymentUnit deploymentUnit = phaseContext.getDeploymentUnit();
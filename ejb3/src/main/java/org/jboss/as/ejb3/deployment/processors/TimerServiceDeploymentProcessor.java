@@ -23,7 +23,6 @@ package org.jboss.as.ejb3.deployment.processors;
 
 import static org.jboss.as.ejb3.EjbLogger.ROOT_LOGGER;
 
-import java.util.Timer;
 import java.util.concurrent.ExecutorService;
 
 import org.jboss.as.ee.component.Attachments;
@@ -38,7 +37,7 @@ import org.jboss.as.ejb3.component.EJBComponentDescription;
 import org.jboss.as.ejb3.timerservice.TimedObjectInvokerImpl;
 import org.jboss.as.ejb3.timerservice.TimerServiceImpl;
 import org.jboss.as.ejb3.timerservice.persistence.TimerPersistence;
-import org.jboss.as.ejb3.timerservice.persistence.filestore.FileTimerPersistence;
+import org.jboss.as.ejb3.timerservice.scheduler.TimeoutScheduler;
 import org.jboss.as.ejb3.timerservice.spi.TimedObjectInvoker;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
@@ -58,9 +57,11 @@ public class TimerServiceDeploymentProcessor implements DeploymentUnitProcessor
     public static final ServiceName TIMER_SERVICE_NAME = ServiceName.JBOSS.append("ejb3", "timer");
 
     private final ServiceName timerServiceThreadPool;
+    private final ServiceName timerPersistence;
 
-    public TimerServiceDeploymentProcessor(final ServiceName timerServiceThreadPool) {
+    public TimerServiceDeploymentProcessor(final ServiceName timerServiceThreadPool, final ServiceName timerPersistence) {
         this.timerServiceThreadPool = timerServiceThreadPool;
+        this.timerPersistence = timerPersistence;
     }
 
     @Override
@@ -99,10 +100,10 @@ public class TimerServiceDeploymentProcessor implements DeploymentUnitProcessor
                         final ServiceName serviceName = component.getServiceName().append(TimerServiceImpl.SERVICE_NAME);
                         final TimerServiceImpl service = new TimerServiceImpl(ejbComponentDescription.getScheduleMethods(), serviceName);
                         final ServiceBuilder<javax.ejb.TimerService> createBuilder = context.getServiceTarget().addService(serviceName, service);
-                        createBuilder.addDependency(TIMER_SERVICE_NAME, Timer.class, service.getTimerInjectedValue());
+                        createBuilder.addDependency(TIMER_SERVICE_NAME, TimeoutScheduler.class, service.getTimeoutSchedulerInjectedValue());
                         createBuilder.addDependency(component.getCreateServiceName(), EJBComponent.class, service.getEjbComponentInjectedValue());
                         createBuilder.addDependency(timerServiceThreadPool, ExecutorService.class, service.getExecutorServiceInjectedValue());
-                        createBuilder.addDependency(FileTimerPersistence.SERVICE_NAME, TimerPersistence.class, service.getTimerPersistence());
+                        createBuilder.addDependency(timerPersistence, TimerPersistence.class, service.getTimerPersistence());
                         createBuilder.addDependency(invokerServiceName, TimedObjectInvoker.class, service.getTimedObjectInvoker());
                         createBuilder.install();
                         ejbComponentDescription.setTimerService(service);
@@ -0,0 +1,257 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.pool.strictmax;
+
+import static org.jboss.as.ejb3.EjbLogger.ROOT_LOGGER;
+import static org.jboss.as.ejb3.EjbMessages.MESSAGES;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.jboss.as.ejb3.pool.AbstractPool;
+import org.jboss.as.ejb3.pool.StatelessObjectFactory;
+
+/**
+ * A pool with a maximum size which, unlike {@link StrictMaxPool}, does not funnel every
+ * {@link #get()} and {@link #release(Object)} through a single monitor.
+ * <p/>
+ * Idle instances are kept in a number of lock-free stacks (one per available processor, rounded
+ * up to a power of two). A thread pushes and pops on its "home" stripe, and only looks at the other
+ * stripes (work stealing) when its own stripe is empty. The number of instances in use is bounded
+ * by a non-fair semaphore, whose uncontended acquire is a single CAS.
+ * <p/>
+ * As the stripes are scanned without a lock, a caller may occasionally miss an instance which is
+ * concurrently moving between stripes and create a new one. The number of instances in use never exceeds
+ * the max size, and any surplus idle instance is destroyed when it is released.
+ */
+public class StripedStrictMaxPool<T> extends AbstractPool<T> {
+
+    /**
+     * A non-fair semaphore bounding the number of instances that may be in use at any point in time.
+     */
+    private final Semaphore semaphore;
+    /**
+     * The maximum number of instances allowed in the pool
+     */
+    private final int maxSize;
+    /**
+     * The time to wait for the semaphore.
+     */
+    private final long timeout;
+    private final TimeUnit timeUnit;
+    /**
+     * The idle instances, spread over a power of two number of lock-free stacks
+     */
+    private final AtomicReference<Node<T>>[] stripes;
+    private final int mask;
+    /**
+     * The number of idle instances currently held in the stripes
+     */
+    private final AtomicInteger pooled = new AtomicInteger();
+
+    public StripedStrictMaxPool(StatelessObjectFactory<T> factory, int maxSize, long timeout, TimeUnit timeUnit) {
+        this(factory, maxSize, timeout, timeUnit, Runtime.getRuntime().availableProcessors());
+    }
+
+    @SuppressWarnings("unchecked")
+    StripedStrictMaxPool(StatelessObjectFactory<T> factory, int maxSize, long timeout, TimeUnit timeUnit, int concurrency) {
+        super(factory);
+        this.maxSize = maxSize;
+        this.semaphore = new Semaphore(maxSize, false);
+        this.timeout = timeout;
+        this.timeUnit = timeUnit;
+        int stripeCount = 1;
+        while (stripeCount < concurrency) {
+            stripeCount <<= 1;
+        }
+        this.stripes = new AtomicReference[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            this.stripes[i] = new AtomicReference<Node<T>>();
+        }
+        this.mask = stripeCount - 1;
+    }
+
+    public void discard(T ctx) {
+        if (ROOT_LOGGER.isTraceEnabled()) {
+            ROOT_LOGGER.tracef("Discard instance %s#%s", this, ctx);
+        }
+
+        semaphore.release();
+
+        // Let the super do any other remove stuff
+        super.doRemove(ctx);
+    }
+
+    public int getCurrentSize() {
+        return getCreateCount() - getRemoveCount();
+    }
+
+    public int getAvailableCount() {
+        return semaphore.availablePermits();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+        throw MESSAGES.methodNotImplemented();
+    }
+
+    /**
+     * Get an instance without identity.
+     * Can be used by finders,create-methods, and activation
+     *
+     * @return Context /w instance
+     */
+    public T get() {
+        try {
+            // try the non-blocking path first, to avoid the timed wait bookkeeping when a permit is free
+            if (!semaphore.tryAcquire()) {
+                boolean acquired = semaphore.tryAcquire(timeout, timeUnit);
+                if (!acquired)
+                    throw MESSAGES.failedToAcquirePermit(timeout, timeUnit);
+            }
+        } catch (InterruptedException e) {
+            throw MESSAGES.acquireSemaphoreInterrupted();
+        }
+
+        final int home = homeStripe();
+        for (int i = 0; i <= mask; i++) {
+            final T bean = pop(stripes[(home + i) & mask]);
+            if (bean != null) {
+                return bean;
+            }
+        }
+
+        T bean = null;
+        try {
+            // Pool is empty, create an instance
+            bean = create();
+        } finally {
+            if (bean == null) {
+                semaphore.release();
+            }
+        }
+        return bean;
+    }
+
+    /**
+     * Return an instance after invocation.
+     * <p/>
+     * Called in 2 cases:
+     * a) Done with finder method
+     * b) Just removed
+     *
+     * @param obj
+     */
+    public void release(T obj) {
+        if (ROOT_LOGGER.isTraceEnabled()) {
+            ROOT_LOGGER.tracef("%s/%s Free instance: %s", pooled.get(), maxSize, this);
+        }
+
+        boolean destroyIt = true;
+        int current = pooled.get();
+        while (current < maxSize) {
+            if (pooled.compareAndSet(current, current + 1)) {
+                push(stripes[homeStripe()], obj);
+                destroyIt = false;
+                break;
+            }
+            current = pooled.get();
+        }
+        if (destroyIt)
+            destroy(obj);
+        semaphore.release();
+    }
+
+    @Override
+    @Deprecated
+    public void remove(T ctx) {
+        if (ROOT_LOGGER.isTraceEnabled()) {
+            ROOT_LOGGER.tracef("Removing instance: %s#%s", this, ctx);
+        }
+
+        semaphore.release();
+        // let the super do the other remove stuff
+        super.doRemove(ctx);
+    }
+
+    public void start() {
+    }
+
+    public void stop() {
+        for (AtomicReference<Node<T>> stripe : stripes) {
+            Node<T> node = stripe.getAndSet(null);
+            while (node != null) {
+                pooled.decrementAndGet();
+                destroy(node.value);
+                node = node.next;
+            }
+        }
+    }
+
+    private int homeStripe() {
+        // spread the thread id, so that sequentially numbered threads do not share low bits
+        final long id = Thread.currentThread().getId();
+        int h = (int) (id ^ (id >>> 32));
+        h ^= (h >>> 16);
+        h *= 0x85ebca6b;
+        h ^= (h >>> 13);
+        return h & mask;
+    }
+
+    private void push(final AtomicReference<Node<T>> stripe, final T value) {
+        final Node<T> node = new Node<T>(value);
+        Node<T> head;
+        do {
+            head = stripe.get();
+            node.next = head;
+        } while (!stripe.compareAndSet(head, node));
+    }
+
+    private T pop(final AtomicReference<Node<T>> stripe) {
+        Node<T> head;
+        do {
+            head = stripe.get();
+            if (head == null) {
+                return null;
+            }
+        } while (!stripe.compareAndSet(head, head.next));
+        pooled.decrementAndGet();
+        return head.value;
+    }
+
+    /**
+     * A node of a Treiber stack. Nodes are never reused, so the stacks are not subject to the ABA problem.
+     */
+    private static final class Node<T> {
+        final T value;
+        Node<T> next;
+
+        Node(final T value) {
+            this.value = value;
+        }
+    }
+}
@@ -24,6 +24,7 @@ package org.jboss.as.ejb3.subsystem;
 
 import org.jboss.as.controller.Extension;
 import org.jboss.as.controller.ExtensionContext;
+import org.jboss.as.controller.ModelVersion;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.ResourceDefinition;
 import org.jboss.as.controller.SimpleResourceDefinition;
@@ -35,6 +36,8 @@ import org.jboss.as.controller.operations.common.GenericSubsystemDescribeHandler
 import org.jboss.as.controller.parsing.ExtensionParsingContext;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
+import org.jboss.as.controller.transform.ResourceTransformer;
+import org.jboss.as.controller.transform.TransformersSubRegistration;
 import org.jboss.as.ejb3.subsystem.deployment.EntityBeanResourceDefinition;
 import org.jboss.as.ejb3.subsystem.deployment.MessageDrivenBeanResourceDefinition;
 import org.jboss.as.ejb3.subsystem.deployment.SingletonBeanDeploymentResourceDefinition;
@@ -44,7 +47,10 @@ import org.jboss.as.threads.ThreadFactoryResolver;
 import org.jboss.as.threads.ThreadsServices;
 import org.jboss.as.threads.UnboundedQueueThreadPoolResourceDefinition;
 
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DESCRIBE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.UNDEFINE_ATTRIBUTE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.WRITE_ATTRIBUTE_OPERATION;
 
 /**
  * Extension that provides the EJB3 subsystem.
@@ -62,7 +68,7 @@ public class EJB3Extension implements Extension {
     public static final String NAMESPACE_1_4 = EJB3SubsystemNamespace.EJB3_1_4.getUriString();
 
     private static final int MANAGEMENT_API_MAJOR_VERSION = 1;
-    private static final int MANAGEMENT_API_MINOR_VERSION = 1;
+    private static final int MANAGEMENT_API_MINOR_VERSION = 2;
     private static final int MANAGEMENT_API_MICRO_VERSION = 0;
 
     private static final String RESOURCE_NAME = EJB3Extension.class.getPackage().getName() + ".LocalDescriptions";
@@ -122,6 +128,31 @@ public class EJB3Extension implements Extension {
             deploymentsRegistration.registerSubModel(StatelessSessionBeanDeploymentResourceDefinition.INSTANCE);
             deploymentsRegistration.registerSubModel(StatefulSessionBeanDeploymentResourceDefinition.INSTANCE);
         }
+
+        registerTransformers_1_1_0(subsystem);
+    }
+
+    /**
+     * Registers the transformers for hosts running version 1.1.0 of the subsystem model, which does not have the
+     * striped pools, the memory bound of file passivation stores, nor the scheduler and data store type of the timer
+     * service.
+     */
+    private static void registerTransformers_1_1_0(final SubsystemRegistration subsystem) {
+        final TransformersSubRegistration transformers = subsystem.registerModelTransformers(ModelVersion.create(1, 1, 0), ResourceTransformer.DEFAULT);
+        registerRejectNonDefaultValues(transformers, StrictMaxPoolResourceDefinition.INSTANCE,
+                new RejectNonDefaultValuesTransformer(StrictMaxPoolResourceDefinition.STRIPED));
+        registerRejectNonDefaultValues(transformers, FilePassivationStoreResourceDefinition.INSTANCE,
+                new RejectNonDefaultValuesTransformer(FilePassivationStoreResourceDefinition.MAX_MEMORY));
+        registerRejectNonDefaultValues(transformers, TimerServiceResourceDefinition.INSTANCE,
+                new RejectNonDefaultValuesTransformer(TimerServiceResourceDefinition.SCHEDULER, TimerServiceResourceDefinition.DATA_STORE_TYPE));
+    }
+
+    private static void registerRejectNonDefaultValues(final TransformersSubRegistration transformers, final SimpleResourceDefinition definition,
+                                                       final RejectNonDefaultValuesTransformer transformer) {
+        final TransformersSubRegistration registration = transformers.registerSubResource(definition.getPathElement(), (ResourceTransformer) transformer);
+        registration.registerOperationTransformer(ADD, transformer);
+        registration.registerOperationTransformer(WRITE_ATTRIBUTE_OPERATION, transformer.getWriteAttributeTransformer());
+        registration.registerOperationTransformer(UNDEFINE_ATTRIBUTE_OPERATION, transformer.getWriteAttributeTransformer());
     }
 
     /**
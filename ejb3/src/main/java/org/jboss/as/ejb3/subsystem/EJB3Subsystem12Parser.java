@@ -490,7 +490,7 @@ public class EJB3Subsystem12Parser implements XMLElementReader<List<ModelNode>>,
         }
     }
 
-    private void writeStrictMaxPoolConfig(final XMLExtendedStreamWriter writer, final ModelNode strictMaxPoolModelNode) throws XMLStreamException {
+    protected void writeStrictMaxPoolConfig(final XMLExtendedStreamWriter writer, final ModelNode strictMaxPoolModelNode) throws XMLStreamException {
         // write the "name" attribute of the pool
         final String poolName = strictMaxPoolModelNode.get(EJB3SubsystemModel.NAME).asString();
         writer.writeAttribute(EJB3SubsystemXMLAttribute.NAME.getLocalName(), poolName);
@@ -540,34 +540,46 @@ public class EJB3Subsystem12Parser implements XMLElementReader<List<ModelNode>>,
                 // <strict-max-pool>
                 writer.writeStartElement(EJB3SubsystemXMLElement.FILE_PASSIVATION_STORE.getLocalName());
                 ModelNode store = property.getValue();
-                writer.writeAttribute(EJB3SubsystemXMLAttribute.NAME.getLocalName(), store.get(EJB3SubsystemModel.NAME).asString());
-                PassivationStoreResourceDefinition.IDLE_TIMEOUT.marshallAsAttribute(store, writer);
-                PassivationStoreResourceDefinition.IDLE_TIMEOUT_UNIT.marshallAsAttribute(store, writer);
-                FilePassivationStoreResourceDefinition.MAX_SIZE.marshallAsAttribute(store, writer);
-                FilePassivationStoreResourceDefinition.RELATIVE_TO.marshallAsAttribute(store, writer);
-                FilePassivationStoreResourceDefinition.GROUPS_PATH.marshallAsAttribute(store, writer);
-                FilePassivationStoreResourceDefinition.SESSIONS_PATH.marshallAsAttribute(store, writer);
-                FilePassivationStoreResourceDefinition.SUBDIRECTORY_COUNT.marshallAsAttribute(store, writer);
+                this.writeFilePassivationStoreConfig(writer, store);
                 writer.writeEndElement();
             }
         }
     }
 
-    private void writeTimerService(final XMLExtendedStreamWriter writer, final ModelNode timerServiceModel) throws XMLStreamException {
+    protected void writeFilePassivationStoreConfig(XMLExtendedStreamWriter writer, ModelNode store) throws XMLStreamException {
+        writer.writeAttribute(EJB3SubsystemXMLAttribute.NAME.getLocalName(), store.get(EJB3SubsystemModel.NAME).asString());
+        PassivationStoreResourceDefinition.IDLE_TIMEOUT.marshallAsAttribute(store, writer);
+        PassivationStoreResourceDefinition.IDLE_TIMEOUT_UNIT.marshallAsAttribute(store, writer);
+        FilePassivationStoreResourceDefinition.MAX_SIZE.marshallAsAttribute(store, writer);
+        FilePassivationStoreResourceDefinition.RELATIVE_TO.marshallAsAttribute(store, writer);
+        FilePassivationStoreResourceDefinition.GROUPS_PATH.marshallAsAttribute(store, writer);
+        FilePassivationStoreResourceDefinition.SESSIONS_PATH.marshallAsAttribute(store, writer);
+        FilePassivationStoreResourceDefinition.SUBDIRECTORY_COUNT.marshallAsAttribute(store, writer);
+    }
 
-        TimerServiceResourceDefinition.THREAD_POOL_NAME.marshallAsAttribute(timerServiceModel, writer);
+    protected void writeTimerService(final XMLExtendedStreamWriter writer, final ModelNode timerServiceModel) throws XMLStreamException {
+
+        this.writeTimerServiceAttributes(writer, timerServiceModel);
 
         // <data-store>
         if (TimerServiceResourceDefinition.PATH.isMarshallable(timerServiceModel)
                 || TimerServiceResourceDefinition.RELATIVE_TO.isMarshallable(timerServiceModel)) {
 
             writer.writeEmptyElement(EJB3SubsystemXMLElement.DATA_STORE.getLocalName());
-            TimerServiceResourceDefinition.PATH.marshallAsAttribute(timerServiceModel, writer);
-            TimerServiceResourceDefinition.RELATIVE_TO.marshallAsAttribute(timerServiceModel, writer);
+            this.writeTimerServiceDataStoreAttributes(writer, timerServiceModel);
         }
 
     }
 
+    protected void writeTimerServiceAttributes(final XMLExtendedStreamWriter writer, final ModelNode timerServiceModel) throws XMLStreamException {
+        TimerServiceResourceDefinition.THREAD_POOL_NAME.marshallAsAttribute(timerServiceModel, writer);
+    }
+
+    protected void writeTimerServiceDataStoreAttributes(final XMLExtendedStreamWriter writer, final ModelNode timerServiceModel) throws XMLStreamException {
+        TimerServiceResourceDefinition.PATH.marshallAsAttribute(timerServiceModel, writer);
+        TimerServiceResourceDefinition.RELATIVE_TO.marshallAsAttribute(timerServiceModel, writer);
+    }
+
 
     protected void parseRemote(final XMLExtendedStreamReader reader, List<ModelNode> operations) throws XMLStreamException {
         final int count = reader.getAttributeCount();
@@ -844,12 +856,13 @@ public class EJB3Subsystem12Parser implements XMLElementReader<List<ModelNode>>,
         }
     }
 
-    private void parseStrictMaxPool(final XMLExtendedStreamReader reader, List<ModelNode> operations) throws XMLStreamException {
+    protected void parseStrictMaxPool(final XMLExtendedStreamReader reader, List<ModelNode> operations) throws XMLStreamException {
         final int count = reader.getAttributeCount();
         String poolName = null;
         Integer maxPoolSize = null;
         Long timeout = null;
         String unit = null;
+        final ModelNode otherAttributes = new ModelNode();
         for (int i = 0; i < count; i++) {
             requireNoNamespaceAttribute(reader, i);
             final String value = reader.getAttributeValue(i);
@@ -869,7 +882,7 @@ public class EJB3Subsystem12Parser implements XMLElementReader<List<ModelNode>>,
                     break;
 
                 default:
-                    throw unexpectedAttribute(reader, i);
+                    this.readStrictMaxPoolAttribute(otherAttributes, reader, i);
             }
         }
         requireNoContent(reader);
@@ -877,7 +890,21 @@ public class EJB3Subsystem12Parser implements XMLElementReader<List<ModelNode>>,
             throw missingRequired(reader, Collections.singleton(EJB3SubsystemXMLAttribute.NAME.getLocalName()));
         }
         // create and add the operation
-        operations.add(this.createAddStrictMaxBeanInstancePoolOperation(poolName, maxPoolSize, timeout, unit));
+        final ModelNode addStrictMaxPoolOperation = this.createAddStrictMaxBeanInstancePoolOperation(poolName, maxPoolSize, timeout, unit);
+        setAttributes(addStrictMaxPoolOperation, otherAttributes);
+        operations.add(addStrictMaxPoolOperation);
+    }
+
+    /**
+     * Reads an attribute of a strict-max-pool element that this version of the schema does not know about.
+     *
+     * @param operation the node to which to add the parameter for the attribute
+     * @param reader    the reader
+     * @param i         the index of the attribute
+     * @throws XMLStreamException if the attribute is not allowed
+     */
+    protected void readStrictMaxPoolAttribute(final ModelNode operation, final XMLExtendedStreamReader reader, final int i) throws XMLStreamException {
+        throw unexpectedAttribute(reader, i);
     }
 
     private void parseCaches(final XMLExtendedStreamReader reader, List<ModelNode> operations) throws XMLStreamException {
@@ -953,7 +980,7 @@ public class EJB3Subsystem12Parser implements XMLElementReader<List<ModelNode>>,
         }
     }
 
-    private void parseFilePassivationStore(final XMLExtendedStreamReader reader, List<ModelNode> operations) throws XMLStreamException {
+    protected void parseFilePassivationStore(final XMLExtendedStreamReader reader, List<ModelNode> operations) throws XMLStreamException {
         String name = null;
         Integer maxSize = null;
         Long timeout = null;
@@ -962,6 +989,7 @@ public class EJB3Subsystem12Parser implements XMLElementReader<List<ModelNode>>,
         String groupsPath = null;
         String sessionsPath = null;
         Integer subdirectoryCount = null;
+        final ModelNode otherAttributes = new ModelNode();
         for (int i = 0; i < reader.getAttributeCount(); i++) {
             requireNoNamespaceAttribute(reader, i);
             final String value = reader.getAttributeValue(i);
@@ -999,7 +1027,7 @@ public class EJB3Subsystem12Parser implements XMLElementReader<List<ModelNode>>,
                     break;
                 }
                 default: {
-                    throw unexpectedAttribute(reader, i);
+                    this.readFilePassivationStoreAttribute(otherAttributes, reader, i);
                 }
             }
         }
@@ -1008,7 +1036,21 @@ public class EJB3Subsystem12Parser implements XMLElementReader<List<ModelNode>>,
             throw missingRequired(reader, Collections.singleton(EJB3SubsystemXMLAttribute.NAME.getLocalName()));
         }
         // create and add the operation
-        operations.add(this.createAddFilePassivationStoreOperation(name, maxSize, timeout, unit, relativeTo, groupsPath, sessionsPath, subdirectoryCount));
+        final ModelNode addFilePassivationStoreOperation = this.createAddFilePassivationStoreOperation(name, maxSize, timeout, unit, relativeTo, groupsPath, sessionsPath, subdirectoryCount);
+        setAttributes(addFilePassivationStoreOperation, otherAttributes);
+        operations.add(addFilePassivationStoreOperation);
+    }
+
+    /**
+     * Reads an attribute of a file-passivation-store element that this version of the schema does not know about.
+     *
+     * @param operation the node to which to add the parameter for the attribute
+     * @param reader    the reader
+     * @param i         the index of the attribute
+     * @throws XMLStreamException if the attribute is not allowed
+     */
+    protected void readFilePassivationStoreAttribute(final ModelNode operation, final XMLExtendedStreamReader reader, final int i) throws XMLStreamException {
+        throw unexpectedAttribute(reader, i);
     }
 
     private void parseClusterPassivationStore(final XMLExtendedStreamReader reader, List<ModelNode> operations) throws XMLStreamException {
@@ -1069,7 +1111,7 @@ public class EJB3Subsystem12Parser implements XMLElementReader<List<ModelNode>>,
         operations.add(this.createAddClusterPassivationStoreOperation(name, maxSize, timeout, unit, cacheContainer, beanCache, clientMappingsCache, passivateEventsOnReplicate));
     }
 
-    private void parseTimerService(final XMLExtendedStreamReader reader, List<ModelNode> operations) throws XMLStreamException {
+    protected void parseTimerService(final XMLExtendedStreamReader reader, List<ModelNode> operations) throws XMLStreamException {
 
         final ModelNode address = new ModelNode();
         address.add(SUBSYSTEM, EJB3Extension.SUBSYSTEM_NAME);
@@ -1094,7 +1136,7 @@ public class EJB3Subsystem12Parser implements XMLElementReader<List<ModelNode>>,
                     threadPoolName = value;
                     break;
                 default:
-                    throw unexpectedAttribute(reader, i);
+                    this.readTimerServiceAttribute(timerServiceAdd, reader, i);
             }
         }
         if (!required.isEmpty()) {
@@ -1124,7 +1166,7 @@ public class EJB3Subsystem12Parser implements XMLElementReader<List<ModelNode>>,
                                 dataStorePathRelativeTo = TimerServiceResourceDefinition.RELATIVE_TO.parse(value, reader).asString();
                                 break;
                             default:
-                                throw unexpectedAttribute(reader, i);
+                                this.readTimerServiceDataStoreAttribute(timerServiceAdd, reader, i);
                         }
                     }
                     if (dataStorePath == null) {
@@ -1145,6 +1187,31 @@ public class EJB3Subsystem12Parser implements XMLElementReader<List<ModelNode>>,
         operations.add(timerServiceAdd);
     }
 
+    /**
+     * Reads an attribute of the timer-service element that this version of the schema does not know about.
+     *
+     * @param timerServiceAdd the operation adding the timer service
+     * @param reader          the reader
+     * @param i               the index of the attribute
+     * @throws XMLStreamException if the attribute is not allowed
+     */
+    protected void readTimerServiceAttribute(final ModelNode timerServiceAdd, final XMLExtendedStreamReader reader, final int i) throws XMLStreamException {
+        throw unexpectedAttribute(reader, i);
+    }
+
+    /**
+     * Reads an attribute of the data-store element of the timer service that this version of the schema does not know
+     * about.
+     *
+     * @param timerServiceAdd the operation adding the timer service
+     * @param reader          the reader
+     * @param i               the index of the attribute
+     * @throws XMLStreamException if the attribute is not allowed
+     */
+    protected void readTimerServiceDataStoreAttribute(final ModelNode timerServiceAdd, final XMLExtendedStreamReader reader, final int i) throws XMLStreamException {
+        throw unexpectedAttribute(reader, i);
+    }
+
     private void parseThreadPools(final XMLExtendedStreamReader reader, final List<ModelNode> operations) throws XMLStreamException {
         // no attributes expected
         requireNoAttributes(reader);
@@ -1212,7 +1279,15 @@ public class EJB3Subsystem12Parser implements XMLElementReader<List<ModelNode>>,
         }
     }
 
-    private ModelNode createAddStrictMaxBeanInstancePoolOperation(final String name, final Integer maxPoolSize, final Long timeout, final String timeoutUnit) {
+    private static void setAttributes(final ModelNode operation, final ModelNode attributes) {
+        if (attributes.isDefined()) {
+            for (Property attribute : attributes.asPropertyList()) {
+                operation.get(attribute.getName()).set(attribute.getValue());
+            }
+        }
+    }
+
+    protected ModelNode createAddStrictMaxBeanInstancePoolOperation(final String name, final Integer maxPoolSize, final Long timeout, final String timeoutUnit) {
         // create /subsystem=ejb3/strict-max-bean-instance-pool=name:add(...)
         final ModelNode addStrictMaxPoolOperation = new ModelNode();
         addStrictMaxPoolOperation.get(OP).set(ADD);
@@ -1269,7 +1344,7 @@ public class EJB3Subsystem12Parser implements XMLElementReader<List<ModelNode>>,
         return operation;
     }
 
-    private ModelNode createAddFilePassivationStoreOperation(String name, Integer maxSize, Long idleTimeout, String idleTimeoutUnit, String relativeTo, String groupsPath, String sessionsPath, Integer subdirectoryCount) {
+    protected ModelNode createAddFilePassivationStoreOperation(String name, Integer maxSize, Long idleTimeout, String idleTimeoutUnit, String relativeTo, String groupsPath, String sessionsPath, Integer subdirectoryCount) {
         ModelNode operation = this.createAddPassivationStoreOperation(FILE_PASSIVATION_STORE, name, maxSize, idleTimeout, idleTimeoutUnit);
         if (relativeTo != null) {
             operation.get(RELATIVE_TO).set(relativeTo);
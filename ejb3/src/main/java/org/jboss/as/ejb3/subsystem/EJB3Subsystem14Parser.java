@@ -82,6 +82,78 @@ public class EJB3Subsystem14Parser extends EJB3Subsystem13Parser {
         return EJB3SubsystemNamespace.EJB3_1_4;
     }
 
+    @Override
+    protected void writeStrictMaxPoolConfig(final XMLExtendedStreamWriter writer, final ModelNode strictMaxPoolModelNode) throws XMLStreamException {
+        super.writeStrictMaxPoolConfig(writer, strictMaxPoolModelNode);
+
+        StrictMaxPoolResourceDefinition.STRIPED.marshallAsAttribute(strictMaxPoolModelNode, writer);
+    }
+
+    @Override
+    protected void readStrictMaxPoolAttribute(final ModelNode operation, final XMLExtendedStreamReader reader, final int i) throws XMLStreamException {
+        switch (EJB3SubsystemXMLAttribute.forName(reader.getAttributeLocalName(i))) {
+            case STRIPED:
+                StrictMaxPoolResourceDefinition.STRIPED.parseAndSetParameter(reader.getAttributeValue(i), operation, reader);
+                break;
+            default:
+                super.readStrictMaxPoolAttribute(operation, reader, i);
+        }
+    }
+
+    @Override
+    protected void writeFilePassivationStoreConfig(final XMLExtendedStreamWriter writer, final ModelNode store) throws XMLStreamException {
+        super.writeFilePassivationStoreConfig(writer, store);
+
+        FilePassivationStoreResourceDefinition.MAX_MEMORY.marshallAsAttribute(store, writer);
+    }
+
+    @Override
+    protected void readFilePassivationStoreAttribute(final ModelNode operation, final XMLExtendedStreamReader reader, final int i) throws XMLStreamException {
+        switch (EJB3SubsystemXMLAttribute.forName(reader.getAttributeLocalName(i))) {
+            case MAX_MEMORY:
+                FilePassivationStoreResourceDefinition.MAX_MEMORY.parseAndSetParameter(reader.getAttributeValue(i), operation, reader);
+                break;
+            default:
+                super.readFilePassivationStoreAttribute(operation, reader, i);
+        }
+    }
+
+    @Override
+    protected void writeTimerServiceAttributes(final XMLExtendedStreamWriter writer, final ModelNode timerServiceModel) throws XMLStreamException {
+        super.writeTimerServiceAttributes(writer, timerServiceModel);
+
+        TimerServiceResourceDefinition.SCHEDULER.marshallAsAttribute(timerServiceModel, writer);
+    }
+
+    @Override
+    protected void writeTimerServiceDataStoreAttributes(final XMLExtendedStreamWriter writer, final ModelNode timerServiceModel) throws XMLStreamException {
+        super.writeTimerServiceDataStoreAttributes(writer, timerServiceModel);
+
+        TimerServiceResourceDefinition.DATA_STORE_TYPE.marshallAsAttribute(timerServiceModel, writer);
+    }
+
+    @Override
+    protected void readTimerServiceAttribute(final ModelNode timerServiceAdd, final XMLExtendedStreamReader reader, final int i) throws XMLStreamException {
+        switch (EJB3SubsystemXMLAttribute.forName(reader.getAttributeLocalName(i))) {
+            case SCHEDULER:
+                TimerServiceResourceDefinition.SCHEDULER.parseAndSetParameter(reader.getAttributeValue(i), timerServiceAdd, reader);
+                break;
+            default:
+                super.readTimerServiceAttribute(timerServiceAdd, reader, i);
+        }
+    }
+
+    @Override
+    protected void readTimerServiceDataStoreAttribute(final ModelNode timerServiceAdd, final XMLExtendedStreamReader reader, final int i) throws XMLStreamException {
+        switch (EJB3SubsystemXMLAttribute.forName(reader.getAttributeLocalName(i))) {
+            case TYPE:
+                TimerServiceResourceDefinition.DATA_STORE_TYPE.parseAndSetParameter(reader.getAttributeValue(i), timerServiceAdd, reader);
+                break;
+            default:
+                super.readTimerServiceDataStoreAttribute(timerServiceAdd, reader, i);
+        }
+    }
+
     private void parseDefaultSecurityDomain(final XMLExtendedStreamReader reader, final ModelNode ejb3SubsystemAddOperation) throws XMLStreamException {
         final int count = reader.getAttributeCount();
         final EnumSet<EJB3SubsystemXMLAttribute> missingRequiredAttributes = EnumSet.of(EJB3SubsystemXMLAttribute.VALUE);
@@ -56,6 +56,7 @@ public interface EJB3SubsystemModel {
 
     String MAX_POOL_SIZE = "max-pool-size";
     String STRICT_MAX_BEAN_INSTANCE_POOL = "strict-max-bean-instance-pool";
+    String STRIPED = "striped";
 
     String MAX_THREADS = "max-threads";
     String KEEPALIVE_TIME = "keepalive-time";
@@ -71,6 +72,12 @@ public interface EJB3SubsystemModel {
     String TIMER_SERVICE = "timer-service";
     String THREAD_POOL = "thread-pool";
     String THREAD_POOL_NAME = "thread-pool-name";
+    String DATA_STORE_TYPE = "data-store-type";
+    String SCHEDULER = "scheduler";
+    String TIMEOUT_LAG_P50 = "timeout-lag-p50";
+    String TIMEOUT_LAG_P99 = "timeout-lag-p99";
+    String TIMEOUT_LAG_P999 = "timeout-lag-p999";
+    String DISPATCHED_TIMEOUTS = "dispatched-timeouts";
     String DEFAULT = "default";
 
     String USE_QUALIFIED_NAME = "use-qualified-name";
@@ -86,6 +93,12 @@ public interface EJB3SubsystemModel {
     String GROUPS_PATH = "groups-path";
     String SESSIONS_PATH = "sessions-path";
     String SUBDIRECTORY_COUNT = "subdirectory-count";
+    String MAX_MEMORY = "max-memory";
+    String RESIDENT_BYTES = "resident-bytes";
+    String EVICTION_COUNT = "eviction-count";
+    String PASSIVATION_COUNT = "passivation-count";
+    String PASSIVATION_TIME_P50 = "passivation-time-p50";
+    String PASSIVATION_TIME_P99 = "passivation-time-p99";
 
     String CLUSTER_PASSIVATION_STORE = "cluster-passivation-store";
     String BEAN_CACHE = "bean-cache";
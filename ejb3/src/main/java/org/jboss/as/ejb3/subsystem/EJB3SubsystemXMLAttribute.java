@@ -55,6 +55,7 @@ public enum EJB3SubsystemXMLAttribute {
 
     KEEPALIVE_TIME("keepalive-time"),
 
+    MAX_MEMORY("max-memory"),
     MAX_POOL_SIZE("max-pool-size"),
     MAX_SIZE("max-size"),
     MAX_THREADS("max-threads"),
@@ -70,7 +71,9 @@ public enum EJB3SubsystemXMLAttribute {
     RELATIVE_TO("relative-to"),
     RESOURCE_ADAPTER_NAME("resource-adapter-name"),
 
+    SCHEDULER("scheduler"),
     SESSIONS_PATH("sessions-path"),
+    STRIPED("striped"),
     SUBDIRECTORY_COUNT("subdirectory-count"),
 
     THREAD_POOL_NAME("thread-pool-name"),
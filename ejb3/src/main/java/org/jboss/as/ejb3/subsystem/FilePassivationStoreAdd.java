@@ -50,6 +50,9 @@ public class FilePassivationStoreAdd extends PassivationStoreAdd {
         String name = model.require(EJB3SubsystemModel.NAME).asString();
         NonClusteredBackingCacheEntryStoreSourceService<?, ?, ?> service = new NonClusteredBackingCacheEntryStoreSourceService<Serializable, Cacheable<Serializable>, Serializable>(name);
         NonClusteredBackingCacheEntryStoreSource<?, ?, ?> source = service.getValue();
+        if (model.hasDefined(EJB3SubsystemModel.MAX_MEMORY)) {
+            source.setMaxMemory(model.get(EJB3SubsystemModel.MAX_MEMORY).asLong());
+        }
         if (model.hasDefined(EJB3SubsystemModel.RELATIVE_TO)) {
             source.setRelativeTo(model.get(EJB3SubsystemModel.RELATIVE_TO).asString());
         }
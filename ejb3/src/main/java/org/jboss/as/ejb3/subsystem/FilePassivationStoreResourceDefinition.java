@@ -25,10 +25,14 @@ package org.jboss.as.ejb3.subsystem;
 import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.operations.validation.LongRangeValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
 import org.jboss.as.ejb3.cache.impl.factory.NonClusteredBackingCacheEntryStoreSource;
+import org.jboss.as.ejb3.cache.spi.BackingCacheEntryStoreConfig;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 
@@ -68,7 +72,24 @@ public class FilePassivationStoreResourceDefinition extends PassivationStoreReso
                     .setFlags(AttributeAccess.Flag.RESTART_NONE)
                     .build();
 
-    private static final AttributeDefinition[] ATTRIBUTES = new AttributeDefinition[] { IDLE_TIMEOUT, IDLE_TIMEOUT_UNIT, MAX_SIZE, RELATIVE_TO, GROUPS_PATH, SESSIONS_PATH, SUBDIRECTORY_COUNT };
+    public static final SimpleAttributeDefinition MAX_MEMORY =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.MAX_MEMORY, ModelType.LONG, true)
+                    .setXmlName(EJB3SubsystemXMLAttribute.MAX_MEMORY.getLocalName())
+                    .setDefaultValue(new ModelNode().set(BackingCacheEntryStoreConfig.DEFAULT_MAX_MEMORY))
+                    .setAllowExpression(true)
+                    .setValidator(new LongRangeValidator(0, Long.MAX_VALUE, true, true))
+                    .setMeasurementUnit(MeasurementUnit.BYTES)
+                    .setFlags(AttributeAccess.Flag.RESTART_NONE)
+                    .build();
+
+    public static final SimpleAttributeDefinition RESIDENT_BYTES = createMetric(EJB3SubsystemModel.RESIDENT_BYTES, MeasurementUnit.BYTES);
+    public static final SimpleAttributeDefinition EVICTION_COUNT = createMetric(EJB3SubsystemModel.EVICTION_COUNT, null);
+    public static final SimpleAttributeDefinition PASSIVATION_COUNT = createMetric(EJB3SubsystemModel.PASSIVATION_COUNT, null);
+    public static final SimpleAttributeDefinition PASSIVATION_TIME_P50 = createMetric(EJB3SubsystemModel.PASSIVATION_TIME_P50, MeasurementUnit.MICROSECONDS);
+    public static final SimpleAttributeDefinition PASSIVATION_TIME_P99 = createMetric(EJB3SubsystemModel.PASSIVATION_TIME_P99, MeasurementUnit.MICROSECONDS);
+
+    private static final AttributeDefinition[] ATTRIBUTES = new AttributeDefinition[] { IDLE_TIMEOUT, IDLE_TIMEOUT_UNIT, MAX_SIZE, MAX_MEMORY, RELATIVE_TO, GROUPS_PATH, SESSIONS_PATH, SUBDIRECTORY_COUNT };
+    private static final AttributeDefinition[] METRICS = new AttributeDefinition[] { RESIDENT_BYTES, EVICTION_COUNT, PASSIVATION_COUNT, PASSIVATION_TIME_P50, PASSIVATION_TIME_P99 };
 
     private static final FilePassivationStoreAdd ADD = new FilePassivationStoreAdd(ATTRIBUTES);
     private static final FilePassivationStoreRemove REMOVE = new FilePassivationStoreRemove(ADD);
@@ -79,4 +100,22 @@ public class FilePassivationStoreResourceDefinition extends PassivationStoreReso
     private FilePassivationStoreResourceDefinition() {
         super(EJB3SubsystemModel.FILE_PASSIVATION_STORE, ADD, REMOVE, OperationEntry.Flag.RESTART_NONE, OperationEntry.Flag.RESTART_RESOURCE_SERVICES, WRITE_HANDLER, ATTRIBUTES);
     }
+
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        super.registerAttributes(resourceRegistration);
+        for (AttributeDefinition metric : METRICS) {
+            resourceRegistration.registerMetric(metric, FilePassivationStoreMetricsHandler.INSTANCE);
+        }
+    }
+
+    private static SimpleAttributeDefinition createMetric(final String name, final MeasurementUnit unit) {
+        SimpleAttributeDefinitionBuilder builder = new SimpleAttributeDefinitionBuilder(name, ModelType.LONG)
+                .setAllowNull(false)
+                .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME);
+        if (unit != null) {
+            builder.setMeasurementUnit(unit);
+        }
+        return builder.build();
+    }
 }
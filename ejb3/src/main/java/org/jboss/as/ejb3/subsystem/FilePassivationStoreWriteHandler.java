@@ -44,7 +44,10 @@ public class FilePassivationStoreWriteHandler extends PassivationStoreWriteHandl
 
     @Override
     protected void apply(NonClusteredBackingCacheEntryStoreSource<?, ?, ?> config, OperationContext context, String attributeName, ModelNode model) throws OperationFailedException {
-        if (FilePassivationStoreResourceDefinition.RELATIVE_TO.getName().equals(attributeName)) {
+        if (FilePassivationStoreResourceDefinition.MAX_MEMORY.getName().equals(attributeName)) {
+            long maxMemory = FilePassivationStoreResourceDefinition.MAX_MEMORY.resolveModelAttribute(context, model).asLong();
+            config.setMaxMemory(maxMemory);
+        } else if (FilePassivationStoreResourceDefinition.RELATIVE_TO.getName().equals(attributeName)) {
             String relativeTo = FilePassivationStoreResourceDefinition.RELATIVE_TO.resolveModelAttribute(context, model).asString();
             config.setRelativeTo(relativeTo);
         } else if (FilePassivationStoreResourceDefinition.GROUPS_PATH.getName().equals(attributeName)) {
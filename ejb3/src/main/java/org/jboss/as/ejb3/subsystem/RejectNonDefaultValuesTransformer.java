@@ -0,0 +1,163 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.subsystem;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VALUE;
+import static org.jboss.as.ejb3.EjbMessages.MESSAGES;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.as.controller.transform.OperationRejectionPolicy;
+import org.jboss.as.controller.transform.OperationResultTransformer;
+import org.jboss.as.controller.transform.OperationTransformer;
+import org.jboss.as.controller.transform.ResourceTransformationContext;
+import org.jboss.as.controller.transform.ResourceTransformer;
+import org.jboss.as.controller.transform.TransformationContext;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+/**
+ * Transforms resources and operations for hosts running a version of the subsystem that does not have some attributes.
+ * The attributes are removed when they have their default value, which is what the older version implies, and any
+ * other value is rejected.
+ */
+class RejectNonDefaultValuesTransformer implements ResourceTransformer, OperationTransformer {
+
+    private final AttributeDefinition[] attributes;
+    private final OperationTransformer writeAttributeTransformer = new WriteAttributeTransformer();
+
+    RejectNonDefaultValuesTransformer(final AttributeDefinition... attributes) {
+        this.attributes = attributes;
+    }
+
+    /**
+     * Get a "write-attribute" operation transformer.
+     *
+     * @return a write attribute operation transformer
+     */
+    OperationTransformer getWriteAttributeTransformer() {
+        return writeAttributeTransformer;
+    }
+
+    @Override
+    public void transformResource(final ResourceTransformationContext context, final PathAddress address, final Resource resource) throws OperationFailedException {
+        if (resource.isProxy() || resource.isRuntime()) {
+            return;
+        }
+        final ModelNode model = resource.getModel().clone();
+        final Set<String> rejected = removeAttributes(model);
+        if (!rejected.isEmpty()) {
+            throw MESSAGES.attributesNotSupportedByLegacyModel(rejected, address);
+        }
+        final Resource transformed = Resource.Factory.create();
+        transformed.writeModel(model);
+        final ResourceTransformationContext childContext = context.addTransformedResource(PathAddress.EMPTY_ADDRESS, transformed);
+        childContext.processChildren(resource);
+    }
+
+    @Override
+    public TransformedOperation transformOperation(final TransformationContext context, final PathAddress address, final ModelNode operation) throws OperationFailedException {
+        final ModelNode transformed = operation.clone();
+        final Set<String> rejected = removeAttributes(transformed);
+        if (!rejected.isEmpty()) {
+            return new TransformedOperation(operation, new RejectionPolicy(rejected, address), OperationResultTransformer.ORIGINAL_RESULT);
+        }
+        return new TransformedOperation(transformed, OperationResultTransformer.ORIGINAL_RESULT);
+    }
+
+    /**
+     * Removes the attributes that have their default value.
+     *
+     * @param model the resource model or the operation
+     * @return the names of the attributes that have another value
+     */
+    private Set<String> removeAttributes(final ModelNode model) {
+        final Set<String> rejected = new TreeSet<String>();
+        for (AttributeDefinition attribute : attributes) {
+            final String name = attribute.getName();
+            if (model.has(name)) {
+                if (isDefault(attribute, model.get(name))) {
+                    model.remove(name);
+                } else {
+                    rejected.add(name);
+                }
+            }
+        }
+        return rejected;
+    }
+
+    private static boolean isDefault(final AttributeDefinition attribute, final ModelNode value) {
+        if (!value.isDefined()) {
+            return true;
+        }
+        final ModelNode defaultValue = attribute.getDefaultValue();
+        // an expression may resolve to another value on the host
+        return defaultValue != null && value.getType() != ModelType.EXPRESSION && defaultValue.asString().equals(value.asString());
+    }
+
+    private static class RejectionPolicy implements OperationRejectionPolicy {
+        private final Set<String> attributes;
+        private final PathAddress address;
+
+        RejectionPolicy(final Set<String> attributes, final PathAddress address) {
+            this.attributes = attributes;
+            this.address = address;
+        }
+
+        @Override
+        public boolean rejectOperation(final ModelNode preparedResult) {
+            return true;
+        }
+
+        @Override
+        public String getFailureDescription() {
+            return MESSAGES.attributesNotSupportedByLegacyModel(attributes, address).getMessage();
+        }
+    }
+
+    private class WriteAttributeTransformer implements OperationTransformer {
+
+        @Override
+        public TransformedOperation transformOperation(final TransformationContext context, final PathAddress address, final ModelNode operation) throws OperationFailedException {
+            final String name = operation.require(NAME).asString();
+            for (AttributeDefinition attribute : attributes) {
+                if (attribute.getName().equals(name)) {
+                    if (isDefault(attribute, operation.get(VALUE))) {
+                        // the host already behaves as if the attribute had its default value
+                        return DISCARD.transformOperation(context, address, operation);
+                    }
+                    final Set<String> rejected = new TreeSet<String>();
+                    rejected.add(name);
+                    return new TransformedOperation(operation, new RejectionPolicy(rejected, address), OperationResultTransformer.ORIGINAL_RESULT);
+                }
+            }
+            return new TransformedOperation(operation, OperationResultTransformer.ORIGINAL_RESULT);
+        }
+    }
+}
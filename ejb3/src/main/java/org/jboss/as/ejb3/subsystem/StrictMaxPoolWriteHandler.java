@@ -47,7 +47,7 @@ public class StrictMaxPoolWriteHandler extends AbstractWriteAttributeHandler<Voi
 
     private StrictMaxPoolWriteHandler() {
         super(StrictMaxPoolResourceDefinition.MAX_POOL_SIZE, StrictMaxPoolResourceDefinition.INSTANCE_ACQUISITION_TIMEOUT,
-                StrictMaxPoolResourceDefinition.INSTANCE_ACQUISITION_TIMEOUT_UNIT);
+                StrictMaxPoolResourceDefinition.INSTANCE_ACQUISITION_TIMEOUT_UNIT, StrictMaxPoolResourceDefinition.STRIPED);
     }
 
     @Override
@@ -69,15 +69,18 @@ public class StrictMaxPoolWriteHandler extends AbstractWriteAttributeHandler<Voi
         if (sc != null) {
             StrictMaxPoolConfig smpc = StrictMaxPoolConfig.class.cast(sc.getValue());
             if (smpc != null) {
-                if (StrictMaxPoolResourceDefinition.MAX_POOL_SIZE.equals(attributeName)) {
+                if (StrictMaxPoolResourceDefinition.MAX_POOL_SIZE.getName().equals(attributeName)) {
                     int maxPoolSize = StrictMaxPoolResourceDefinition.MAX_POOL_SIZE.resolveModelAttribute(context, model).asInt();
                     smpc.setMaxPoolSize(maxPoolSize);
-                } else if (StrictMaxPoolResourceDefinition.INSTANCE_ACQUISITION_TIMEOUT.equals(attributeName)) {
+                } else if (StrictMaxPoolResourceDefinition.INSTANCE_ACQUISITION_TIMEOUT.getName().equals(attributeName)) {
                     long timeout = StrictMaxPoolResourceDefinition.INSTANCE_ACQUISITION_TIMEOUT.resolveModelAttribute(context, model).asLong();
                     smpc.setTimeout(timeout);
-                } else if (StrictMaxPoolResourceDefinition.INSTANCE_ACQUISITION_TIMEOUT_UNIT.equals(attributeName)) {
+                } else if (StrictMaxPoolResourceDefinition.INSTANCE_ACQUISITION_TIMEOUT_UNIT.getName().equals(attributeName)) {
                     String timeoutUnit = StrictMaxPoolResourceDefinition.INSTANCE_ACQUISITION_TIMEOUT_UNIT.resolveModelAttribute(context, model).asString();
                     smpc.setTimeoutUnit(TimeUnit.valueOf(timeoutUnit));
+                } else if (StrictMaxPoolResourceDefinition.STRIPED.getName().equals(attributeName)) {
+                    boolean striped = StrictMaxPoolResourceDefinition.STRIPED.resolveModelAttribute(context, model).asBoolean();
+                    smpc.setStriped(striped);
                 }
             }
         }
@@ -0,0 +1,62 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.subsystem;
+
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.ejb3.deployment.processors.TimerServiceDeploymentProcessor;
+import org.jboss.as.ejb3.timerservice.scheduler.TimeoutScheduler;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+
+/**
+ * Reads the metrics of the {@link TimeoutScheduler} shared by the timer services.
+ */
+public class TimerServiceMetricsHandler extends AbstractRuntimeOnlyHandler {
+
+    public static final TimerServiceMetricsHandler INSTANCE = new TimerServiceMetricsHandler();
+
+    private TimerServiceMetricsHandler() {
+    }
+
+    @Override
+    protected void executeRuntimeStep(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+        final String attributeName = operation.require(ModelDescriptionConstants.NAME).asString();
+        final ServiceController<?> controller = context.getServiceRegistry(false).getService(TimerServiceDeploymentProcessor.TIMER_SERVICE_NAME);
+        if (controller != null && controller.getState() == ServiceController.State.UP) {
+            final TimeoutScheduler scheduler = (TimeoutScheduler) controller.getValue();
+            final ModelNode result = context.getResult();
+            if (EJB3SubsystemModel.DISPATCHED_TIMEOUTS.equals(attributeName)) {
+                result.set(scheduler.getDispatchedTimeouts());
+            } else if (EJB3SubsystemModel.TIMEOUT_LAG_P50.equals(attributeName)) {
+                result.set(scheduler.getTimeoutLagPercentile(50));
+            } else if (EJB3SubsystemModel.TIMEOUT_LAG_P99.equals(attributeName)) {
+                result.set(scheduler.getTimeoutLagPercentile(99));
+            } else if (EJB3SubsystemModel.TIMEOUT_LAG_P999.equals(attributeName)) {
+                result.set(scheduler.getTimeoutLagPercentile(99.9));
+            }
+        }
+        context.stepCompleted();
+    }
+}
@@ -32,11 +32,16 @@ import org.jboss.as.controller.ResourceDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.operations.validation.EnumValidator;
 import org.jboss.as.controller.operations.validation.ModelTypeValidator;
 import org.jboss.as.controller.operations.validation.StringLengthValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
+import org.jboss.as.ejb3.timerservice.persistence.TimerPersistenceType;
+import org.jboss.as.ejb3.timerservice.scheduler.TimeoutSchedulerType;
+import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 
 /**
@@ -65,6 +70,30 @@ public class TimerServiceResourceDefinition extends SimpleResourceDefinition {
                     .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
                     .build();
 
+    public static final SimpleAttributeDefinition DATA_STORE_TYPE =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.DATA_STORE_TYPE, ModelType.STRING, true)
+                    .setXmlName(EJB3SubsystemXMLAttribute.TYPE.getLocalName())
+                    .setDefaultValue(new ModelNode().set(TimerPersistenceType.FILE.toString()))
+                    .setValidator(new EnumValidator<TimerPersistenceType>(TimerPersistenceType.class, true, false))
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .build();
+
+    public static final SimpleAttributeDefinition SCHEDULER =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.SCHEDULER, ModelType.STRING, true)
+                    .setDefaultValue(new ModelNode().set(TimeoutSchedulerType.TIMER.toString()))
+                    .setValidator(new EnumValidator<TimeoutSchedulerType>(TimeoutSchedulerType.class, true, false))
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .build();
+
+    public static final SimpleAttributeDefinition TIMEOUT_LAG_P50 = createLagPercentile(EJB3SubsystemModel.TIMEOUT_LAG_P50);
+    public static final SimpleAttributeDefinition TIMEOUT_LAG_P99 = createLagPercentile(EJB3SubsystemModel.TIMEOUT_LAG_P99);
+    public static final SimpleAttributeDefinition TIMEOUT_LAG_P999 = createLagPercentile(EJB3SubsystemModel.TIMEOUT_LAG_P999);
+
+    public static final SimpleAttributeDefinition DISPATCHED_TIMEOUTS =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.DISPATCHED_TIMEOUTS, ModelType.LONG)
+                    .setAllowNull(false)
+                    .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+                    .build();
 
     public static final Map<String, AttributeDefinition> ATTRIBUTES ;
 
@@ -72,7 +101,9 @@ public class TimerServiceResourceDefinition extends SimpleResourceDefinition {
         Map<String, AttributeDefinition> map = new LinkedHashMap<String, AttributeDefinition>();
         map.put(PATH.getName(), PATH);
         map.put(RELATIVE_TO.getName(), RELATIVE_TO);
+        map.put(DATA_STORE_TYPE.getName(), DATA_STORE_TYPE);
         map.put(THREAD_POOL_NAME.getName(), THREAD_POOL_NAME);
+        map.put(SCHEDULER.getName(), SCHEDULER);
 
         ATTRIBUTES = Collections.unmodifiableMap(map);
     }
@@ -89,5 +120,17 @@ public class TimerServiceResourceDefinition extends SimpleResourceDefinition {
         for (AttributeDefinition attr : ATTRIBUTES.values()) {
             resourceRegistration.registerReadWriteAttribute(attr, null, new ReloadRequiredWriteAttributeHandler(attr));
         }
+        resourceRegistration.registerMetric(DISPATCHED_TIMEOUTS, TimerServiceMetricsHandler.INSTANCE);
+        resourceRegistration.registerMetric(TIMEOUT_LAG_P50, TimerServiceMetricsHandler.INSTANCE);
+        resourceRegistration.registerMetric(TIMEOUT_LAG_P99, TimerServiceMetricsHandler.INSTANCE);
+        resourceRegistration.registerMetric(TIMEOUT_LAG_P999, TimerServiceMetricsHandler.INSTANCE);
+    }
+
+    private static SimpleAttributeDefinition createLagPercentile(final String name) {
+        return new SimpleAttributeDefinitionBuilder(name, ModelType.LONG)
+                .setAllowNull(false)
+                .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+                .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+                .build();
     }
 }
@@ -23,6 +23,7 @@
 package org.jboss.as.ejb3.subsystem.deployment;
 
 import java.util.Locale;
+import java.util.Map;
 import java.util.ResourceBundle;
 
 import javax.xml.stream.XMLStreamException;
@@ -30,6 +31,8 @@ import javax.xml.stream.XMLStreamWriter;
 
 import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.ListAttributeDefinition;
+import org.jboss.as.controller.ObjectListAttributeDefinition;
+import org.jboss.as.controller.ObjectTypeAttributeDefinition;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.PathElement;
@@ -38,12 +41,14 @@ import org.jboss.as.controller.ResourceDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.descriptions.ResourceDescriptionResolver;
 import org.jboss.as.controller.operations.validation.StringLengthValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.ejb3.component.EJBComponent;
+import org.jboss.as.ejb3.component.invocationmetrics.InvocationMetrics;
 import org.jboss.as.ejb3.subsystem.EJB3Extension;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
@@ -61,12 +66,12 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
             .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
             .build();
 
-    private static final AttributeDefinition EXECUTION_TIME = new SimpleAttributeDefinitionBuilder("execution-time", ModelType.LONG)
+    private static final SimpleAttributeDefinition EXECUTION_TIME = new SimpleAttributeDefinitionBuilder("execution-time", ModelType.LONG)
             .setAllowNull(false)
             .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
             .build();
 
-    private static final AttributeDefinition INVOCATIONS = new SimpleAttributeDefinitionBuilder("invocations", ModelType.LONG)
+    private static final SimpleAttributeDefinition INVOCATIONS = new SimpleAttributeDefinitionBuilder("invocations", ModelType.LONG)
             .setAllowNull(false)
             .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
             .build();
@@ -80,11 +85,33 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
             .setValidator(new StringLengthValidator(1, true))
             .build();
 
-    private static final AttributeDefinition WAIT_TIME = new SimpleAttributeDefinitionBuilder("wait-time", ModelType.LONG)
+    private static final SimpleAttributeDefinition WAIT_TIME = new SimpleAttributeDefinitionBuilder("wait-time", ModelType.LONG)
             .setAllowNull(false)
             .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
             .build();
 
+    // Latency percentiles, in milliseconds
+
+    private static final SimpleAttributeDefinition EXECUTION_TIME_P50 = createPercentile("execution-time-p50");
+    private static final SimpleAttributeDefinition EXECUTION_TIME_P99 = createPercentile("execution-time-p99");
+    private static final SimpleAttributeDefinition EXECUTION_TIME_P999 = createPercentile("execution-time-p999");
+    private static final SimpleAttributeDefinition WAIT_TIME_P50 = createPercentile("wait-time-p50");
+    private static final SimpleAttributeDefinition WAIT_TIME_P99 = createPercentile("wait-time-p99");
+    private static final SimpleAttributeDefinition WAIT_TIME_P999 = createPercentile("wait-time-p999");
+
+    private static final SimpleAttributeDefinition METHOD_NAME = new SimpleAttributeDefinitionBuilder("name", ModelType.STRING)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+
+    private static final AttributeDefinition METHODS = ObjectListAttributeDefinition.Builder.of("methods",
+            ObjectTypeAttributeDefinition.Builder.of("method", METHOD_NAME,
+                    INVOCATIONS, EXECUTION_TIME, WAIT_TIME,
+                    EXECUTION_TIME_P50, EXECUTION_TIME_P99, EXECUTION_TIME_P999,
+                    WAIT_TIME_P50, WAIT_TIME_P99, WAIT_TIME_P999).build())
+            .setAllowNull(true)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+
     public static final SimpleAttributeDefinition RUN_AS_ROLE = new SimpleAttributeDefinitionBuilder("run-as-role", ModelType.STRING, true)
             .setValidator(new StringLengthValidator(1, true))
             .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
@@ -114,6 +141,14 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
 
     private final EJBComponentType componentType;
 
+    private static SimpleAttributeDefinition createPercentile(final String name) {
+        return new SimpleAttributeDefinitionBuilder(name, ModelType.LONG)
+                .setAllowNull(false)
+                .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+                .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+                .build();
+    }
+
     public AbstractEJBComponentResourceDefinition(final EJBComponentType componentType) {
         super(PathElement.pathElement(componentType.getResourceType()),
                 EJB3Extension.getResourceDescriptionResolver(componentType.getResourceType()));
@@ -163,5 +198,43 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
                 context.getResult().set(component.getInvocationMetrics().getWaitTime());
             }
         });
+        registerPercentileMetric(resourceRegistration, EXECUTION_TIME_P50, true, 50);
+        registerPercentileMetric(resourceRegistration, EXECUTION_TIME_P99, true, 99);
+        registerPercentileMetric(resourceRegistration, EXECUTION_TIME_P999, true, 99.9);
+        registerPercentileMetric(resourceRegistration, WAIT_TIME_P50, false, 50);
+        registerPercentileMetric(resourceRegistration, WAIT_TIME_P99, false, 99);
+        registerPercentileMetric(resourceRegistration, WAIT_TIME_P999, false, 99.9);
+        resourceRegistration.registerMetric(METHODS, new AbstractRuntimeMetricsHandler() {
+            @Override
+            protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
+                final ModelNode result = context.getResult();
+                result.setEmptyList();
+                for (Map.Entry<String, InvocationMetrics.Values> entry : component.getInvocationMetrics().getMethods().entrySet()) {
+                    final InvocationMetrics.Values values = entry.getValue();
+                    final ModelNode method = result.add();
+                    method.get(METHOD_NAME.getName()).set(entry.getKey());
+                    method.get(INVOCATIONS.getName()).set(values.getInvocations());
+                    method.get(EXECUTION_TIME.getName()).set(values.getExecutionTime());
+                    method.get(WAIT_TIME.getName()).set(values.getWaitTime());
+                    method.get(EXECUTION_TIME_P50.getName()).set(values.getExecutionTimePercentile(50));
+                    method.get(EXECUTION_TIME_P99.getName()).set(values.getExecutionTimePercentile(99));
+                    method.get(EXECUTION_TIME_P999.getName()).set(values.getExecutionTimePercentile(99.9));
+                    method.get(WAIT_TIME_P50.getName()).set(values.getWaitTimePercentile(50));
+                    method.get(WAIT_TIME_P99.getName()).set(values.getWaitTimePercentile(99));
+                    method.get(WAIT_TIME_P999.getName()).set(values.getWaitTimePercentile(99.9));
+                }
+            }
+        });
+    }
+
+    private static void registerPercentileMetric(final ManagementResourceRegistration resourceRegistration, final AttributeDefinition attribute,
+                                                 final boolean executionTime, final double percentile) {
+        resourceRegistration.registerMetric(attribute, new AbstractRuntimeMetricsHandler() {
+            @Override
+            protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
+                final InvocationMetrics metrics = component.getInvocationMetrics();
+                context.getResult().set(executionTime ? metrics.getExecutionTimePercentile(percentile) : metrics.getWaitTimePercentile(percentile));
+            }
+        });
     }
 }
@@ -22,9 +22,19 @@
 
 package org.jboss.as.ejb3.subsystem.deployment;
 
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.ResourceDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.ejb3.component.EJBComponent;
 import org.jboss.as.ejb3.component.entity.EntityBeanComponent;
+import org.jboss.as.ejb3.component.entity.entitycache.ReadyEntityCache;
+import org.jboss.as.ejb3.component.entity.entitycache.ReferenceCountingEntityCache;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
 
 /**
  * {@link ResourceDefinition} for a {@link EntityBeanComponent}.
@@ -35,6 +45,19 @@ public class EntityBeanResourceDefinition extends AbstractEJBComponentResourceDe
 
     public static final EntityBeanResourceDefinition INSTANCE = new EntityBeanResourceDefinition();
 
+    // Cache metrics, only available when the entities are not locked optimistically
+
+    private static final SimpleAttributeDefinition CACHE_HIT_COUNT = createCacheMetric("cache-hit-count", ModelType.LONG);
+    private static final SimpleAttributeDefinition CACHE_MISS_COUNT = createCacheMetric("cache-miss-count", ModelType.LONG);
+    private static final SimpleAttributeDefinition CACHE_EVICTION_COUNT = createCacheMetric("cache-eviction-count", ModelType.LONG);
+    private static final SimpleAttributeDefinition CACHE_CURRENT_SIZE = createCacheMetric("cache-current-size", ModelType.INT);
+
+    private static SimpleAttributeDefinition createCacheMetric(final String name, final ModelType type) {
+        return new SimpleAttributeDefinitionBuilder(name, type, true)
+                .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+                .build();
+    }
+
     private EntityBeanResourceDefinition() {
         super(EJBComponentType.ENTITY);
     }
@@ -42,6 +65,42 @@ public class EntityBeanResourceDefinition extends AbstractEJBComponentResourceDe
     @Override
     public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
         super.registerAttributes(resourceRegistration);
-        // TODO expose anything for the cache?
+        resourceRegistration.registerMetric(CACHE_HIT_COUNT, new AbstractCacheMetricsHandler() {
+            @Override
+            protected void executeReadMetricStep(final OperationContext context, final ReferenceCountingEntityCache cache) {
+                context.getResult().set(cache.getHitCount());
+            }
+        });
+        resourceRegistration.registerMetric(CACHE_MISS_COUNT, new AbstractCacheMetricsHandler() {
+            @Override
+            protected void executeReadMetricStep(final OperationContext context, final ReferenceCountingEntityCache cache) {
+                context.getResult().set(cache.getMissCount());
+            }
+        });
+        resourceRegistration.registerMetric(CACHE_EVICTION_COUNT, new AbstractCacheMetricsHandler() {
+            @Override
+            protected void executeReadMetricStep(final OperationContext context, final ReferenceCountingEntityCache cache) {
+                context.getResult().set(cache.getEvictionCount());
+            }
+        });
+        resourceRegistration.registerMetric(CACHE_CURRENT_SIZE, new AbstractCacheMetricsHandler() {
+            @Override
+            protected void executeReadMetricStep(final OperationContext context, final ReferenceCountingEntityCache cache) {
+                context.getResult().set(cache.getCurrentSize());
+            }
+        });
+    }
+
+    private abstract static class AbstractCacheMetricsHandler extends AbstractRuntimeMetricsHandler {
+        @Override
+        protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
+            final ReadyEntityCache cache = ((EntityBeanComponent) component).getCache();
+            // the transaction local cache keeps no statistics, so the metric is left undefined
+            if (cache instanceof ReferenceCountingEntityCache) {
+                executeReadMetricStep(context, (ReferenceCountingEntityCache) cache);
+            }
+        }
+
+        protected abstract void executeReadMetricStep(OperationContext context, ReferenceCountingEntityCache cache);
     }
 }
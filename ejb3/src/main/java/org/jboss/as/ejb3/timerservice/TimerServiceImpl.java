@@ -31,7 +31,6 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -39,6 +38,7 @@ import java.util.ListIterator;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 
 import javax.ejb.EJBException;
@@ -68,6 +68,7 @@ import org.jboss.as.ejb3.timerservice.persistence.TimeoutMethod;
 import org.jboss.as.ejb3.timerservice.persistence.TimerEntity;
 import org.jboss.as.ejb3.timerservice.persistence.TimerPersistence;
 import org.jboss.as.ejb3.timerservice.schedule.CalendarBasedTimeout;
+import org.jboss.as.ejb3.timerservice.scheduler.TimeoutScheduler;
 import org.jboss.as.ejb3.timerservice.spi.ScheduleTimer;
 import org.jboss.as.ejb3.timerservice.spi.TimedObjectInvoker;
 import org.jboss.as.ejb3.timerservice.task.TimerTask;
@@ -104,6 +105,11 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
 
     public static final ServiceName SERVICE_NAME = ServiceName.of("ejb3", "timerService");
 
+    /**
+     * The number of locks guarding the scheduling of timers, must be a power of two
+     */
+    private static final int SCHEDULE_LOCKS = 64;
+
     /**
      * The service name this timer service is registered under
      */
@@ -113,7 +119,7 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
 
     private final InjectedValue<ExecutorService> executorServiceInjectedValue = new InjectedValue<ExecutorService>();
 
-    private final InjectedValue<java.util.Timer> timerInjectedValue = new InjectedValue<java.util.Timer>();
+    private final InjectedValue<TimeoutScheduler> timeoutSchedulerInjectedValue = new InjectedValue<TimeoutScheduler>();
 
     private final InjectedValue<TimedObjectInvoker> timedObjectInvoker = new InjectedValue<TimedObjectInvoker>();
 
@@ -130,22 +136,29 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
     /**
      * All non-persistent timers which were created by this {@link TimerService}
      */
-    private final Map<String, TimerImpl> persistentTimers = Collections.synchronizedMap(new HashMap<String, TimerImpl>());
+    private final Map<String, TimerImpl> persistentTimers = new ConcurrentHashMap<String, TimerImpl>();
 
     /**
      * All non-persistent timers which were created by this {@link TimerService}
      */
-    private final Map<String, TimerImpl> nonPersistentTimers = Collections.synchronizedMap(new HashMap<String, TimerImpl>());
+    private final Map<String, TimerImpl> nonPersistentTimers = new ConcurrentHashMap<String, TimerImpl>();
 
     /**
      * persistent timers that have been created in the current transaction
      */
-    private final Map<String, TimerImpl> persistentWaitingOnTxCompletionTimers = Collections.synchronizedMap(new HashMap<String, TimerImpl>());
+    private final Map<String, TimerImpl> persistentWaitingOnTxCompletionTimers = new ConcurrentHashMap<String, TimerImpl>();
+
+    /**
+     * Holds the {@link TimeoutScheduler.ScheduledTimeout} of each of the timer tasks that have been scheduled
+     */
+    private final Map<String, TimeoutScheduler.ScheduledTimeout> scheduledTimerFutures = new ConcurrentHashMap<String, TimeoutScheduler.ScheduledTimeout>();
 
     /**
-     * Holds the {@link java.util.concurrent.Future} of each of the timer tasks that have been scheduled
+     * Guards scheduling and cancellation of a timer, so that a timer cancelled by one thread is not rescheduled by
+     * another. The lock is picked by timer id, as a persistent timer may be represented by more than one
+     * {@link TimerImpl} instance, and unrelated timers no longer contend on a single monitor.
      */
-    private final Map<String, java.util.TimerTask> scheduledTimerFutures = new HashMap<String, java.util.TimerTask>();
+    private final Object[] scheduleLocks = new Object[SCHEDULE_LOCKS];
 
     private TransactionManager transactionManager;
 
@@ -168,6 +181,9 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
     public TimerServiceImpl(final Map<Method, List<AutoTimer>> autoTimers, final ServiceName serviceName) {
         this.autoTimers = autoTimers;
         this.serviceName = serviceName;
+        for (int i = 0; i < scheduleLocks.length; i++) {
+            scheduleLocks[i] = new Object();
+        }
     }
 
     @Override
@@ -800,7 +816,7 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
      * Creates and schedules a {@link TimerTask} for the next timeout of the passed <code>timer</code>
      */
     protected void scheduleTimeout(TimerImpl timer, boolean newTimer) {
-        synchronized (scheduledTimerFutures) {
+        synchronized (scheduleLock(timer.getId())) {
             if(!newTimer && !scheduledTimerFutures.containsKey(timer.getId())) {
                 //this timer has been cancelled by another thread. We just return
                 return;
@@ -825,15 +841,15 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
                 ROOT_LOGGER.debug("Scheduling timer " + timer + " at fixed rate, starting at " + delay
                         + " milliseconds from now with repeated interval=" + intervalDuration);
                 // schedule the task
-                this.timerInjectedValue.getValue().scheduleAtFixedRate(task, delay, intervalDuration);
+                final TimeoutScheduler.ScheduledTimeout timeout = this.timeoutSchedulerInjectedValue.getValue().scheduleAtFixedRate(task, delay, intervalDuration);
                 // maintain it in timerservice for future use (like cancellation)
-                this.scheduledTimerFutures.put(timer.getId(), task);
+                this.scheduledTimerFutures.put(timer.getId(), timeout);
             } else {
                 ROOT_LOGGER.debug("Scheduling a single action timer " + timer + " starting at " + delay + " milliseconds from now");
                 // schedule the task
-                this.timerInjectedValue.getValue().schedule(task, delay);
+                final TimeoutScheduler.ScheduledTimeout timeout = this.timeoutSchedulerInjectedValue.getValue().schedule(task, delay);
                 // maintain it in timerservice for future use (like cancellation)
-                this.scheduledTimerFutures.put(timer.getId(), task);
+                this.scheduledTimerFutures.put(timer.getId(), timeout);
 
             }
         }
@@ -845,14 +861,20 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
      * @param timer
      */
     protected void cancelTimeout(final TimerImpl timer) {
-        synchronized (this.scheduledTimerFutures) {
-            java.util.TimerTask timerTask = this.scheduledTimerFutures.remove(timer.getId());
-            if (timerTask != null) {
-                timerTask.cancel();
+        synchronized (scheduleLock(timer.getId())) {
+            TimeoutScheduler.ScheduledTimeout timeout = this.scheduledTimerFutures.remove(timer.getId());
+            if (timeout != null) {
+                timeout.cancel();
             }
         }
     }
 
+    private Object scheduleLock(final String timerId) {
+        int h = timerId.hashCode();
+        h ^= (h >>> 16);
+        return scheduleLocks[h & (scheduleLocks.length - 1)];
+    }
+
     private boolean isSingletonBeanInvocation() {
         return ejbComponentInjectedValue.getValue() instanceof SingletonComponent;
     }
@@ -1053,8 +1075,8 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
         return executorServiceInjectedValue;
     }
 
-    public InjectedValue<java.util.Timer> getTimerInjectedValue() {
-        return timerInjectedValue;
+    public InjectedValue<TimeoutScheduler> getTimeoutSchedulerInjectedValue() {
+        return timeoutSchedulerInjectedValue;
     }
 
     public InjectedValue<TimerPersistence> getTimerPersistence() {
@@ -1096,9 +1118,7 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
         @Override
         public void afterCompletion(int status) {
             if (this.timer.persistent) {
-                synchronized (TimerServiceImpl.this.persistentWaitingOnTxCompletionTimers) {
-                    TimerServiceImpl.this.persistentWaitingOnTxCompletionTimers.remove(this.timer.getId());
-                }
+                TimerServiceImpl.this.persistentWaitingOnTxCompletionTimers.remove(this.timer.getId());
             }
             if (status == Status.STATUS_COMMITTED) {
                 ROOT_LOGGER.debug("commit timer creation: " + this.timer);
@@ -1152,7 +1172,7 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
         }
     }
 
-    private class Task extends java.util.TimerTask {
+    private class Task implements Runnable {
 
         private final Runnable delegate;
 
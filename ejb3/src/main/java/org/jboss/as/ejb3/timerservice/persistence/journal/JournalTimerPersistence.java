@@ -0,0 +1,565 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.persistence.journal;
+
+import static org.jboss.as.ejb3.EjbLogger.ROOT_LOGGER;
+import static org.jboss.as.ejb3.EjbMessages.MESSAGES;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.SystemException;
+import javax.transaction.TransactionManager;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+import org.jboss.as.controller.services.path.PathManager;
+import org.jboss.as.ejb3.component.stateful.CurrentSynchronizationCallback;
+import org.jboss.as.ejb3.timerservice.TimerState;
+import org.jboss.as.ejb3.timerservice.persistence.TimerEntity;
+import org.jboss.as.ejb3.timerservice.persistence.TimerPersistence;
+import org.jboss.marshalling.InputStreamByteInput;
+import org.jboss.marshalling.Marshaller;
+import org.jboss.marshalling.MarshallerFactory;
+import org.jboss.marshalling.MarshallingConfiguration;
+import org.jboss.marshalling.ModularClassResolver;
+import org.jboss.marshalling.OutputStreamByteOutput;
+import org.jboss.marshalling.Unmarshaller;
+import org.jboss.marshalling.river.RiverMarshallerFactory;
+import org.jboss.modules.ModuleLoader;
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.ServiceName;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.jboss.msc.service.StopContext;
+import org.jboss.msc.value.InjectedValue;
+
+/**
+ * Persistent timer store backed by a {@link TimerJournal}.
+ * <p/>
+ * Unlike {@link org.jboss.as.ejb3.timerservice.persistence.filestore.FileTimerPersistence}, which rewrites and syncs
+ * one file per timer change, all the timers changed by a transaction are appended to the journal in one go when the
+ * transaction completes, and concurrent transactions share the same sync of the journal.
+ * <p/>
+ * A data store previously used by the file store can be switched to the journal: the timers of a timed object which
+ * are still in the file store are imported into the journal the first time they are loaded.
+ *
+ * @see TimerJournal
+ */
+public class JournalTimerPersistence implements TimerPersistence, Service<JournalTimerPersistence> {
+
+    public static final ServiceName SERVICE_NAME = ServiceName.JBOSS.append("ejb3", "timerService", "journalTimerPersistence");
+
+    /**
+     * The name of the directory holding the journal, relative to the data store path
+     */
+    public static final String JOURNAL_DIRECTORY = "journal";
+
+    /**
+     * The size in bytes at which a journal segment is closed and a new one is started
+     */
+    public static final long SEGMENT_SIZE = 8 * 1024 * 1024;
+
+    private static final String BATCH_KEY = "org.jboss.as.ejb3.timerJournalBatch";
+
+    private final boolean createIfNotExists;
+    private MarshallerFactory factory;
+    private MarshallingConfiguration configuration;
+    private final InjectedValue<TransactionManager> transactionManager = new InjectedValue<TransactionManager>();
+    private final InjectedValue<TransactionSynchronizationRegistry> transactionSynchronizationRegistry = new InjectedValue<TransactionSynchronizationRegistry>();
+    private final InjectedValue<ModuleLoader> moduleLoader = new InjectedValue<ModuleLoader>();
+    private final InjectedValue<PathManager> pathManager = new InjectedValue<PathManager>();
+    private final String path;
+    private final String pathRelativeTo;
+    private File baseDir;
+    private TimerJournal journal;
+    private PathManager.Callback.Handle callbackHandle;
+
+    /**
+     * map of timed object id : timer id : timer
+     */
+    private final ConcurrentMap<String, Map<String, TimerEntity>> timers = new ConcurrentHashMap<String, Map<String, TimerEntity>>();
+    private final ConcurrentMap<String, Lock> locks = new ConcurrentHashMap<String, Lock>();
+
+    public JournalTimerPersistence(final boolean createIfNotExists, final String path, final String pathRelativeTo) {
+        this.createIfNotExists = createIfNotExists;
+        this.path = path;
+        this.pathRelativeTo = pathRelativeTo;
+    }
+
+    @Override
+    public synchronized void start(final StartContext context) throws StartException {
+
+        final RiverMarshallerFactory factory = new RiverMarshallerFactory();
+        final MarshallingConfiguration configuration = new MarshallingConfiguration();
+        configuration.setClassResolver(ModularClassResolver.getInstance(moduleLoader.getValue()));
+
+        this.configuration = configuration;
+        this.factory = factory;
+        if (pathRelativeTo != null) {
+            callbackHandle = pathManager.getValue().registerCallback(pathRelativeTo, PathManager.ReloadServerCallback.create(), PathManager.Event.UPDATED, PathManager.Event.REMOVED);
+        }
+        final File baseDir = new File(pathManager.getValue().resolveRelativePathEntry(path, pathRelativeTo));
+        if (!baseDir.exists()) {
+            if (createIfNotExists) {
+                if (!baseDir.mkdirs()) {
+                    throw MESSAGES.failToCreateTimerFileStoreDir(baseDir);
+                }
+            } else {
+                throw MESSAGES.timerFileStoreDirNotExist(baseDir);
+            }
+        }
+        if (!baseDir.isDirectory()) {
+            throw MESSAGES.invalidTimerFileStoreDir(baseDir);
+        }
+        final File journalDir = new File(baseDir, JOURNAL_DIRECTORY);
+        final TimerJournal journal = new TimerJournal(journalDir, SEGMENT_SIZE);
+        try {
+            journal.open();
+        } catch (IOException e) {
+            throw MESSAGES.failToOpenTimerJournal(journalDir, e);
+        }
+        this.journal = journal;
+        this.baseDir = baseDir;
+
+        final File[] files = baseDir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (file.isDirectory() && !file.equals(journalDir)) {
+                    ROOT_LOGGER.fileStoreTimersFound(baseDir);
+                    break;
+                }
+            }
+        }
+    }
+
+    @Override
+    public synchronized void stop(final StopContext context) {
+
+        timers.clear();
+        locks.clear();
+        if (callbackHandle != null) {
+            callbackHandle.remove();
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            ROOT_LOGGER.failToCloseFile(e);
+        }
+        journal = null;
+        baseDir = null;
+        factory = null;
+        configuration = null;
+    }
+
+    @Override
+    public JournalTimerPersistence getValue() throws IllegalStateException, IllegalArgumentException {
+        return this;
+    }
+
+    @Override
+    public void addTimer(final TimerEntity timerEntity) {
+        persistTimer(timerEntity, true);
+    }
+
+    @Override
+    public void persistTimer(final TimerEntity timerEntity) {
+        persistTimer(timerEntity, false);
+    }
+
+    private void persistTimer(final TimerEntity timerEntity, final boolean newTimer) {
+        try {
+            final int status = transactionManager.getValue().getStatus();
+            if (status == Status.STATUS_MARKED_ROLLBACK || status == Status.STATUS_ROLLEDBACK ||
+                    status == Status.STATUS_ROLLING_BACK) {
+                //no need to persist anyway
+                return;
+            }
+
+            if (status == Status.STATUS_NO_TRANSACTION ||
+                    status == Status.STATUS_UNKNOWN || isBeforeCompletion()
+                    || status == Status.STATUS_COMMITTED) {
+                write(Collections.singletonMap(timerEntity.getId(), new Change(timerEntity, newTimer)));
+            } else {
+                final TransactionSynchronizationRegistry registry = transactionSynchronizationRegistry.getValue();
+                BatchTransactionSynchronization batch = (BatchTransactionSynchronization) registry.getResource(BATCH_KEY);
+                if (batch == null) {
+                    batch = new BatchTransactionSynchronization();
+                    registry.registerInterposedSynchronization(batch);
+                    registry.putResource(BATCH_KEY, batch);
+                }
+                batch.add(timerEntity, newTimer);
+                //update the most recent version of the timer to be persisted
+                registry.putResource(timerTransactionKey(timerEntity), timerEntity);
+            }
+        } catch (SystemException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Applies a number of changes to the in memory timers and appends them to the journal, then waits for the
+     * journal to be synced. The locks of the timed objects involved are taken in a consistent order and held while
+     * appending, so that the order of the records in the journal matches the order of the changes in memory.
+     */
+    private void write(final Map<String, Change> changes) {
+        final TreeMap<String, Lock> toLock = new TreeMap<String, Lock>();
+        for (Change change : changes.values()) {
+            toLock.put(change.timer.getTimedObjectId(), getLock(change.timer.getTimedObjectId()));
+        }
+        final List<Lock> locked = new ArrayList<Lock>(toLock.size());
+        final long sequence;
+        try {
+            for (Lock lock : toLock.values()) {
+                lock.lock();
+                locked.add(lock);
+            }
+            final List<TimerJournal.Record> records = new ArrayList<TimerJournal.Record>(changes.size());
+            for (Change change : changes.values()) {
+                final TimerEntity timer = change.timer;
+                final Map<String, TimerEntity> map = getTimers(timer.getTimedObjectId());
+                if (timer.getTimerState() == TimerState.CANCELED ||
+                        timer.getTimerState() == TimerState.EXPIRED) {
+                    map.remove(timer.getId());
+                    records.add(TimerJournal.Record.remove(timer.getTimedObjectId(), timer.getId()));
+                } else if (change.newTimer || map.containsKey(timer.getId())) {
+                    //if it is not a new timer and is not in the map then it has
+                    //been removed by another thread.
+                    map.put(timer.getId(), timer);
+                    records.add(TimerJournal.Record.put(timer.getTimedObjectId(), timer.getId(), marshall(timer)));
+                }
+            }
+            if (records.isEmpty()) {
+                return;
+            }
+            sequence = journal.append(records);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } finally {
+            for (Lock lock : locked) {
+                lock.unlock();
+            }
+        }
+        try {
+            journal.sync(sequence);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private byte[] marshall(final TimerEntity entity) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final Marshaller marshaller = factory.createMarshaller(configuration);
+        marshaller.start(new OutputStreamByteOutput(out));
+        marshaller.writeObject(entity);
+        marshaller.finish();
+        return out.toByteArray();
+    }
+
+    private String timerTransactionKey(final TimerEntity timerEntity) {
+        return "org.jboss.as.ejb3.timerTransactionKey." + timerEntity.getId();
+    }
+
+    @Override
+    public void timerUndeployed(final String timedObjectId) {
+        final Lock lock = getLock(timedObjectId);
+        try {
+            lock.lock();
+            locks.remove(timedObjectId);
+            timers.remove(timedObjectId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isBeforeCompletion() {
+        final CurrentSynchronizationCallback.CallbackType type = CurrentSynchronizationCallback.get();
+        if (type != null) {
+            return type == CurrentSynchronizationCallback.CallbackType.BEFORE_COMPLETION;
+        }
+        return false;
+    }
+
+    @Override
+    public TimerEntity loadTimer(final String id, final String timedObjectId) {
+        final Lock lock = getLock(timedObjectId);
+        try {
+            lock.lock();
+            final Map<String, TimerEntity> timers = getTimers(timedObjectId);
+            final TimerEntity timer = timers.get(id);
+            if (timer == null) {
+                return null;
+            }
+            return mostRecentEntityVersion(timer);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<TimerEntity> loadActiveTimers(final String timedObjectId, final Object primaryKey) {
+        final Lock lock = getLock(timedObjectId);
+        try {
+            lock.lock();
+            final Map<String, TimerEntity> timers = getTimers(timedObjectId);
+
+            final List<TimerEntity> entities = new ArrayList<TimerEntity>();
+            for (Map.Entry<String, TimerEntity> entry : timers.entrySet()) {
+                if (primaryKey == null || primaryKey.equals(entry.getValue().getPrimaryKey())) {
+                    entities.add(mostRecentEntityVersion(entry.getValue()));
+                }
+            }
+            return entities;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<TimerEntity> loadActiveTimers(final String timedObjectId) {
+        return loadActiveTimers(timedObjectId, null);
+    }
+
+    /**
+     * Returns either the loaded entity or the most recent version of the entity that has
+     * been persisted in this transaction.
+     */
+    private TimerEntity mostRecentEntityVersion(final TimerEntity timerEntity) {
+        try {
+            final int status = transactionManager.getValue().getStatus();
+            if (status == Status.STATUS_UNKNOWN ||
+                    status == Status.STATUS_NO_TRANSACTION) {
+                return timerEntity;
+            }
+            final String key = timerTransactionKey(timerEntity);
+            TimerEntity existing = (TimerEntity) transactionSynchronizationRegistry.getValue().getResource(key);
+            return existing != null ? existing : timerEntity;
+        } catch (SystemException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private Lock getLock(final String timedObjectId) {
+        Lock lock = locks.get(timedObjectId);
+        if (lock == null) {
+            final Lock addedLock = new ReentrantLock();
+            lock = locks.putIfAbsent(timedObjectId, addedLock);
+            if (lock == null) {
+                lock = addedLock;
+            }
+        }
+        return lock;
+    }
+
+    /**
+     * Gets the timer map, loading from the journal if necessary. Should be called under lock
+     *
+     * @param timedObjectId The timed object id
+     * @return The timers for the object
+     */
+    private Map<String, TimerEntity> getTimers(final String timedObjectId) {
+        Map<String, TimerEntity> map = timers.get(timedObjectId);
+        if (map == null) {
+            map = loadTimersFromJournal(timedObjectId);
+            importFileStoreTimers(timedObjectId, map);
+            timers.put(timedObjectId, map);
+        }
+        return map;
+    }
+
+    private Map<String, TimerEntity> loadTimersFromJournal(final String timedObjectId) {
+        final Map<String, TimerEntity> timers = new HashMap<String, TimerEntity>();
+        try {
+            final Unmarshaller unmarshaller = factory.createUnmarshaller(configuration);
+            for (byte[] data : journal.read(timedObjectId).values()) {
+                try {
+                    unmarshaller.start(new InputStreamByteInput(new ByteArrayInputStream(data)));
+                    final TimerEntity entity = unmarshaller.readObject(TimerEntity.class);
+                    timers.put(entity.getId(), entity);
+                    unmarshaller.finish();
+                } catch (Exception e) {
+                    ROOT_LOGGER.failToRestoreTimersForObjectId(timedObjectId, e);
+                }
+            }
+        } catch (Exception e) {
+            ROOT_LOGGER.failToRestoreTimersForObjectId(timedObjectId, e);
+        }
+        return timers;
+    }
+
+    /**
+     * Imports the timers the file store persisted for a timed object, if any. The timers are appended to the journal
+     * before their files are deleted, and timers already in the journal are not imported again, so an import
+     * interrupted by a crash is simply completed the next time.
+     *
+     * @param timedObjectId the timed object id
+     * @param timers the timers of the timed object loaded from the journal, the imported timers are added to it
+     */
+    private void importFileStoreTimers(final String timedObjectId, final Map<String, TimerEntity> timers) {
+        // the directory name used by FileTimerPersistence
+        final File directory = new File(baseDir, timedObjectId.replace(File.separator, "-"));
+        final File[] files = directory.listFiles();
+        if (files == null || directory.getName().equals(JOURNAL_DIRECTORY)) {
+            return;
+        }
+        final List<TimerJournal.Record> records = new ArrayList<TimerJournal.Record>();
+        final List<File> imported = new ArrayList<File>();
+        try {
+            final Unmarshaller unmarshaller = factory.createUnmarshaller(configuration);
+            for (File file : files) {
+                try {
+                    final byte[] data = readFile(file);
+                    // the file store uses the same marshalling configuration, so the data is kept as it is
+                    unmarshaller.start(new InputStreamByteInput(new ByteArrayInputStream(data)));
+                    final TimerEntity entity = unmarshaller.readObject(TimerEntity.class);
+                    unmarshaller.finish();
+                    if (!timers.containsKey(entity.getId())) {
+                        timers.put(entity.getId(), entity);
+                        records.add(TimerJournal.Record.put(timedObjectId, entity.getId(), data));
+                    }
+                    imported.add(file);
+                } catch (Exception e) {
+                    ROOT_LOGGER.failToRestoreTimersFromFile(file, e);
+                }
+            }
+            if (!records.isEmpty()) {
+                journal.sync(journal.append(records));
+            }
+        } catch (IOException e) {
+            ROOT_LOGGER.failToRestoreTimersForObjectId(timedObjectId, e);
+            return;
+        }
+        for (File file : imported) {
+            file.delete();
+        }
+        // only succeeds if every file was imported
+        directory.delete();
+        ROOT_LOGGER.importedFileStoreTimers(records.size(), timedObjectId, directory);
+    }
+
+    private static byte[] readFile(final File file) throws IOException {
+        final FileInputStream in = new FileInputStream(file);
+        try {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream((int) file.length());
+            final byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        } finally {
+            try {
+                in.close();
+            } catch (IOException e) {
+                ROOT_LOGGER.failToCloseFile(e);
+            }
+        }
+    }
+
+    private static final class Change {
+        private final TimerEntity timer;
+        private final boolean newTimer;
+
+        Change(final TimerEntity timer, final boolean newTimer) {
+            this.timer = timer;
+            this.newTimer = newTimer;
+        }
+    }
+
+    /**
+     * Collects the timers changed by a transaction, and writes them all to the journal with a single sync once the
+     * transaction has committed.
+     */
+    private final class BatchTransactionSynchronization implements Synchronization {
+
+        /**
+         * map of timer id : whether the timer was created by the transaction
+         */
+        private final Map<String, Boolean> newTimers = new LinkedHashMap<String, Boolean>();
+        private final Map<String, TimerEntity> pending = new LinkedHashMap<String, TimerEntity>();
+        private volatile Map<String, Change> changes;
+
+        synchronized void add(final TimerEntity timer, final boolean newTimer) {
+            final Boolean existing = newTimers.get(timer.getId());
+            newTimers.put(timer.getId(), newTimer || (existing != null && existing));
+            pending.put(timer.getId(), timer);
+        }
+
+        @Override
+        public void beforeCompletion() {
+            //get the latest version of the entities
+            final Map<String, Change> changes = new LinkedHashMap<String, Change>();
+            synchronized (this) {
+                for (Map.Entry<String, TimerEntity> entry : pending.entrySet()) {
+                    TimerEntity timer = (TimerEntity) transactionSynchronizationRegistry.getValue().getResource(timerTransactionKey(entry.getValue()));
+                    if (timer == null) {
+                        timer = entry.getValue();
+                    }
+                    changes.put(entry.getKey(), new Change(timer, newTimers.get(entry.getKey())));
+                }
+            }
+            this.changes = changes;
+        }
+
+        @Override
+        public void afterCompletion(final int status) {
+            final Map<String, Change> changes = this.changes;
+            if (changes == null || changes.isEmpty()) {
+                return;
+            }
+            if (status == Status.STATUS_COMMITTED) {
+                write(changes);
+            }
+        }
+    }
+
+    public InjectedValue<TransactionManager> getTransactionManager() {
+        return transactionManager;
+    }
+
+    public InjectedValue<TransactionSynchronizationRegistry> getTransactionSynchronizationRegistry() {
+        return transactionSynchronizationRegistry;
+    }
+
+    public InjectedValue<ModuleLoader> getModuleLoader() {
+        return moduleLoader;
+    }
+
+    public InjectedValue<PathManager> getPathManager() {
+        return pathManager;
+    }
+}
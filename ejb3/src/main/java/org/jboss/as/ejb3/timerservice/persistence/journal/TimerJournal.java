@@ -0,0 +1,573 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.persistence.journal;
+
+import static org.jboss.as.ejb3.EjbLogger.ROOT_LOGGER;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.zip.CRC32;
+
+/**
+ * A segmented, append-only journal of timer records.
+ * <p/>
+ * Every change to a timer is appended to the current segment as a record holding the timed object id, the timer id
+ * and the serialized timer, or a removal marker. Once a segment reaches its maximum size a new one is started.
+ * An index of the location of the most recent record of each timer is kept in memory, and rebuilt on {@link #open()}
+ * by a single sequential scan of the segments which never deserializes a timer. Timers are only read back when
+ * {@link #read(String)} is called, typically when the timed object is deployed and its classes are available.
+ * <p/>
+ * Appending and syncing are separate steps, so that a number of threads appending concurrently share a single
+ * {@link FileChannel#force(boolean)} (group commit).
+ * <p/>
+ * Whenever a segment fills up, and less than half of the data held in the older segments is still referenced by the
+ * index, the live records of all older segments are copied to the current segment and the older segments are
+ * deleted, oldest first. Removal markers are never copied: once the older segments are gone, nothing is left for
+ * them to mask. The copy runs on a thread of the journal, one record at a time, so appends wait for at most the copy
+ * of one record. Every segment is read through a channel kept open until the segment is deleted.
+ * <p/>
+ * On disk a record is made of its length, the CRC32 of its body and the body itself. A torn or corrupt record at the
+ * end of a segment, as left by a crash in the middle of a write, is discarded on recovery.
+ */
+public class TimerJournal {
+
+    private static final String PREFIX = "timers-";
+    private static final String SUFFIX = ".journal";
+    private static final int HEADER_SIZE = 8;
+    private static final byte PUT = 1;
+    private static final byte REMOVE = 2;
+
+    private final File directory;
+    private final long segmentSize;
+
+    /**
+     * The segments, ordered from oldest to newest. The last one is the one being appended to
+     */
+    private final TreeMap<Long, Segment> segments = new TreeMap<Long, Segment>();
+    /**
+     * map of timed object id : timer id : location of the most recent record
+     */
+    private final Map<String, Map<String, Location>> index = new HashMap<String, Map<String, Location>>();
+    private Segment head;
+    private long appended;
+    private final ThreadFactory threadFactory;
+    private ExecutorService compactor;
+    private boolean compacting;
+
+    private final Object syncLock = new Object();
+    private long synced;
+
+    public TimerJournal(final File directory, final long segmentSize) {
+        this(directory, segmentSize, Executors.defaultThreadFactory());
+    }
+
+    public TimerJournal(final File directory, final long segmentSize, final ThreadFactory threadFactory) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.threadFactory = threadFactory;
+    }
+
+    /**
+     * Opens the journal, rebuilding the index from the existing segments.
+     *
+     * @throws IOException if the journal could not be read
+     */
+    public synchronized void open() throws IOException {
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Could not create " + directory);
+        }
+        final File[] files = directory.listFiles(new FilenameFilter() {
+            @Override
+            public boolean accept(final File dir, final String name) {
+                return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+            }
+        });
+        final TreeMap<Long, File> ordered = new TreeMap<Long, File>();
+        for (File file : files) {
+            final String name = file.getName();
+            try {
+                ordered.put(Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()), 16), file);
+            } catch (NumberFormatException e) {
+                // not one of ours
+            }
+        }
+        for (Map.Entry<Long, File> entry : ordered.entrySet()) {
+            final Segment segment = new Segment(entry.getKey(), entry.getValue());
+            segments.put(segment.id, segment);
+            replay(segment);
+            segment.open();
+        }
+        if (segments.isEmpty() || segments.lastEntry().getValue().size >= segmentSize) {
+            head = createSegment(segments.isEmpty() ? 0 : segments.lastKey() + 1);
+        } else {
+            head = segments.lastEntry().getValue();
+        }
+        compactor = Executors.newSingleThreadExecutor(threadFactory);
+    }
+
+    /**
+     * Closes the journal, syncing any outstanding records.
+     */
+    public synchronized void close() throws IOException {
+        if (compactor != null) {
+            // a compaction still running stops copying once it sees the journal closed
+            compactor.shutdown();
+            compactor = null;
+        }
+        compacting = false;
+        if (head != null) {
+            head.channel.force(false);
+            head = null;
+        }
+        for (Segment segment : segments.values()) {
+            segment.close();
+        }
+        segments.clear();
+        index.clear();
+    }
+
+    /**
+     * Appends a number of records to the journal. The records are not durable until {@link #sync(long)} is called
+     * with the returned sequence number.
+     *
+     * @param records the records
+     * @return the sequence number of the append
+     * @throws IOException if the records could not be written
+     */
+    public synchronized long append(final List<Record> records) throws IOException {
+        for (Record record : records) {
+            final byte[] bytes = record.toBytes();
+            final long position = head.size;
+            write(head, bytes);
+            if (record.data == null) {
+                release(removeLocation(record.timedObjectId, record.timerId));
+            } else {
+                setLocation(record.timedObjectId, record.timerId, new Location(head, position, bytes.length));
+            }
+        }
+        final long sequence = ++appended;
+        if (head.size >= segmentSize) {
+            roll();
+            if (!compacting && compactor != null && needsCompaction()) {
+                compacting = true;
+                compactor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            compact();
+                        } catch (IOException e) {
+                            ROOT_LOGGER.failToCompactTimerJournal(directory, e);
+                        } finally {
+                            synchronized (TimerJournal.this) {
+                                compacting = false;
+                            }
+                        }
+                    }
+                });
+            }
+        }
+        return sequence;
+    }
+
+    /**
+     * Makes sure that everything appended up to and including the given sequence number has reached the disk. If
+     * another thread synced past that sequence number in the meantime this returns immediately.
+     *
+     * @param sequence the sequence number returned by {@link #append(List)}
+     * @throws IOException if the journal could not be synced
+     */
+    public void sync(final long sequence) throws IOException {
+        synchronized (syncLock) {
+            if (synced >= sequence) {
+                return;
+            }
+            final long target;
+            final FileChannel channel;
+            synchronized (this) {
+                target = appended;
+                channel = head.channel;
+            }
+            try {
+                channel.force(false);
+            } catch (ClosedChannelException e) {
+                // the segment was rolled, which forces it, and then deleted by a compaction, which forces the copies
+            }
+            synced = target;
+        }
+    }
+
+    /**
+     * Appends the records and waits for them to reach the disk.
+     */
+    public void write(final List<Record> records) throws IOException {
+        sync(append(records));
+    }
+
+    /**
+     * Reads the most recent data of all the timers of a timed object.
+     *
+     * @param timedObjectId the timed object id
+     * @return map of timer id : data
+     * @throws IOException if the journal could not be read
+     */
+    public synchronized Map<String, byte[]> read(final String timedObjectId) throws IOException {
+        final Map<String, Location> locations = index.get(timedObjectId);
+        if (locations == null) {
+            return Collections.emptyMap();
+        }
+        final Map<String, byte[]> result = new LinkedHashMap<String, byte[]>();
+        for (Map.Entry<String, Location> entry : locations.entrySet()) {
+            result.put(entry.getKey(), Record.fromBytes(readRecord(entry.getValue())).data);
+        }
+        return result;
+    }
+
+    /**
+     * @return the number of segment files
+     */
+    synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Waits for the compaction scheduled so far, if any, to complete.
+     */
+    void awaitCompaction() throws InterruptedException, ExecutionException {
+        final ExecutorService compactor;
+        synchronized (this) {
+            compactor = this.compactor;
+        }
+        if (compactor != null) {
+            // the compactor has a single thread, so this runs after any compaction submitted before it
+            compactor.submit(new Runnable() {
+                @Override
+                public void run() {
+                }
+            }).get();
+        }
+    }
+
+    private void write(final Segment segment, final byte[] bytes) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            segment.channel.write(buffer, segment.size + buffer.position());
+        }
+        segment.size += bytes.length;
+    }
+
+    private static byte[] readRecord(final Location location) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(location.length);
+        while (buffer.hasRemaining()) {
+            if (location.segment.channel.read(buffer, location.position + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of " + location.segment.file);
+            }
+        }
+        return buffer.array();
+    }
+
+    private void setLocation(final String timedObjectId, final String timerId, final Location location) {
+        Map<String, Location> locations = index.get(timedObjectId);
+        if (locations == null) {
+            index.put(timedObjectId, locations = new HashMap<String, Location>());
+        }
+        location.segment.live += location.length;
+        release(locations.put(timerId, location));
+    }
+
+    private Location removeLocation(final String timedObjectId, final String timerId) {
+        final Map<String, Location> locations = index.get(timedObjectId);
+        if (locations == null) {
+            return null;
+        }
+        final Location location = locations.remove(timerId);
+        if (locations.isEmpty()) {
+            index.remove(timedObjectId);
+        }
+        return location;
+    }
+
+    private void release(final Location location) {
+        if (location != null) {
+            location.segment.live -= location.length;
+        }
+    }
+
+    private void roll() throws IOException {
+        final Segment old = head;
+        head = createSegment(old.id + 1);
+        // the segment stays open for reading until it is deleted
+        old.channel.force(false);
+    }
+
+    private Segment createSegment(final long id) throws IOException {
+        final Segment segment = new Segment(id, new File(directory, PREFIX + String.format("%016x", id) + SUFFIX));
+        segment.open();
+        segments.put(id, segment);
+        return segment;
+    }
+
+    private boolean needsCompaction() {
+        long size = 0;
+        long live = 0;
+        for (Segment segment : segments.headMap(head.id).values()) {
+            size += segment.size;
+            live += segment.live;
+        }
+        return size >= segmentSize && live * 2 < size;
+    }
+
+    /**
+     * Copies the live records of all the segments older than the current one to the current one, and deletes the
+     * older segments. The journal is only locked for the copy of each record, so records are appended and read while a
+     * compaction runs; a timer changed or removed in the meantime is not copied.
+     */
+    void compact() throws IOException {
+        final List<Segment> old;
+        final List<String[]> timers = new ArrayList<String[]>();
+        synchronized (this) {
+            if (head == null) {
+                return;
+            }
+            old = new ArrayList<Segment>(segments.headMap(head.id).values());
+            if (old.isEmpty()) {
+                return;
+            }
+            for (Map.Entry<String, Map<String, Location>> locations : index.entrySet()) {
+                for (Map.Entry<String, Location> entry : locations.getValue().entrySet()) {
+                    if (old.contains(entry.getValue().segment)) {
+                        timers.add(new String[] { locations.getKey(), entry.getKey() });
+                    }
+                }
+            }
+        }
+        for (String[] timer : timers) {
+            synchronized (this) {
+                if (head == null) {
+                    // closed in the meantime
+                    return;
+                }
+                final Map<String, Location> locations = index.get(timer[0]);
+                final Location location = (locations != null) ? locations.get(timer[1]) : null;
+                if (location != null && old.contains(location.segment)) {
+                    final byte[] bytes = readRecord(location);
+                    final Location copy = new Location(head, head.size, bytes.length);
+                    write(head, bytes);
+                    location.segment.live -= location.length;
+                    head.live += copy.length;
+                    locations.put(timer[1], copy);
+                    if (head.size >= segmentSize) {
+                        roll();
+                    }
+                }
+            }
+        }
+        synchronized (this) {
+            if (head == null) {
+                return;
+            }
+            // the copies must be on disk before the originals go away; segments rolled in the meantime were forced
+            head.channel.force(false);
+            for (Segment segment : old) {
+                segments.remove(segment.id);
+                segment.close();
+                if (!segment.file.delete()) {
+                    throw new IOException("Could not delete " + segment.file);
+                }
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the index from a segment, truncating it after the last valid record.
+     */
+    private void replay(final Segment segment) throws IOException {
+        final RandomAccessFile file = new RandomAccessFile(segment.file, "rw");
+        try {
+            final long length = file.length();
+            final DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file.getFD())));
+            long position = 0;
+            while (position < length) {
+                final byte[] bytes;
+                try {
+                    if (length - position < HEADER_SIZE) {
+                        throw new EOFException();
+                    }
+                    final int size = in.readInt();
+                    final int crc = in.readInt();
+                    if (size <= 0 || size > length - position - HEADER_SIZE) {
+                        throw new EOFException();
+                    }
+                    final byte[] body = new byte[size];
+                    in.readFully(body);
+                    if (crc != crc(body)) {
+                        throw new EOFException();
+                    }
+                    bytes = new byte[HEADER_SIZE + size];
+                    ByteBuffer.wrap(bytes).putInt(size).putInt(crc).put(body);
+                } catch (EOFException e) {
+                    ROOT_LOGGER.timerJournalSegmentTruncated(segment.file, position);
+                    file.setLength(position);
+                    break;
+                }
+                segment.size = position;
+                final Record record = Record.fromBytes(bytes);
+                if (record.data == null) {
+                    release(removeLocation(record.timedObjectId, record.timerId));
+                } else {
+                    setLocation(record.timedObjectId, record.timerId, new Location(segment, position, bytes.length));
+                }
+                position += bytes.length;
+            }
+            segment.size = position;
+        } finally {
+            file.close();
+        }
+    }
+
+    private static int crc(final byte[] bytes) {
+        final CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * A change to a timer.
+     */
+    public static final class Record {
+
+        private final String timedObjectId;
+        private final String timerId;
+        private final byte[] data;
+
+        private Record(final String timedObjectId, final String timerId, final byte[] data) {
+            this.timedObjectId = timedObjectId;
+            this.timerId = timerId;
+            this.data = data;
+        }
+
+        /**
+         * A record holding the current state of a timer.
+         */
+        public static Record put(final String timedObjectId, final String timerId, final byte[] data) {
+            return new Record(timedObjectId, timerId, data);
+        }
+
+        /**
+         * A record marking a timer as removed.
+         */
+        public static Record remove(final String timedObjectId, final String timerId) {
+            return new Record(timedObjectId, timerId, null);
+        }
+
+        byte[] toBytes() throws IOException {
+            final ByteArrayOutputStream body = new ByteArrayOutputStream();
+            final DataOutputStream out = new DataOutputStream(body);
+            out.writeByte(data == null ? REMOVE : PUT);
+            out.writeUTF(timedObjectId);
+            out.writeUTF(timerId);
+            if (data != null) {
+                out.write(data);
+            }
+            out.close();
+            final byte[] bodyBytes = body.toByteArray();
+            final byte[] bytes = new byte[HEADER_SIZE + bodyBytes.length];
+            ByteBuffer.wrap(bytes).putInt(bodyBytes.length).putInt(crc(bodyBytes)).put(bodyBytes);
+            return bytes;
+        }
+
+        static Record fromBytes(final byte[] bytes) throws IOException {
+            final DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, HEADER_SIZE, bytes.length - HEADER_SIZE));
+            final byte type = in.readByte();
+            final String timedObjectId = in.readUTF();
+            final String timerId = in.readUTF();
+            if (type == REMOVE) {
+                return new Record(timedObjectId, timerId, null);
+            }
+            final byte[] data = new byte[in.available()];
+            in.readFully(data);
+            return new Record(timedObjectId, timerId, data);
+        }
+    }
+
+    private static final class Segment {
+        private final long id;
+        private final File file;
+        private long size;
+        /**
+         * The number of bytes of this segment that are referenced by the index
+         */
+        private long live;
+        private RandomAccessFile raf;
+        private FileChannel channel;
+
+        Segment(final long id, final File file) {
+            this.id = id;
+            this.file = file;
+        }
+
+        void open() throws IOException {
+            raf = new RandomAccessFile(file, "rw");
+            channel = raf.getChannel();
+        }
+
+        void close() throws IOException {
+            if (raf != null) {
+                raf.close();
+            }
+        }
+    }
+
+    private static final class Location {
+        private final Segment segment;
+        private final long position;
+        private final int length;
+
+        Location(final Segment segment, final long position, final int length) {
+            this.segment = segment;
+            this.position = position;
+            this.length = length;
+        }
+    }
+}
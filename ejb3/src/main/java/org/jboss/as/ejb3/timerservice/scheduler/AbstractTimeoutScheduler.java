@@ -0,0 +1,67 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.scheduler;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.as.ejb3.component.invocationmetrics.LatencyHistogram;
+
+/**
+ * Base class for {@link TimeoutScheduler}s, keeping track of the timeout lag.
+ */
+public abstract class AbstractTimeoutScheduler implements TimeoutScheduler {
+
+    private final AtomicLong dispatched = new AtomicLong();
+    private final LatencyHistogram lag = new LatencyHistogram();
+
+    /**
+     * Runs the task of a due timeout, recording how late it is.
+     *
+     * @param task          the task
+     * @param scheduledTime the time in milliseconds the timeout was due
+     */
+    protected void dispatch(final Runnable task, final long scheduledTime) {
+        dispatched.incrementAndGet();
+        lag.record(System.currentTimeMillis() - scheduledTime);
+        task.run();
+    }
+
+    @Override
+    public long getDispatchedTimeouts() {
+        return dispatched.get();
+    }
+
+    @Override
+    public long getTimeoutLagPercentile(final double percentile) {
+        return lag.getValueAtPercentile(percentile);
+    }
+
+    /**
+     * Starts the scheduler.
+     */
+    public abstract void start();
+
+    /**
+     * Stops the scheduler, cancelling all scheduled timeouts.
+     */
+    public abstract void stop();
+}
@@ -0,0 +1,74 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.scheduler;
+
+/**
+ * Schedules the timeouts of EJB timers. Implementations only keep track of when a timeout is due; the task
+ * passed in is expected to hand the actual timeout invocation off to the timer service thread pool.
+ */
+public interface TimeoutScheduler {
+
+    /**
+     * Schedules a task to run once after the given delay.
+     *
+     * @param task  the task
+     * @param delay the delay in milliseconds
+     * @return a handle to cancel the task
+     */
+    ScheduledTimeout schedule(Runnable task, long delay);
+
+    /**
+     * Schedules a task to run repeatedly at a fixed rate, starting after the given delay.
+     *
+     * @param task   the task
+     * @param delay  the initial delay in milliseconds
+     * @param period the period in milliseconds
+     * @return a handle to cancel the task
+     */
+    ScheduledTimeout scheduleAtFixedRate(Runnable task, long delay, long period);
+
+    /**
+     * @return the number of timeouts dispatched since the scheduler was started
+     */
+    long getDispatchedTimeouts();
+
+    /**
+     * Get the lag between the time a timeout was scheduled for and the time it was actually dispatched.
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @return the lag in milliseconds at the given percentile
+     */
+    long getTimeoutLagPercentile(double percentile);
+
+    /**
+     * A handle on a scheduled timeout.
+     */
+    interface ScheduledTimeout {
+
+        /**
+         * Cancels the timeout. Has no effect if the timeout was already cancelled or, for single action timeouts, dispatched.
+         *
+         * @return {@code true} if this call prevented one or more dispatches of the timeout
+         */
+        boolean cancel();
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.scheduler;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The {@link TimeoutScheduler} implementations that can be configured for the timer service.
+ */
+public enum TimeoutSchedulerType {
+
+    /**
+     * A single {@link java.util.Timer}
+     */
+    TIMER("timer") {
+        @Override
+        public AbstractTimeoutScheduler create() {
+            return new TimerTimeoutScheduler();
+        }
+    },
+    /**
+     * A {@link TimingWheelTimeoutScheduler} with a tick of {@link #TIMING_WHEEL_TICK} milliseconds
+     */
+    TIMING_WHEEL("timing-wheel") {
+        @Override
+        public AbstractTimeoutScheduler create() {
+            return new TimingWheelTimeoutScheduler(TIMING_WHEEL_TICK);
+        }
+    };
+
+    public static final long TIMING_WHEEL_TICK = 10;
+
+    private static final Map<String, TimeoutSchedulerType> MAP;
+
+    static {
+        final Map<String, TimeoutSchedulerType> map = new HashMap<String, TimeoutSchedulerType>();
+        for (TimeoutSchedulerType type : values()) {
+            map.put(type.name, type);
+        }
+        MAP = map;
+    }
+
+    private final String name;
+
+    TimeoutSchedulerType(final String name) {
+        this.name = name;
+    }
+
+    /**
+     * @return a new, not yet started, scheduler of this type
+     */
+    public abstract AbstractTimeoutScheduler create();
+
+    public static TimeoutSchedulerType forName(final String name) {
+        final TimeoutSchedulerType type = MAP.get(name);
+        if (type == null) {
+            throw new IllegalArgumentException(name);
+        }
+        return type;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.scheduler;
+
+import java.util.Timer;
+import java.util.TimerTask;
+
+/**
+ * A {@link TimeoutScheduler} backed by a single {@link Timer} thread.
+ */
+public class TimerTimeoutScheduler extends AbstractTimeoutScheduler {
+
+    private volatile Timer timer;
+
+    @Override
+    public void start() {
+        timer = new Timer();
+    }
+
+    @Override
+    public void stop() {
+        timer.cancel();
+        timer = null;
+    }
+
+    @Override
+    public ScheduledTimeout schedule(final Runnable task, final long delay) {
+        final Task timerTask = new Task(task);
+        timer.schedule(timerTask, delay);
+        return timerTask;
+    }
+
+    @Override
+    public ScheduledTimeout scheduleAtFixedRate(final Runnable task, final long delay, final long period) {
+        final Task timerTask = new Task(task);
+        timer.scheduleAtFixedRate(timerTask, delay, period);
+        return timerTask;
+    }
+
+    private class Task extends TimerTask implements ScheduledTimeout {
+
+        private final Runnable delegate;
+
+        Task(final Runnable delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void run() {
+            dispatch(delegate, scheduledExecutionTime());
+        }
+    }
+}
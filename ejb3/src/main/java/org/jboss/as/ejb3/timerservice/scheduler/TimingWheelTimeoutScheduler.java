@@ -0,0 +1,378 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.scheduler;
+
+import static org.jboss.as.ejb3.EjbLogger.ROOT_LOGGER;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A {@link TimeoutScheduler} based on a hierarchical timing wheel.
+ * <p/>
+ * Time is divided in ticks. The wheel has {@link #LEVELS} levels of {@link #SLOTS} slots each; a slot of level
+ * <code>n</code> covers <code>SLOTS<sup>n</sup></code> ticks. A timeout is put in the lowest level slot that
+ * can hold its deadline, and whenever the ticker enters the window covered by a higher level slot the timeouts in it
+ * are moved down the hierarchy. Scheduling and cancelling are therefore O(1) regardless of the number of
+ * timers, whereas a {@link java.util.Timer} keeps a binary heap under a single monitor.
+ * <p/>
+ * Slots are doubly linked lists threaded through the timeouts themselves, each guarded by the monitor of its slot, so
+ * that a timeout is added to or unlinked from its slot in constant time. The read side of a read/write lock is taken
+ * when scheduling a timeout, and the write side only for the instant the ticker moves to the next tick, so that a
+ * timeout can never be put in a slot the ticker has already passed. A cancelled timeout is unlinked from its slot
+ * straight away, so that timers which are created and cancelled again long before they are due do not build up in the
+ * wheel.
+ * <p/>
+ * Due timeouts are run on the ticker thread, so tasks are expected to hand off any real work to an executor.
+ */
+public class TimingWheelTimeoutScheduler extends AbstractTimeoutScheduler {
+
+    static final int BITS = 9;
+    static final int SLOTS = 1 << BITS;
+    static final int LEVELS = 4;
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    private final long tickNanos;
+    private final Slot[][] wheel;
+    private final ReadWriteLock tickLock = new ReentrantReadWriteLock();
+
+    private volatile long startNanos;
+    /**
+     * The tick the ticker is processing, only modified with the write lock held
+     */
+    private volatile long currentTick;
+    private volatile Thread ticker;
+    private volatile boolean running;
+
+    /**
+     * @param tick the duration of a tick in milliseconds, which is also the resolution of the scheduler
+     */
+    public TimingWheelTimeoutScheduler(final long tick) {
+        this(tick, TimeUnit.MILLISECONDS);
+    }
+
+    TimingWheelTimeoutScheduler(final long tick, final TimeUnit unit) {
+        if (tick <= 0) {
+            throw new IllegalArgumentException("tick " + tick);
+        }
+        this.tickNanos = unit.toNanos(tick);
+        this.wheel = new Slot[LEVELS][SLOTS];
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                wheel[level][slot] = new Slot();
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        startNanos = System.nanoTime();
+        currentTick = 0;
+        running = true;
+        final Thread thread = new Thread(new Ticker(), "EJB default - timing wheel");
+        thread.setDaemon(true);
+        ticker = thread;
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        final Thread thread = ticker;
+        ticker = null;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        for (Slot[] level : wheel) {
+            for (Slot slot : level) {
+                for (Entry entry = slot.poll(); entry != null; entry = slot.poll()) {
+                    entry.cancelled = true;
+                }
+            }
+        }
+    }
+
+    @Override
+    public ScheduledTimeout schedule(final Runnable task, final long delay) {
+        return schedule(task, delay, 0);
+    }
+
+    @Override
+    public ScheduledTimeout scheduleAtFixedRate(final Runnable task, final long delay, final long period) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("period " + period);
+        }
+        return schedule(task, delay, period);
+    }
+
+    private ScheduledTimeout schedule(final Runnable task, final long delay, final long period) {
+        if (delay < 0) {
+            throw new IllegalArgumentException("delay " + delay);
+        }
+        if (!running) {
+            throw new IllegalStateException("Timing wheel is not running");
+        }
+        final long deadlineNanos = System.nanoTime() - startNanos + TimeUnit.MILLISECONDS.toNanos(delay);
+        final Entry entry = new Entry(task, deadlineNanos, System.currentTimeMillis() + delay, period);
+        insert(entry);
+        return entry;
+    }
+
+    private void insert(final Entry entry) {
+        final Lock lock = tickLock.readLock();
+        lock.lock();
+        try {
+            place(entry, currentTick);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Puts an entry in the lowest level slot that can hold its deadline, relative to the given tick. An entry
+     * which is already due goes in the level 0 slot of the next tick.
+     */
+    private void place(final Entry entry, final long current) {
+        final long deadline = entry.deadlineTick;
+        if (deadline <= current) {
+            offer(wheel[0][(int) ((current + 1) & SLOT_MASK)], entry);
+            return;
+        }
+        for (int level = 0; level < LEVELS; level++) {
+            final int shift = BITS * level;
+            if ((deadline >>> shift) - (current >>> shift) < SLOTS) {
+                offer(wheel[level][(int) ((deadline >>> shift) & SLOT_MASK)], entry);
+                return;
+            }
+        }
+        // beyond the range of the wheel, park it in the farthest top level slot and place it again from there
+        final int shift = BITS * (LEVELS - 1);
+        offer(wheel[LEVELS - 1][(int) (((current >>> shift) + SLOTS - 1) & SLOT_MASK)], entry);
+    }
+
+    private static void offer(final Slot slot, final Entry entry) {
+        slot.add(entry);
+        if (entry.cancelled) {
+            // cancelled while the ticker was moving it, cancel() may have looked at the previous slot
+            slot.remove(entry);
+        }
+    }
+
+    /**
+     * @return the number of timeouts in the wheel, including the ones about to be run or moved by the ticker
+     */
+    int size() {
+        int size = 0;
+        for (Slot[] level : wheel) {
+            for (Slot slot : level) {
+                size += slot.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Processes a single tick: moves the entries of the higher level slots whose window starts at this tick down the
+     * hierarchy, then runs everything in the level 0 slot which is due.
+     */
+    private void tick(final long tick) {
+        final List<Entry> due = new ArrayList<Entry>();
+        for (int level = LEVELS - 1; level > 0; level--) {
+            final int shift = BITS * level;
+            if ((tick & ((1L << shift) - 1)) == 0) {
+                final Slot slot = wheel[level][(int) ((tick >>> shift) & SLOT_MASK)];
+                for (Entry entry = slot.poll(); entry != null; entry = slot.poll()) {
+                    if (entry.cancelled) {
+                        continue;
+                    }
+                    if (entry.deadlineTick <= tick) {
+                        due.add(entry);
+                    } else {
+                        place(entry, tick);
+                    }
+                }
+            }
+        }
+        final Slot slot = wheel[0][(int) (tick & SLOT_MASK)];
+        for (Entry entry = slot.poll(); entry != null; entry = slot.poll()) {
+            if (entry.cancelled) {
+                continue;
+            }
+            if (entry.deadlineTick <= tick) {
+                due.add(entry);
+            } else {
+                place(entry, tick);
+            }
+        }
+        for (Entry entry : due) {
+            entry.fire();
+        }
+    }
+
+    private final class Entry implements ScheduledTimeout {
+
+        private final Runnable task;
+        private final long period;
+        private long deadlineNanos;
+        private long scheduledTime;
+        private long deadlineTick;
+        private volatile boolean cancelled;
+        /**
+         * The slot this entry is linked in, if any; only modified with the monitor of that slot held
+         */
+        private volatile Slot slot;
+        private Entry previous;
+        private Entry next;
+
+        Entry(final Runnable task, final long deadlineNanos, final long scheduledTime, final long period) {
+            this.task = task;
+            this.period = period;
+            setDeadline(deadlineNanos, scheduledTime);
+        }
+
+        private void setDeadline(final long deadlineNanos, final long scheduledTime) {
+            this.deadlineNanos = deadlineNanos;
+            this.scheduledTime = scheduledTime;
+            // round up, a timeout must never fire early
+            this.deadlineTick = (deadlineNanos + tickNanos - 1) / tickNanos;
+        }
+
+        void fire() {
+            try {
+                dispatch(task, scheduledTime);
+            } catch (Throwable t) {
+                ROOT_LOGGER.error(t);
+            }
+            if (period > 0 && !cancelled) {
+                setDeadline(deadlineNanos + TimeUnit.MILLISECONDS.toNanos(period), scheduledTime + period);
+                insert(this);
+            } else {
+                cancelled = true;
+            }
+        }
+
+        @Override
+        public boolean cancel() {
+            if (cancelled) {
+                return false;
+            }
+            cancelled = true;
+            final Slot slot = this.slot;
+            if (slot != null) {
+                slot.remove(this);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * A slot of the wheel: a doubly linked list of the entries in it, guarded by its monitor.
+     */
+    private static final class Slot {
+        private Entry first;
+        private Entry last;
+        private int size;
+
+        synchronized void add(final Entry entry) {
+            entry.previous = last;
+            entry.next = null;
+            if (last == null) {
+                first = entry;
+            } else {
+                last.next = entry;
+            }
+            last = entry;
+            entry.slot = this;
+            size++;
+        }
+
+        /**
+         * Unlinks an entry, if it is still in this slot; an entry the ticker has taken out in the meantime is left
+         * alone.
+         */
+        synchronized void remove(final Entry entry) {
+            if (entry.slot != this) {
+                return;
+            }
+            if (entry.previous == null) {
+                first = entry.next;
+            } else {
+                entry.previous.next = entry.next;
+            }
+            if (entry.next == null) {
+                last = entry.previous;
+            } else {
+                entry.next.previous = entry.previous;
+            }
+            entry.previous = null;
+            entry.next = null;
+            entry.slot = null;
+            size--;
+        }
+
+        synchronized Entry poll() {
+            final Entry entry = first;
+            if (entry != null) {
+                remove(entry);
+            }
+            return entry;
+        }
+
+        synchronized int size() {
+            return size;
+        }
+    }
+
+    private final class Ticker implements Runnable {
+
+        @Override
+        public void run() {
+            while (running) {
+                final long now = System.nanoTime() - startNanos;
+                final long target = now / tickNanos;
+                while (currentTick < target && running) {
+                    final Lock lock = tickLock.writeLock();
+                    lock.lock();
+                    final long tick;
+                    try {
+                        tick = ++currentTick;
+                    } finally {
+                        lock.unlock();
+                    }
+                    tick(tick);
+                }
+                final long next = (currentTick + 1) * tickNanos;
+                LockSupport.parkNanos(this, next - (System.nanoTime() - startNanos));
+            }
+        }
+    }
+}
@@ -0,0 +1,247 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.cache.impl.backing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.ejb3.cache.Cacheable;
+import org.jboss.as.ejb3.cache.spi.BackingCacheEntryStoreConfig;
+import org.jboss.as.ejb3.cache.spi.ObjectSizeEstimator;
+import org.jboss.as.ejb3.cache.spi.PersistentObjectStore;
+import org.junit.Test;
+
+/**
+ * Tests of the memory bound of {@link SimpleBackingCacheEntryStore}.
+ */
+public class SimpleBackingCacheEntryStoreTestCase {
+
+    private static final long SIZE = 100;
+
+    static class Bean implements Cacheable<Integer> {
+        private static final long serialVersionUID = 1L;
+        private final Integer id;
+
+        Bean(final int id) {
+            this.id = id;
+        }
+
+        @Override
+        public Integer getId() {
+            return id;
+        }
+
+        @Override
+        public boolean isModified() {
+            return true;
+        }
+    }
+
+    static class Entry extends NonPassivatingBackingCacheEntry<Integer, Bean> {
+        private static final long serialVersionUID = 1L;
+
+        Entry(final int id, final long lastUsed) {
+            super(new Bean(id));
+            setLastUsed(lastUsed);
+        }
+    }
+
+    static class Config implements BackingCacheEntryStoreConfig {
+        private int maxSize = DEFAULT_MAX_SIZE;
+        private long maxMemory = DEFAULT_MAX_MEMORY;
+
+        @Override
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        @Override
+        public void setMaxSize(final int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        public long getMaxMemory() {
+            return maxMemory;
+        }
+
+        @Override
+        public void setMaxMemory(final long maxMemory) {
+            this.maxMemory = maxMemory;
+        }
+
+        @Override
+        public long getIdleTimeout() {
+            return DEFAULT_IDLE_TIMEOUT;
+        }
+
+        @Override
+        public void setIdleTimeout(final long timeout) {
+        }
+
+        @Override
+        public TimeUnit getIdleTimeoutUnit() {
+            return DEFAULT_IDLE_TIMEOUT_UNIT;
+        }
+
+        @Override
+        public void setIdleTimeoutUnit(final TimeUnit unit) {
+        }
+
+        @Override
+        public boolean isPassivateEventsOnReplicate() {
+            return false;
+        }
+    }
+
+    static class MapObjectStore implements PersistentObjectStore<Integer, Entry> {
+        final Map<Integer, Entry> entries = new HashMap<Integer, Entry>();
+
+        @Override
+        public Entry load(final Integer key) {
+            return entries.remove(key);
+        }
+
+        @Override
+        public void store(final Entry obj) {
+            entries.put(obj.getId(), obj);
+        }
+
+        @Override
+        public void start() {
+        }
+
+        @Override
+        public void stop() {
+        }
+    }
+
+    private static final ObjectSizeEstimator<Entry> ESTIMATOR = new ObjectSizeEstimator<Entry>() {
+        @Override
+        public long estimateSize(final Entry obj) {
+            return SIZE;
+        }
+    };
+
+    private static SimpleBackingCacheEntryStore<Integer, Bean, Entry> createStore(final Config config, final BackingCacheEntryStoreStatistics statistics) {
+        return new SimpleBackingCacheEntryStore<Integer, Bean, Entry>(null, new MapObjectStore(), null, null, config, ESTIMATOR, statistics);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedPassivatedWhenOverBudget() {
+        final Config config = new Config();
+        config.setMaxMemory(3 * SIZE + SIZE / 2);
+        final BackingCacheEntryStoreStatistics statistics = new BackingCacheEntryStoreStatistics();
+        final SimpleBackingCacheEntryStore<Integer, Bean, Entry> store = createStore(config, statistics);
+
+        assertTrue(store.insert(new Entry(1, 3000)).isEmpty());
+        assertTrue(store.insert(new Entry(2, 1000)).isEmpty());
+        assertTrue(store.insert(new Entry(3, 2000)).isEmpty());
+        assertEquals(3 * SIZE, statistics.getResidentBytes());
+
+        final Set<Integer> toPassivate = store.insert(new Entry(4, 4000));
+        assertEquals(Collections.singleton(2), toPassivate);
+        assertEquals(1, statistics.getEvictionCount());
+        assertEquals(4 * SIZE, statistics.getResidentBytes());
+
+        store.passivate(store.get(2, false));
+        assertEquals(3 * SIZE, statistics.getResidentBytes());
+        assertEquals(1, statistics.getPassivationCount());
+
+        // activation brings it back into memory
+        assertNotNull(store.get(2, false));
+        assertEquals(4 * SIZE, statistics.getResidentBytes());
+
+        store.remove(2);
+        assertEquals(3 * SIZE, statistics.getResidentBytes());
+    }
+
+    @Test
+    public void testInUseEntriesNotPassivated() {
+        final Config config = new Config();
+        config.setMaxMemory(SIZE);
+        final BackingCacheEntryStoreStatistics statistics = new BackingCacheEntryStoreStatistics();
+        final SimpleBackingCacheEntryStore<Integer, Bean, Entry> store = createStore(config, statistics);
+
+        final Entry first = new Entry(1, 1000);
+        first.increaseUsageCount();
+        assertTrue(store.insert(first).isEmpty());
+        assertTrue(store.insert(new Entry(2, 2000)).isEmpty());
+        assertEquals(Collections.singleton(2), store.insert(new Entry(3, 3000)));
+    }
+
+    @Test
+    public void testBudgetSharedBetweenStores() {
+        final Config config = new Config();
+        config.setMaxMemory(2 * SIZE);
+        final BackingCacheEntryStoreStatistics statistics = new BackingCacheEntryStoreStatistics();
+        final SimpleBackingCacheEntryStore<Integer, Bean, Entry> first = createStore(config, statistics);
+        final SimpleBackingCacheEntryStore<Integer, Bean, Entry> second = createStore(config, statistics);
+
+        assertTrue(first.insert(new Entry(1, 1000)).isEmpty());
+        assertTrue(first.insert(new Entry(2, 2000)).isEmpty());
+        // only the entries of the store itself are passivated, and never the one being inserted
+        assertTrue(second.insert(new Entry(3, 3000)).isEmpty());
+        assertEquals(Collections.singleton(3), second.insert(new Entry(4, 4000)));
+
+        second.stop();
+        assertEquals(2 * SIZE, statistics.getResidentBytes());
+    }
+
+    @Test
+    public void testUnbounded() {
+        final BackingCacheEntryStoreStatistics statistics = new BackingCacheEntryStoreStatistics();
+        final CountingEstimator estimator = new CountingEstimator();
+        final Config config = new Config();
+        final SimpleBackingCacheEntryStore<Integer, Bean, Entry> store = new SimpleBackingCacheEntryStore<Integer, Bean, Entry>(null, new MapObjectStore(), null, null, config, estimator, statistics);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(store.insert(new Entry(i, i)).isEmpty());
+        }
+        // without a budget the size of the entries is not estimated at all
+        assertEquals(0, estimator.count);
+        assertEquals(0, statistics.getResidentBytes());
+        assertEquals(0, statistics.getEvictionCount());
+
+        // setting a budget takes effect for the next entries
+        config.setMaxMemory(1000 * SIZE);
+        assertTrue(store.insert(new Entry(100, 100)).isEmpty());
+        assertEquals(1, estimator.count);
+        assertEquals(SIZE, statistics.getResidentBytes());
+    }
+
+    static class CountingEstimator implements ObjectSizeEstimator<Entry> {
+        int count;
+
+        @Override
+        public long estimateSize(final Entry obj) {
+            count++;
+            return SIZE;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.cache.spi.impl;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.jboss.as.ejb3.cache.Cacheable;
+import org.jboss.as.ejb3.cache.PassivationManager;
+import org.jboss.marshalling.MarshallingConfiguration;
+import org.jboss.marshalling.SimpleClassResolver;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link SegmentedPersistentObjectStore}.
+ */
+public class SegmentedPersistentObjectStoreTestCase {
+
+    private static final long SEGMENT_SIZE = 1000;
+
+    static class Bean implements Cacheable<Integer> {
+        private static final long serialVersionUID = 1L;
+        private final Integer id;
+        private final byte[] state;
+
+        Bean(final int id) {
+            this.id = id;
+            this.state = new byte[100];
+            this.state[0] = (byte) id;
+        }
+
+        @Override
+        public Integer getId() {
+            return id;
+        }
+
+        @Override
+        public boolean isModified() {
+            return true;
+        }
+    }
+
+    static class UnmarshallableBean extends Bean {
+        private static final long serialVersionUID = 1L;
+        private final Object lock = new Object();
+
+        UnmarshallableBean(final int id) {
+            super(id);
+        }
+    }
+
+    static class Manager implements PassivationManager<Integer, Bean> {
+        int marshalled;
+
+        @Override
+        public void postActivate(final Bean obj) {
+        }
+
+        @Override
+        public void prePassivate(final Bean obj) {
+        }
+
+        @Override
+        public int getCurrentMarshallingVersion() {
+            marshalled++;
+            return 1;
+        }
+
+        @Override
+        public MarshallingConfiguration getMarshallingConfiguration(final int version) {
+            final MarshallingConfiguration configuration = new MarshallingConfiguration();
+            configuration.setClassResolver(new SimpleClassResolver(Bean.class.getClassLoader()));
+            return configuration;
+        }
+    }
+
+    private File directory;
+    private Manager manager;
+    private SegmentedPersistentObjectStore<Integer, Bean> store;
+
+    @Before
+    public void start() throws IOException {
+        directory = File.createTempFile("passivation", "");
+        directory.delete();
+        manager = new Manager();
+        store = new SegmentedPersistentObjectStore<Integer, Bean>(manager, directory.getPath(), SEGMENT_SIZE);
+        store.start();
+    }
+
+    @After
+    public void stop() {
+        store.stop();
+        directory.delete();
+    }
+
+    @Test
+    public void testStoreAndLoadAcrossSegments() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            store.store(new Bean(i));
+        }
+        assertTrue(store.getSegmentCount() > 1);
+        for (int i = 0; i < 20; i++) {
+            assertLoaded(i);
+        }
+        // loading an object removes it, and a segment is deleted once nothing in it is stored
+        assertNull(store.load(0));
+        store.awaitCompaction();
+        assertEquals(1, store.getSegmentCount());
+    }
+
+    @Test
+    public void testStoreReplacesState() throws Exception {
+        store.store(new Bean(1));
+        final Bean bean = new Bean(1);
+        bean.state[1] = 1;
+        store.store(bean);
+        final Bean loaded = store.load(1);
+        assertArrayEquals(bean.state, loaded.state);
+        assertNull(store.load(1));
+    }
+
+    @Test
+    public void testCompactionKeepsStoredObjects() throws Exception {
+        for (int i = 0; i < 60; i++) {
+            store.store(new Bean(i));
+        }
+        // leave one object in a few of the older segments, so that most of their data is garbage
+        for (int i = 0; i < 60; i++) {
+            if (i != 0 && i != 24 && i != 48) {
+                assertLoaded(i);
+            }
+        }
+        final int before = store.getSegmentCount();
+        // filling the current segment schedules the compaction
+        for (int i = 60; i < 70; i++) {
+            store.store(new Bean(i));
+        }
+        store.awaitCompaction();
+        assertTrue(store.getSegmentCount() < before);
+        assertLoaded(0);
+        assertLoaded(24);
+        assertLoaded(48);
+        for (int i = 60; i < 70; i++) {
+            assertLoaded(i);
+        }
+    }
+
+    @Test
+    public void testStopDeletesSegments() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            store.store(new Bean(i));
+        }
+        assertTrue(directory.list().length > 1);
+        store.stop();
+        assertEquals(0, store.getSegmentCount());
+        assertEquals(0, directory.list().length);
+        assertNull(store.load(1));
+    }
+
+    @Test
+    public void testUnmarshallableTypeNotSampledAgain() {
+        for (int i = 0; i < 100; i++) {
+            assertEquals(0, store.estimateSize(new UnmarshallableBean(i)));
+        }
+        assertEquals(1, manager.marshalled);
+
+        // other types are still sampled
+        assertTrue(store.estimateSize(new Bean(1)) > 0);
+        assertEquals(2, manager.marshalled);
+    }
+
+    private void assertLoaded(final int id) {
+        final Bean bean = store.load(id);
+        assertEquals(Integer.valueOf(id), bean.getId());
+        assertEquals((byte) id, bean.state[0]);
+    }
+}
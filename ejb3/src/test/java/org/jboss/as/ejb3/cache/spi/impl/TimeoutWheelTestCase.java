@@ -0,0 +1,149 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.cache.spi.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link TimeoutWheel}.
+ */
+public class TimeoutWheelTestCase {
+
+    private static class Collector implements TimeoutWheel.Listener<String> {
+        final List<List<String>> batches = new ArrayList<List<String>>();
+
+        @Override
+        public synchronized void timedOut(List<String> keys) {
+            batches.add(keys);
+        }
+    }
+
+    private static class ManualClock implements TimeoutWheel.Clock {
+        private long nanos;
+
+        @Override
+        public long nanoTime() {
+            return nanos;
+        }
+
+        void advance(long time, TimeUnit unit) {
+            nanos += unit.toNanos(time);
+        }
+    }
+
+    @Test
+    public void testBatchInDeadlineOrder() throws Exception {
+        final Collector collector = new Collector();
+        final ManualClock clock = new ManualClock();
+        final TimeoutWheel<String> wheel = new TimeoutWheel<String>(1, TimeUnit.MILLISECONDS, collector, clock);
+        wheel.schedule("c", 30, TimeUnit.MILLISECONDS);
+        wheel.schedule("a", 10, TimeUnit.MILLISECONDS);
+        wheel.schedule("b", 20, TimeUnit.MILLISECONDS);
+        wheel.schedule("later", 1, TimeUnit.HOURS);
+        wheel.tick();
+        assertTrue(collector.batches.isEmpty());
+
+        clock.advance(50, TimeUnit.MILLISECONDS);
+        wheel.tick();
+        assertEquals(1, collector.batches.size());
+        assertEquals(Arrays.asList("a", "b", "c"), collector.batches.get(0));
+        assertEquals(1, wheel.size());
+    }
+
+    @Test
+    public void testCancelAndReschedule() throws Exception {
+        final Collector collector = new Collector();
+        final ManualClock clock = new ManualClock();
+        final TimeoutWheel<String> wheel = new TimeoutWheel<String>(1, TimeUnit.MILLISECONDS, collector, clock);
+        wheel.schedule("a", 10, TimeUnit.MILLISECONDS);
+        wheel.schedule("b", 10, TimeUnit.MILLISECONDS);
+        assertTrue(wheel.cancel("a"));
+        assertFalse(wheel.cancel("a"));
+        wheel.schedule("b", 1, TimeUnit.HOURS);
+
+        clock.advance(30, TimeUnit.MILLISECONDS);
+        wheel.tick();
+        assertTrue(collector.batches.isEmpty());
+        assertEquals(1, wheel.size());
+
+        wheel.schedule("b", 0, TimeUnit.MILLISECONDS);
+        clock.advance(1, TimeUnit.MILLISECONDS);
+        wheel.tick();
+        assertEquals(Arrays.asList(Arrays.asList("b")), collector.batches);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testTimeoutBeyondRotation() throws Exception {
+        final Collector collector = new Collector();
+        final ManualClock clock = new ManualClock();
+        // 512 buckets of 100 microseconds, so the wheel rotates every 51.2 milliseconds
+        final TimeoutWheel<String> wheel = new TimeoutWheel<String>(100, TimeUnit.MICROSECONDS, collector, clock);
+        wheel.schedule("a", 120, TimeUnit.MILLISECONDS);
+        for (int i = 0; i < 11; i++) {
+            clock.advance(10, TimeUnit.MILLISECONDS);
+            wheel.tick();
+        }
+        // the bucket of the key has been scanned twice, at 17.6 and 68.8 milliseconds
+        assertTrue(collector.batches.isEmpty());
+        clock.advance(10, TimeUnit.MILLISECONDS);
+        wheel.tick();
+        assertEquals(Arrays.asList(Arrays.asList("a")), collector.batches);
+    }
+
+    @Test
+    public void testExecutor() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(100);
+        final TimeoutWheel<Integer> wheel = new TimeoutWheel<Integer>(5, TimeUnit.MILLISECONDS, new TimeoutWheel.Listener<Integer>() {
+            @Override
+            public void timedOut(List<Integer> keys) {
+                for (Integer key : keys) {
+                    latch.countDown();
+                }
+            }
+        });
+        final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+        try {
+            wheel.start(executor);
+            for (int i = 0; i < 100; i++) {
+                wheel.schedule(i, i % 10, TimeUnit.MILLISECONDS);
+            }
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            assertEquals(0, wheel.size());
+        } finally {
+            wheel.stop();
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.component.entity.entitycache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.jboss.as.ejb3.component.entity.EntityBeanComponent;
+import org.jboss.as.ejb3.component.entity.EntityBeanComponentInstance;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests of {@link ReferenceCountingEntityCache}.
+ */
+public class ReferenceCountingEntityCacheTestCase {
+
+    /**
+     * Creates a component which hands out the given number of instances. The instances are created up front, as
+     * mocks should not be created while another mock is being invoked.
+     */
+    private static EntityBeanComponent component(final int instances) {
+        final Queue<EntityBeanComponentInstance> pool = new ConcurrentLinkedQueue<EntityBeanComponentInstance>();
+        for (int i = 0; i < instances; i++) {
+            final EntityBeanComponentInstance instance = mock(EntityBeanComponentInstance.class);
+            final AtomicReference<Object> primaryKey = new AtomicReference<Object>();
+            doAnswer(new Answer<Void>() {
+                @Override
+                public Void answer(InvocationOnMock invocation) throws Throwable {
+                    primaryKey.set(invocation.getArguments()[0]);
+                    return null;
+                }
+            }).when(instance).associate(any());
+            when(instance.getPrimaryKey()).thenAnswer(new Answer<Object>() {
+                @Override
+                public Object answer(InvocationOnMock invocation) throws Throwable {
+                    return primaryKey.get();
+                }
+            });
+            pool.add(instance);
+        }
+        final EntityBeanComponent component = mock(EntityBeanComponent.class);
+        when(component.acquireUnAssociatedInstance()).thenAnswer(new Answer<EntityBeanComponentInstance>() {
+            @Override
+            public EntityBeanComponentInstance answer(InvocationOnMock invocation) throws Throwable {
+                return pool.remove();
+            }
+        });
+        return component;
+    }
+
+    @Test
+    public void testInstanceIsSharedWhileReferenced() throws Exception {
+        final EntityBeanComponent component = component(1);
+        final ReferenceCountingEntityCache cache = new ReferenceCountingEntityCache(component);
+
+        final EntityBeanComponentInstance first = cache.get("pk");
+        final EntityBeanComponentInstance second = cache.get("pk");
+        Assert.assertSame(first, second);
+        Assert.assertEquals(1, cache.getMissCount());
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(1, cache.getCurrentSize());
+
+        cache.release(first, true);
+        Assert.assertEquals(1, cache.getCurrentSize());
+        Assert.assertEquals(0, cache.getEvictionCount());
+
+        cache.release(second, true);
+        Assert.assertEquals(0, cache.getCurrentSize());
+        Assert.assertEquals(1, cache.getEvictionCount());
+        verify(first, times(1)).passivate();
+        verify(component, times(1)).releaseEntityBeanInstance(first);
+    }
+
+    @Test
+    public void testConcurrentAccess() throws Exception {
+        final int threads = 8;
+        final int iterations = 200;
+        final EntityBeanComponent component = component(2 * threads * iterations);
+        final ReferenceCountingEntityCache cache = new ReferenceCountingEntityCache(component);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<Void>> results = new ArrayList<Future<Void>>();
+            for (int i = 0; i < threads; i++) {
+                final String ownKey = "pk" + i;
+                results.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        for (int j = 0; j < iterations; j++) {
+                            final EntityBeanComponentInstance shared = cache.get("shared");
+                            final EntityBeanComponentInstance own = cache.get(ownKey);
+                            Assert.assertEquals("shared", shared.getPrimaryKey());
+                            Assert.assertEquals(ownKey, own.getPrimaryKey());
+                            cache.release(own, true);
+                            cache.release(shared, true);
+                        }
+                        return null;
+                    }
+                }));
+            }
+            for (Future<Void> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertEquals(0, cache.getCurrentSize());
+        Assert.assertEquals(2L * threads * iterations, cache.getHitCount() + cache.getMissCount());
+        Assert.assertEquals(cache.getMissCount(), cache.getEvictionCount());
+    }
+}
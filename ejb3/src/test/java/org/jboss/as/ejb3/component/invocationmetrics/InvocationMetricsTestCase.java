@@ -0,0 +1,123 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component.invocationmetrics;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link InvocationMetrics} and {@link LatencyHistogram}.
+ */
+public class InvocationMetricsTestCase {
+
+    @Test
+    public void testHistogramBuckets() {
+        for (long value = 0; value < 100000; value++) {
+            final long highest = LatencyHistogram.highestValueOf(LatencyHistogram.indexOf(value));
+            Assert.assertTrue("value " + value + " above its bucket " + highest, value <= highest);
+            Assert.assertTrue("value " + value + " too far from its bucket " + highest, highest - value <= value / 8);
+        }
+    }
+
+    @Test
+    public void testPercentiles() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        Assert.assertEquals(0, histogram.getValueAtPercentile(99));
+        for (long i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+        Assert.assertEquals(1000, histogram.getCount());
+        assertNear(500, histogram.getValueAtPercentile(50));
+        assertNear(990, histogram.getValueAtPercentile(99));
+        assertNear(999, histogram.getValueAtPercentile(99.9));
+        assertNear(1000, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void testConcurrentInvocations() throws Exception {
+        final InvocationMetrics metrics = new InvocationMetrics();
+        final Callable<Void> task = new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                for (int i = 0; i < 10000; i++) {
+                    metrics.startInvocation();
+                    metrics.finishInvocation(Object.class.getMethod("toString"), 1, 2);
+                }
+                return null;
+            }
+        };
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final Future<?>[] results = new Future<?>[8];
+            for (int i = 0; i < results.length; i++) {
+                results[i] = executor.submit(task);
+            }
+            for (Future<?> result : results) {
+                result.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertEquals(80000, metrics.getInvocations());
+        Assert.assertEquals(80000, metrics.getWaitTime());
+        Assert.assertEquals(160000, metrics.getExecutionTime());
+        Assert.assertEquals(0, metrics.getConcurrent());
+        Assert.assertTrue(metrics.getPeakConcurrent() >= 1 && metrics.getPeakConcurrent() <= 8);
+        Assert.assertEquals(80000, metrics.getMethods().get("toString").getInvocations());
+        Assert.assertEquals(2, metrics.getMethods().get("toString").getExecutionTimePercentile(99.9));
+    }
+
+    @Test
+    public void testHistogramRecordedFromManyThreads() throws Exception {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        final Thread[] threads = new Thread[16];
+        for (int t = 0; t < threads.length; t++) {
+            final long value = t;
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < 1000; i++) {
+                        histogram.record(value);
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        // the stripes of all the threads are summed up
+        Assert.assertEquals(16000, histogram.getCount());
+        Assert.assertEquals(7, histogram.getValueAtPercentile(50));
+        Assert.assertEquals(15, histogram.getValueAtPercentile(100));
+    }
+
+    private static void assertNear(final long expected, final long actual) {
+        Assert.assertTrue("expected about " + expected + " but was " + actual, actual >= expected && actual - expected <= expected / 8);
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.pool.strictmax;
+
+import junit.framework.TestCase;
+import org.jboss.as.ejb3.EjbMessages;
+import org.jboss.as.ejb3.pool.Pool;
+import org.jboss.as.ejb3.pool.StatelessObjectFactory;
+import org.jboss.as.ejb3.pool.common.MockBean;
+import org.jboss.as.ejb3.pool.common.MockFactory;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests for {@link StripedStrictMaxPool}.
+ */
+public class StripedStrictMaxPoolUnitTestCase extends TestCase {
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        MockBean.reset();
+    }
+
+    public void test1() {
+        StatelessObjectFactory<MockBean> factory = new MockFactory();
+        Pool<MockBean> pool = new StripedStrictMaxPool<MockBean>(factory, 10, 1, TimeUnit.SECONDS, 4);
+        pool.start();
+
+        MockBean beans[] = new MockBean[10];
+        for (int i = 0; i < beans.length; i++) {
+            beans[i] = pool.get();
+        }
+
+        for (int i = 0; i < beans.length; i++) {
+            pool.release(beans[i]);
+            beans[i] = null;
+        }
+
+        // everything released is reused, regardless of which stripe it ended up in
+        for (int i = 0; i < beans.length; i++) {
+            beans[i] = pool.get();
+        }
+        for (int i = 0; i < beans.length; i++) {
+            pool.release(beans[i]);
+            beans[i] = null;
+        }
+
+        pool.stop();
+
+        assertEquals(10, MockBean.getPostConstructs());
+        assertEquals(10, MockBean.getPreDestroys());
+    }
+
+    public void testTooMany() {
+        StatelessObjectFactory<MockBean> factory = new MockFactory();
+        Pool<MockBean> pool = new StripedStrictMaxPool<MockBean>(factory, 10, 1, TimeUnit.SECONDS, 4);
+        pool.start();
+
+        MockBean beans[] = new MockBean[10];
+        for (int i = 0; i < beans.length; i++) {
+            beans[i] = pool.get();
+        }
+
+        try {
+            pool.get();
+            fail("should have thrown an exception");
+        } catch (Exception e) {
+            assertEquals(EjbMessages.MESSAGES.failedToAcquirePermit(1, TimeUnit.SECONDS).getMessage(), e.getMessage());
+        }
+
+        for (int i = 0; i < beans.length; i++) {
+            pool.release(beans[i]);
+            beans[i] = null;
+        }
+
+        pool.stop();
+
+        assertEquals(10, MockBean.getPostConstructs());
+        assertEquals(10, MockBean.getPreDestroys());
+    }
+
+    /**
+     * Hammers the pool with 1 to 64 concurrent callers and checks that the strict max is never exceeded
+     * and that every instance created is eventually destroyed.
+     */
+    public void testConcurrentCallers() throws Exception {
+        for (int callers = 1; callers <= 64; callers <<= 1) {
+            MockBean.reset();
+            runConcurrentCallers(new StripedStrictMaxPool<MockBean>(new MockFactory(), 8, 60, TimeUnit.SECONDS, 8), 8, callers);
+        }
+    }
+
+    /**
+     * Runs 1000 get/release cycles per caller and checks that the strict max is never exceeded and that every
+     * instance created is eventually destroyed.
+     */
+    private void runConcurrentCallers(final Pool<MockBean> pool, final int maxSize, final int callers) throws Exception {
+        MockBean.reset();
+        pool.start();
+
+        final AtomicInteger inUse = new AtomicInteger();
+        final AtomicInteger maxInUse = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+
+        Callable<Void> task = new Callable<Void>() {
+            public Void call() throws Exception {
+                start.await();
+                for (int i = 0; i < 1000; i++) {
+                    MockBean bean = pool.get();
+                    int current = inUse.incrementAndGet();
+                    int max = maxInUse.get();
+                    while (current > max && !maxInUse.compareAndSet(max, current)) {
+                        max = maxInUse.get();
+                    }
+                    inUse.decrementAndGet();
+                    pool.release(bean);
+                }
+                return null;
+            }
+        };
+
+        ExecutorService service = Executors.newFixedThreadPool(callers);
+        Future<?> results[] = new Future<?>[callers];
+        for (int i = 0; i < results.length; i++) {
+            results[i] = service.submit(task);
+        }
+        start.countDown();
+
+        for (Future<?> result : results) {
+            result.get(60, TimeUnit.SECONDS);
+        }
+
+        service.shutdown();
+
+        assertEquals(maxSize, pool.getAvailableCount());
+        pool.stop();
+
+        assertTrue("max in use " + maxInUse.get(), maxInUse.get() <= maxSize);
+        assertEquals(MockBean.getPostConstructs(), MockBean.getPreDestroys());
+    }
+}
@@ -22,10 +22,31 @@
 
 package org.jboss.as.ejb3.subsystem;
 
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VALUE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.WRITE_ATTRIBUTE_OPERATION;
+import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.DATA_STORE_TYPE;
+import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.FILE_PASSIVATION_STORE;
+import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.MAX_MEMORY;
+import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.SCHEDULER;
+import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.SERVICE;
+import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.STRICT_MAX_BEAN_INSTANCE_POOL;
+import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.STRIPED;
+import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.TIMER_SERVICE;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.transform.OperationTransformer.TransformedOperation;
 import org.jboss.as.subsystem.test.AbstractSubsystemTest;
 import org.jboss.as.subsystem.test.AdditionalInitialization;
 import org.jboss.as.subsystem.test.KernelServices;
+import org.jboss.as.ejb3.timerservice.persistence.TimerPersistenceType;
+import org.jboss.as.ejb3.timerservice.scheduler.TimeoutSchedulerType;
 import org.jboss.dmr.ModelNode;
+import org.junit.Assert;
 import org.junit.Test;
 
 /**
@@ -62,4 +83,63 @@ public class SubsystemParsingUnitTestCase extends AbstractSubsystemTest {
 
         assertRemoveSubsystemResources(servicesA);
     }
+
+    /**
+     * Checks that the attributes added by the 1.4 schema are parsed, and survive marshalling to xml and back.
+     */
+    @Test
+    public void testParseAndMarshalModel14() throws Exception {
+        String subsystemXml = readResource("subsystem_1_4.xml");
+
+        AdditionalInitialization additionalInit = AdditionalInitialization.MANAGEMENT;
+
+        KernelServices servicesA = super.installInController(additionalInit, subsystemXml);
+        ModelNode modelA = servicesA.readWholeModel();
+        String marshalled = servicesA.getPersistedSubsystemXml();
+        servicesA.shutdown();
+
+        final ModelNode subsystem = modelA.get(SUBSYSTEM, EJB3Extension.SUBSYSTEM_NAME);
+        Assert.assertEquals(TimeoutSchedulerType.TIMING_WHEEL.toString(), subsystem.get(SERVICE, TIMER_SERVICE, SCHEDULER).asString());
+        Assert.assertEquals(TimerPersistenceType.JOURNAL.toString(), subsystem.get(SERVICE, TIMER_SERVICE, DATA_STORE_TYPE).asString());
+        Assert.assertTrue(subsystem.get(STRICT_MAX_BEAN_INSTANCE_POOL, "slsb-strict-max-pool", STRIPED).asBoolean());
+        Assert.assertFalse(subsystem.get(STRICT_MAX_BEAN_INSTANCE_POOL, "entity-strict-max-pool").hasDefined(STRIPED));
+        Assert.assertEquals(1048576, subsystem.get(FILE_PASSIVATION_STORE, "file", MAX_MEMORY).asLong());
+
+        KernelServices servicesB = super.installInController(additionalInit, marshalled);
+        ModelNode modelB = servicesB.readWholeModel();
+        super.compare(modelA, modelB);
+        servicesB.shutdown();
+    }
+
+    /**
+     * Checks that hosts running the 1.1.0 model only receive the attributes added since when they have their default
+     * value, and that they are removed then.
+     */
+    @Test
+    public void testRejectNonDefaultValues() throws Exception {
+        final PathAddress address = PathAddress.pathAddress(PathElement.pathElement(SUBSYSTEM, EJB3Extension.SUBSYSTEM_NAME), StrictMaxPoolResourceDefinition.INSTANCE.getPathElement());
+        final RejectNonDefaultValuesTransformer transformer = new RejectNonDefaultValuesTransformer(StrictMaxPoolResourceDefinition.STRIPED);
+
+        final ModelNode add = new ModelNode();
+        add.get(OP).set(ADD);
+        add.get(STRIPED).set(false);
+        TransformedOperation transformed = transformer.transformOperation(null, address, add);
+        Assert.assertFalse(transformed.rejectOperation(new ModelNode()));
+        Assert.assertFalse(transformed.getTransformedOperation().has(STRIPED));
+
+        add.get(STRIPED).set(true);
+        transformed = transformer.transformOperation(null, address, add);
+        Assert.assertTrue(transformed.rejectOperation(new ModelNode()));
+        Assert.assertNotNull(transformed.getFailureDescription());
+
+        final ModelNode write = new ModelNode();
+        write.get(OP).set(WRITE_ATTRIBUTE_OPERATION);
+        write.get(NAME).set(STRIPED);
+        write.get(VALUE).set(true);
+        Assert.assertTrue(transformer.getWriteAttributeTransformer().transformOperation(null, address, write).rejectOperation(new ModelNode()));
+        write.get(VALUE).set(false);
+        transformed = transformer.getWriteAttributeTransformer().transformOperation(null, address, write);
+        Assert.assertFalse(transformed.rejectOperation(new ModelNode()));
+        Assert.assertNull(transformed.getTransformedOperation());
+    }
 }
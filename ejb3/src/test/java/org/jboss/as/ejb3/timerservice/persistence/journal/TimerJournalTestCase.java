@@ -0,0 +1,188 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.persistence.journal;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link TimerJournal}.
+ */
+public class TimerJournalTestCase {
+
+    private File directory;
+
+    @Before
+    public void createDirectory() throws IOException {
+        directory = File.createTempFile("timer-journal", "");
+        directory.delete();
+        directory.mkdirs();
+    }
+
+    @After
+    public void deleteDirectory() {
+        for (File file : directory.listFiles()) {
+            file.delete();
+        }
+        directory.delete();
+    }
+
+    @Test
+    public void testRecovery() throws Exception {
+        TimerJournal journal = new TimerJournal(directory, 1024 * 1024);
+        journal.open();
+        journal.write(Collections.singletonList(TimerJournal.Record.put("a", "1", bytes("a1-v1"))));
+        journal.write(Collections.singletonList(TimerJournal.Record.put("a", "2", bytes("a2-v1"))));
+        journal.write(Collections.singletonList(TimerJournal.Record.put("b", "1", bytes("b1-v1"))));
+        journal.write(Collections.singletonList(TimerJournal.Record.put("a", "1", bytes("a1-v2"))));
+        journal.write(Collections.singletonList(TimerJournal.Record.remove("a", "2")));
+        journal.close();
+
+        journal = new TimerJournal(directory, 1024 * 1024);
+        journal.open();
+        final Map<String, byte[]> a = journal.read("a");
+        assertEquals(1, a.size());
+        assertArrayEquals(bytes("a1-v2"), a.get("1"));
+        assertArrayEquals(bytes("b1-v1"), journal.read("b").get("1"));
+        assertTrue(journal.read("c").isEmpty());
+        journal.close();
+    }
+
+    /**
+     * A record only partially written when the server died is dropped, and the journal can be appended to again.
+     */
+    @Test
+    public void testTornWrite() throws Exception {
+        TimerJournal journal = new TimerJournal(directory, 1024 * 1024);
+        journal.open();
+        journal.write(Collections.singletonList(TimerJournal.Record.put("a", "1", bytes("a1-v1"))));
+        journal.write(Collections.singletonList(TimerJournal.Record.put("a", "1", bytes("a1-v2"))));
+        journal.close();
+
+        final File segment = directory.listFiles()[0];
+        final RandomAccessFile file = new RandomAccessFile(segment, "rw");
+        file.setLength(file.length() - 3);
+        file.close();
+
+        journal = new TimerJournal(directory, 1024 * 1024);
+        journal.open();
+        assertArrayEquals(bytes("a1-v1"), journal.read("a").get("1"));
+        journal.write(Collections.singletonList(TimerJournal.Record.put("a", "2", bytes("a2-v1"))));
+        journal.close();
+
+        journal = new TimerJournal(directory, 1024 * 1024);
+        journal.open();
+        assertEquals(2, journal.read("a").size());
+        journal.close();
+    }
+
+    @Test
+    public void testCompaction() throws Exception {
+        TimerJournal journal = new TimerJournal(directory, 4096);
+        journal.open();
+        final byte[] data = new byte[100];
+        for (int i = 0; i < 1000; i++) {
+            // a handful of timers updated over and over, so most of the journal is garbage
+            journal.write(Collections.singletonList(TimerJournal.Record.put("a", Integer.toString(i % 5), concat(data, i))));
+        }
+        // compaction runs in the background
+        journal.awaitCompaction();
+        assertTrue("segments " + journal.getSegmentCount(), journal.getSegmentCount() <= 3);
+        journal.close();
+
+        journal = new TimerJournal(directory, 4096);
+        journal.open();
+        final Map<String, byte[]> a = journal.read("a");
+        assertEquals(5, a.size());
+        for (int i = 995; i < 1000; i++) {
+            assertArrayEquals(concat(data, i), a.get(Integer.toString(i % 5)));
+        }
+        journal.close();
+    }
+
+    @Test
+    public void testConcurrentWriters() throws Exception {
+        final TimerJournal journal = new TimerJournal(directory, 64 * 1024);
+        journal.open();
+        final int writers = 16;
+        final ExecutorService executor = Executors.newFixedThreadPool(writers);
+        final List<Future<Void>> results = new ArrayList<Future<Void>>();
+        for (int w = 0; w < writers; w++) {
+            final String timedObjectId = "object" + w;
+            results.add(executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    for (int i = 0; i < 200; i++) {
+                        journal.write(Collections.singletonList(TimerJournal.Record.put(timedObjectId, Integer.toString(i % 10), bytes(timedObjectId + i))));
+                    }
+                    return null;
+                }
+            }));
+        }
+        for (Future<Void> result : results) {
+            result.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        journal.close();
+
+        final TimerJournal reopened = new TimerJournal(directory, 64 * 1024);
+        reopened.open();
+        for (int w = 0; w < writers; w++) {
+            final Map<String, byte[]> timers = reopened.read("object" + w);
+            assertEquals(10, timers.size());
+            assertArrayEquals(bytes("object" + w + 199), timers.get("9"));
+        }
+        reopened.close();
+    }
+
+    private static byte[] bytes(final String value) {
+        return value.getBytes();
+    }
+
+    private static byte[] concat(final byte[] data, final int i) {
+        final byte[] result = new byte[data.length + 4];
+        System.arraycopy(data, 0, result, 0, data.length);
+        result[data.length] = (byte) (i >>> 24);
+        result[data.length + 1] = (byte) (i >>> 16);
+        result[data.length + 2] = (byte) (i >>> 8);
+        result[data.length + 3] = (byte) i;
+        return result;
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.scheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests for {@link TimingWheelTimeoutScheduler}.
+ */
+public class TimingWheelTimeoutSchedulerTestCase {
+
+    private TimingWheelTimeoutScheduler scheduler;
+
+    @After
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.stop();
+        }
+    }
+
+    @Test
+    public void testNeverEarly() throws Exception {
+        scheduler = new TimingWheelTimeoutScheduler(5);
+        scheduler.start();
+
+        final int count = 50;
+        final CountDownLatch latch = new CountDownLatch(count);
+        final AtomicInteger early = new AtomicInteger();
+        for (int i = 0; i < count; i++) {
+            final long delay = i * 7;
+            final long due = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay);
+            scheduler.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    if (System.nanoTime() < due) {
+                        early.incrementAndGet();
+                    }
+                    latch.countDown();
+                }
+            }, delay);
+        }
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertEquals(0, early.get());
+        assertEquals(count, scheduler.getDispatchedTimeouts());
+    }
+
+    /**
+     * With a 1 microsecond tick, delays of a few hundred milliseconds land in the second and third level of the
+     * wheel, so the timeouts have to be cascaded down before they fire.
+     */
+    @Test
+    public void testHigherLevels() throws Exception {
+        scheduler = new TimingWheelTimeoutScheduler(1, TimeUnit.MICROSECONDS);
+        scheduler.start();
+
+        final long[] delays = {0, 1, 3, 50, 270, 400};
+        final CountDownLatch latch = new CountDownLatch(delays.length);
+        final AtomicInteger early = new AtomicInteger();
+        for (final long delay : delays) {
+            final long due = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay);
+            scheduler.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    if (System.nanoTime() < due) {
+                        early.incrementAndGet();
+                    }
+                    latch.countDown();
+                }
+            }, delay);
+        }
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertEquals(0, early.get());
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+        scheduler = new TimingWheelTimeoutScheduler(5);
+        scheduler.start();
+
+        final AtomicInteger fired = new AtomicInteger();
+        final Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                fired.incrementAndGet();
+            }
+        };
+        final TimeoutScheduler.ScheduledTimeout cancelled = scheduler.schedule(task, 50);
+        final CountDownLatch latch = new CountDownLatch(1);
+        scheduler.schedule(new Runnable() {
+            @Override
+            public void run() {
+                latch.countDown();
+            }
+        }, 100);
+
+        assertTrue(cancelled.cancel());
+        assertFalse(cancelled.cancel());
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertEquals(0, fired.get());
+    }
+
+    /**
+     * Timers cancelled long before they are due must not stay in the wheel until their slot comes up.
+     */
+    @Test
+    public void testCancelRemovesFromWheel() throws Exception {
+        scheduler = new TimingWheelTimeoutScheduler(10);
+        scheduler.start();
+
+        final Runnable task = new Runnable() {
+            @Override
+            public void run() {
+            }
+        };
+        final TimeoutScheduler.ScheduledTimeout[] timeouts = new TimeoutScheduler.ScheduledTimeout[1000];
+        for (int i = 0; i < timeouts.length; i++) {
+            // from a few seconds to beyond the range of the wheel
+            timeouts[i] = scheduler.schedule(task, TimeUnit.SECONDS.toMillis(5) + i * TimeUnit.HOURS.toMillis(24));
+        }
+        assertEquals(timeouts.length, scheduler.size());
+        for (TimeoutScheduler.ScheduledTimeout timeout : timeouts) {
+            assertTrue(timeout.cancel());
+        }
+        assertEquals(0, scheduler.size());
+    }
+
+    @Test
+    public void testFixedRate() throws Exception {
+        scheduler = new TimingWheelTimeoutScheduler(5);
+        scheduler.start();
+
+        final CountDownLatch latch = new CountDownLatch(5);
+        final TimeoutScheduler.ScheduledTimeout timeout = scheduler.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                latch.countDown();
+            }
+        }, 10, 20);
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertTrue(timeout.cancel());
+        final long dispatched = scheduler.getDispatchedTimeouts();
+        Thread.sleep(100);
+        assertEquals(dispatched, scheduler.getDispatchedTimeouts());
+    }
+
+    @Test
+    public void testManyTimers() throws Exception {
+        scheduler = new TimingWheelTimeoutScheduler(10);
+        scheduler.start();
+
+        final int count = 100000;
+        final CountDownLatch latch = new CountDownLatch(count);
+        final Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                latch.countDown();
+            }
+        };
+        for (int i = 0; i < count; i++) {
+            scheduler.schedule(task, i % 1000);
+        }
+        assertTrue(latch.await(30, TimeUnit.SECONDS));
+        assertTrue(scheduler.getTimeoutLagPercentile(50) < 100);
+    }
+}
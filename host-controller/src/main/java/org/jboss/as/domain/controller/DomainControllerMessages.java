@@ -552,4 +552,15 @@ public interface DomainControllerMessages {
     @Message(id = 10877, value = "Failed to load module '%s'.")
     OperationFailedException failedToLoadModule(@Cause ModuleLoadException e,String module);
 
+    /**
+     * Creates an exception indicating the master sent an unchanged marker for a domain resource that is missing from
+     * the local copy of the domain model.
+     *
+     * @param address the address of the resource
+     *
+     * @return an {@link OperationFailedException} for the error.
+     */
+    @Message(id = 10878, value = "The master reported the domain resource %s as unchanged, but it is missing from the local domain model")
+    OperationFailedException unchangedDomainResourceMissing(PathAddress address);
+
 }
@@ -43,6 +43,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SER
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SOCKET_BINDING_GROUP;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SYSTEM_PROPERTY;
 import static org.jboss.as.domain.controller.DomainControllerLogger.ROOT_LOGGER;
+import static org.jboss.as.domain.controller.DomainControllerMessages.MESSAGES;
 import static org.jboss.as.domain.controller.operations.coordination.DomainServerUtils.getRelatedElements;
 import static org.jboss.as.domain.controller.operations.coordination.DomainServerUtils.getServersForGroup;
 import static org.jboss.as.domain.controller.operations.coordination.DomainServerUtils.getServersForType;
@@ -64,7 +65,6 @@ import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.ProxyController;
 import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
-import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.registry.Resource;
 import org.jboss.as.domain.controller.LocalHostControllerInfo;
 import org.jboss.as.domain.controller.ServerIdentity;
@@ -90,6 +90,8 @@ public class ApplyRemoteMasterDomainModelHandler implements OperationStepHandler
         .setPrivateEntry()
         .build();
 
+    private static final String[] CLEARED_TYPES = { PATH, SYSTEM_PROPERTY, PROFILE, INTERFACE, SOCKET_BINDING_GROUP, DEPLOYMENT, SERVER_GROUP };
+
     private final HostFileRepository fileRepository;
     private final ContentRepository contentRepository;
     private final IgnoredDomainResourceRegistry ignoredResourceRegistry;
@@ -118,8 +120,19 @@ public class ApplyRemoteMasterDomainModelHandler implements OperationStepHandler
         final Set<String> relevantDeployments = new HashSet<String>();
         final Set<byte[]> requiredContent = new HashSet<byte[]>();
 
+        // The master only sends a marker for the top-level subtrees matching the digests we sent when registering
+        final Set<PathElement> unchanged = new HashSet<PathElement>();
+        for (final ModelNode resourceDescription : domainModel.asList()) {
+            if (resourceDescription.hasDefined(ReadMasterDomainModelHandler.DOMAIN_RESOURCE_UNCHANGED)) {
+                final PathAddress resourceAddress = PathAddress.pathAddress(resourceDescription.require("domain-resource-address"));
+                if (resourceAddress.size() == 1) {
+                    unchanged.add(resourceAddress.getElement(0));
+                }
+            }
+        }
+
         final Resource rootResource = context.readResourceForUpdate(PathAddress.EMPTY_ADDRESS);
-        clearDomain(rootResource);
+        clearDomain(rootResource, unchanged);
 
         for (final ModelNode resourceDescription : domainModel.asList()) {
 
@@ -128,12 +141,26 @@ public class ApplyRemoteMasterDomainModelHandler implements OperationStepHandler
                 continue;
             }
 
-            final Resource resource = getResource(resourceAddress, rootResource, context);
-            if (resourceAddress.size() == 1 && resourceAddress.getElement(0).getKey().equals(EXTENSION)) {
-                // Extensions are handled in ApplyExtensionsHandler
-                continue;
+            final Resource resource;
+            if (resourceDescription.hasDefined(ReadMasterDomainModelHandler.DOMAIN_RESOURCE_UNCHANGED)) {
+                resource = rootResource.getChild(resourceAddress.getElement(0));
+                if (resource == null) {
+                    // Fail, so that the slave registers again asking for the full domain model
+                    throw MESSAGES.unchangedDomainResourceMissing(resourceAddress);
+                }
+                final PathElement pe = resourceAddress.getElement(0);
+                if (pe.getKey().equals(SERVER_GROUP) && ourServerGroups.contains(pe.getValue())) {
+                    // The server group deployments were not sent, so use our copy of them
+                    relevantDeployments.addAll(resource.getChildrenNames(DEPLOYMENT));
+                }
+            } else {
+                resource = getResource(resourceAddress, rootResource, context);
+                if (resourceAddress.size() == 1 && resourceAddress.getElement(0).getKey().equals(EXTENSION)) {
+                    // Extensions are handled in ApplyExtensionsHandler
+                    continue;
+                }
+                resource.writeModel(resourceDescription.get("domain-resource-model"));
             }
-            resource.writeModel(resourceDescription.get("domain-resource-model"));
 
             // Track deployment and management content hashes and server group deployments so we can pull over the content we need
             if (resourceAddress.size() == 1) {
@@ -333,28 +360,14 @@ public class ApplyRemoteMasterDomainModelHandler implements OperationStepHandler
         context.stepCompleted();
     }
 
-    private void clearDomain(final Resource rootResource) {
+    private void clearDomain(final Resource rootResource, final Set<PathElement> unchanged) {
         // Extensions are handled in ApplyExtensionsHandler
-        for(Resource.ResourceEntry entry : rootResource.getChildren(ModelDescriptionConstants.PATH)) {
-            rootResource.removeChild(entry.getPathElement());
-        }
-        for(Resource.ResourceEntry entry : rootResource.getChildren(ModelDescriptionConstants.SYSTEM_PROPERTY)) {
-            rootResource.removeChild(entry.getPathElement());
-        }
-        for(Resource.ResourceEntry entry : rootResource.getChildren(ModelDescriptionConstants.PROFILE)) {
-            rootResource.removeChild(entry.getPathElement());
-        }
-        for(Resource.ResourceEntry entry : rootResource.getChildren(ModelDescriptionConstants.INTERFACE)) {
-            rootResource.removeChild(entry.getPathElement());
-        }
-        for(Resource.ResourceEntry entry : rootResource.getChildren(ModelDescriptionConstants.SOCKET_BINDING_GROUP)) {
-            rootResource.removeChild(entry.getPathElement());
-        }
-        for(Resource.ResourceEntry entry : rootResource.getChildren(ModelDescriptionConstants.DEPLOYMENT)) {
-            rootResource.removeChild(entry.getPathElement());
-        }
-        for(Resource.ResourceEntry entry : rootResource.getChildren(ModelDescriptionConstants.SERVER_GROUP)) {
-            rootResource.removeChild(entry.getPathElement());
+        for (final String type : CLEARED_TYPES) {
+            for(Resource.ResourceEntry entry : rootResource.getChildren(type)) {
+                if (!unchanged.contains(entry.getPathElement())) {
+                    rootResource.removeChild(entry.getPathElement());
+                }
+            }
         }
     }
 
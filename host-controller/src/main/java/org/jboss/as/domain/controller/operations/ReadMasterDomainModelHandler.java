@@ -22,13 +22,23 @@
 
 package org.jboss.as.domain.controller.operations;
 
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.OperationStepHandler;
 import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.registry.Resource;
 import org.jboss.as.controller.transform.Transformers;
@@ -44,9 +54,32 @@ public class ReadMasterDomainModelHandler implements OperationStepHandler {
 
     public static final String OPERATION_NAME = "read-master-domain-model";
 
+    /**
+     * Marks a top-level resource whose subtree is the same on the master as on the registering host-controller, so it
+     * is not sent again.
+     */
+    public static final String DOMAIN_RESOURCE_UNCHANGED = "domain-resource-unchanged";
+
+    private static final String DOMAIN_RESOURCE_ADDRESS = "domain-resource-address";
+    private static final String DOMAIN_RESOURCE_MODEL = "domain-resource-model";
+
     private final Transformers transformers;
+    private final ModelNode hostDigests;
+
     public ReadMasterDomainModelHandler(final Transformers transformers) {
+        this(transformers, null);
+    }
+
+    /**
+     * Create a handler describing only the top-level subtrees that differ from the ones the host-controller already has.
+     *
+     * @param transformers the transformers for the host-controller
+     * @param hostDigests the digests of the host-controller's subtrees, as created by {@link #computeDigests(Resource)};
+     *                    {@code null} or undefined to describe the complete model
+     */
+    public ReadMasterDomainModelHandler(final Transformers transformers, final ModelNode hostDigests) {
         this.transformers = transformers;
+        this.hostDigests = hostDigests;
     }
 
     private Resource transformResource(final OperationContext context, Resource root) throws OperationFailedException {
@@ -60,12 +93,36 @@ public class ReadMasterDomainModelHandler implements OperationStepHandler {
         final Resource untransformedRoot = context.readResource(PathAddress.EMPTY_ADDRESS,true);
         final Resource root = transformResource(context, untransformedRoot);
         // Get the list of all resources registered in this model
-        context.getResult().set(describeAsNodeList(root));
+        context.getResult().set(describeAsNodeList(root, hostDigests));
         // The HC registration process will hijack the operationPrepared call and push
         // the model to a registering host-controller
         context.stepCompleted();
     }
 
+    /**
+     * Compute a digest of each top-level subtree of the domain model, other than hosts and extensions, which a
+     * host-controller sends when it registers so that only the subtrees that changed are sent back to it.
+     *
+     * @param root the root resource
+     * @return the digests, keyed by child type and name
+     */
+    public static ModelNode computeDigests(final Resource root) {
+        final ModelNode digests = new ModelNode();
+        for (final String childType : root.getChildTypes()) {
+            if (!isDigested(childType)) {
+                continue;
+            }
+            for (final Resource.ResourceEntry entry : root.getChildren(childType)) {
+                final List<ModelNode> subtree = new ArrayList<ModelNode>();
+                describe(PathAddress.pathAddress(entry.getPathElement()), entry, subtree);
+                if (!subtree.isEmpty()) {
+                    digests.get(childType, entry.getName()).set(digest(subtree));
+                }
+            }
+        }
+        return digests;
+    }
+
     /**
      * Describe the model as a list of resources with their address and model, which
      * the HC can directly apply to create the model. Although the format might appear
@@ -73,28 +130,87 @@ public class ReadMasterDomainModelHandler implements OperationStepHandler {
      * to create the resource tree and cannot be used to invoke any operation.
      *
      * @param resource the root resource
+     * @param hostDigests the digests of the subtrees the host-controller already has, may be {@code null}
      * @return the list of resources
      */
-    private static List<ModelNode> describeAsNodeList(final Resource resource) {
+    static List<ModelNode> describeAsNodeList(final Resource resource, final ModelNode hostDigests) {
         final List<ModelNode> list = new ArrayList<ModelNode>();
-        describe(PathAddress.EMPTY_ADDRESS, resource, list);
+        if (hostDigests == null || !hostDigests.isDefined()) {
+            describe(PathAddress.EMPTY_ADDRESS, resource, list);
+            return list;
+        }
+        describeModel(PathAddress.EMPTY_ADDRESS, resource, list);
+        for (final String childType : resource.getChildTypes()) {
+            for (final Resource.ResourceEntry entry : resource.getChildren(childType)) {
+                final PathElement element = entry.getPathElement();
+                final List<ModelNode> subtree = new ArrayList<ModelNode>();
+                describe(PathAddress.pathAddress(element), entry, subtree);
+                if (isDigested(childType) && !subtree.isEmpty() && hostDigests.hasDefined(childType, element.getValue())
+                        && Arrays.equals(digest(subtree), hostDigests.get(childType, element.getValue()).asBytes())) {
+                    final ModelNode unchanged = new ModelNode();
+                    unchanged.get(DOMAIN_RESOURCE_ADDRESS).set(PathAddress.pathAddress(element).toModelNode());
+                    unchanged.get(DOMAIN_RESOURCE_UNCHANGED).set(true);
+                    list.add(unchanged);
+                } else {
+                    list.addAll(subtree);
+                }
+            }
+        }
         return list;
     }
 
     private static void describe(final PathAddress base, final Resource resource, List<ModelNode> nodes) {
+        if (!describeModel(base, resource, nodes)) {
+            return;
+        }
+        for (final String childType : resource.getChildTypes()) {
+            for (final Resource.ResourceEntry entry : resource.getChildren(childType)) {
+                describe(base.append(entry.getPathElement()), entry, nodes);
+            }
+        }
+    }
+
+    private static boolean describeModel(final PathAddress base, final Resource resource, List<ModelNode> nodes) {
         if (resource.isProxy() || resource.isRuntime()) {
-            return; // ignore runtime and proxies
+            return false; // ignore runtime and proxies
         } else if (base.size() >= 1 && base.getElement(0).getKey().equals(ModelDescriptionConstants.HOST)) {
-            return; // ignore hosts
+            return false; // ignore hosts
         }
         final ModelNode description = new ModelNode();
-        description.get("domain-resource-address").set(base.toModelNode());
-        description.get("domain-resource-model").set(resource.getModel());
+        description.get(DOMAIN_RESOURCE_ADDRESS).set(base.toModelNode());
+        description.get(DOMAIN_RESOURCE_MODEL).set(resource.getModel());
         nodes.add(description);
-        for (final String childType : resource.getChildTypes()) {
-            for (final Resource.ResourceEntry entry : resource.getChildren(childType)) {
-                describe(base.append(entry.getPathElement()), entry, nodes);
+        return true;
+    }
+
+    private static boolean isDigested(final String childType) {
+        // Extensions are always sent, as the host-controller applies them on their own
+        return !ModelDescriptionConstants.HOST.equals(childType) && !ModelDescriptionConstants.EXTENSION.equals(childType);
+    }
+
+    private static byte[] digest(final List<ModelNode> descriptions) {
+        // Both sides may iterate children in a different order, so digest the resources sorted by address
+        final Map<String, ModelNode> sorted = new TreeMap<String, ModelNode>();
+        for (final ModelNode description : descriptions) {
+            sorted.put(description.get(DOMAIN_RESOURCE_ADDRESS).asString(), description.get(DOMAIN_RESOURCE_MODEL));
+        }
+        try {
+            final MessageDigest messageDigest = MessageDigest.getInstance("SHA-1");
+            final DataOutputStream output = new DataOutputStream(new DigestOutputStream(new OutputStream() {
+                @Override
+                public void write(int b) {
+                }
+            }, messageDigest));
+            for (final Map.Entry<String, ModelNode> entry : sorted.entrySet()) {
+                output.writeUTF(entry.getKey());
+                entry.getValue().writeExternal(output);
             }
+            output.flush();
+            return messageDigest.digest();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
         }
     }
 }
@@ -416,7 +416,15 @@ public class DomainModelControllerService extends AbstractControllerService impl
                                 environment.getProductConfig(),
                                 hostControllerInfo.getRemoteDomainControllerSecurityRealm(),
                                 remoteFileRepository,
-                                ignoredRegistry);
+                                ignoredRegistry,
+                                new RemoteDomainConnectionService.OperationExecutor() {
+
+                                    @Override
+                                    public ModelNode execute(final ModelNode operation, final OperationMessageHandler handler, final ModelController.OperationTransactionControl control, final OperationAttachments attachments, final OperationStepHandler step) {
+                                        return internalExecute(operation, handler, control, attachments, step);
+                                    }
+
+                                });
                         MasterDomainControllerClient masterDomainControllerClient = getFuture(clientFuture);
                         //Registers us with the master and gets down the master copy of the domain model to our DC
                         //TODO make sure that the RDCS checks env.isUseCachedDC, and if true falls through to that
@@ -588,6 +596,7 @@ public class DomainModelControllerService extends AbstractControllerService impl
         HostModelUtil.createHostRegistry(hostName, root, hostControllerConfigurationPersister, environment, runningModeControl,
                 localFileRepository, hostControllerInfo, new DelegatingServerInventory(), remoteFileRepository, contentRepository,
                 this, extensionRegistry,vaultReader, ignoredRegistry, processState, pathManager);
+        registerReadLockStatistics(root.getSubModel(PathAddress.pathAddress(PathElement.pathElement(HOST, hostName))));
     }
 
 
@@ -695,6 +704,10 @@ public class DomainModelControllerService extends AbstractControllerService impl
             return serverInventory.determineServerStatus(serverName);
         }
 
+        public long getServerStartDuration(String serverName) {
+            return serverInventory.getServerStartDuration(serverName);
+        }
+
         public ServerStatus startServer(String serverName, ModelNode domainModel) {
             return serverInventory.startServer(serverName, domainModel);
         }
@@ -704,6 +717,11 @@ public class DomainModelControllerService extends AbstractControllerService impl
             return serverInventory.startServer(serverName, domainModel, blocking);
         }
 
+        @Override
+        public boolean awaitServerStarted(String serverName, long timeout) {
+            return serverInventory.awaitServerStarted(serverName, timeout);
+        }
+
         public void reconnectServer(String serverName, ModelNode domainModel, boolean running, boolean stopping) {
             serverInventory.reconnectServer(serverName, domainModel, running, stopping);
         }
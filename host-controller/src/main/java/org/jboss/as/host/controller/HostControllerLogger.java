@@ -396,4 +396,14 @@ public interface HostControllerLogger extends BasicLogger {
     @LogMessage(level = Level.WARN)
     @Message(id=10939, value="The slave host controller \"%s\"  could not be reached in the last [%d] milliseconds. Unregistering.")
     void slaveHostControllerUnreachable(String hostName, long timeout);
+
+    /**
+     * Logs a warning message indicating a server did not start within the time the next server waits for it.
+     *
+     * @param serverName the name of the server.
+     * @param timeout the timeout, in ms.
+     */
+    @LogMessage(level = Level.WARN)
+    @Message(id = 16514, value = "Server (%s) has not started within [%d] ms; starting the next server")
+    void serverStartTimedOut(String serverName, long timeout);
 }
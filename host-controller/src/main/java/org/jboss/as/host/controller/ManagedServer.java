@@ -120,6 +120,9 @@ class ManagedServer {
     private volatile InternalState requiredState = InternalState.STOPPED;
     private volatile InternalState internalState = InternalState.STOPPED;
 
+    private volatile long startRequested;
+    private volatile long startDuration = -1;
+
     ManagedServer(final String hostControllerName, final String serverName, final ProcessControllerClient processControllerClient,
             final InetSocketAddress managementSocket, final ManagedServer.ManagedServerBootConfiguration bootConfiguration,
             final TransformationTarget transformationTarget) {
@@ -155,6 +158,16 @@ class ManagedServer {
         return proxyController;
     }
 
+    /**
+     * Get how long the server took to start the last time it was started by this host controller.
+     *
+     * @return the time in milliseconds from the start request until the server reported it had started, or {@code -1}
+     *         if it has not been started by this host controller
+     */
+    public long getStartDuration() {
+        return startDuration;
+    }
+
     /**
      * Determine the current state the server is in.
      *
@@ -199,6 +212,7 @@ class ManagedServer {
             }
         }
         this.requiredState = InternalState.SERVER_STARTED;
+        this.startRequested = System.currentTimeMillis();
         ROOT_LOGGER.startingServer(serverName);
         transition();
     }
@@ -250,6 +264,18 @@ class ManagedServer {
      * @return {@code true} if the state was reached, {@code false} otherwise
      */
     protected boolean awaitState(final InternalState expected) {
+        return awaitState(expected, 0);
+    }
+
+    /**
+     * Await a state for at most the given time.
+     *
+     * @param expected the expected state
+     * @param timeout the maximum time to wait in milliseconds, or {@code 0} to wait until the state is reached or missed
+     * @return {@code true} if the state was reached, {@code false} otherwise
+     */
+    protected boolean awaitState(final InternalState expected, final long timeout) {
+        final long deadline = timeout > 0 ? System.currentTimeMillis() + timeout : 0;
         synchronized (this) {
             final InternalState initialRequired = this.requiredState;
             for(;;) {
@@ -265,8 +291,12 @@ class ManagedServer {
                 if(expected == current) {
                     return true;
                 }
+                final long remaining = deadline == 0 ? 0 : deadline - System.currentTimeMillis();
+                if (deadline != 0 && remaining <= 0) {
+                    return false;
+                }
                 try {
-                    wait();
+                    wait(remaining);
                 } catch(InterruptedException e) {
                     Thread.currentThread().interrupt();
                     return false;
@@ -311,7 +341,10 @@ class ManagedServer {
     }
 
     protected synchronized void serverStarted(final TransitionTask task) {
-        internalSetState(task, InternalState.SERVER_STARTING, InternalState.SERVER_STARTED);
+        if (internalSetState(task, InternalState.SERVER_STARTING, InternalState.SERVER_STARTED) && startRequested != 0) {
+            startDuration = System.currentTimeMillis() - startRequested;
+            startRequested = 0;
+        }
     }
 
     protected synchronized void serverStartFailed() {
@@ -123,7 +123,23 @@ public final class ManagedServerOperationsFactory {
      * @return the list of boot operations
      */
     public static ModelNode createBootUpdates(final String serverName, final ModelNode domainModel, final ModelNode hostModel, final DomainController domainController, final ExpressionResolver expressionResolver) {
-        final ManagedServerOperationsFactory factory = new ManagedServerOperationsFactory(serverName, domainModel, hostModel, domainController);
+        return createBootUpdates(serverName, domainModel, hostModel, domainController, expressionResolver, null);
+    }
+
+    /**
+     * Create a list of operations required to a boot a managed server, reusing the operations of its profile if they
+     * were already created for another server.
+     *
+     * @param serverName the server name
+     * @param domainModel the complete domain model
+     * @param hostModel the local host model
+     * @param domainController the domain controller
+     * @param profileOperations the cache of profile operations, or {@code null} to describe the profile
+     * @return the list of boot operations
+     */
+    public static ModelNode createBootUpdates(final String serverName, final ModelNode domainModel, final ModelNode hostModel, final DomainController domainController, final ExpressionResolver expressionResolver,
+                                              final ProfileOperationsCache profileOperations) {
+        final ManagedServerOperationsFactory factory = new ManagedServerOperationsFactory(serverName, domainModel, hostModel, domainController, profileOperations);
         return factory.getBootUpdates();
     }
 
@@ -134,13 +150,16 @@ public final class ManagedServerOperationsFactory {
     private final ModelNode serverGroup;
     private final String profileName;
     private final DomainController domainController;
+    private final ProfileOperationsCache profileOperations;
 
-    ManagedServerOperationsFactory(final String serverName, final ModelNode domainModel, final ModelNode hostModel, final DomainController domainController) {
+    ManagedServerOperationsFactory(final String serverName, final ModelNode domainModel, final ModelNode hostModel, final DomainController domainController,
+                                   final ProfileOperationsCache profileOperations) {
         this.serverName = serverName;
         this.domainModel = domainModel;
         this.hostModel = hostModel;
         this.serverModel = hostModel.require(SERVER_CONFIG).require(serverName);
         this.domainController = domainController;
+        this.profileOperations = profileOperations;
 
         final String serverGroupName = serverModel.require(GROUP).asString();
         this.serverGroup = domainModel.require(SERVER_GROUP).require(serverGroupName);
@@ -491,7 +510,8 @@ public final class ManagedServerOperationsFactory {
     }
 
     private void addSubsystems(List<ModelNode> updates) {
-        ModelNode node = domainController.getProfileOperations(profileName);
+        ModelNode node = profileOperations == null ? domainController.getProfileOperations(profileName)
+                : profileOperations.getProfileOperations(profileName, domainModel, domainController);
         updates.addAll(node.asList());
     }
 
@@ -0,0 +1,64 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.host.controller;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PROFILE;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.jboss.as.domain.controller.DomainController;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Keeps the operations describing each profile, so that servers booting against the same profile share them instead
+ * of describing the profile once per server. Entries are reused for as long as the profiles of the domain model they
+ * were built from are unchanged.
+ */
+public final class ProfileOperationsCache {
+
+    private final Map<String, ModelNode> operations = new HashMap<String, ModelNode>();
+    private ModelNode profiles;
+
+    /**
+     * Get the operations describing a profile.
+     *
+     * @param profileName the name of the profile
+     * @param domainModel the current domain model
+     * @param domainController the domain controller used to describe the profile if it is not cached
+     * @return the protected list of operations
+     */
+    public synchronized ModelNode getProfileOperations(final String profileName, final ModelNode domainModel, final DomainController domainController) {
+        final ModelNode profiles = domainModel.get(PROFILE);
+        if (!profiles.equals(this.profiles)) {
+            this.operations.clear();
+            this.profiles = profiles.clone();
+        }
+        ModelNode result = this.operations.get(profileName);
+        if (result == null) {
+            result = domainController.getProfileOperations(profileName).clone();
+            result.protect();
+            this.operations.put(profileName, result);
+        }
+        return result;
+    }
+}
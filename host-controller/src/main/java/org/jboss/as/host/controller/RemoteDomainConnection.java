@@ -282,6 +282,13 @@ class RemoteDomainConnection extends FutureManagementChannel {
          */
         ModelNode resolveSubsystemVersions(ModelNode extensions);
 
+        /**
+         * Get the digests of the local copy of the domain model.
+         *
+         * @return the digests, or {@code null} if the full domain model should be requested
+         */
+        ModelNode getDomainModelDigests();
+
         /**
          * Apply the remote domain model.
          *
@@ -315,6 +322,10 @@ class RemoteDomainConnection extends FutureManagementChannel {
              output.writeUTF(localHostName);
              ModelNode hostInfo = localHostInfo.clone();
              hostInfo.get(RemoteDomainConnectionService.DOMAIN_CONNECTION_ID).set(pongHandler.getConnectionId());
+             final ModelNode digests = callback.getDomainModelDigests();
+             if (digests != null) {
+                 hostInfo.get(RemoteDomainConnectionService.DOMAIN_MODEL_DIGESTS).set(digests);
+             }
              hostInfo.writeExternal(output);
          }
 
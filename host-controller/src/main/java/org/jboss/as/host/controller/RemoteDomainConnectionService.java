@@ -52,6 +52,10 @@ import javax.security.sasl.SaslException;
 
 import org.jboss.as.controller.HashUtil;
 import org.jboss.as.controller.ModelController;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.client.ModelControllerClient;
 import org.jboss.as.controller.client.Operation;
 import org.jboss.as.controller.client.OperationAttachments;
@@ -63,6 +67,7 @@ import org.jboss.as.domain.controller.LocalHostControllerInfo;
 import org.jboss.as.domain.controller.SlaveRegistrationException;
 import org.jboss.as.domain.controller.operations.ApplyExtensionsHandler;
 import org.jboss.as.domain.controller.operations.ApplyRemoteMasterDomainModelHandler;
+import org.jboss.as.domain.controller.operations.ReadMasterDomainModelHandler;
 import org.jboss.as.domain.management.SecurityRealm;
 import org.jboss.as.domain.management.security.SecurityRealmService;
 import org.jboss.as.host.controller.ignored.IgnoredDomainResourceRegistry;
@@ -109,6 +114,7 @@ import org.xnio.Options;
 public class RemoteDomainConnectionService implements MasterDomainControllerClient, Service<MasterDomainControllerClient> {
 
     public static final String DOMAIN_CONNECTION_ID = "domain-connection-id";
+    public static final String DOMAIN_MODEL_DIGESTS = "domain-model-digests";
 
     private static final int CONNECTION_TIMEOUT_DEFAULT = 30000;
     private static final String CONNECTION_TIMEOUT_PROPERTY = "jboss.host.domain.connection.timeout";
@@ -135,6 +141,10 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
     private final LocalHostControllerInfo localHostInfo;
     private final RemoteFileRepository remoteFileRepository;
     private final IgnoredDomainResourceRegistry ignoredDomainResourceRegistry;
+    private final OperationExecutor operationExecutor;
+
+    /** Set when the subtrees the master reported as unchanged could not be applied, so the next registration asks for the full domain model */
+    private volatile boolean fullSyncRequired;
 
     /** Used to invoke ModelController ops on the master */
     private volatile ModelControllerClient masterProxy;
@@ -152,7 +162,8 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
     private RemoteDomainConnectionService(final ModelController controller, final ExtensionRegistry extensionRegistry,
                                           final LocalHostControllerInfo localHostControllerInfo, final ProductConfig productConfig,
                                           final RemoteFileRepository remoteFileRepository,
-                                          final IgnoredDomainResourceRegistry ignoredDomainResourceRegistry){
+                                          final IgnoredDomainResourceRegistry ignoredDomainResourceRegistry,
+                                          final OperationExecutor operationExecutor){
         this.controller = controller;
         this.extensionRegistry = extensionRegistry;
         this.productConfig = productConfig;
@@ -160,14 +171,16 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
         this.remoteFileRepository = remoteFileRepository;
         remoteFileRepository.setRemoteFileRepositoryExecutor(remoteFileRepositoryExecutor);
         this.ignoredDomainResourceRegistry = ignoredDomainResourceRegistry;
+        this.operationExecutor = operationExecutor;
     }
 
     public static Future<MasterDomainControllerClient> install(final ServiceTarget serviceTarget, final ModelController controller, final ExtensionRegistry extensionRegistry,
                                                                final LocalHostControllerInfo localHostControllerInfo, final ProductConfig productConfig,
                                                                final String securityRealm, final RemoteFileRepository remoteFileRepository,
-                                                               final IgnoredDomainResourceRegistry ignoredDomainResourceRegistry) {
+                                                               final IgnoredDomainResourceRegistry ignoredDomainResourceRegistry,
+                                                               final OperationExecutor operationExecutor) {
         RemoteDomainConnectionService service = new RemoteDomainConnectionService(controller, extensionRegistry, localHostControllerInfo,
-                productConfig, remoteFileRepository, ignoredDomainResourceRegistry);
+                productConfig, remoteFileRepository, ignoredDomainResourceRegistry, operationExecutor);
         ServiceBuilder<MasterDomainControllerClient> builder = serviceTarget.addService(MasterDomainControllerClient.SERVICE_NAME, service)
                 .addDependency(ManagementRemotingServices.MANAGEMENT_ENDPOINT, Endpoint.class, service.endpointInjector)
                 .setInitialMode(ServiceController.Mode.ACTIVE);
@@ -195,15 +208,24 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
             } catch (IOException e) {
                 Throwable cause = e;
                 HostControllerLogger.ROOT_LOGGER.debugf(e, "failed to connect to %s:%d", localHostInfo.getRemoteDomainControllerHost(), localHostInfo.getRemoteDomainControllerPort());
+                boolean retryFullSync = false;
                 while ((cause = cause.getCause()) != null) {
                     if (cause instanceof SaslException) {
                         throw MESSAGES.authenticationFailureUnableToConnect(cause);
                     } else if (cause instanceof SSLHandshakeException) {
                         throw MESSAGES.sslFailureUnableToConnect(cause);
                     } else if (cause instanceof SlaveRegistrationException) {
+                        if (fullSyncRequired) {
+                            // Our copy of the unchanged subtrees could not be used, so register again for the full domain model
+                            retryFullSync = true;
+                            break;
+                        }
                         throw new IOException(cause);
                     }
                 }
+                if (retryFullSync) {
+                    continue;
+                }
                 if (System.currentTimeMillis() > endTime) {
                     throw MESSAGES.connectionToMasterTimeout(e, retries, timeout);
                 }
@@ -304,7 +326,12 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
                     return resolveSubsystems(extensions.asList());
                 }
 
-                        @Override
+                @Override
+                public ModelNode getDomainModelDigests() {
+                    return computeDomainModelDigests();
+                }
+
+                @Override
                 public boolean applyDomainModel(final List<ModelNode> bootOperations) {
                     // Apply the model..
                     return applyRemoteDomainModel(bootOperations);
@@ -353,6 +380,40 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
         return subsystems;
     }
 
+    /**
+     * Compute the digests of the local copy of the domain model, allowing the master to skip sending the
+     * subtrees which did not change since this slave last synchronized.
+     *
+     * @return the digests, or {@code null} if they could not be computed and the full model should be sent
+     */
+    private ModelNode computeDomainModelDigests() {
+        if (fullSyncRequired) {
+            fullSyncRequired = false;
+            return null;
+        }
+        final ModelNode digests = new ModelNode();
+        final ModelNode operation = new ModelNode();
+        operation.get(OP).set(DOMAIN_MODEL_DIGESTS);
+        operation.get(OP_ADDR).setEmptyList();
+        try {
+            final ModelNode result = operationExecutor.execute(operation, OperationMessageHandler.logging, ModelController.OperationTransactionControl.COMMIT, OperationAttachments.EMPTY, new OperationStepHandler() {
+                @Override
+                public void execute(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+                    digests.set(ReadMasterDomainModelHandler.computeDigests(context.readResourceFromRoot(PathAddress.EMPTY_ADDRESS, true)));
+                    context.stepCompleted();
+                }
+            });
+            if (!SUCCESS.equals(result.get(OUTCOME).asString())) {
+                ROOT_LOGGER.debugf("Failed to compute the domain model digests: %s", result.get(FAILURE_DESCRIPTION));
+                return null;
+            }
+        } catch (Exception e) {
+            ROOT_LOGGER.debugf(e, "Failed to compute the domain model digests");
+            return null;
+        }
+        return digests.isDefined() ? digests : null;
+    }
+
     /**
      * Apply the remote domain model to the local host controller.
      *
@@ -361,6 +422,7 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
      */
     private boolean applyRemoteDomainModel(final List<ModelNode> bootOperations) {
         final ModelNode result;
+        final long start = System.currentTimeMillis();
         try {
             // Create the apply-domain-model operation
             final ModelNode operation = APPLY_DOMAIN_MODEL.clone();
@@ -370,8 +432,46 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
         } catch (Exception e) {
             return false;
         }
+        if (ROOT_LOGGER.isDebugEnabled()) {
+            int unchanged = 0;
+            for (final ModelNode description : bootOperations) {
+                if (description.hasDefined(ReadMasterDomainModelHandler.DOMAIN_RESOURCE_UNCHANGED)) {
+                    unchanged++;
+                }
+            }
+            ROOT_LOGGER.debugf("Applied %d domain model descriptions (%d unchanged subtrees kept) in %d ms",
+                    bootOperations.size(), unchanged, System.currentTimeMillis() - start);
+        }
         // If it did not success, don't register it at the DC
-        return SUCCESS.equals(result.get(OUTCOME).asString());
+        if (!SUCCESS.equals(result.get(OUTCOME).asString())) {
+            for (final ModelNode description : bootOperations) {
+                if (description.hasDefined(ReadMasterDomainModelHandler.DOMAIN_RESOURCE_UNCHANGED)) {
+                    fullSyncRequired = true;
+                    break;
+                }
+            }
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Executes a step against the local model of this host controller.
+     */
+    public interface OperationExecutor {
+
+        /**
+         * Execute the operation.
+         *
+         * @param operation operation
+         * @param handler the message handler
+         * @param control the transaction control
+         * @param attachments the operation attachments
+         * @param step the step to be executed
+         * @return the result
+         */
+        ModelNode execute(ModelNode operation, OperationMessageHandler handler, ModelController.OperationTransactionControl control, OperationAttachments attachments, OperationStepHandler step);
+
     }
 
     /** {@inheritDoc} */
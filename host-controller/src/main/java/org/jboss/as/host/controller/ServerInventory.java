@@ -81,6 +81,15 @@ public interface ServerInventory {
      */
     ServerStatus determineServerStatus(final String serverName);
 
+    /**
+     * Get how long the server with the given name took to start the last time it was started.
+     *
+     * @param serverName  the server name. Cannot be {@code null}
+     *
+     * @return the start time in milliseconds, or {@code -1} if the server has not been started by this host controller
+     */
+    long getServerStartDuration(final String serverName);
+
     /**
      * Start the server with the given name. Note that returning from this method does not mean the server
      * is completely started; it usually will only be in the process of starting, having received all startup instructions.
@@ -101,6 +110,15 @@ public interface ServerInventory {
      */
     ServerStatus startServer(String serverName, ModelNode domainModel, boolean blocking);
 
+    /**
+     * Wait for the server with the given name to start.
+     *
+     * @param serverName the name of the server
+     * @param timeout the maximum time to wait in milliseconds
+     * @return {@code true} if the server started, {@code false} if it failed to start, was stopped or did not start in time
+     */
+    boolean awaitServerStarted(String serverName, long timeout);
+
     /**
      * Restart the server with the given name. Note that returning from this method does not mean the server
      * is completely started; it usually will only be in the process of starting, having received all startup instructions.
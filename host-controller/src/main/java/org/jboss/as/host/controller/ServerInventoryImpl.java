@@ -160,6 +160,15 @@ public class ServerInventoryImpl implements ServerInventory {
         return server.getState();
     }
 
+    @Override
+    public long getServerStartDuration(final String serverName) {
+        final ManagedServer server = servers.get(serverName);
+        if(server == null) {
+            return -1;
+        }
+        return server.getStartDuration();
+    }
+
     @Override
     public ServerStatus startServer(final String serverName, final ModelNode domainModel) {
         return startServer(serverName, domainModel, false);
@@ -188,6 +197,15 @@ public class ServerInventoryImpl implements ServerInventory {
         return server.getState();
     }
 
+    @Override
+    public boolean awaitServerStarted(final String serverName, final long timeout) {
+        final ManagedServer server = servers.get(serverName);
+        if(server == null) {
+            return false;
+        }
+        return server.awaitState(ManagedServer.InternalState.SERVER_STARTED, timeout);
+    }
+
     @Override
     public ServerStatus restartServer(final String serverName, final int gracefulTimeout, final ModelNode domainModel) {
         return restartServer(serverName, gracefulTimeout, domainModel, false);
@@ -23,16 +23,20 @@
 package org.jboss.as.host.controller.mgmt;
 
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.EXTENSION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
 import static org.jboss.as.host.controller.HostControllerLogger.DOMAIN_LOGGER;
 import static org.jboss.as.process.protocol.ProtocolUtils.expectHeader;
 
 import java.io.DataInput;
+import java.io.DataOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.jboss.as.controller.ModelController;
 import org.jboss.as.controller.ModelVersion;
@@ -256,7 +260,7 @@ public class HostControllerRegistrationHandler implements ManagementRequestHandl
             // Remotely resolve the subsystem versions and create the transformation
             registrationContext.processSubsystems(transformers, extensions);
             // Now run the read-domain model operation
-            final ReadMasterDomainModelHandler handler = new ReadMasterDomainModelHandler(transformers);
+            final ReadMasterDomainModelHandler handler = new ReadMasterDomainModelHandler(transformers, hostInfo.getDomainModelDigests());
             context.addStep(READ_DOMAIN_MODEL, handler, OperationContext.Stage.MODEL);
             // Complete
             context.stepCompleted();
@@ -411,12 +415,49 @@ public class HostControllerRegistrationHandler implements ManagementRequestHandl
          */
         void registerHost(final ModelController.OperationTransaction transaction, final ModelNode result) throws SlaveRegistrationException {
             //
+            final long start = System.currentTimeMillis();
+            final boolean debug = DOMAIN_LOGGER.isDebugEnabled();
+            final AtomicInteger sent = new AtomicInteger();
             final Boolean registered = executeBlocking(new IOTask<Boolean>() {
                 @Override
                 void sendMessage(final FlushableDataOutput output) throws IOException {
-                    sendResponse(output, DomainControllerProtocol.PARAM_OK, result);
+                    if (!debug) {
+                        sendResponse(output, DomainControllerProtocol.PARAM_OK, result);
+                        return;
+                    }
+                    // Count the bytes of the model as it is written to the slave
+                    output.writeByte(DomainControllerProtocol.PARAM_OK);
+                    final DataOutputStream counting = new DataOutputStream(new OutputStream() {
+                        @Override
+                        public void write(int b) throws IOException {
+                            output.write(b);
+                        }
+
+                        @Override
+                        public void write(byte[] b, int off, int len) throws IOException {
+                            output.write(b, off, len);
+                        }
+                    });
+                    result.writeExternal(counting);
+                    counting.flush();
+                    sent.set(counting.size());
+                    output.writeByte(ManagementProtocol.RESPONSE_END);
+                    output.close();
                 }
             });
+            if (debug) {
+                int unchanged = 0;
+                final ModelNode descriptions = result.get(RESULT);
+                if (descriptions.isDefined()) {
+                    for (final ModelNode description : descriptions.asList()) {
+                        if (description.hasDefined(ReadMasterDomainModelHandler.DOMAIN_RESOURCE_UNCHANGED)) {
+                            unchanged++;
+                        }
+                    }
+                }
+                DOMAIN_LOGGER.debugf("Synchronized domain model with %s: sent %d bytes, skipped %d unchanged subtrees, completed in %d ms",
+                        hostName, sent.get(), unchanged, System.currentTimeMillis() - start);
+            }
             if(! registered) {
                 transaction.rollback();
                 return;
@@ -105,6 +105,7 @@ public class HostInfo implements TransformationTarget.IgnoredTransformationRegis
     private final String productName;
     private final String productVersion;
     private final Long remoteConnectionId;
+    private final ModelNode domainModelDigests;
     private final Map<String, IgnoredType> ignoredResources;
 
     private HostInfo(final ModelNode hostInfo) {
@@ -118,6 +119,8 @@ public class HostInfo implements TransformationTarget.IgnoredTransformationRegis
         productVersion = hostInfo.hasDefined(PRODUCT_VERSION) ? hostInfo.require(PRODUCT_VERSION).asString() : null;
         remoteConnectionId = hostInfo.hasDefined(RemoteDomainConnectionService.DOMAIN_CONNECTION_ID)
                 ? hostInfo.get(RemoteDomainConnectionService.DOMAIN_CONNECTION_ID).asLong() : null;
+        domainModelDigests = hostInfo.hasDefined(RemoteDomainConnectionService.DOMAIN_MODEL_DIGESTS)
+                ? hostInfo.get(RemoteDomainConnectionService.DOMAIN_MODEL_DIGESTS) : null;
 
         if (hostInfo.hasDefined(IGNORED_RESOURCES)) {
             ignoredResources = new HashMap<String, IgnoredType>();
@@ -168,6 +171,15 @@ public class HostInfo implements TransformationTarget.IgnoredTransformationRegis
         return remoteConnectionId;
     }
 
+    /**
+     * Get the digests of the domain model subtrees the slave already has.
+     *
+     * @return the digests, or {@code null} if the slave did not send any
+     */
+    public ModelNode getDomainModelDigests() {
+        return domainModelDigests;
+    }
+
     public boolean isResourceTransformationIgnored(final PathAddress address) {
         boolean result = false;
         if (ignoredResources != null && address.size() > 0) {
@@ -29,6 +29,7 @@ import java.util.concurrent.ThreadFactory;
 
 import org.jboss.as.controller.ExpressionResolver;
 import org.jboss.as.domain.controller.DomainController;
+import org.jboss.as.host.controller.ProfileOperationsCache;
 import org.jboss.as.host.controller.ServerInventory;
 import org.jboss.as.protocol.mgmt.ManagementChannelHandler;
 import org.jboss.as.protocol.mgmt.support.ManagementChannelInitialization;
@@ -60,6 +61,8 @@ public class ServerToHostOperationHandlerFactoryService implements ManagementCha
     private final ServerToHostProtocolHandler.OperationExecutor operationExecutor;
     private final DomainController domainController;
     private final ExpressionResolver expressionResolver;
+    // shared by the registrations of all servers, which mostly boot against the same few profiles
+    private final ProfileOperationsCache profileOperations = new ProfileOperationsCache();
 
     private final ThreadFactory threadFactory = new JBossThreadFactory(new ThreadGroup("server-registration-threads"), Boolean.FALSE, null, "%G - %t", null, null, AccessController.getContext());
     private volatile ExecutorService registrations;
@@ -104,7 +107,7 @@ public class ServerToHostOperationHandlerFactoryService implements ManagementCha
     @Override
     public HandleableCloseable.Key startReceiving(final Channel channel) {
         final ManagementChannelHandler channelHandler = new ManagementChannelHandler(channel, executorService);
-        final ServerToHostProtocolHandler registrationHandler = new ServerToHostProtocolHandler(serverInventory.getValue(), operationExecutor, domainController, channelHandler, registrations, expressionResolver);
+        final ServerToHostProtocolHandler registrationHandler = new ServerToHostProtocolHandler(serverInventory.getValue(), operationExecutor, domainController, channelHandler, registrations, expressionResolver, profileOperations);
         channelHandler.addHandlerFactory(registrationHandler);
         channel.receiveMessage(channelHandler.getReceiver());
         return null;
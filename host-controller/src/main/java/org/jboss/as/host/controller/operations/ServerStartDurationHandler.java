@@ -0,0 +1,55 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.host.controller.operations;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.host.controller.ServerInventory;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * {@code OperationHandler} reporting how long a server took to start the last time it was started.
+ */
+public class ServerStartDurationHandler implements OperationStepHandler {
+
+    public static final String ATTRIBUTE_NAME = "start-duration";
+
+    private final ServerInventory serverInventory;
+
+    public ServerStartDurationHandler(final ServerInventory serverInventory) {
+        this.serverInventory = serverInventory;
+    }
+
+    @Override
+    public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+        final String serverName = PathAddress.pathAddress(operation.require(OP_ADDR)).getLastElement().getValue();
+        final long duration = serverInventory.getServerStartDuration(serverName);
+        if (duration >= 0) {
+            context.getResult().set(duration);
+        }
+        context.stepCompleted();
+    }
+}
@@ -25,7 +25,12 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SER
 import static org.jboss.as.host.controller.HostControllerLogger.ROOT_LOGGER;
 import static org.jboss.as.host.controller.HostControllerMessages.MESSAGES;
 
+import java.security.AccessController;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationDefinition;
@@ -34,6 +39,7 @@ import org.jboss.as.controller.OperationStepHandler;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.RunningMode;
 import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
+import org.jboss.as.controller.client.helpers.domain.ServerStatus;
 import org.jboss.as.controller.registry.Resource;
 import org.jboss.as.host.controller.HostControllerEnvironment;
 import org.jboss.as.host.controller.HostRunningModeControl;
@@ -41,6 +47,7 @@ import org.jboss.as.host.controller.RestartMode;
 import org.jboss.as.host.controller.ServerInventory;
 import org.jboss.as.process.ProcessInfo;
 import org.jboss.dmr.ModelNode;
+import org.jboss.threads.JBossThreadFactory;
 
 /**
  * Starts or reconnect all auto-start servers (at boot).
@@ -51,6 +58,19 @@ public class StartServersHandler implements OperationStepHandler {
 
     public static final String OPERATION_NAME = "start-servers";
 
+    /**
+     * The maximum number of servers started at the same time; the next server is launched once one of them has started
+     * or failed. Zero or less launches all servers at once.
+     */
+    public static final String START_CONCURRENCY_PROPERTY = "jboss.as.domain.server.start.concurrency";
+
+    /**
+     * The maximum time in milliseconds a throttled server start waits for the server before launching the next one.
+     */
+    public static final String START_TIMEOUT_PROPERTY = "jboss.as.domain.server.start.timeout";
+
+    private static final long DEFAULT_START_TIMEOUT = 300000;
+
   //Private method does not need resources for description
     public static final OperationDefinition DEFINITION = new SimpleOperationDefinitionBuilder(OPERATION_NAME, null)
         .setPrivateEntry()
@@ -107,32 +127,95 @@ public class StartServersHandler implements OperationStepHandler {
     }
 
     private void cleanStartServers(final ModelNode servers, final ModelNode domainModel){
+        final List<String> toStart = new ArrayList<String>();
         for(final String serverName : servers.keys()) {
             if(servers.get(serverName, AUTO_START).asBoolean(true)) {
-                try {
-                    serverInventory.startServer(serverName, domainModel);
-                } catch (Exception e) {
-                    ROOT_LOGGER.failedToStartServer(e, serverName);
-                }
+                toStart.add(serverName);
             }
         }
+        startServers(toStart, domainModel);
     }
 
     private void restartedHcStartOrReconnectServers(final ModelNode servers, final ModelNode domainModel){
         Map<String, ProcessInfo> processInfos = serverInventory.determineRunningProcesses();
+        final List<String> toStart = new ArrayList<String>();
         for(final String serverName : servers.keys()) {
             ProcessInfo info = processInfos.get(serverInventory.getServerProcessName(serverName));
             boolean auto = servers.get(serverName, AUTO_START).asBoolean(true);
             if (info == null && auto) {
+                toStart.add(serverName);
+            } else if (info != null){
+                //Reconnect the server
+                serverInventory.reconnectServer(serverName, domainModel, info.isRunning(), info.isStopping());
+            }
+        }
+        startServers(toStart, domainModel);
+    }
+
+    private void startServers(final List<String> serverNames, final ModelNode domainModel) {
+        int concurrency = 0;
+        try {
+            concurrency = Integer.parseInt(SecurityActions.getSystemProperty(START_CONCURRENCY_PROPERTY, "0"));
+        } catch (NumberFormatException e) {
+            // launch them all at once
+        }
+        startServers(serverNames, domainModel, concurrency, getStartTimeout());
+    }
+
+    /**
+     * Start the servers, at most {@code concurrency} at a time if it is greater than zero.
+     *
+     * @param serverNames the servers to start
+     * @param domainModel the domain model the servers are started from
+     * @param concurrency the maximum number of servers starting at once, or zero or less for no limit
+     * @param timeout the maximum time in milliseconds to wait for a server before starting the next one
+     */
+    void startServers(final List<String> serverNames, final ModelNode domainModel, final int concurrency, final long timeout) {
+        if (concurrency <= 0 || serverNames.size() <= concurrency) {
+            for (final String serverName : serverNames) {
                 try {
                     serverInventory.startServer(serverName, domainModel);
                 } catch (Exception e) {
                     ROOT_LOGGER.failedToStartServer(e, serverName);
                 }
-            } else if (info != null){
-                //Reconnect the server
-                serverInventory.reconnectServer(serverName, domainModel, info.isRunning(), info.isStopping());
             }
+            return;
+        }
+        // Each launcher thread waits for its server to start before taking the next one, so at most
+        // 'concurrency' servers boot at the same time; the boot of the host controller itself does not wait.
+        // The threads are daemons so a server that never starts cannot keep the host controller from exiting
+        final ExecutorService launcher = Executors.newFixedThreadPool(concurrency, new JBossThreadFactory(new ThreadGroup("server-start-threads"),
+                Boolean.TRUE, null, "%G - %t", null, null, AccessController.getContext()));
+        try {
+            for (final String serverName : serverNames) {
+                // ModelNode.get() adds missing children, so each launcher needs its own copy of the model
+                final ModelNode serverDomainModel = domainModel.clone();
+                launcher.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            serverInventory.startServer(serverName, serverDomainModel);
+                            if (!serverInventory.awaitServerStarted(serverName, timeout)
+                                    && serverInventory.determineServerStatus(serverName) == ServerStatus.STARTING) {
+                                ROOT_LOGGER.serverStartTimedOut(serverName, timeout);
+                            }
+                        } catch (Exception e) {
+                            ROOT_LOGGER.failedToStartServer(e, serverName);
+                        }
+                    }
+                });
+            }
+        } finally {
+            launcher.shutdown();
+        }
+    }
+
+    private static long getStartTimeout() {
+        try {
+            final long timeout = Long.parseLong(SecurityActions.getSystemProperty(START_TIMEOUT_PROPERTY, String.valueOf(DEFAULT_START_TIMEOUT)));
+            return timeout > 0 ? timeout : DEFAULT_START_TIMEOUT;
+        } catch (NumberFormatException e) {
+            return DEFAULT_START_TIMEOUT;
         }
     }
 }
@@ -36,6 +36,7 @@ import org.jboss.as.controller.ResourceDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.client.helpers.domain.ServerStatus;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.operations.validation.EnumValidator;
@@ -54,6 +55,7 @@ import org.jboss.as.host.controller.operations.ServerRemoveHandler;
 import org.jboss.as.host.controller.operations.ServerRestartHandler;
 import org.jboss.as.host.controller.operations.ServerRestartRequiredServerConfigWriteAttributeHandler;
 import org.jboss.as.host.controller.operations.ServerStartHandler;
+import org.jboss.as.host.controller.operations.ServerStartDurationHandler;
 import org.jboss.as.host.controller.operations.ServerStatusHandler;
 import org.jboss.as.host.controller.operations.ServerStopHandler;
 import org.jboss.as.server.controller.resources.SystemPropertyResourceDefinition;
@@ -93,6 +95,10 @@ public class ServerConfigResourceDefinition extends SimpleResourceDefinition {
             .setValidator(new EnumValidator<ServerStatus>(ServerStatus.class, false, false))
             .build();
 
+    public static final SimpleAttributeDefinition START_DURATION = SimpleAttributeDefinitionBuilder.create(ServerStartDurationHandler.ATTRIBUTE_NAME, ModelType.LONG, true)
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .build();
+
     /**
      * Bogus attribute that we accidentally registered in AS 7.1.2/EAP 6 even though it didn't appear in the
      * resource description. So for compatibility we register it here as well, and include it in the description
@@ -145,6 +151,7 @@ public class ServerConfigResourceDefinition extends SimpleResourceDefinition {
 
         if (serverInventory != null) {
             resourceRegistration.registerMetric(STATUS, new ServerStatusHandler(serverInventory));
+            resourceRegistration.registerMetric(START_DURATION, new ServerStartDurationHandler(serverInventory));
         }
     }
 
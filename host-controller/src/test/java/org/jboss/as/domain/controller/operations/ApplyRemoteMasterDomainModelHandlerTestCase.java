@@ -22,7 +22,11 @@
 
 package org.jboss.as.domain.controller.operations;
 
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertNotNull;
 import static junit.framework.Assert.assertTrue;
+import static junit.framework.Assert.fail;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DOMAIN_MODEL;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.EXTENSION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HOST;
@@ -37,7 +41,10 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SER
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SOCKET_BINDING_GROUP;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SYSTEM_PROPERTY;
 
+import java.util.List;
+
 import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.ProcessType;
@@ -80,6 +87,81 @@ public class ApplyRemoteMasterDomainModelHandlerTestCase extends AbstractOperati
         handler.execute(operationContext, operation);
     }
 
+    @Test
+    public void testDigestMatchSendsUnchangedMarker() throws Exception {
+        final Resource root = createDigestedRoot();
+        final ModelNode digests = ReadMasterDomainModelHandler.computeDigests(root);
+        assertTrue(digests.hasDefined(PATH, "some-path"));
+        assertFalse(digests.has(HOST));
+
+        final ModelNode description = findDescription(ReadMasterDomainModelHandler.describeAsNodeList(root, digests), PathAddress.pathAddress(PathElement.pathElement(PATH, "some-path")));
+        assertTrue(description.get(ReadMasterDomainModelHandler.DOMAIN_RESOURCE_UNCHANGED).asBoolean());
+        assertFalse(description.has("domain-resource-model"));
+    }
+
+    @Test
+    public void testDigestMismatchSendsSubtree() throws Exception {
+        final Resource root = createDigestedRoot();
+        final ModelNode digests = ReadMasterDomainModelHandler.computeDigests(root);
+        root.requireChild(PathElement.pathElement(PATH, "some-path")).getModel().set("other path");
+
+        final ModelNode description = findDescription(ReadMasterDomainModelHandler.describeAsNodeList(root, digests), PathAddress.pathAddress(PathElement.pathElement(PATH, "some-path")));
+        assertFalse(description.has(ReadMasterDomainModelHandler.DOMAIN_RESOURCE_UNCHANGED));
+        assertEquals("other path", description.get("domain-resource-model").asString());
+    }
+
+    @Test
+    public void testUnchangedMarkerKeepsLocalResource() throws Exception {
+        final ModelNode operation = new ModelNode();
+        final ModelNode change = new ModelNode();
+        change.get("domain-resource-address").set(PathAddress.pathAddress(PathElement.pathElement(PATH, "some-path")).toModelNode());
+        change.get(ReadMasterDomainModelHandler.DOMAIN_RESOURCE_UNCHANGED).set(true);
+        operation.get(DOMAIN_MODEL).add(change);
+        final MockOperationContext operationContext = getOperationContext();
+        final Resource path = Resource.Factory.create();
+        path.getModel().set("some path");
+        operationContext.root.registerChild(PathElement.pathElement(PATH, "some-path"), path);
+        // Nothing changed, so no server needs a restart
+        handler.execute(operationContext, operation);
+        operationContext.verify();
+        assertEquals("some path", operationContext.root.requireChild(PathElement.pathElement(PATH, "some-path")).getModel().asString());
+    }
+
+    @Test
+    public void testUnchangedMarkerForMissingResourceFails() throws Exception {
+        final ModelNode operation = new ModelNode();
+        final ModelNode change = new ModelNode();
+        change.get("domain-resource-address").set(PathAddress.pathAddress(PathElement.pathElement(PATH, "some-path")).toModelNode());
+        change.get(ReadMasterDomainModelHandler.DOMAIN_RESOURCE_UNCHANGED).set(true);
+        operation.get(DOMAIN_MODEL).add(change);
+        final MockOperationContext operationContext = getOperationContext();
+        try {
+            handler.execute(operationContext, operation);
+            fail("Should not have applied a marker for a missing resource");
+        } catch (OperationFailedException expected) {
+        }
+    }
+
+    private static Resource createDigestedRoot() {
+        final Resource root = Resource.Factory.create();
+        final Resource path = Resource.Factory.create();
+        path.getModel().set("some path");
+        root.registerChild(PathElement.pathElement(PATH, "some-path"), path);
+        root.registerChild(PathElement.pathElement(HOST, "localhost"), Resource.Factory.create());
+        return root;
+    }
+
+    private static ModelNode findDescription(final List<ModelNode> descriptions, final PathAddress address) {
+        ModelNode found = null;
+        for (final ModelNode description : descriptions) {
+            if (PathAddress.pathAddress(description.get("domain-resource-address")).equals(address)) {
+                found = description;
+            }
+        }
+        assertNotNull(found);
+        return found;
+    }
+
     @Test
     public void testExtensionAdd() throws Exception {
         final ModelNode operation = new ModelNode();
@@ -0,0 +1,124 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.host.controller;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DEPLOYMENT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PROFILE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.jboss.as.domain.controller.DomainController;
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link ProfileOperationsCache}.
+ */
+public class ProfileOperationsCacheUnitTestCase {
+
+    private final List<String> described = new ArrayList<String>();
+    private final DomainController domainController = (DomainController) Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class<?>[] {DomainController.class}, new InvocationHandler() {
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                    if (!method.getName().equals("getProfileOperations")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    final String profileName = (String) args[0];
+                    described.add(profileName);
+                    final ModelNode operations = new ModelNode();
+                    operations.add().get(PROFILE).set(profileName);
+                    return operations;
+                }
+            });
+
+    @Test
+    public void testServersOfAProfileShareItsOperations() {
+        final ProfileOperationsCache cache = new ProfileOperationsCache();
+        final ModelNode domainModel = createDomainModel();
+
+        final ModelNode operations = cache.getProfileOperations("default", domainModel, domainController);
+        Assert.assertEquals("default", operations.get(0).get(PROFILE).asString());
+        Assert.assertSame(operations, cache.getProfileOperations("default", domainModel, domainController));
+        Assert.assertEquals(1, described.size());
+    }
+
+    @Test
+    public void testProfilesAreDescribedSeparately() {
+        final ProfileOperationsCache cache = new ProfileOperationsCache();
+        final ModelNode domainModel = createDomainModel();
+
+        final ModelNode defaultOperations = cache.getProfileOperations("default", domainModel, domainController);
+        final ModelNode haOperations = cache.getProfileOperations("ha", domainModel, domainController);
+        Assert.assertEquals("ha", haOperations.get(0).get(PROFILE).asString());
+        Assert.assertSame(defaultOperations, cache.getProfileOperations("default", domainModel, domainController));
+        Assert.assertSame(haOperations, cache.getProfileOperations("ha", domainModel, domainController));
+        Assert.assertEquals(2, described.size());
+    }
+
+    @Test
+    public void testOperationsAreProtected() {
+        final ModelNode operations = new ProfileOperationsCache().getProfileOperations("default", createDomainModel(), domainController);
+        try {
+            operations.add();
+            Assert.fail("Shared profile operations should not be modifiable");
+        } catch (RuntimeException expected) {
+        }
+    }
+
+    @Test
+    public void testProfileChangeDiscardsOperations() {
+        final ProfileOperationsCache cache = new ProfileOperationsCache();
+        final ModelNode domainModel = createDomainModel();
+
+        final ModelNode operations = cache.getProfileOperations("default", domainModel, domainController);
+        domainModel.get(PROFILE, "ha", SUBSYSTEM, "jgroups").setEmptyObject();
+        Assert.assertNotSame(operations, cache.getProfileOperations("default", domainModel, domainController));
+        Assert.assertEquals(2, described.size());
+    }
+
+    @Test
+    public void testOtherChangesKeepOperations() {
+        final ProfileOperationsCache cache = new ProfileOperationsCache();
+        final ModelNode domainModel = createDomainModel();
+
+        final ModelNode operations = cache.getProfileOperations("default", domainModel, domainController);
+        domainModel.get(DEPLOYMENT, "test.war").setEmptyObject();
+        Assert.assertSame(operations, cache.getProfileOperations("default", domainModel, domainController));
+        Assert.assertEquals(1, described.size());
+    }
+
+    private static ModelNode createDomainModel() {
+        final ModelNode domainModel = new ModelNode();
+        domainModel.get(PROFILE, "default", SUBSYSTEM, "logging").setEmptyObject();
+        domainModel.get(PROFILE, "ha", SUBSYSTEM, "logging").setEmptyObject();
+        return domainModel;
+    }
+}
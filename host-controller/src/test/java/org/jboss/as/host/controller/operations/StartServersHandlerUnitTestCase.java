@@ -0,0 +1,139 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.host.controller.operations;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.Assert;
+
+import org.jboss.as.controller.client.helpers.domain.ServerStatus;
+import org.jboss.as.host.controller.ServerInventory;
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+
+/**
+ * Unit tests of the throttled server start of {@link StartServersHandler}.
+ */
+public class StartServersHandlerUnitTestCase {
+
+    private static final List<String> SERVERS = Arrays.asList("one", "two", "three", "four", "five");
+
+    @Test
+    public void testUnthrottledStartDoesNotWait() {
+        final TestServerInventory inventory = new TestServerInventory(SERVERS.size(), Collections.<String>emptySet());
+        createHandler(inventory).startServers(SERVERS, new ModelNode(), 0, 1000);
+
+        Assert.assertEquals(SERVERS.size(), inventory.started.size());
+        Assert.assertEquals(0, inventory.awaitCalls.get());
+    }
+
+    @Test
+    public void testThrottledStartKeepsConcurrencyLimit() throws Exception {
+        final TestServerInventory inventory = new TestServerInventory(SERVERS.size(), Collections.<String>emptySet());
+        createHandler(inventory).startServers(SERVERS, new ModelNode(), 2, 1000);
+
+        Assert.assertTrue(inventory.awaited.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(SERVERS.size(), inventory.started.size());
+        Assert.assertTrue(inventory.maxStarting.get() <= 2);
+        Assert.assertEquals(Long.valueOf(1000), inventory.timeout);
+    }
+
+    @Test
+    public void testServerNotStartedInTimeReleasesSlot() throws Exception {
+        final List<String> servers = Arrays.asList("hung", "next");
+        final TestServerInventory inventory = new TestServerInventory(servers.size(), Collections.singleton("hung"));
+        createHandler(inventory).startServers(servers, new ModelNode(), 1, 1000);
+
+        Assert.assertTrue(inventory.awaited.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(servers.size(), inventory.started.size());
+        Assert.assertTrue(inventory.started.contains("next"));
+    }
+
+    private static StartServersHandler createHandler(final TestServerInventory inventory) {
+        final ServerInventory serverInventory = (ServerInventory) Proxy.newProxyInstance(StartServersHandlerUnitTestCase.class.getClassLoader(),
+                new Class<?>[] {ServerInventory.class}, inventory);
+        return new StartServersHandler(null, serverInventory, null);
+    }
+
+    /**
+     * Records the servers started and how many of them are starting at once. Servers start after a short delay, except
+     * the hung ones, which never report that they have started.
+     */
+    private static class TestServerInventory implements InvocationHandler {
+
+        final Set<String> started = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+        final Set<String> hung;
+        final CountDownLatch awaited;
+        final AtomicInteger awaitCalls = new AtomicInteger();
+        final AtomicInteger starting = new AtomicInteger();
+        final AtomicInteger maxStarting = new AtomicInteger();
+        volatile Long timeout;
+
+        TestServerInventory(final int servers, final Set<String> hung) {
+            this.awaited = new CountDownLatch(servers);
+            this.hung = hung;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            final String serverName = args != null && args.length > 0 ? (String) args[0] : null;
+            if (method.getName().equals("startServer")) {
+                started.add(serverName);
+                final int current = starting.incrementAndGet();
+                for (;;) {
+                    final int max = maxStarting.get();
+                    if (current <= max || maxStarting.compareAndSet(max, current)) {
+                        break;
+                    }
+                }
+                return ServerStatus.STARTING;
+            } else if (method.getName().equals("awaitServerStarted")) {
+                awaitCalls.incrementAndGet();
+                timeout = (Long) args[1];
+                try {
+                    if (hung.contains(serverName)) {
+                        return false;
+                    }
+                    Thread.sleep(50);
+                    starting.decrementAndGet();
+                    return true;
+                } finally {
+                    awaited.countDown();
+                }
+            } else if (method.getName().equals("determineServerStatus")) {
+                return hung.contains(serverName) ? ServerStatus.STARTING : ServerStatus.STARTED;
+            }
+            throw new UnsupportedOperationException(method.getName());
+        }
+    }
+}
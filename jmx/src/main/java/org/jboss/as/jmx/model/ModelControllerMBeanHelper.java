@@ -28,6 +28,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAM
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_ATTRIBUTE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_RESOURCE_OPERATION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REPLY_PROPERTIES;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REQUEST_PROPERTIES;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
@@ -35,8 +36,11 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VAL
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.WRITE_ATTRIBUTE_OPERATION;
 import static org.jboss.as.jmx.JmxMessages.MESSAGES;
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 
@@ -58,6 +62,7 @@ import org.jboss.as.controller.ModelController.OperationTransactionControl;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.descriptions.DescriptionProvider;
+import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
 import org.jboss.as.jmx.model.ChildAddOperationFinder.ChildAddOperationEntry;
@@ -73,6 +78,8 @@ import org.jboss.dmr.ModelNode;
 public class ModelControllerMBeanHelper {
 
     static final String CLASS_NAME = ModelController.class.getName();
+    private static final int MAX_CACHED_MBEAN_INFOS = 4096;
+
     private final boolean standalone;
     private final ModelController controller;
     private final PathAddress CORE_SERVICE_PLATFORM_MBEAN = PathAddress.pathAddress(PathElement.pathElement("core-service", "platform-mbean"));
@@ -81,6 +88,16 @@ public class ModelControllerMBeanHelper {
     private final ConfiguredDomains configuredDomains;
     private final String domain;
 
+    /** MBeanInfo of recently used MBeans, rebuilt when the registration of their resource changes */
+    private final Map<ObjectName, CachedMBeanInfo> mbeanInfos = Collections.synchronizedMap(new LinkedHashMap<ObjectName, CachedMBeanInfo>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ObjectName, CachedMBeanInfo> eldest) {
+            return size() > MAX_CACHED_MBEAN_INFOS;
+        }
+    });
+
     ModelControllerMBeanHelper(TypeConverters converters, ConfiguredDomains configuredDomains, String domain, ModelController controller) {
         this.converters = converters;
         this.configuredDomains = configuredDomains;
@@ -174,10 +191,18 @@ public class ModelControllerMBeanHelper {
         ResourceAndRegistration reg = getRootResourceAndRegistration();
         PathAddress address = ObjectNameAddressUtil.resolvePathAddress(domain, reg.getResource(), name);
         if (address == null) {
+            mbeanInfos.remove(name);
             throw createInstanceNotFoundException(name);
         }
 
-        return MBeanInfoFactory.createMBeanInfo(name, converters, configuredDomains, standalone, address, getMBeanRegistration(address, reg));
+        final ImmutableManagementResourceRegistration registration = getMBeanRegistration(address, reg);
+        final RegistrationShape shape = new RegistrationShape(registration);
+        CachedMBeanInfo cached = mbeanInfos.get(name);
+        if (cached == null || !cached.shape.equals(shape)) {
+            cached = new CachedMBeanInfo(shape, MBeanInfoFactory.createMBeanInfo(name, converters, configuredDomains, standalone, address, registration));
+            mbeanInfos.put(name, cached);
+        }
+        return cached.info;
     }
 
     Object getAttribute(final ObjectName name, final String attribute)  throws AttributeNotFoundException, InstanceNotFoundException, ReflectionException {
@@ -195,6 +220,12 @@ public class ModelControllerMBeanHelper {
         if (address == null) {
             throw createInstanceNotFoundException(name);
         }
+        if (attributes.length > 1) {
+            AttributeList list = getAttributesFromResource(reg, address, name, attributes);
+            if (list != null) {
+                return list;
+            }
+        }
         AttributeList list = new AttributeList();
         for (String attribute : attributes) {
             try {
@@ -206,13 +237,62 @@ public class ModelControllerMBeanHelper {
         return list;
     }
 
-    private Object getAttribute(final ResourceAndRegistration reg, final PathAddress address, final ObjectName name, final String attribute)  throws ReflectionException, AttributeNotFoundException, InstanceNotFoundException {
+    /**
+     * Reads all the requested configuration attributes with a single read-resource operation, rather than one
+     * read-attribute operation each. The read-resource does not include runtime attributes, so that their handlers are
+     * only invoked for the runtime attributes that were actually requested, which are read one at a time.
+     *
+     * @return the attributes, or {@code null} if the resource could not be read as a whole, in which case they should be read
+     *         one at a time to report which attribute failed
+     */
+    private AttributeList getAttributesFromResource(final ResourceAndRegistration reg, final PathAddress address, final ObjectName name, final String[] attributes) throws ReflectionException, InstanceNotFoundException {
         final ImmutableManagementResourceRegistration registration = getMBeanRegistration(address, reg);
-        final DescriptionProvider provider = registration.getModelDescription(PathAddress.EMPTY_ADDRESS);
-        if (provider == null) {
-            throw MESSAGES.descriptionProviderNotFound(address);
+        final ModelNode description = getModelDescription(registration, address);
+        final String[] attributeNames = new String[attributes.length];
+        boolean readResource = false;
+        for (int i = 0; i < attributes.length; i++) {
+            try {
+                attributeNames[i] = findAttributeName(description.get(ATTRIBUTES), attributes[i]);
+            } catch (AttributeNotFoundException e) {
+                throw new ReflectionException(e);
+            }
+            readResource |= isConfiguration(registration, attributeNames[i]);
         }
-        final ModelNode description = provider.getModelDescription(null);
+
+        ModelNode values = null;
+        if (readResource) {
+            ModelNode op = new ModelNode();
+            op.get(OP).set(READ_RESOURCE_OPERATION);
+            op.get(OP_ADDR).set(address.toModelNode());
+            ModelNode result = execute(op);
+            if (getFailureDescription(result) != null) {
+                return null;
+            }
+            values = result.get(RESULT);
+        }
+
+        AttributeList list = new AttributeList();
+        for (int i = 0; i < attributes.length; i++) {
+            if (isConfiguration(registration, attributeNames[i])) {
+                list.add(new Attribute(attributes[i], converters.fromModelNode(description.require(ATTRIBUTES).require(attributeNames[i]), values.get(attributeNames[i]))));
+            } else {
+                try {
+                    list.add(new Attribute(attributes[i], getAttribute(reg, address, name, attributes[i])));
+                } catch (AttributeNotFoundException e) {
+                    throw new ReflectionException(e);
+                }
+            }
+        }
+        return list;
+    }
+
+    private static boolean isConfiguration(final ImmutableManagementResourceRegistration registration, final String attributeName) {
+        final AttributeAccess access = registration.getAttributeAccess(PathAddress.EMPTY_ADDRESS, attributeName);
+        return access != null && access.getStorageType() == AttributeAccess.Storage.CONFIGURATION;
+    }
+
+    private Object getAttribute(final ResourceAndRegistration reg, final PathAddress address, final ObjectName name, final String attribute)  throws ReflectionException, AttributeNotFoundException, InstanceNotFoundException {
+        final ModelNode description = getModelDescription(getMBeanRegistration(address, reg), address);
         final String attributeName = findAttributeName(description.get(ATTRIBUTES), attribute);
 
         ModelNode op = new ModelNode();
@@ -415,6 +495,14 @@ public class ModelControllerMBeanHelper {
         return resourceRegistration;
     }
 
+    private ModelNode getModelDescription(ImmutableManagementResourceRegistration registration, PathAddress address) throws InstanceNotFoundException {
+        final DescriptionProvider provider = registration.getModelDescription(PathAddress.EMPTY_ADDRESS);
+        if (provider == null) {
+            throw MESSAGES.descriptionProviderNotFound(address);
+        }
+        return provider.getModelDescription(null);
+    }
+
     private String getFailureDescription(ModelNode result) {
         if (result.hasDefined(FAILURE_DESCRIPTION)) {
             return result.get(FAILURE_DESCRIPTION).toString();
@@ -445,4 +533,50 @@ public class ModelControllerMBeanHelper {
             throw new RuntimeException(e);
         }
     }
+
+    /**
+     * The attributes, with their access and storage types, operations and children registered for a resource, which
+     * determine its MBeanInfo.
+     */
+    private static final class RegistrationShape {
+        private final Map<String, AttributeAccess.AccessType> accessTypes = new HashMap<String, AttributeAccess.AccessType>();
+        private final Map<String, AttributeAccess.Storage> storageTypes = new HashMap<String, AttributeAccess.Storage>();
+        private final Set<String> operations;
+        private final Set<PathElement> children;
+
+        RegistrationShape(ImmutableManagementResourceRegistration registration) {
+            for (String attributeName : registration.getAttributeNames(PathAddress.EMPTY_ADDRESS)) {
+                final AttributeAccess access = registration.getAttributeAccess(PathAddress.EMPTY_ADDRESS, attributeName);
+                accessTypes.put(attributeName, access == null ? null : access.getAccessType());
+                storageTypes.put(attributeName, access == null ? null : access.getStorageType());
+            }
+            this.operations = new HashSet<String>(registration.getOperationDescriptions(PathAddress.EMPTY_ADDRESS, false).keySet());
+            this.children = new HashSet<PathElement>(registration.getChildAddresses(PathAddress.EMPTY_ADDRESS));
+        }
+
+        @Override
+        public int hashCode() {
+            return accessTypes.hashCode() ^ storageTypes.hashCode() ^ operations.hashCode() ^ children.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof RegistrationShape)) {
+                return false;
+            }
+            RegistrationShape other = (RegistrationShape) obj;
+            return accessTypes.equals(other.accessTypes) && storageTypes.equals(other.storageTypes)
+                    && operations.equals(other.operations) && children.equals(other.children);
+        }
+    }
+
+    private static final class CachedMBeanInfo {
+        private final RegistrationShape shape;
+        private final MBeanInfo info;
+
+        CachedMBeanInfo(RegistrationShape shape, MBeanInfo info) {
+            this.shape = shape;
+            this.info = info;
+        }
+    }
 }
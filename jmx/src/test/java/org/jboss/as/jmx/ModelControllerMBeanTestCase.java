@@ -51,6 +51,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.management.Attribute;
 import javax.management.AttributeList;
@@ -810,6 +811,79 @@ public class ModelControllerMBeanTestCase extends AbstractSubsystemTest {
                 Collections.singletonList("${should.not.exist!!!!!:109}"), "${should.not.exist!!!!!:110L}", "${should.not.exist!!!!!:STRING}");
     }
 
+    @Test
+    public void testMBeanInfoRebuiltWhenRegistrationChanges() throws Exception {
+        TestExtension extension = new TestExtension();
+        MBeanServerConnection connection = setupAndGetConnection(new MBeanInfoAdditionalInitialization(TYPE_STANDALONE, extension));
+
+        ObjectName name = createObjectName(LEGACY_DOMAIN + ":subsystem=test");
+        MBeanInfo info = connection.getMBeanInfo(name);
+        Assert.assertFalse(hasOperation(info.getOperations(), "lateOp"));
+
+        extension.registration.registerOperationHandler("late-op", VoidOperationNoParams.INSTANCE, VoidOperationNoParams.INSTANCE);
+        info = connection.getMBeanInfo(name);
+        Assert.assertTrue(hasOperation(info.getOperations(), "lateOp"));
+        Assert.assertTrue(hasOperation(info.getOperations(), VoidOperationNoParams.OPERATION_JMX_NAME));
+
+        extension.registration.unregisterOperationHandler("late-op");
+        info = connection.getMBeanInfo(name);
+        Assert.assertFalse(hasOperation(info.getOperations(), "lateOp"));
+        Assert.assertTrue(hasOperation(info.getOperations(), VoidOperationNoParams.OPERATION_JMX_NAME));
+    }
+
+    @Test
+    public void testReadAttributeListInOneOperation() throws Exception {
+        TestExtension extension = new TestExtension();
+        MBeanServerConnection connection = setupAndGetConnection(new MBeanInfoAdditionalInitialization(TYPE_STANDALONE, extension));
+
+        // Only configuration attributes are requested, so the runtime attribute must not be read
+        final AtomicInteger reads = new AtomicInteger();
+        extension.registration.registerReadOnlyAttribute("counted", new OperationStepHandler() {
+            @Override
+            public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+                reads.incrementAndGet();
+                context.getResult().set(1);
+                context.stepCompleted();
+            }
+        }, Storage.RUNTIME);
+
+        ObjectName name = createObjectName(LEGACY_DOMAIN + ":subsystem=test");
+        AttributeList list = connection.getAttributes(name, new String[] {"int", "string"});
+        Assert.assertEquals(2, list.size());
+        Assert.assertEquals(Integer.valueOf(2), assertGetFromList(Integer.class, list, "int"));
+        Assert.assertEquals("8", assertGetFromList(String.class, list, "string"));
+        Assert.assertEquals(0, reads.get());
+
+        // A single attribute is still read with read-attribute
+        list = connection.getAttributes(name, new String[] {"int"});
+        Assert.assertEquals(Integer.valueOf(2), assertGetFromList(Integer.class, list, "int"));
+        Assert.assertEquals(0, reads.get());
+    }
+
+    @Test
+    public void testReadAttributeListFallsBackToSingleReads() throws Exception {
+        TestExtension extension = new TestExtension();
+        MBeanServerConnection connection = setupAndGetConnection(new MBeanInfoAdditionalInitialization(TYPE_STANDALONE, extension));
+
+        // A configuration attribute with a read handler is read by read-resource, so this fails it, but it is not read by
+        // read-attribute for the other attributes
+        final AtomicInteger reads = new AtomicInteger();
+        extension.registration.registerReadOnlyAttribute("failing", new OperationStepHandler() {
+            @Override
+            public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+                reads.incrementAndGet();
+                throw new OperationFailedException(new ModelNode().set("failing"));
+            }
+        }, Storage.CONFIGURATION);
+
+        ObjectName name = createObjectName(LEGACY_DOMAIN + ":subsystem=test");
+        AttributeList list = connection.getAttributes(name, new String[] {"int", "string"});
+        Assert.assertEquals(2, list.size());
+        Assert.assertEquals(Integer.valueOf(2), assertGetFromList(Integer.class, list, "int"));
+        Assert.assertEquals("8", assertGetFromList(String.class, list, "string"));
+        Assert.assertEquals(1, reads.get());
+    }
+
     private void checkAttributeList(String[] attrNames, AttributeList list, String roInt, String i, String bi, String bd, String b,
             byte[] bytes, String d, String s, List<String> lst, String l, String type) {
         Assert.assertEquals(list.size(), attrNames.length);
@@ -1085,6 +1159,15 @@ public class ModelControllerMBeanTestCase extends AbstractSubsystemTest {
         return null;
     }
 
+    private boolean hasOperation(MBeanOperationInfo[] ops, String name) {
+        for (MBeanOperationInfo op : ops) {
+            if (op.getName().equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private OpenMBeanAttributeInfo findAttribute(MBeanAttributeInfo[] attrs, String name) {
         for (MBeanAttributeInfo attr : attrs) {
             Assert.assertNotNull(attr.getName());
@@ -1305,6 +1388,7 @@ public class ModelControllerMBeanTestCase extends AbstractSubsystemTest {
         static final String NAMESPACE = "urn:jboss:mbean.model.test";
 
         private final boolean allowExpressions;
+        volatile ManagementResourceRegistration registration;
 
         public TestExtension() {
             this(false);
@@ -1405,6 +1489,7 @@ public class ModelControllerMBeanTestCase extends AbstractSubsystemTest {
             registration.registerOperationHandler(IntOperationWithParams.OPERATION_NAME, intOp, intOp);
             ComplexOperation op = new ComplexOperation(complexValueType);
             registration.registerOperationHandler(ComplexOperation.OPERATION_NAME, op, op);
+            this.registration = registration;
 
             // subsystem.registerXMLElementWriter(parser);
         }
@@ -31,11 +31,12 @@ import org.jboss.as.jpa.config.PersistenceUnitsInApplication;
 import org.jboss.as.jpa.puparser.PersistenceUnitXmlParser;
 import org.jboss.as.jpa.service.JPAService;
 import org.jboss.as.jpa.spi.PersistenceUnitMetadata;
+import org.jboss.as.server.deployment.AttachmentKey;
 import org.jboss.as.server.deployment.Attachments;
+import org.jboss.as.server.deployment.ConcurrentDeploymentUnitProcessor;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
-import org.jboss.as.server.deployment.DeploymentUnitProcessor;
 import org.jboss.as.server.deployment.DeploymentUtils;
 import org.jboss.as.server.deployment.JPADeploymentMarker;
 import org.jboss.as.server.deployment.SubDeploymentMarker;
@@ -54,6 +55,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
 import static org.jboss.as.jpa.JpaLogger.JPA_LOGGER;
 import static org.jboss.as.jpa.JpaMessages.MESSAGES;
@@ -72,13 +74,34 @@ import static org.jboss.as.jpa.JpaMessages.MESSAGES;
  *
  * @author Scott Marlow
  */
-public class PersistenceUnitParseProcessor implements DeploymentUnitProcessor {
+public class PersistenceUnitParseProcessor implements ConcurrentDeploymentUnitProcessor {
+
+    private static final Set<AttachmentKey<?>> READ_ATTACHMENTS = AttachmentKey.setOf(
+            Attachments.DEPLOYMENT_ROOT,
+            Attachments.RESOURCE_ROOTS,
+            org.jboss.as.ee.structure.Attachments.DEPLOYMENT_TYPE,
+            org.jboss.as.ee.structure.Attachments.SPEC_DESCRIPTOR_PROPERTY_REPLACEMENT,
+            org.jboss.as.ee.metadata.property.Attachments.FINAL_PROPERTY_RESOLVER);
+    private static final Set<AttachmentKey<?>> WRITTEN_ATTACHMENTS = AttachmentKey.setOf(
+            PersistenceUnitMetadataHolder.PERSISTENCE_UNITS,
+            PersistenceUnitsInApplication.PERSISTENCE_UNITS_IN_APPLICATION,
+            JPADeploymentMarker.MARKER);
 
     private static final String WEB_PERSISTENCE_XML = "WEB-INF/classes/META-INF/persistence.xml";
     private static final String META_INF_PERSISTENCE_XML = "META-INF/persistence.xml";
     private static final String JAR_FILE_EXTENSION = ".jar";
     private static final String LIB_FOLDER = "lib";
 
+    @Override
+    public Set<AttachmentKey<?>> getReadAttachments() {
+        return READ_ATTACHMENTS;
+    }
+
+    @Override
+    public Set<AttachmentKey<?>> getWrittenAttachments() {
+        return WRITTEN_ATTACHMENTS;
+    }
+
     @Override
     public void deploy(DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
 
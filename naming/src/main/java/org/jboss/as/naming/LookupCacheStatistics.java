@@ -0,0 +1,91 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.naming;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Hit and miss counters of the lookup caches of all the {@link ServiceBasedNamingStore}s.
+ * <p/>
+ * Lookups happen on every request in some applications, so the counters are striped by thread to keep them from
+ * becoming a point of contention themselves.
+ */
+public final class LookupCacheStatistics {
+
+    private static final int HITS = 0;
+    private static final int MISSES = 1;
+    /**
+     * The number of longs between stripes, so that two stripes never share a cache line
+     */
+    private static final int PADDING = 8;
+
+    private static final int STRIPES;
+    private static final AtomicLongArray COUNTERS;
+
+    static {
+        int stripes = 1;
+        while (stripes < Runtime.getRuntime().availableProcessors() * 2) {
+            stripes <<= 1;
+        }
+        STRIPES = stripes;
+        COUNTERS = new AtomicLongArray(stripes * PADDING);
+    }
+
+    private LookupCacheStatistics() {
+    }
+
+    static void hit() {
+        COUNTERS.incrementAndGet(index(HITS));
+    }
+
+    static void miss() {
+        COUNTERS.incrementAndGet(index(MISSES));
+    }
+
+    /**
+     * @return the number of lookups answered from the cache
+     */
+    public static long getHits() {
+        return sum(HITS);
+    }
+
+    /**
+     * @return the number of lookups that had to be resolved against the service registry
+     */
+    public static long getMisses() {
+        return sum(MISSES);
+    }
+
+    private static int index(final int counter) {
+        final long id = Thread.currentThread().getId();
+        return ((int) (id ^ (id >>> 32)) & (STRIPES - 1)) * PADDING + counter;
+    }
+
+    private static long sum(final int counter) {
+        long sum = 0;
+        for (int i = 0; i < STRIPES; i++) {
+            sum += COUNTERS.get(i * PADDING + counter);
+        }
+        return sum;
+    }
+}
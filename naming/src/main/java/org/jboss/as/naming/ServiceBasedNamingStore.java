@@ -25,12 +25,19 @@ package org.jboss.as.naming;
 import static org.jboss.as.naming.NamingMessages.MESSAGES;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Enumeration;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.NavigableSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.naming.Binding;
 import javax.naming.CannotProceedException;
@@ -55,6 +62,11 @@ import org.jboss.msc.service.ServiceRegistry;
  * @author Eduardo Martins
  */
 public class ServiceBasedNamingStore implements NamingStore {
+    /**
+     * The default maximum number of entries in the lookup cache, so that lookups of random names cannot exhaust memory
+     */
+    private static final int MAX_CACHED_LOOKUPS = 4096;
+
     private final Name EMPTY_NAME = new CompositeName();
 
     private final ServiceRegistry serviceRegistry;
@@ -62,9 +74,29 @@ public class ServiceBasedNamingStore implements NamingStore {
 
     private ConcurrentSkipListSet<ServiceName> boundServices = new ConcurrentSkipListSet<ServiceName>();
 
+    /**
+     * The outcome of previous lookups, keyed by the string form of the name: either the controller of the service
+     * bound under the name, or the fact that nothing is bound under it or any of its parents or children. The cache
+     * is cleared whenever a binding is added or removed, which also bumps the generation so that a lookup racing with
+     * the change does not leave a stale entry behind.
+     * <p/>
+     * Once the cache is full, the least recently used eighth of the entries is evicted before a new one is added. An
+     * entry records the value of the clock when it was last used, and the clock only advances when an entry is added,
+     * so that a hit only reads it.
+     */
+    private final ConcurrentMap<String, CachedLookup> lookupCache = new ConcurrentHashMap<String, CachedLookup>();
+    private final AtomicInteger generation = new AtomicInteger();
+    private final AtomicLong clock = new AtomicLong();
+    private final int maxCachedLookups;
+
     public ServiceBasedNamingStore(final ServiceRegistry serviceRegistry, final ServiceName serviceNameBase) {
+        this(serviceRegistry, serviceNameBase, MAX_CACHED_LOOKUPS);
+    }
+
+    ServiceBasedNamingStore(final ServiceRegistry serviceRegistry, final ServiceName serviceNameBase, final int maxCachedLookups) {
         this.serviceRegistry = serviceRegistry;
         this.serviceNameBase = serviceNameBase;
+        this.maxCachedLookups = maxCachedLookups;
     }
 
     @Override
@@ -76,9 +108,28 @@ public class ServiceBasedNamingStore implements NamingStore {
         if (name.isEmpty()) {
             return new NamingContext(EMPTY_NAME, this, null);
         }
+        final String key = name.toString();
+        final CachedLookup cached = lookupCache.get(key);
+        if (cached != null) {
+            cached.lastUsed = clock.get();
+            if (cached.controller == null) {
+                LookupCacheStatistics.hit();
+                throw new NameNotFoundException(key + " -- " + cached.serviceName);
+            }
+            if (cached.controller.getState() != ServiceController.State.REMOVED) {
+                LookupCacheStatistics.hit();
+                return lookup(key, cached.controller, dereference);
+            }
+            lookupCache.remove(key, cached);
+        }
+        LookupCacheStatistics.miss();
+        final int generation = this.generation.get();
         final ServiceName lookupName = buildServiceName(name);
-        Object obj = lookup(name.toString(), lookupName, dereference);
-        if (obj == null) {
+        final ServiceController<?> controller = serviceRegistry.getService(lookupName);
+        Object obj = controller == null ? null : lookup(key, controller, dereference);
+        if (obj != null) {
+            cache(key, new CachedLookup(lookupName, controller), generation);
+        } else {
             final ServiceName lower = boundServices.lower(lookupName);
             if (lower != null && lower.isParentOf(lookupName)) {
                 // Parent might be a reference or a link
@@ -100,12 +151,54 @@ public class ServiceBasedNamingStore implements NamingStore {
                 }
                 return new NamingContext((Name) name.clone(), this, null);
             }
+            if (controller == null) {
+                cache(key, new CachedLookup(lookupName, null), generation);
+            }
             throw new NameNotFoundException(name.toString() + " -- " + lookupName);
         }
 
         return obj;
     }
 
+    private void cache(final String key, final CachedLookup lookup, final int generation) {
+        if (lookupCache.size() >= maxCachedLookups) {
+            evictLeastRecentlyUsed();
+        }
+        lookup.lastUsed = clock.incrementAndGet();
+        lookupCache.put(key, lookup);
+        if (this.generation.get() != generation) {
+            // a binding was added or removed while resolving the name
+            lookupCache.remove(key, lookup);
+        }
+    }
+
+    private void evictLeastRecentlyUsed() {
+        synchronized (lookupCache) {
+            if (lookupCache.size() < maxCachedLookups) {
+                // another thread evicted while this one was waiting
+                return;
+            }
+            final List<Map.Entry<String, CachedLookup>> entries = new ArrayList<Map.Entry<String, CachedLookup>>(lookupCache.entrySet());
+            Collections.sort(entries, new Comparator<Map.Entry<String, CachedLookup>>() {
+                @Override
+                public int compare(final Map.Entry<String, CachedLookup> entry1, final Map.Entry<String, CachedLookup> entry2) {
+                    final long lastUsed1 = entry1.getValue().lastUsed;
+                    final long lastUsed2 = entry2.getValue().lastUsed;
+                    return lastUsed1 < lastUsed2 ? -1 : (lastUsed1 == lastUsed2 ? 0 : 1);
+                }
+            });
+            final int evicted = Math.max(1, entries.size() / 8);
+            for (int i = 0; i < evicted; i++) {
+                lookupCache.remove(entries.get(i).getKey(), entries.get(i).getValue());
+            }
+        }
+    }
+
+    private void invalidateLookupCache() {
+        generation.incrementAndGet();
+        lookupCache.clear();
+    }
+
     private void checkReferenceForContinuation(final Name name, final Object object) throws CannotProceedException {
         if (object instanceof Reference) {
             if (((Reference) object).get("nns") != null) {
@@ -123,17 +216,20 @@ public class ServiceBasedNamingStore implements NamingStore {
 
     private Object lookup(final String name, final ServiceName lookupName, boolean dereference) throws NamingException {
         final ServiceController<?> controller = serviceRegistry.getService(lookupName);
-        final Object object;
-        if (controller != null) {
-            try {
-                object = controller.getValue();
-            } catch (IllegalStateException e) {
-                //occurs if the service is not actually up
-                throw new NameNotFoundException("Error looking up " + name + ", service " + lookupName + " is not started");
-            }
-        } else {
+        if (controller == null) {
             return null;
         }
+        return lookup(name, controller, dereference);
+    }
+
+    private Object lookup(final String name, final ServiceController<?> controller, boolean dereference) throws NamingException {
+        final Object object;
+        try {
+            object = controller.getValue();
+        } catch (IllegalStateException e) {
+            //occurs if the service is not actually up
+            throw new NameNotFoundException("Error looking up " + name + ", service " + controller.getName() + " is not started");
+        }
         if (dereference && object instanceof ManagedReferenceFactory) {
             try {
                 return ManagedReferenceFactory.class.cast(object).getReference().getInstance();
@@ -243,6 +339,7 @@ public class ServiceBasedNamingStore implements NamingStore {
 
     public void close() throws NamingException {
         boundServices.clear();
+        invalidateLookupCache();
     }
 
     public void addNamingListener(Name target, int scope, NamingListener listener) {
@@ -257,10 +354,12 @@ public class ServiceBasedNamingStore implements NamingStore {
             throw MESSAGES.serviceAlreadyBound(serviceName);
         }
         boundServices.add(serviceName);
+        invalidateLookupCache();
     }
 
     public void remove(final ServiceName serviceName) {
         boundServices.remove(serviceName);
+        invalidateLookupCache();
     }
 
     protected ServiceName buildServiceName(final Name name) {
@@ -312,4 +411,18 @@ public class ServiceBasedNamingStore implements NamingStore {
     protected ServiceRegistry getServiceRegistry() {
         return serviceRegistry;
     }
+
+    private static final class CachedLookup {
+        private final ServiceName serviceName;
+        /**
+         * The controller of the service bound under the name, or {@code null} if nothing is bound
+         */
+        private final ServiceController<?> controller;
+        private volatile long lastUsed;
+
+        CachedLookup(final ServiceName serviceName, final ServiceController<?> controller) {
+            this.serviceName = serviceName;
+            this.controller = controller;
+        }
+    }
 }
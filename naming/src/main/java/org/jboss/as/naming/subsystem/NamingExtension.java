@@ -83,6 +83,8 @@ public class NamingExtension implements Extension {
 
         if (context.isRuntimeOnlyRegistrationValid()) {
             registration.registerOperationHandler(NamingSubsystemRootResourceDefinition.JNDI_VIEW, JndiViewOperation.INSTANCE, false);
+            registration.registerMetric(NamingSubsystemRootResourceDefinition.LOOKUP_CACHE_HITS, LookupCacheMetricsHandler.INSTANCE);
+            registration.registerMetric(NamingSubsystemRootResourceDefinition.LOOKUP_CACHE_MISSES, LookupCacheMetricsHandler.INSTANCE);
         }
 
         subsystem.registerXMLElementWriter(NamingSubsystem13Parser.INSTANCE);
@@ -31,12 +31,14 @@ import javax.naming.CompositeName;
 import javax.naming.Context;
 import javax.naming.Name;
 import javax.naming.NameClassPair;
+import javax.naming.NameNotFoundException;
 import javax.naming.NameParser;
 import javax.naming.NamingEnumeration;
 import javax.naming.NamingException;
 
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.ServiceContainer;
+import org.jboss.msc.service.ServiceController;
 import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
@@ -386,6 +388,60 @@ public class ServiceBasedNamingStoreTestCase {
         }
     }
 
+    @Test
+    public void testLookupCacheInvalidation() throws Exception {
+        final ServiceName bindingName = ServiceName.JBOSS.append("cached", "TestBean");
+        final CompositeName name = new CompositeName("cached/TestBean");
+        assertNotBound(name);
+        // the second miss is answered from the negative cache
+        assertNotBound(name);
+
+        final Object value = new Object();
+        bindObject(bindingName, value);
+        assertEquals(value, store.lookup(name));
+        assertEquals(value, store.lookup(name));
+
+        final ServiceController<?> controller = container.getRequiredService(bindingName);
+        controller.setMode(ServiceController.Mode.REMOVE);
+        while (container.getService(bindingName) != null) {
+            Thread.sleep(10);
+        }
+        store.remove(bindingName);
+        assertNotBound(name);
+    }
+
+    @Test
+    public void testLookupCacheEviction() throws Exception {
+        store = new ServiceBasedNamingStore(container, ServiceName.JBOSS, 8);
+        for (int i = 0; i < 8; i++) {
+            assertNotBound(new CompositeName("evicted/" + i));
+        }
+        // use the first entry again, so that the second one is now the least recently used
+        long hits = LookupCacheStatistics.getHits();
+        assertNotBound(new CompositeName("evicted/0"));
+        assertEquals(hits + 1, LookupCacheStatistics.getHits());
+
+        // a full cache still accepts new entries
+        assertNotBound(new CompositeName("evicted/8"));
+        hits = LookupCacheStatistics.getHits();
+        assertNotBound(new CompositeName("evicted/8"));
+        assertEquals(hits + 1, LookupCacheStatistics.getHits());
+
+        assertNotBound(new CompositeName("evicted/0"));
+        assertEquals(hits + 2, LookupCacheStatistics.getHits());
+        final long misses = LookupCacheStatistics.getMisses();
+        assertNotBound(new CompositeName("evicted/1"));
+        assertEquals(misses + 1, LookupCacheStatistics.getMisses());
+    }
+
+    private void assertNotBound(final Name name) throws Exception {
+        try {
+            store.lookup(name);
+            fail("Expected NameNotFoundException for " + name);
+        } catch (NameNotFoundException expected) {
+        }
+    }
+
     private void assertContains(final List<? extends NameClassPair> list, String name, Class<?> type) {
         for (NameClassPair value : list) {
             if (value instanceof Binding) {
@@ -22,6 +22,7 @@
 
 package org.jboss.as.server;
 
+import java.io.File;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 
@@ -31,6 +32,7 @@ import org.jboss.as.controller.RunningModeControl;
 import org.jboss.as.controller.extension.ExtensionRegistry;
 import org.jboss.as.controller.parsing.Namespace;
 import org.jboss.as.controller.persistence.BackupXmlConfigurationPersister;
+import org.jboss.as.controller.persistence.BootOperationsCache;
 import org.jboss.as.controller.persistence.ConfigurationFile;
 import org.jboss.as.controller.persistence.ExtensibleConfigurationPersister;
 import org.jboss.as.server.parsing.StandaloneXml;
@@ -156,6 +158,10 @@ public interface Bootstrap {
                                 persister.registerAdditionalRootElement(new QName(namespace.getUriString(), "server"), parser);
                             }
                         }
+                        if (BootOperationsCache.isEnabled()) {
+                            File cacheFile = new File(new File(serverEnvironment.getServerDataDir(), "boot-operations"), configurationFile.getBootFile().getName() + ".dmr");
+                            persister.setBootOperationsCache(new BootOperationsCache(cacheFile, "org.jboss.as.controller", "org.jboss.as.server"));
+                        }
                         extensionRegistry.setWriterRegistry(persister);
                         return persister;
                     }
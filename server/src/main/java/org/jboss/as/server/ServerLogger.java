@@ -26,6 +26,7 @@ import static org.jboss.logging.Logger.Level.ERROR;
 import static org.jboss.logging.Logger.Level.INFO;
 import static org.jboss.logging.Logger.Level.WARN;
 
+import java.io.File;
 import java.net.URISyntaxException;
 import java.util.jar.Attributes;
 
@@ -401,4 +402,14 @@ public interface ServerLogger extends BasicLogger {
     @LogMessage(level = Logger.Level.INFO)
     @Message(id = 15970, value = "Defer %s for %s making it %s")
     void infoDeferDeploymentPhase(Phase phase, String deploymentName, Mode mode);
+
+    /**
+     * Logs a warning message indicating the annotation index of a resource root could not be written to the cache.
+     *
+     * @param cause      the cause of the error.
+     * @param cacheEntry the cache entry.
+     */
+    @LogMessage(level = WARN)
+    @Message(id = 15971, value = "Could not write annotation index cache entry %s")
+    void cannotWriteAnnotationIndexCacheEntry(@Cause Throwable cause, File cacheEntry);
 }
@@ -30,6 +30,7 @@ import org.jboss.as.controller.ReadResourceNameOperationStepHandler;
 import org.jboss.as.controller.SimpleResourceDefinition;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
+import org.jboss.as.server.deployment.DeploymentProfileHandler;
 import org.jboss.as.server.deployment.DeploymentStatusHandler;
 
 /**
@@ -54,6 +55,8 @@ public abstract class DeploymentResourceDescription extends SimpleResourceDefini
         for (AttributeDefinition attr : parent.getResourceAttributes()) {
             if (attr.getName().equals(DeploymentAttributes.STATUS.getName())) {
                 resourceRegistration.registerMetric(attr, DeploymentStatusHandler.INSTANCE);
+            } else if (attr.getName().equals(DeploymentAttributes.DEPLOYMENT_PROFILE.getName())) {
+                resourceRegistration.registerMetric(attr, DeploymentProfileHandler.DEPLOYMENT);
             } else if (attr.getName().equals(DeploymentAttributes.NAME.getName())) {
                 resourceRegistration.registerReadOnlyAttribute(DeploymentAttributes.NAME, ReadResourceNameOperationStepHandler.INSTANCE);
             } else {
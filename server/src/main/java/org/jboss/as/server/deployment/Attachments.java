@@ -89,9 +89,14 @@ public final class Attachments {
     public static final AttachmentKey<VirtualFile> DEPLOYMENT_CONTENTS = AttachmentKey.create(VirtualFile.class);
 
     /**
-     * The deployment hash
+     * The deployment hash. Only attached to top level deployments whose content is in the content repository
      */
-    //public static final AttachmentKey<byte[]> DEPLOYMENT_HASH = AttachmentKey.create(byte[].class);
+    public static final AttachmentKey<byte[]> DEPLOYMENT_HASH = AttachmentKey.create(byte[].class);
+
+    /**
+     * The time spent by the deployment unit processors. Only attached to top level deployments, if profiling is enabled
+     */
+    public static final AttachmentKey<DeploymentProfile> DEPLOYMENT_PROFILE = AttachmentKey.create(DeploymentProfile.class);
 
     /**
      * The special status listener attachment.
@@ -0,0 +1,54 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import java.util.Set;
+
+/**
+ * A deployment processor which declares the attachments it reads and writes, so that it may run concurrently with the
+ * other processors of the same phase it does not conflict with.
+ * <p>
+ * Two such processors conflict if one writes an attachment the other reads or writes. Consecutive processors of a phase
+ * which do not conflict with each other are run concurrently; any other processor still runs on its own, in the order
+ * of the phase. Attachments are identified by their key, whether they are attached to the deployment unit, to its
+ * parent or to the phase context.
+ * <p>
+ * Besides the declared attachments, implementations may only use the thread safe parts of the phase context and of the
+ * deployment unit, such as the service target and the service registry.
+ */
+public interface ConcurrentDeploymentUnitProcessor extends DeploymentUnitProcessor {
+
+    /**
+     * Gets the keys of the attachments read by {@link #deploy(DeploymentPhaseContext)}.
+     *
+     * @return the keys of the attachments read
+     */
+    Set<AttachmentKey<?>> getReadAttachments();
+
+    /**
+     * Gets the keys of the attachments added, removed or modified by {@link #deploy(DeploymentPhaseContext)}.
+     *
+     * @return the keys of the attachments written
+     */
+    Set<AttachmentKey<?>> getWrittenAttachments();
+}
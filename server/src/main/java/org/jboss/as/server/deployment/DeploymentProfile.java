@@ -0,0 +1,191 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.dmr.ModelNode;
+
+/**
+ * The time spent by each deployment unit processor, per phase. A profile is attached to each top level deployment, and
+ * includes its sub deployments. Another profile aggregates all the deployments since boot.
+ * <p/>
+ * Profiling is only enabled if the {@link #PROFILE_PROPERTY} system property is set to {@code true}.
+ */
+public final class DeploymentProfile {
+
+    /** The system property enabling the profiling of the deployment unit processors */
+    public static final String PROFILE_PROPERTY = "jboss.deployment.profile";
+
+    private static final DeploymentProfile AGGREGATE = new DeploymentProfile();
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+    private final ConcurrentMap<Key, Entry> entries = new ConcurrentHashMap<Key, Entry>();
+
+    DeploymentProfile() {
+    }
+
+    /**
+     * Checks whether profiling is enabled. The property is read whenever a deployment starts, so that switching it on
+     * does not require a restart.
+     *
+     * @return {@code true} if profiling is enabled
+     */
+    static boolean isEnabled() {
+        return AccessController.doPrivileged(new PrivilegedAction<Boolean>() {
+            @Override
+            public Boolean run() {
+                return Boolean.getBoolean(PROFILE_PROPERTY);
+            }
+        });
+    }
+
+    /**
+     * Gets the profile of all the deployments since boot.
+     *
+     * @return the profile, or {@code null} if profiling is not enabled
+     */
+    public static DeploymentProfile getAggregate() {
+        return isEnabled() ? AGGREGATE : null;
+    }
+
+    /**
+     * Gets the profile of a deployment.
+     *
+     * @param deploymentUnit a top level deployment unit, or a sub deployment unit
+     * @return the profile, or {@code null} if profiling is not enabled
+     */
+    public static DeploymentProfile getProfile(final DeploymentUnit deploymentUnit) {
+        final DeploymentUnit topLevel = deploymentUnit.getParent() == null ? deploymentUnit : deploymentUnit.getParent();
+        return topLevel.getAttachment(Attachments.DEPLOYMENT_PROFILE);
+    }
+
+    /**
+     * Gets the CPU time of the current thread.
+     *
+     * @return the CPU time, in nanoseconds, or {@code 0} if it is not supported
+     */
+    static long currentThreadCpuTime() {
+        return THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported() ? THREAD_MX_BEAN.getCurrentThreadCpuTime() : 0;
+    }
+
+    void record(final Phase phase, final RegisteredDeploymentUnitProcessor processor, final long wallNanos, final long cpuNanos) {
+        doRecord(phase, processor, wallNanos, cpuNanos);
+        if (this != AGGREGATE) {
+            AGGREGATE.doRecord(phase, processor, wallNanos, cpuNanos);
+        }
+    }
+
+    private void doRecord(final Phase phase, final RegisteredDeploymentUnitProcessor processor, final long wallNanos, final long cpuNanos) {
+        final Key key = new Key(phase, processor);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            final Entry existing = entries.putIfAbsent(key, entry = new Entry());
+            if (existing != null) {
+                entry = existing;
+            }
+        }
+        entry.invocations.incrementAndGet();
+        entry.wallTime.addAndGet(wallNanos);
+        entry.cpuTime.addAndGet(cpuNanos);
+    }
+
+    /**
+     * Gets the profile as a list of objects, one per processor, in the order in which the processors run. The times are
+     * in milliseconds.
+     *
+     * @return the profile
+     */
+    public ModelNode toModelNode() {
+        final List<Key> keys = new ArrayList<Key>(entries.keySet());
+        Collections.sort(keys);
+        final ModelNode result = new ModelNode().setEmptyList();
+        for (Key key : keys) {
+            final Entry entry = entries.get(key);
+            final ModelNode node = result.add();
+            node.get("phase").set(key.phase.name());
+            node.get("priority").set(key.priority);
+            node.get("processor").set(key.processorClass);
+            if (key.subsystemName != null) {
+                node.get("subsystem").set(key.subsystemName);
+            }
+            node.get("invocations").set(entry.invocations.get());
+            node.get("wall-time").set(TimeUnit.NANOSECONDS.toMillis(entry.wallTime.get()));
+            node.get("cpu-time").set(TimeUnit.NANOSECONDS.toMillis(entry.cpuTime.get()));
+        }
+        return result;
+    }
+
+    private static final class Key implements Comparable<Key> {
+        private final Phase phase;
+        private final int priority;
+        private final String processorClass;
+        private final String subsystemName;
+
+        Key(final Phase phase, final RegisteredDeploymentUnitProcessor processor) {
+            this.phase = phase;
+            this.priority = processor.getPriority();
+            this.processorClass = processor.getProcessor().getClass().getName();
+            this.subsystemName = processor.getSubsystemName();
+        }
+
+        @Override
+        public int compareTo(final Key o) {
+            int rel = phase.compareTo(o.phase);
+            if (rel == 0) {
+                rel = priority < o.priority ? -1 : (priority == o.priority ? 0 : 1);
+            }
+            return rel == 0 ? processorClass.compareTo(o.processorClass) : rel;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) o;
+            return phase == other.phase && priority == other.priority && processorClass.equals(other.processorClass);
+        }
+
+        @Override
+        public int hashCode() {
+            return (phase.hashCode() * 31 + priority) * 31 + processorClass.hashCode();
+        }
+    }
+
+    private static final class Entry {
+        private final AtomicLong invocations = new AtomicLong();
+        private final AtomicLong wallTime = new AtomicLong();
+        private final AtomicLong cpuTime = new AtomicLong();
+    }
+}
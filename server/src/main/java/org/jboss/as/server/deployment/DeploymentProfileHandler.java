@@ -0,0 +1,74 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+
+/**
+ * Reads the {@link DeploymentProfile} of a deployment, or of all the deployments since boot when registered on the
+ * server root resource. The result is undefined if profiling is not enabled, or if the deployment is not deployed.
+ */
+public class DeploymentProfileHandler implements OperationStepHandler {
+
+    /** The handler for the deployment resources */
+    public static final OperationStepHandler DEPLOYMENT = new DeploymentProfileHandler(false);
+    /** The handler for the server root resource */
+    public static final OperationStepHandler AGGREGATE = new DeploymentProfileHandler(true);
+
+    private final boolean aggregate;
+
+    private DeploymentProfileHandler(final boolean aggregate) {
+        this.aggregate = aggregate;
+    }
+
+    @Override
+    public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+        final PathAddress address = PathAddress.pathAddress(operation.get(OP_ADDR));
+        context.addStep(new OperationStepHandler() {
+            @Override
+            public void execute(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+                final DeploymentProfile profile;
+                if (aggregate) {
+                    profile = DeploymentProfile.getAggregate();
+                } else {
+                    final ServiceController<?> controller = context.getServiceRegistry(false).getService(Services.deploymentUnitName(address.getLastElement().getValue()));
+                    final DeploymentUnit deploymentUnit = controller == null ? null : ((AbstractDeploymentUnitService) controller.getService()).getValue();
+                    profile = deploymentUnit == null ? null : DeploymentProfile.getProfile(deploymentUnit);
+                }
+                if (profile != null) {
+                    context.getResult().set(profile.toModelNode());
+                }
+                context.stepCompleted();
+            }
+        }, OperationContext.Stage.RUNTIME);
+
+        context.stepCompleted();
+    }
+}
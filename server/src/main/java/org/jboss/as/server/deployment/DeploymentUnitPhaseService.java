@@ -28,6 +28,10 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.jboss.as.server.ServerLogger;
 import org.jboss.as.server.ServerMessages;
@@ -55,6 +59,8 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
     private static final AttachmentKey<AttachmentList<DeploymentUnit>> UNVISITED_DEFERRED_MODULES = AttachmentKey.createList(DeploymentUnit.class);
 
     private final InjectedValue<DeployerChains> deployerChainsInjector = new InjectedValue<DeployerChains>();
+    /** Runs the {@link ConcurrentDeploymentUnitProcessor}s; without it, they run one after another on the phase thread */
+    private final InjectedValue<ExecutorService> executorInjector = new InjectedValue<ExecutorService>();
     private final DeploymentUnit deploymentUnit;
     private final Phase phase;
     private final AttachmentKey<T> valueKey;
@@ -79,7 +85,6 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
         final DeployerChains chains = deployerChainsInjector.getValue();
         final DeploymentUnit deploymentUnit = this.deploymentUnit;
         final List<RegisteredDeploymentUnitProcessor> list = chains.getChain(phase);
-        final ListIterator<RegisteredDeploymentUnitProcessor> iterator = list.listIterator();
         final ServiceContainer container = context.getController().getServiceContainer();
         final ServiceTarget serviceTarget = context.getChildTarget().subTarget();
         final Phase nextPhase = phase.next();
@@ -113,22 +118,29 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
             }
         }
 
-        while (iterator.hasNext()) {
-            final RegisteredDeploymentUnitProcessor processor = iterator.next();
-            try {
-                if (shouldRun(deploymentUnit, processor)) {
-                    processor.getProcessor().deploy(processorContext);
-                }
-            } catch (Throwable e) {
-                while (iterator.hasPrevious()) {
-                    final RegisteredDeploymentUnitProcessor prev = iterator.previous();
-                    safeUndeploy(deploymentUnit, phase, prev);
+        final DeploymentProfile profile = DeploymentProfile.getProfile(deploymentUnit);
+        final ExecutorService executor = executorInjector.getOptionalValue();
+        int attempted = 0;
+        try {
+            for (List<RegisteredDeploymentUnitProcessor> batch : ProcessorBatches.split(list)) {
+                attempted += batch.size();
+                if (batch.size() == 1 || executor == null) {
+                    for (RegisteredDeploymentUnitProcessor processor : batch) {
+                        deploy(processorContext, phase, processor, profile);
+                    }
+                } else {
+                    deployConcurrently(executor, processorContext, phase, batch, profile);
                 }
-                throw ServerMessages.MESSAGES.deploymentPhaseFailed(phase, deploymentUnit, e);
             }
+        } catch (Throwable e) {
+            for (int i = attempted - 1; i >= 0; i--) {
+                safeUndeploy(deploymentUnit, phase, list.get(i));
+            }
+            throw ServerMessages.MESSAGES.deploymentPhaseFailed(phase, deploymentUnit, e);
         }
         if (nextPhase != null) {
             phaseServiceBuilder.addDependency(Services.JBOSS_DEPLOYMENT_CHAINS, DeployerChains.class, phaseService.getDeployerChainsInjector());
+            org.jboss.as.server.Services.addServerExecutorDependency(phaseServiceBuilder, phaseService.getExecutorInjector(), true);
             phaseServiceBuilder.addDependency(context.getController().getName());
 
             final List<ServiceName> nextPhaseDeps = processorContext.getAttachment(Attachments.NEXT_PHASE_DEPS);
@@ -170,6 +182,72 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
         }
     }
 
+    private static void deploy(final DeploymentPhaseContext processorContext, final Phase phase, final RegisteredDeploymentUnitProcessor processor,
+                               final DeploymentProfile profile) throws DeploymentUnitProcessingException {
+        if (!shouldRun(processorContext.getDeploymentUnit(), processor)) {
+            return;
+        }
+        if (profile == null) {
+            processor.getProcessor().deploy(processorContext);
+        } else {
+            final long start = System.nanoTime();
+            final long cpuStart = DeploymentProfile.currentThreadCpuTime();
+            try {
+                processor.getProcessor().deploy(processorContext);
+            } finally {
+                profile.record(phase, processor, System.nanoTime() - start, DeploymentProfile.currentThreadCpuTime() - cpuStart);
+            }
+        }
+    }
+
+    /**
+     * Runs a batch of processors which do not conflict with each other, and waits for all of them to complete.
+     */
+    static void deployConcurrently(final ExecutorService executor, final DeploymentPhaseContext processorContext, final Phase phase,
+                                   final List<RegisteredDeploymentUnitProcessor> batch, final DeploymentProfile profile) throws Exception {
+        final ClassLoader classLoader = SecurityActions.getContextClassLoader();
+        final List<Future<Void>> results = new ArrayList<Future<Void>>(batch.size() - 1);
+        Exception failure = null;
+        try {
+            for (final RegisteredDeploymentUnitProcessor processor : batch.subList(0, batch.size() - 1)) {
+                results.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        final ClassLoader old = SecurityActions.getContextClassLoader();
+                        SecurityActions.setContextClassLoader(classLoader);
+                        try {
+                            deploy(processorContext, phase, processor, profile);
+                        } finally {
+                            SecurityActions.setContextClassLoader(old);
+                        }
+                        return null;
+                    }
+                }));
+            }
+            // the last one runs on this thread, while the others run on the pool
+            deploy(processorContext, phase, batch.get(batch.size() - 1), profile);
+        } catch (Exception e) {
+            failure = e;
+        }
+        for (Future<Void> result : results) {
+            try {
+                result.get();
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
     public synchronized void stop(final StopContext context) {
         final DeploymentUnit deploymentUnitContext = deploymentUnit;
         final DeployerChains chains = deployerChainsInjector.getValue();
@@ -234,6 +312,10 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
         return deployerChainsInjector;
     }
 
+    InjectedValue<ExecutorService> getExecutorInjector() {
+        return executorInjector;
+    }
+
     private static boolean shouldRun(final DeploymentUnit unit, final RegisteredDeploymentUnitProcessor deployer) {
         Set<String> shouldNotRun = unit.getAttachment(Attachments.EXCLUDED_SUBSYSTEMS);
         if (shouldNotRun == null) {
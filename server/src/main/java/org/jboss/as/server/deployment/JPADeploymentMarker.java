@@ -30,7 +30,10 @@ package org.jboss.as.server.deployment;
  */
 public class JPADeploymentMarker {
 
-    private static final AttachmentKey<Boolean> MARKER = AttachmentKey.create(Boolean.class);
+    /**
+     * The marker attachment key, for processors which declare the attachments they write.
+     */
+    public static final AttachmentKey<Boolean> MARKER = AttachmentKey.create(Boolean.class);
 
     /**
      * Mark the top level deployment as being a JPA deployment. If the deployment is not a top level deployment the parent is
@@ -0,0 +1,84 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Splits the processors of a phase into batches which may run concurrently. The batches run one after another, in
+ * the order of the phase.
+ *
+ * @see ConcurrentDeploymentUnitProcessor
+ */
+final class ProcessorBatches {
+
+    private ProcessorBatches() {
+    }
+
+    /**
+     * Splits the processors of a phase into batches. A batch is either a single processor, or consecutive
+     * {@link ConcurrentDeploymentUnitProcessor}s which do not conflict with each other.
+     *
+     * @param processors the processors, in the order of the phase
+     * @return the batches
+     */
+    static List<List<RegisteredDeploymentUnitProcessor>> split(final List<RegisteredDeploymentUnitProcessor> processors) {
+        final List<List<RegisteredDeploymentUnitProcessor>> batches = new ArrayList<List<RegisteredDeploymentUnitProcessor>>();
+        List<RegisteredDeploymentUnitProcessor> batch = null;
+        final Set<AttachmentKey<?>> batchReads = new HashSet<AttachmentKey<?>>();
+        final Set<AttachmentKey<?>> batchWrites = new HashSet<AttachmentKey<?>>();
+        for (RegisteredDeploymentUnitProcessor processor : processors) {
+            if (!(processor.getProcessor() instanceof ConcurrentDeploymentUnitProcessor)) {
+                batches.add(Collections.singletonList(processor));
+                batch = null;
+                continue;
+            }
+            final ConcurrentDeploymentUnitProcessor concurrent = (ConcurrentDeploymentUnitProcessor) processor.getProcessor();
+            final Set<AttachmentKey<?>> reads = concurrent.getReadAttachments();
+            final Set<AttachmentKey<?>> writes = concurrent.getWrittenAttachments();
+            if (batch == null || intersects(writes, batchReads) || intersects(writes, batchWrites) || intersects(reads, batchWrites)) {
+                batch = new ArrayList<RegisteredDeploymentUnitProcessor>();
+                batches.add(batch);
+                batchReads.clear();
+                batchWrites.clear();
+            }
+            batch.add(processor);
+            batchReads.addAll(reads);
+            batchWrites.addAll(writes);
+        }
+        return batches;
+    }
+
+    private static boolean intersects(final Set<AttachmentKey<?>> a, final Set<AttachmentKey<?>> b) {
+        for (AttachmentKey<?> key : a) {
+            if (b.contains(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
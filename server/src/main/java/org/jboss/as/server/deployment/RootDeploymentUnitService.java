@@ -48,6 +48,7 @@ final class RootDeploymentUnitService extends AbstractDeploymentUnitService {
     private final ServiceVerificationHandler serviceVerificationHandler;
     private Resource resource;
     private final AbstractVaultReader vaultReader;
+    private final byte[] contentHash;
 
     /**
      * Construct a new instance.
@@ -60,8 +61,9 @@ final class RootDeploymentUnitService extends AbstractDeploymentUnitService {
      * @param resource the model
      * @param serviceVerificationHandler
      * @param vaultReader
+     * @param contentHash the hash of the deployment content, or {@code null} if it is not in the content repository
      */
-    public RootDeploymentUnitService(final String name, final String managementName, final DeploymentUnit parent, final ImmutableManagementResourceRegistration registration, final ManagementResourceRegistration mutableRegistration, Resource resource, final ServiceVerificationHandler serviceVerificationHandler, final AbstractVaultReader vaultReader) {
+    public RootDeploymentUnitService(final String name, final String managementName, final DeploymentUnit parent, final ImmutableManagementResourceRegistration registration, final ManagementResourceRegistration mutableRegistration, Resource resource, final ServiceVerificationHandler serviceVerificationHandler, final AbstractVaultReader vaultReader, final byte[] contentHash) {
         this.serviceVerificationHandler = serviceVerificationHandler;
         assert name != null : "name is null";
         this.name = name;
@@ -71,6 +73,7 @@ final class RootDeploymentUnitService extends AbstractDeploymentUnitService {
         this.mutableRegistration = mutableRegistration;
         this.resource = resource;
         this.vaultReader = vaultReader;
+        this.contentHash = contentHash;
     }
 
     protected DeploymentUnit createAndInitializeDeploymentUnit(final ServiceRegistry registry) {
@@ -83,6 +86,12 @@ final class RootDeploymentUnitService extends AbstractDeploymentUnitService {
         deploymentUnit.putAttachment(DeploymentModelUtils.DEPLOYMENT_RESOURCE, resource);
         deploymentUnit.putAttachment(Attachments.SERVICE_VERIFICATION_HANDLER, serviceVerificationHandler);
         deploymentUnit.putAttachment(Attachments.VAULT_READER_ATTACHMENT_KEY, vaultReader);
+        if (contentHash != null) {
+            deploymentUnit.putAttachment(Attachments.DEPLOYMENT_HASH, contentHash);
+        }
+        if (DeploymentProfile.isEnabled()) {
+            deploymentUnit.putAttachment(Attachments.DEPLOYMENT_PROFILE, new DeploymentProfile());
+        }
 
         // Attach the deployment repo
         deploymentUnit.putAttachment(Attachments.SERVER_DEPLOYMENT_REPOSITORY, serverDeploymentRepositoryInjector.getValue());
@@ -0,0 +1,204 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.annotation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.as.controller.HashUtil;
+import org.jboss.as.server.ServerLogger;
+import org.jboss.jandex.Index;
+import org.jboss.jandex.IndexReader;
+import org.jboss.jandex.IndexWriter;
+import org.jboss.vfs.VFSUtils;
+
+/**
+ * An on-disk cache of the annotation indexes of the resource roots of managed deployments.
+ * <p/>
+ * Managed deployment content never changes for a given hash, so an index is keyed by the hash of the deployment
+ * content, the path of the resource root within the deployment and the paths excluded from indexing. Entries which
+ * were not used for {@link #MAX_AGE_DAYS} days are removed when the cache is created.
+ *
+ * @see ResourceRootIndexer
+ */
+public final class AnnotationIndexCache {
+
+    /** The number of days after which an unused entry is removed */
+    public static final int MAX_AGE_DAYS = 30;
+
+    private static final String SUFFIX = ".idx";
+
+    private final File directory;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong indexingTime = new AtomicLong();
+
+    public AnnotationIndexCache(final File directory) {
+        this.directory = directory;
+        evictStaleEntries(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(MAX_AGE_DAYS));
+    }
+
+    /**
+     * Creates the key of the index of a resource root.
+     *
+     * @param deploymentHash the hash of the deployment content
+     * @param path the path of the resource root, relative to the deployment root
+     * @param ignorePaths the paths not indexed, or {@code null}
+     * @return the key
+     */
+    public static String createKey(final byte[] deploymentHash, final String path, final Set<String> ignorePaths) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            digest.update(deploymentHash);
+            digest.update(path.getBytes("UTF-8"));
+            if (ignorePaths != null) {
+                for (String ignored : new TreeSet<String>(ignorePaths)) {
+                    digest.update((byte) 0);
+                    digest.update(ignored.getBytes("UTF-8"));
+                }
+            }
+            return HashUtil.bytesToHexString(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Reads a cached index.
+     *
+     * @param key the key of the index
+     * @return the index, or {@code null} if it is not cached
+     */
+    public Index get(final String key) {
+        final File file = new File(directory, key + SUFFIX);
+        if (!file.exists()) {
+            misses.incrementAndGet();
+            return null;
+        }
+        InputStream in = null;
+        try {
+            in = new BufferedInputStream(new FileInputStream(file));
+            final Index index = new IndexReader(in).read();
+            // used entries are not evicted
+            file.setLastModified(System.currentTimeMillis());
+            hits.incrementAndGet();
+            return index;
+        } catch (Exception e) {
+            // probably a partially written file, it is replaced once the resource root is indexed again
+            ServerLogger.DEPLOYMENT_LOGGER.cannotLoadAnnotationIndex(file.getPath());
+            misses.incrementAndGet();
+            return null;
+        } finally {
+            VFSUtils.safeClose(in);
+        }
+    }
+
+    /**
+     * Stores an index.
+     *
+     * @param key the key of the index
+     * @param index the index
+     * @param elapsedNanos the time it took to create the index
+     */
+    public void put(final String key, final Index index, final long elapsedNanos) {
+        indexingTime.addAndGet(elapsedNanos);
+        final File file = new File(directory, key + SUFFIX);
+        final File temp = new File(directory, key + SUFFIX + "." + Thread.currentThread().getId() + ".tmp");
+        OutputStream out = null;
+        try {
+            if (!directory.isDirectory() && !directory.mkdirs() && !directory.isDirectory()) {
+                throw new IOException(directory.getPath());
+            }
+            out = new BufferedOutputStream(new FileOutputStream(temp));
+            new IndexWriter(out).write(index);
+            out.close();
+            out = null;
+            if (!temp.renameTo(file)) {
+                // Windows does not replace an existing file
+                file.delete();
+                if (!temp.renameTo(file)) {
+                    throw new IOException(temp.getPath());
+                }
+            }
+        } catch (IOException e) {
+            ServerLogger.DEPLOYMENT_LOGGER.cannotWriteAnnotationIndexCacheEntry(e, file);
+            temp.delete();
+        } finally {
+            VFSUtils.safeClose(out);
+        }
+    }
+
+    /**
+     * Gets the number of resource roots whose index was read from the cache.
+     *
+     * @return the number of cache hits
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Gets the number of resource roots whose index was not cached.
+     *
+     * @return the number of cache misses
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Gets the time spent indexing the resource roots whose index was not cached.
+     *
+     * @return the indexing time, in milliseconds
+     */
+    public long getIndexingTime() {
+        return TimeUnit.NANOSECONDS.toMillis(indexingTime.get());
+    }
+
+    void evictStaleEntries(final long oldest) {
+        final File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            // also removes the temporary files left by a crash
+            if (file.lastModified() < oldest || !file.getName().endsWith(SUFFIX)) {
+                file.delete();
+            }
+        }
+    }
+}
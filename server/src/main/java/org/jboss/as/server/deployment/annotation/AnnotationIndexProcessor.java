@@ -22,21 +22,63 @@
 
 package org.jboss.as.server.deployment.annotation;
 
+import java.security.AccessController;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.server.ServerLogger;
+import org.jboss.as.server.ServerMessages;
+import org.jboss.as.server.deployment.Attachments;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
 import org.jboss.as.server.deployment.DeploymentUnitProcessor;
 import org.jboss.as.server.deployment.DeploymentUtils;
 import org.jboss.as.server.deployment.module.ResourceRoot;
+import org.jboss.as.server.deploymentoverlay.service.DeploymentOverlayIndexService;
+import org.jboss.threads.JBossThreadFactory;
 
 /**
  * Deployment unit processor responsible for creating and attaching an annotation index for a resource root
+ * <p/>
+ * If a cache is provided, the indexes of the resource roots of deployments in the content repository are cached
+ * across restarts. The resource roots of a deployment are indexed in parallel, by at most as many threads as there are
+ * processors.
  *
  * @author John E. Bailey
  * @author Stuart Douglas
  */
 public class AnnotationIndexProcessor implements DeploymentUnitProcessor {
 
+    private final AnnotationIndexCache cache;
+    private final DeploymentOverlayIndexService overlayIndexService;
+    private final ExecutorService executor;
+
+    public AnnotationIndexProcessor() {
+        this(null, null);
+    }
+
+    /**
+     * @param cache the index cache, or {@code null} to always index the resource roots
+     * @param overlayIndexService the deployment overlays, whose content is not part of the deployment hash
+     */
+    public AnnotationIndexProcessor(final AnnotationIndexCache cache, final DeploymentOverlayIndexService overlayIndexService) {
+        this.cache = cache;
+        this.overlayIndexService = overlayIndexService;
+        final int threads = Runtime.getRuntime().availableProcessors();
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+                new JBossThreadFactory(new ThreadGroup("AnnotationIndex-threads"), Boolean.TRUE, null, "%G - %t", null, null, AccessController.getContext()));
+        executor.allowCoreThreadTimeOut(true);
+        this.executor = executor;
+    }
+
     /**
      * Process this deployment for annotations.  This will use an annotation indexer to create an index of all annotations
      * found in this deployment and attach it to the deployment unit context.
@@ -47,11 +89,80 @@ public class AnnotationIndexProcessor implements DeploymentUnitProcessor {
      */
     public void deploy(DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
         final DeploymentUnit deploymentUnit = phaseContext.getDeploymentUnit();
-        for (ResourceRoot resourceRoot : DeploymentUtils.allResourceRoots(deploymentUnit)) {
-            ResourceRootIndexer.indexResourceRoot(resourceRoot);
+        final DeploymentUnit topLevel = deploymentUnit.getParent() == null ? deploymentUnit : deploymentUnit.getParent();
+        byte[] deploymentHash = cache == null ? null : topLevel.getAttachment(Attachments.DEPLOYMENT_HASH);
+        if (deploymentHash != null && overlayIndexService != null && !overlayIndexService.getOverrides(topLevel.getName()).isEmpty()) {
+            deploymentHash = null;
+        }
+        final ResourceRoot deploymentRoot = topLevel.getAttachment(Attachments.DEPLOYMENT_ROOT);
+
+        final List<ResourceRoot> resourceRoots = DeploymentUtils.allResourceRoots(deploymentUnit);
+        final List<Future<Void>> results = new ArrayList<Future<Void>>(resourceRoots.size());
+        DeploymentUnitProcessingException failure = null;
+        try {
+            for (int i = 0; i < resourceRoots.size(); i++) {
+                final ResourceRoot resourceRoot = resourceRoots.get(i);
+                if (resourceRoot.getAttachment(Attachments.ANNOTATION_INDEX) != null) {
+                    continue;
+                }
+                final byte[] hash = deploymentHash;
+                final String path = hash == null ? null : getRelativePath(resourceRoot, deploymentRoot);
+                if (i == resourceRoots.size() - 1) {
+                    // no need to hand the last one to another thread
+                    ResourceRootIndexer.indexResourceRoot(resourceRoot, cache, path == null ? null : hash, path);
+                } else {
+                    results.add(executor.submit(new Callable<Void>() {
+                        @Override
+                        public Void call() throws Exception {
+                            ResourceRootIndexer.indexResourceRoot(resourceRoot, cache, path == null ? null : hash, path);
+                            return null;
+                        }
+                    }));
+                }
+            }
+        } catch (DeploymentUnitProcessingException e) {
+            failure = e;
+        }
+        // always wait for all the tasks, so that no index is attached after this processor completed
+        for (Future<Void> result : results) {
+            try {
+                result.get();
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof DeploymentUnitProcessingException ? (DeploymentUnitProcessingException) e.getCause()
+                            : ServerMessages.MESSAGES.deploymentIndexingFailed(e.getCause());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (failure == null) {
+                    failure = ServerMessages.MESSAGES.deploymentIndexingFailed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        if (cache != null) {
+            ServerLogger.DEPLOYMENT_LOGGER.debugf("Annotation index cache: %d hits, %d misses, %d ms spent indexing",
+                    cache.getHits(), cache.getMisses(), cache.getIndexingTime());
         }
     }
 
     public void undeploy(final DeploymentUnit context) {
     }
+
+    private static String getRelativePath(final ResourceRoot resourceRoot, final ResourceRoot deploymentRoot) {
+        if (deploymentRoot == null) {
+            return null;
+        }
+        if (resourceRoot.getRoot().equals(deploymentRoot.getRoot())) {
+            return "";
+        }
+        try {
+            return resourceRoot.getRoot().getPathNameRelativeTo(deploymentRoot.getRoot());
+        } catch (IllegalArgumentException e) {
+            // not part of the deployment content
+            return null;
+        }
+    }
 }
@@ -29,6 +29,19 @@ public class ResourceRootIndexer {
      * Creates and attaches the annotation index to a resource root, if it has not already been attached
      */
     public static void indexResourceRoot(final ResourceRoot resourceRoot) throws DeploymentUnitProcessingException {
+        indexResourceRoot(resourceRoot, null, null, null);
+    }
+
+    /**
+     * Creates and attaches the annotation index to a resource root, if it has not already been attached, reading it from
+     * or storing it to the cache if the deployment content has a hash
+     *
+     * @param resourceRoot the resource root
+     * @param cache the cache, or {@code null}
+     * @param deploymentHash the hash of the deployment content, or {@code null}
+     * @param path the path of the resource root, relative to the deployment root
+     */
+    static void indexResourceRoot(final ResourceRoot resourceRoot, final AnnotationIndexCache cache, final byte[] deploymentHash, final String path) throws DeploymentUnitProcessingException {
         if (resourceRoot.getAttachment(Attachments.ANNOTATION_INDEX) != null) {
             return;
         }
@@ -59,6 +72,17 @@ public class ResourceRootIndexer {
             indexIgnorePaths = null;
         }
 
+        final String cacheKey = cache != null && deploymentHash != null ? AnnotationIndexCache.createKey(deploymentHash, path, indexIgnorePaths) : null;
+        if (cacheKey != null) {
+            final Index index = cache.get(cacheKey);
+            if (index != null) {
+                resourceRoot.putAttachment(Attachments.ANNOTATION_INDEX, index);
+                ServerLogger.DEPLOYMENT_LOGGER.tracef("Read cached index for archive %s", resourceRoot.getRoot());
+                return;
+            }
+        }
+
+        final long start = System.nanoTime();
         final VirtualFile virtualFile = resourceRoot.getRoot();
         final Indexer indexer = new Indexer();
         try {
@@ -85,6 +109,9 @@ public class ResourceRootIndexer {
             final Index index = indexer.complete();
             resourceRoot.putAttachment(Attachments.ANNOTATION_INDEX, index);
             ServerLogger.DEPLOYMENT_LOGGER.tracef("Generated index for archive %s", virtualFile);
+            if (cacheKey != null) {
+                cache.put(cacheKey, index, System.nanoTime() - start);
+            }
         } catch (Throwable t) {
             throw ServerMessages.MESSAGES.deploymentIndexingFailed(t);
         }
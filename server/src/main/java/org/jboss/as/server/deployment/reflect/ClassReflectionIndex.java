@@ -22,6 +22,7 @@
 
 package org.jboss.as.server.deployment.reflect;
 
+import org.jboss.as.server.ServerMessages;
 import org.jboss.invocation.proxy.MethodIdentifier;
 
 import java.lang.reflect.Constructor;
@@ -35,7 +36,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 /**
- * A short-lived index of all the declared fields and methods of a class.
+ * An index of all the declared fields and methods of a class, built on first use.
  * <p/>
  * The ClassReflectionIndex is only available during the deployment.
  *
@@ -44,47 +45,85 @@ import java.util.Map;
  */
 public final class ClassReflectionIndex<T> {
     private final Class<T> indexedClass;
-    private final Map<String, Field> fields;
-    private final Map<ParamList, Constructor<T>> constructors;
-    private final Map<ParamNameList, Constructor<T>> constructorsByTypeName;
-    private final Map<String, Map<ParamList, Map<Class<?>, Method>>> methods;
-    private final Map<String, Map<ParamNameList, Map<String, Method>>> methodsByTypeName;
+    // each part of the index is built on first use; a race merely builds an equivalent part twice
+    private volatile Map<String, Field> fields;
+    private volatile Constructors<T> constructors;
+    private volatile Methods methods;
 
-    @SuppressWarnings({"unchecked"})
     ClassReflectionIndex(final Class<T> indexedClass, final DeploymentReflectionIndex deploymentReflectionIndex) {
         this.indexedClass = indexedClass;
-        // -- fields --
-        final Field[] declaredFields = indexedClass.getDeclaredFields();
-        final Map<String, Field> fields = new HashMap<String, Field>();
-        for (Field field : declaredFields) {
-            field.setAccessible(true);
-            fields.put(field.getName(), field);
-        }
-        this.fields = fields;
-        // -- methods --
-        final Method[] declaredMethods = indexedClass.getDeclaredMethods();
-        final Map<String, Map<ParamList, Map<Class<?>, Method>>> methods = new HashMap<String, Map<ParamList, Map<Class<?>, Method>>>();
-        final Map<String, Map<ParamNameList, Map<String, Method>>> methodsByTypeName = new HashMap<String, Map<ParamNameList, Map<String, Method>>>();
-        for (Method method : declaredMethods) {
-            method.setAccessible(true);
-            addMethod(methods, method);
-            addMethodByTypeName(methodsByTypeName, method);
-        }
-
-        this.methods = methods;
-        this.methodsByTypeName = methodsByTypeName;
-        // -- constructors --
-        final Constructor<T>[] declaredConstructors = (Constructor<T>[]) indexedClass.getDeclaredConstructors();
-        final Map<ParamNameList, Constructor<T>> constructorsByTypeName = new HashMap<ParamNameList, Constructor<T>>();
-        final Map<ParamList, Constructor<T>> constructors = new HashMap<ParamList, Constructor<T>>();
-        for (Constructor<T> constructor : declaredConstructors) {
-            constructor.setAccessible(true);
-            Class<?>[] parameterTypes = constructor.getParameterTypes();
-            constructors.put(createParamList(parameterTypes), constructor);
-            constructorsByTypeName.put(createParamNameList(parameterTypes), constructor);
-        }
-        this.constructorsByTypeName = constructorsByTypeName;
-        this.constructors = constructors;
+    }
+
+    private Map<String, Field> fields() {
+        Map<String, Field> fields = this.fields;
+        if (fields == null) {
+            try {
+                final Field[] declaredFields = indexedClass.getDeclaredFields();
+                fields = new HashMap<String, Field>();
+                for (Field field : declaredFields) {
+                    field.setAccessible(true);
+                    fields.put(field.getName(), field);
+                }
+            } catch (Throwable e) {
+                throw ServerMessages.MESSAGES.errorGettingReflectiveInformation(indexedClass, indexedClass.getClassLoader(), e);
+            }
+            this.fields = fields;
+        }
+        return fields;
+    }
+
+    private Methods methods() {
+        Methods methods = this.methods;
+        if (methods == null) {
+            try {
+                methods = new Methods(indexedClass.getDeclaredMethods());
+            } catch (Throwable e) {
+                throw ServerMessages.MESSAGES.errorGettingReflectiveInformation(indexedClass, indexedClass.getClassLoader(), e);
+            }
+            this.methods = methods;
+        }
+        return methods;
+    }
+
+    @SuppressWarnings({"unchecked"})
+    private Constructors<T> constructors() {
+        Constructors<T> constructors = this.constructors;
+        if (constructors == null) {
+            try {
+                constructors = new Constructors<T>((Constructor<T>[]) indexedClass.getDeclaredConstructors());
+            } catch (Throwable e) {
+                throw ServerMessages.MESSAGES.errorGettingReflectiveInformation(indexedClass, indexedClass.getClassLoader(), e);
+            }
+            this.constructors = constructors;
+        }
+        return constructors;
+    }
+
+    private static final class Methods {
+        final Map<String, Map<ParamList, Map<Class<?>, Method>>> byType = new HashMap<String, Map<ParamList, Map<Class<?>, Method>>>();
+        final Map<String, Map<ParamNameList, Map<String, Method>>> byTypeName = new HashMap<String, Map<ParamNameList, Map<String, Method>>>();
+
+        Methods(final Method[] declaredMethods) {
+            for (Method method : declaredMethods) {
+                method.setAccessible(true);
+                addMethod(byType, method);
+                addMethodByTypeName(byTypeName, method);
+            }
+        }
+    }
+
+    private static final class Constructors<T> {
+        final Map<ParamList, Constructor<T>> byType = new HashMap<ParamList, Constructor<T>>();
+        final Map<ParamNameList, Constructor<T>> byTypeName = new HashMap<ParamNameList, Constructor<T>>();
+
+        Constructors(final Constructor<T>[] declaredConstructors) {
+            for (Constructor<T> constructor : declaredConstructors) {
+                constructor.setAccessible(true);
+                Class<?>[] parameterTypes = constructor.getParameterTypes();
+                byType.put(createParamList(parameterTypes), constructor);
+                byTypeName.put(createParamNameList(parameterTypes), constructor);
+            }
+        }
     }
 
     private static final ParamList EMPTY = new ParamList(new Class<?>[0]);
@@ -162,7 +201,7 @@ public final class ClassReflectionIndex<T> {
      * @return the field, or {@code null} if no field of that name exists
      */
     public Field getField(String name) {
-        return fields.get(name);
+        return fields().get(name);
     }
 
     /**
@@ -171,7 +210,7 @@ public final class ClassReflectionIndex<T> {
      * @return The (possibly empty) collection of all declared fields on this object
      */
     public Collection<Field> getFields() {
-        return Collections.unmodifiableCollection(fields.values());
+        return Collections.unmodifiableCollection(fields().values());
     }
 
     /**
@@ -183,7 +222,7 @@ public final class ClassReflectionIndex<T> {
      * @return the method, or {@code null} if no method of that description exists
      */
     public Method getMethod(Class<?> returnType, String name, Class<?>... paramTypes) {
-        final Map<ParamList, Map<Class<?>, Method>> nameMap = methods.get(name);
+        final Map<ParamList, Map<Class<?>, Method>> nameMap = methods().byType.get(name);
         if (nameMap == null) {
             return null;
         }
@@ -213,7 +252,7 @@ public final class ClassReflectionIndex<T> {
      * @return the method, or {@code null} if no method of that description exists
      */
     public Method getMethod(String returnType, String name, String... paramTypeNames) {
-        final Map<ParamNameList, Map<String, Method>> nameMap = methodsByTypeName.get(name);
+        final Map<ParamNameList, Map<String, Method>> nameMap = methods().byTypeName.get(name);
         if (nameMap == null) {
             return null;
         }
@@ -231,7 +270,7 @@ public final class ClassReflectionIndex<T> {
      * @return the method, or {@code null} if no method of that description exists
      */
     public Method getMethod(MethodIdentifier methodIdentifier) {
-        final Map<ParamNameList, Map<String, Method>> nameMap = methodsByTypeName.get(methodIdentifier.getName());
+        final Map<ParamNameList, Map<String, Method>> nameMap = methods().byTypeName.get(methodIdentifier.getName());
         if (nameMap == null) {
             return null;
         }
@@ -250,7 +289,7 @@ public final class ClassReflectionIndex<T> {
      * @return the (possibly empty) collection of methods matching the description
      */
     public Collection<Method> getMethods(String name, Class<?>... paramTypes) {
-        final Map<ParamList, Map<Class<?>, Method>> nameMap = methods.get(name);
+        final Map<ParamList, Map<Class<?>, Method>> nameMap = methods().byType.get(name);
         if (nameMap == null) {
             return Collections.emptySet();
         }
@@ -269,7 +308,7 @@ public final class ClassReflectionIndex<T> {
      * @return the (possibly empty) collection of methods matching the description
      */
     public Collection<Method> getMethods(String name, String... paramTypeNames) {
-        final Map<ParamNameList, Map<String, Method>> nameMap = methodsByTypeName.get(name);
+        final Map<ParamNameList, Map<String, Method>> nameMap = methods().byTypeName.get(name);
         if (nameMap == null) {
             return Collections.emptySet();
         }
@@ -287,7 +326,7 @@ public final class ClassReflectionIndex<T> {
      * @return the (possibly empty) collection of methods with the given name
      */
     public Collection<Method> getAllMethods(String name) {
-        final Map<ParamList, Map<Class<?>, Method>> nameMap = methods.get(name);
+        final Map<ParamList, Map<Class<?>, Method>> nameMap = methods().byType.get(name);
         if (nameMap == null) {
             return Collections.emptySet();
         }
@@ -306,7 +345,7 @@ public final class ClassReflectionIndex<T> {
      * @return the (possibly empty) collection of methods with the given name and parameter count
      */
     public Collection<Method> getAllMethods(String name, int paramCount) {
-        final Map<ParamList, Map<Class<?>, Method>> nameMap = methods.get(name);
+        final Map<ParamList, Map<Class<?>, Method>> nameMap = methods().byType.get(name);
         if (nameMap == null) {
             return Collections.emptySet();
         }
@@ -328,7 +367,7 @@ public final class ClassReflectionIndex<T> {
      */
     public Collection<Method> getMethods() {
         final Collection<Method> methods = new ArrayList<Method>();
-        for (Map.Entry<String, Map<ParamList, Map<Class<?>, Method>>> entry : this.methods.entrySet()) {
+        for (Map.Entry<String, Map<ParamList, Map<Class<?>, Method>>> entry : methods().byType.entrySet()) {
             final Map<ParamList, Map<Class<?>, Method>> nameMap = entry.getValue();
             for (Map<Class<?>, Method> map : nameMap.values()) {
                 methods.addAll(map.values());
@@ -343,7 +382,7 @@ public final class ClassReflectionIndex<T> {
      * @return the constructors
      */
     public Collection<Constructor<T>> getConstructors() {
-        return Collections.unmodifiableCollection(constructors.values());
+        return Collections.unmodifiableCollection(constructors().byType.values());
     }
 
     /**
@@ -353,7 +392,7 @@ public final class ClassReflectionIndex<T> {
      * @return the constructor, or {@code null} of no such constructor exists
      */
     public Constructor<T> getConstructor(Class<?>... paramTypes) {
-        return constructors.get(createParamList(paramTypes));
+        return constructors().byType.get(createParamList(paramTypes));
     }
 
     /**
@@ -363,7 +402,7 @@ public final class ClassReflectionIndex<T> {
      * @return the constructor, or {@code null} of no such constructor exists
      */
     public Constructor<T> getConstructor(String... paramTypeNames) {
-        return constructorsByTypeName.get(createParamNameList(paramTypeNames));
+        return constructors().byTypeName.get(createParamNameList(paramTypeNames));
     }
 
     private static final class ParamList {
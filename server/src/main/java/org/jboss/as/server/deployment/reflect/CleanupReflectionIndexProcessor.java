@@ -22,6 +22,7 @@
 
 package org.jboss.as.server.deployment.reflect;
 
+import org.jboss.as.server.ServerLogger;
 import org.jboss.as.server.deployment.Attachments;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
@@ -37,7 +38,12 @@ public final class CleanupReflectionIndexProcessor implements DeploymentUnitProc
 
     /** {@inheritDoc} */
     public void deploy(final DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
-        phaseContext.getDeploymentUnit().removeAttachment(Attachments.REFLECTION_INDEX);
+        DeploymentReflectionIndex reflectionIndex = phaseContext.getDeploymentUnit().removeAttachment(Attachments.REFLECTION_INDEX);
+        if (reflectionIndex != null && ServerLogger.DEPLOYMENT_LOGGER.isDebugEnabled()) {
+            ServerLogger.DEPLOYMENT_LOGGER.debugf("Reflection index for %s built %d class indexes with %d hits; shared tier has built %d with %d hits",
+                    phaseContext.getDeploymentUnit().getName(), reflectionIndex.getBuildCount(), reflectionIndex.getHitCount(),
+                    DeploymentReflectionIndex.getSharedBuildCount(), DeploymentReflectionIndex.getSharedHitCount());
+        }
         phaseContext.getDeploymentUnit().removeAttachment(Attachments.PROXY_REFLECTION_INDEX);
         DeploymentClassIndex classIndex = phaseContext.getDeploymentUnit().removeAttachment(Attachments.CLASS_INDEX);
         if (classIndex != null)
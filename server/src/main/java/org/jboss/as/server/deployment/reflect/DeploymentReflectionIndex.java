@@ -23,18 +23,30 @@
 package org.jboss.as.server.deployment.reflect;
 
 import java.security.Permission;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.jboss.as.server.ServerMessages;
+import org.jboss.modules.Module;
+import org.jboss.modules.ModuleClassLoader;
 
 /**
  * A reflection index for a deployment.
+ * <p/>
+ * Classes defined by the JDK or by modules of the boot module loader are indexed once in a tier shared by every deployment
+ * on the server; classes of deployments and of other module loaders are indexed by the deployment that asked for them.
  *
  * @author <a href="mailto:david.lloyd@redhat.com">David M. Lloyd</a>
  */
 public final class DeploymentReflectionIndex {
-    private final Map<Class<?>, ClassReflectionIndex<?>> classes = new HashMap<Class<?>, ClassReflectionIndex<?>>();
+    private static final ConcurrentMap<Class<?>, ClassReflectionIndex<?>> SHARED_CLASSES = new ConcurrentHashMap<Class<?>, ClassReflectionIndex<?>>();
+    private static final AtomicLong SHARED_BUILDS = new AtomicLong();
+    private static final AtomicLong SHARED_HITS = new AtomicLong();
+
+    private final ConcurrentMap<Class<?>, ClassReflectionIndex<?>> classes = new ConcurrentHashMap<Class<?>, ClassReflectionIndex<?>>();
+    private final AtomicLong builds = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
 
     DeploymentReflectionIndex() {
     }
@@ -61,15 +73,75 @@ public final class DeploymentReflectionIndex {
      * @return the index
      */
     @SuppressWarnings({"unchecked"})
-    public synchronized <T> ClassReflectionIndex<T> getClassIndex(Class<T> clazz) {
+    public <T> ClassReflectionIndex<T> getClassIndex(Class<T> clazz) {
         try {
+            final boolean shared = isShared(clazz.getClassLoader());
+            final ConcurrentMap<Class<?>, ClassReflectionIndex<?>> classes = shared ? SHARED_CLASSES : this.classes;
             ClassReflectionIndex<T> index = (ClassReflectionIndex<T>) classes.get(clazz);
-            if (index == null) {
-                classes.put(clazz, index = new ClassReflectionIndex<T>(clazz, this));
+            if (index != null) {
+                (shared ? SHARED_HITS : hits).incrementAndGet();
+                return index;
+            }
+            index = new ClassReflectionIndex<T>(clazz, this);
+            final ClassReflectionIndex<T> existing = (ClassReflectionIndex<T>) classes.putIfAbsent(clazz, index);
+            if (existing != null) {
+                (shared ? SHARED_HITS : hits).incrementAndGet();
+                return existing;
             }
+            (shared ? SHARED_BUILDS : builds).incrementAndGet();
             return index;
         } catch (Throwable e) {
             throw ServerMessages.MESSAGES.errorGettingReflectiveInformation(clazz, clazz.getClassLoader(), e);
         }
     }
+
+    /**
+     * Get the number of class indexes this deployment has built for its own classes.
+     *
+     * @return the number of class indexes built
+     */
+    public long getBuildCount() {
+        return builds.get();
+    }
+
+    /**
+     * Get the number of times this deployment was given a class index it had already built.
+     *
+     * @return the number of cache hits
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Get the number of class indexes built in the tier shared by all deployments.
+     *
+     * @return the number of shared class indexes built
+     */
+    public static long getSharedBuildCount() {
+        return SHARED_BUILDS.get();
+    }
+
+    /**
+     * Get the number of times any deployment was given a class index from the shared tier.
+     *
+     * @return the number of shared cache hits
+     */
+    public static long getSharedHitCount() {
+        return SHARED_HITS.get();
+    }
+
+    /**
+     * Classes of the JDK and of the modules of the boot module loader live as long as the server. Classes of any other
+     * loader, such as the deployment or OSGi module loaders, can be unloaded, so must not be pinned by the shared tier.
+     */
+    private static boolean isShared(final ClassLoader classLoader) {
+        if (classLoader == null) {
+            return true;
+        }
+        if (classLoader instanceof ModuleClassLoader) {
+            return ((ModuleClassLoader) classLoader).getModule().getModuleLoader() == Module.getBootModuleLoader();
+        }
+        return false;
+    }
 }
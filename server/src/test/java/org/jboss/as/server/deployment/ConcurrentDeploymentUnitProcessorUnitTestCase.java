@@ -0,0 +1,137 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Unit tests of the concurrent execution of a batch of {@link ConcurrentDeploymentUnitProcessor}s.
+ */
+public class ConcurrentDeploymentUnitProcessorUnitTestCase {
+
+    private ExecutorService executor;
+    private DeploymentPhaseContext phaseContext;
+
+    @Before
+    public void setup() {
+        executor = Executors.newCachedThreadPool();
+        phaseContext = Mockito.mock(DeploymentPhaseContext.class);
+        Mockito.when(phaseContext.getDeploymentUnit()).thenReturn(Mockito.mock(DeploymentUnit.class));
+    }
+
+    @After
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testBatchRunsInParallel() throws Exception {
+        // each processor waits for the other one, so the batch only completes if they run at the same time
+        final CyclicBarrier barrier = new CyclicBarrier(2);
+        final AwaitingProcessor first = new AwaitingProcessor(barrier, null);
+        final AwaitingProcessor second = new AwaitingProcessor(barrier, null);
+        final List<RegisteredDeploymentUnitProcessor> batch = Arrays.asList(register(first, 1), register(second, 2));
+        assertEquals(Collections.singletonList(batch), ProcessorBatches.split(batch));
+
+        DeploymentUnitPhaseService.deployConcurrently(executor, phaseContext, Phase.PARSE, batch, null);
+
+        assertNotSame(first.thread, second.thread);
+        // the last processor of the batch runs on the phase thread
+        assertSame(Thread.currentThread(), second.thread);
+    }
+
+    @Test
+    public void testBatchFailure() throws Exception {
+        final CyclicBarrier barrier = new CyclicBarrier(2);
+        final DeploymentUnitProcessingException failure = new DeploymentUnitProcessingException("expected");
+        final AwaitingProcessor failing = new AwaitingProcessor(barrier, failure);
+        final AwaitingProcessor other = new AwaitingProcessor(barrier, null);
+        try {
+            DeploymentUnitPhaseService.deployConcurrently(executor, phaseContext, Phase.PARSE, Arrays.asList(register(failing, 1), register(other, 2)), null);
+            fail("the failure of a processor of the batch should be reported");
+        } catch (DeploymentUnitProcessingException e) {
+            assertSame(failure, e);
+        }
+        // the whole batch completed before the failure was reported
+        assertSame(Thread.currentThread(), other.thread);
+    }
+
+    private static RegisteredDeploymentUnitProcessor register(final DeploymentUnitProcessor processor, final int priority) {
+        return new RegisteredDeploymentUnitProcessor(priority, processor, "test");
+    }
+
+    private static final class AwaitingProcessor implements ConcurrentDeploymentUnitProcessor {
+        private final CyclicBarrier barrier;
+        private final DeploymentUnitProcessingException failure;
+        private volatile Thread thread;
+
+        AwaitingProcessor(final CyclicBarrier barrier, final DeploymentUnitProcessingException failure) {
+            this.barrier = barrier;
+            this.failure = failure;
+        }
+
+        @Override
+        public Set<AttachmentKey<?>> getReadAttachments() {
+            return AttachmentKey.setOf();
+        }
+
+        @Override
+        public Set<AttachmentKey<?>> getWrittenAttachments() {
+            return AttachmentKey.setOf();
+        }
+
+        @Override
+        public void deploy(final DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
+            thread = Thread.currentThread();
+            try {
+                barrier.await(10, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                throw new DeploymentUnitProcessingException("processor did not run concurrently", e);
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+
+        @Override
+        public void undeploy(final DeploymentUnit context) {
+        }
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DEPLOYMENT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceRegistry;
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+/**
+ * Unit tests of {@link DeploymentProfile} and of the {@code deployment-profile} metric.
+ */
+public class DeploymentProfileUnitTestCase {
+
+    private static final String DEPLOYMENT_NAME = "test.war";
+
+    @After
+    public void clearProperty() {
+        System.clearProperty(DeploymentProfile.PROFILE_PROPERTY);
+    }
+
+    @Test
+    public void testRecord() {
+        final DeploymentProfile profile = new DeploymentProfile();
+        final RegisteredDeploymentUnitProcessor parse = new RegisteredDeploymentUnitProcessor(0x100, new ParseProcessor(), "test");
+        final RegisteredDeploymentUnitProcessor install = new RegisteredDeploymentUnitProcessor(0x200, new InstallProcessor(), null);
+        profile.record(Phase.INSTALL, install, TimeUnit.MILLISECONDS.toNanos(7), TimeUnit.MILLISECONDS.toNanos(3));
+        profile.record(Phase.PARSE, parse, TimeUnit.MILLISECONDS.toNanos(5), TimeUnit.MILLISECONDS.toNanos(2));
+        profile.record(Phase.PARSE, parse, TimeUnit.MILLISECONDS.toNanos(10), TimeUnit.MILLISECONDS.toNanos(4));
+
+        final List<ModelNode> entries = profile.toModelNode().asList();
+        assertEquals(2, entries.size());
+        // in the order in which the processors run
+        final ModelNode first = entries.get(0);
+        assertEquals(Phase.PARSE.name(), first.get("phase").asString());
+        assertEquals(0x100, first.get("priority").asInt());
+        assertEquals(ParseProcessor.class.getName(), first.get("processor").asString());
+        assertEquals("test", first.get("subsystem").asString());
+        assertEquals(2, first.get("invocations").asLong());
+        assertEquals(15, first.get("wall-time").asLong());
+        assertEquals(6, first.get("cpu-time").asLong());
+        final ModelNode second = entries.get(1);
+        assertEquals(Phase.INSTALL.name(), second.get("phase").asString());
+        assertEquals(InstallProcessor.class.getName(), second.get("processor").asString());
+        assertFalse(second.has("subsystem"));
+        assertEquals(1, second.get("invocations").asLong());
+        assertEquals(7, second.get("wall-time").asLong());
+    }
+
+    @Test
+    public void testDisabled() throws OperationFailedException {
+        assertFalse(DeploymentProfile.isEnabled());
+        assertNull(DeploymentProfile.getAggregate());
+
+        // no profile is attached to the deployment unit when profiling is disabled
+        final DeploymentUnit deploymentUnit = Mockito.mock(DeploymentUnit.class);
+        assertNull(DeploymentProfile.getProfile(deploymentUnit));
+
+        assertFalse(executeRuntimeStep(DeploymentProfileHandler.AGGREGATE, null).isDefined());
+        assertFalse(executeRuntimeStep(DeploymentProfileHandler.DEPLOYMENT, deploymentUnit).isDefined());
+    }
+
+    @Test
+    public void testEnabled() throws OperationFailedException {
+        System.setProperty(DeploymentProfile.PROFILE_PROPERTY, "true");
+        assertTrue(DeploymentProfile.isEnabled());
+        final DeploymentProfile aggregate = DeploymentProfile.getAggregate();
+        assertNotNull(aggregate);
+
+        final DeploymentProfile profile = new DeploymentProfile();
+        final DeploymentUnit deploymentUnit = Mockito.mock(DeploymentUnit.class);
+        Mockito.when(deploymentUnit.getAttachment(Attachments.DEPLOYMENT_PROFILE)).thenReturn(profile);
+        final DeploymentUnit subDeploymentUnit = Mockito.mock(DeploymentUnit.class);
+        Mockito.when(subDeploymentUnit.getParent()).thenReturn(deploymentUnit);
+        // a sub deployment shares the profile of its top level deployment
+        assertTrue(profile == DeploymentProfile.getProfile(subDeploymentUnit));
+
+        final long invocations = getInvocations(aggregate.toModelNode(), ParseProcessor.class);
+        profile.record(Phase.PARSE, new RegisteredDeploymentUnitProcessor(0x100, new ParseProcessor(), "test"), 0, 0);
+
+        final ModelNode deploymentResult = executeRuntimeStep(DeploymentProfileHandler.DEPLOYMENT, deploymentUnit);
+        assertEquals(1, deploymentResult.asList().size());
+        assertEquals(1, getInvocations(deploymentResult, ParseProcessor.class));
+        // the aggregate includes every deployment
+        final ModelNode aggregateResult = executeRuntimeStep(DeploymentProfileHandler.AGGREGATE, null);
+        assertEquals(invocations + 1, getInvocations(aggregateResult, ParseProcessor.class));
+    }
+
+    private static ModelNode executeRuntimeStep(final OperationStepHandler handler, final DeploymentUnit deploymentUnit) throws OperationFailedException {
+        final ModelNode operation = new ModelNode();
+        operation.get(OP_ADDR).set(PathAddress.pathAddress(PathElement.pathElement(DEPLOYMENT, DEPLOYMENT_NAME)).toModelNode());
+        final ModelNode result = new ModelNode();
+        final OperationContext context = Mockito.mock(OperationContext.class);
+        Mockito.when(context.getResult()).thenReturn(result);
+        final AbstractDeploymentUnitService service = Mockito.mock(AbstractDeploymentUnitService.class);
+        Mockito.when(service.getValue()).thenReturn(deploymentUnit);
+        final ServiceController<?> controller = Mockito.mock(ServiceController.class);
+        Mockito.doReturn(service).when(controller).getService();
+        final ServiceRegistry registry = Mockito.mock(ServiceRegistry.class);
+        Mockito.doReturn(controller).when(registry).getService(Services.deploymentUnitName(DEPLOYMENT_NAME));
+        Mockito.when(context.getServiceRegistry(false)).thenReturn(registry);
+
+        handler.execute(context, operation);
+        final ArgumentCaptor<OperationStepHandler> step = ArgumentCaptor.forClass(OperationStepHandler.class);
+        Mockito.verify(context).addStep(step.capture(), Mockito.eq(OperationContext.Stage.RUNTIME));
+        step.getValue().execute(context, operation);
+        Mockito.verify(context, Mockito.times(2)).stepCompleted();
+        return result;
+    }
+
+    private static long getInvocations(final ModelNode profile, final Class<?> processorClass) {
+        for (ModelNode entry : profile.asList()) {
+            if (entry.get("processor").asString().equals(processorClass.getName())) {
+                return entry.get("invocations").asLong();
+            }
+        }
+        return 0;
+    }
+
+    static final class ParseProcessor implements DeploymentUnitProcessor {
+        @Override
+        public void deploy(final DeploymentPhaseContext phaseContext) {
+        }
+
+        @Override
+        public void undeploy(final DeploymentUnit context) {
+        }
+    }
+
+    static final class InstallProcessor implements DeploymentUnitProcessor {
+        @Override
+        public void deploy(final DeploymentPhaseContext phaseContext) {
+        }
+
+        @Override
+        public void undeploy(final DeploymentUnit context) {
+        }
+    }
+}
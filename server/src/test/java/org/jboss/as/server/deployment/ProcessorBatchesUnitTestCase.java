@@ -0,0 +1,117 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link ProcessorBatches}.
+ */
+public class ProcessorBatchesUnitTestCase {
+
+    private static final AttachmentKey<String> A = AttachmentKey.create(String.class);
+    private static final AttachmentKey<String> B = AttachmentKey.create(String.class);
+    private static final AttachmentKey<String> C = AttachmentKey.create(String.class);
+
+    @Test
+    public void testPlainProcessorsRunAlone() {
+        final RegisteredDeploymentUnitProcessor first = plain(1);
+        final RegisteredDeploymentUnitProcessor second = plain(2);
+        final List<List<RegisteredDeploymentUnitProcessor>> batches = ProcessorBatches.split(Arrays.asList(first, second));
+        Assert.assertEquals(2, batches.size());
+        Assert.assertEquals(Collections.singletonList(first), batches.get(0));
+        Assert.assertEquals(Collections.singletonList(second), batches.get(1));
+    }
+
+    @Test
+    public void testIndependentProcessorsShareABatch() {
+        final RegisteredDeploymentUnitProcessor first = concurrent(1, keys(A), keys(B));
+        final RegisteredDeploymentUnitProcessor second = concurrent(2, keys(A), keys(C));
+        final List<List<RegisteredDeploymentUnitProcessor>> batches = ProcessorBatches.split(Arrays.asList(first, second));
+        Assert.assertEquals(1, batches.size());
+        Assert.assertEquals(Arrays.asList(first, second), batches.get(0));
+    }
+
+    @Test
+    public void testConflictingProcessorsAreSplit() {
+        final RegisteredDeploymentUnitProcessor writer = concurrent(1, keys(), keys(A));
+        final RegisteredDeploymentUnitProcessor reader = concurrent(2, keys(A), keys(B));
+        final RegisteredDeploymentUnitProcessor otherWriter = concurrent(3, keys(), keys(B));
+        final List<List<RegisteredDeploymentUnitProcessor>> batches = ProcessorBatches.split(Arrays.asList(writer, reader, otherWriter));
+        Assert.assertEquals(3, batches.size());
+        Assert.assertEquals(Collections.singletonList(writer), batches.get(0));
+        Assert.assertEquals(Collections.singletonList(reader), batches.get(1));
+        Assert.assertEquals(Collections.singletonList(otherWriter), batches.get(2));
+    }
+
+    @Test
+    public void testPlainProcessorEndsABatch() {
+        final RegisteredDeploymentUnitProcessor first = concurrent(1, keys(A), keys());
+        final RegisteredDeploymentUnitProcessor barrier = plain(2);
+        final RegisteredDeploymentUnitProcessor second = concurrent(3, keys(A), keys());
+        final List<List<RegisteredDeploymentUnitProcessor>> batches = ProcessorBatches.split(Arrays.asList(first, barrier, second));
+        Assert.assertEquals(3, batches.size());
+        Assert.assertEquals(Collections.singletonList(first), batches.get(0));
+        Assert.assertEquals(Collections.singletonList(barrier), batches.get(1));
+        Assert.assertEquals(Collections.singletonList(second), batches.get(2));
+    }
+
+    private static Set<AttachmentKey<?>> keys(final AttachmentKey<?>... keys) {
+        return new HashSet<AttachmentKey<?>>(Arrays.asList(keys));
+    }
+
+    private static RegisteredDeploymentUnitProcessor plain(final int priority) {
+        return new RegisteredDeploymentUnitProcessor(priority, new DeploymentUnitProcessor() {
+            public void deploy(final DeploymentPhaseContext phaseContext) {
+            }
+
+            public void undeploy(final DeploymentUnit context) {
+            }
+        }, "test");
+    }
+
+    private static RegisteredDeploymentUnitProcessor concurrent(final int priority, final Set<AttachmentKey<?>> reads, final Set<AttachmentKey<?>> writes) {
+        return new RegisteredDeploymentUnitProcessor(priority, new ConcurrentDeploymentUnitProcessor() {
+            public Set<AttachmentKey<?>> getReadAttachments() {
+                return reads;
+            }
+
+            public Set<AttachmentKey<?>> getWrittenAttachments() {
+                return writes;
+            }
+
+            public void deploy(final DeploymentPhaseContext phaseContext) {
+            }
+
+            public void undeploy(final DeploymentUnit context) {
+            }
+        }, "test");
+    }
+}
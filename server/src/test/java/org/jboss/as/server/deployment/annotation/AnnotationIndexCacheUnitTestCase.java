@@ -0,0 +1,107 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.annotation;
+
+import java.io.File;
+import java.io.InputStream;
+import java.util.Collections;
+
+import org.jboss.jandex.DotName;
+import org.jboss.jandex.Index;
+import org.jboss.jandex.Indexer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link AnnotationIndexCache}.
+ */
+public class AnnotationIndexCacheUnitTestCase {
+
+    private static final byte[] HASH = { 1, 2, 3, 4 };
+
+    private File directory;
+
+    @Before
+    public void createDirectory() {
+        directory = new File("target/annotation-index-cache").getAbsoluteFile();
+        deleteDirectory(directory);
+    }
+
+    @After
+    public void cleanUp() {
+        deleteDirectory(directory);
+    }
+
+    @Test
+    public void testKey() {
+        final String key = AnnotationIndexCache.createKey(HASH, "lib/a.jar", null);
+        Assert.assertEquals(key, AnnotationIndexCache.createKey(HASH, "lib/a.jar", null));
+        Assert.assertFalse(key.equals(AnnotationIndexCache.createKey(HASH, "lib/b.jar", null)));
+        Assert.assertFalse(key.equals(AnnotationIndexCache.createKey(new byte[] { 1, 2, 3, 5 }, "lib/a.jar", null)));
+        Assert.assertFalse(key.equals(AnnotationIndexCache.createKey(HASH, "lib/a.jar", Collections.singleton("org/foo"))));
+    }
+
+    @Test
+    public void testPutAndGet() throws Exception {
+        final AnnotationIndexCache cache = new AnnotationIndexCache(directory);
+        final String key = AnnotationIndexCache.createKey(HASH, "", null);
+        Assert.assertNull(cache.get(key));
+
+        final Indexer indexer = new Indexer();
+        final InputStream in = getClass().getResourceAsStream(getClass().getSimpleName() + ".class");
+        try {
+            indexer.index(in);
+        } finally {
+            in.close();
+        }
+        cache.put(key, indexer.complete(), 0);
+
+        final Index index = new AnnotationIndexCache(directory).get(key);
+        Assert.assertNotNull(index);
+        Assert.assertNotNull(index.getClassByName(DotName.createSimple(getClass().getName())));
+        Assert.assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void testEviction() throws Exception {
+        final AnnotationIndexCache cache = new AnnotationIndexCache(directory);
+        final String key = AnnotationIndexCache.createKey(HASH, "", null);
+        cache.put(key, new Indexer().complete(), 0);
+        Assert.assertNotNull(cache.get(key));
+
+        cache.evictStaleEntries(System.currentTimeMillis() + 60000);
+        Assert.assertNull(cache.get(key));
+    }
+
+    private static void deleteDirectory(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteDirectory(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.reflect;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests of the shared and per deployment tiers of {@link DeploymentReflectionIndex}.
+ */
+public class DeploymentReflectionIndexUnitTestCase {
+
+    @Test
+    public void testJdkClassesAreShared() {
+        final DeploymentReflectionIndex first = DeploymentReflectionIndex.create();
+        final DeploymentReflectionIndex second = DeploymentReflectionIndex.create();
+
+        // Other tests in this VM may already have indexed the class
+        final ClassReflectionIndex<Thread> index = first.getClassIndex(Thread.class);
+        final long builds = DeploymentReflectionIndex.getSharedBuildCount();
+        final long hits = DeploymentReflectionIndex.getSharedHitCount();
+
+        Assert.assertSame(index, second.getClassIndex(Thread.class));
+        Assert.assertEquals(builds, DeploymentReflectionIndex.getSharedBuildCount());
+        Assert.assertEquals(hits + 1, DeploymentReflectionIndex.getSharedHitCount());
+        Assert.assertEquals(0, first.getBuildCount());
+        Assert.assertEquals(0, first.getHitCount());
+        Assert.assertEquals(0, second.getBuildCount());
+        Assert.assertEquals(0, second.getHitCount());
+    }
+
+    @Test
+    public void testApplicationClassesAreIndexedPerDeployment() {
+        final DeploymentReflectionIndex first = DeploymentReflectionIndex.create();
+        final DeploymentReflectionIndex second = DeploymentReflectionIndex.create();
+        final long sharedBuilds = DeploymentReflectionIndex.getSharedBuildCount();
+        final long sharedHits = DeploymentReflectionIndex.getSharedHitCount();
+
+        final ClassReflectionIndex<Indexed> index = first.getClassIndex(Indexed.class);
+        Assert.assertSame(Indexed.class, index.getIndexedClass());
+        Assert.assertEquals(1, first.getBuildCount());
+        Assert.assertEquals(0, first.getHitCount());
+
+        Assert.assertSame(index, first.getClassIndex(Indexed.class));
+        Assert.assertEquals(1, first.getBuildCount());
+        Assert.assertEquals(1, first.getHitCount());
+
+        Assert.assertNotSame(index, second.getClassIndex(Indexed.class));
+        Assert.assertEquals(1, second.getBuildCount());
+        Assert.assertEquals(0, second.getHitCount());
+
+        Assert.assertEquals(sharedBuilds, DeploymentReflectionIndex.getSharedBuildCount());
+        Assert.assertEquals(sharedHits, DeploymentReflectionIndex.getSharedHitCount());
+    }
+
+    @Test
+    public void testIndexesDeclaredMembers() {
+        final DeploymentReflectionIndex index = DeploymentReflectionIndex.create();
+        Assert.assertEquals(0, index.getBuildCount());
+        Assert.assertEquals(0, index.getHitCount());
+
+        final ClassReflectionIndex<Indexed> classIndex = index.getClassIndex(Indexed.class);
+        Assert.assertNotNull(classIndex.getField("value"));
+        Assert.assertEquals(1, classIndex.getAllMethods("getValue").size());
+    }
+
+    static class Indexed {
+        private int value;
+
+        public int getValue() {
+            return value;
+        }
+    }
+}
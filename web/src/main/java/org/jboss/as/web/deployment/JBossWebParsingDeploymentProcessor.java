@@ -23,6 +23,7 @@ package org.jboss.as.web.deployment;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Set;
 
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamException;
@@ -31,11 +32,12 @@ import javax.xml.stream.XMLStreamReader;
 import org.jboss.as.ee.structure.DeploymentType;
 import org.jboss.as.ee.structure.DeploymentTypeMarker;
 import org.jboss.as.ee.structure.JBossDescriptorPropertyReplacement;
+import org.jboss.as.server.deployment.AttachmentKey;
 import org.jboss.as.server.deployment.Attachments;
+import org.jboss.as.server.deployment.ConcurrentDeploymentUnitProcessor;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
-import org.jboss.as.server.deployment.DeploymentUnitProcessor;
 import org.jboss.metadata.parser.jbossweb.JBossWebMetaDataParser;
 import org.jboss.metadata.parser.util.NoopXMLResolver;
 import org.jboss.metadata.web.jboss.JBossWebMetaData;
@@ -46,10 +48,30 @@ import static org.jboss.as.web.WebMessages.MESSAGES;
 /**
  * @author Jean-Frederic Clere
  */
-public class JBossWebParsingDeploymentProcessor implements DeploymentUnitProcessor {
+public class JBossWebParsingDeploymentProcessor implements ConcurrentDeploymentUnitProcessor {
+
+    private static final Set<AttachmentKey<?>> READ_ATTACHMENTS = AttachmentKey.setOf(
+            Attachments.DEPLOYMENT_ROOT,
+            org.jboss.as.ee.structure.Attachments.DEPLOYMENT_TYPE,
+            org.jboss.as.ee.structure.Attachments.JBOSS_DESCRIPTOR_PROPERTY_REPLACEMENT,
+            org.jboss.as.ee.metadata.property.Attachments.FINAL_PROPERTY_RESOLVER,
+            WebJBossAllParser.ATTACHMENT_KEY);
+    private static final Set<AttachmentKey<?>> WRITTEN_ATTACHMENTS = AttachmentKey.setOf(
+            WarMetaData.ATTACHMENT_KEY,
+            org.jboss.as.ee.structure.Attachments.DISTINCT_NAME);
 
     private static final String JBOSS_WEB_XML = "WEB-INF/jboss-web.xml";
 
+    @Override
+    public Set<AttachmentKey<?>> getReadAttachments() {
+        return READ_ATTACHMENTS;
+    }
+
+    @Override
+    public Set<AttachmentKey<?>> getWrittenAttachments() {
+        return WRITTEN_ATTACHMENTS;
+    }
+
     @Override
     public void deploy(DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
         final DeploymentUnit deploymentUnit = phaseContext.getDeploymentUnit();
@@ -66,6 +66,7 @@ import org.apache.catalina.security.SecurityUtil;
 import org.apache.catalina.session.StandardSession;
 import org.apache.catalina.session.StandardSessionFacade;
 import org.apache.catalina.util.Enumerator;
+import org.jboss.as.clustering.MarshalledValueWriteListener;
 import org.jboss.as.clustering.web.DistributableSessionMetadata;
 import org.jboss.as.clustering.web.DistributedCacheManager;
 import org.jboss.as.clustering.web.IncomingDistributableSessionData;
@@ -1036,8 +1037,10 @@ public abstract class ClusteredSession<O extends OutgoingDistributableSessionDat
 
     /**
      * Increment our version and propagate ourself to the distributed cache.
+     *
+     * @param listener notified of the number of bytes of each marshalled attribute value as it is replicated, or null
      */
-    public synchronized void processSessionReplication() {
+    public synchronized void processSessionReplication(MarshalledValueWriteListener listener) {
         // Replicate the session.
         if (log.isTraceEnabled()) {
             log.tracef("processSessionReplication(): session is dirty. Will increment version from: %s and replicate.", getVersion());
@@ -1045,7 +1048,7 @@ public abstract class ClusteredSession<O extends OutgoingDistributableSessionDat
         version.incrementAndGet();
 
         O outgoingData = getOutgoingSessionData();
-        distributedCacheManager.storeSessionData(outgoingData);
+        distributedCacheManager.storeSessionData(outgoingData, listener);
 
         sessionAttributesDirty = false;
         sessionMetadataDirty = false;
@@ -1082,7 +1085,7 @@ public abstract class ClusteredSession<O extends OutgoingDistributableSessionDat
     }
 
     /**
-     * Gets the time {@link #processSessionReplication()} was last called, or <code>0</code> if it has never been called.
+     * Gets the time {@link #processSessionReplication(MarshalledValueWriteListener)} was last called, or <code>0</code> if it has never been called.
      */
     public long getLastReplicated() {
         return lastReplicated;
@@ -54,6 +54,7 @@ import org.apache.catalina.LifecycleListener;
 import org.apache.catalina.Pipeline;
 import org.apache.catalina.Session;
 import org.apache.catalina.Valve;
+import org.jboss.as.clustering.MarshalledValueWriteListener;
 import org.jboss.as.clustering.web.BatchingManager;
 import org.jboss.as.clustering.web.ClusteringNotSupportedException;
 import org.jboss.as.clustering.web.DistributableSessionMetadata;
@@ -844,18 +845,26 @@ public class DistributableSessionManager<O extends OutgoingDistributableSessionD
                 log.tracef("check to see if needs to store and replicate session with id %s ", session.getIdInternal());
 
                 if (session.isValid() && (session.isSessionDirty() || session.getMustReplicateTimestamp())) {
-                    String realId = session.getRealId();
+                    final String realId = session.getRealId();
 
                     // Notify all session attributes that they get serialized (SRV 7.7.2)
                     long begin = System.currentTimeMillis();
                     session.notifyWillPassivate(ClusteredSessionNotificationCause.REPLICATION);
                     long elapsed = System.currentTimeMillis() - begin;
-                    ReplicationStatistics stats = this.getReplicationStatistics();
+                    final ReplicationStatistics stats = this.getReplicationStatistics();
                     stats.updatePassivationStats(realId, elapsed);
 
+                    // The attributes are only marshalled when replicated, which may be after this request for asynchronous caches
+                    MarshalledValueWriteListener listener = new MarshalledValueWriteListener() {
+                        @Override
+                        public void written(int bytes) {
+                            stats.updateReplicatedBytes(realId, bytes);
+                        }
+                    };
+
                     // Do the actual replication
                     begin = System.currentTimeMillis();
-                    processSessionRepl(session);
+                    processSessionRepl(session, listener);
                     elapsed = System.currentTimeMillis() - begin;
                     stored = true;
                     stats.updateReplicationStats(realId, elapsed);
@@ -953,6 +962,24 @@ public class DistributableSessionManager<O extends OutgoingDistributableSessionD
         return (interval != null) ? interval.intValue() : -1;
     }
 
+    @Override
+    public int getSnapshotQueueDepth() {
+        SnapshotManager manager = this.snapshotManager;
+        return (manager instanceof IntervalSnapshotManager) ? ((IntervalSnapshotManager) manager).getQueueDepth() : 0;
+    }
+
+    @Override
+    public long getAverageSnapshotFlushTime() {
+        SnapshotManager manager = this.snapshotManager;
+        return (manager instanceof IntervalSnapshotManager) ? ((IntervalSnapshotManager) manager).getAverageFlushTime() : 0;
+    }
+
+    @Override
+    public long getMaxSnapshotFlushTime() {
+        SnapshotManager manager = this.snapshotManager;
+        return (manager instanceof IntervalSnapshotManager) ? ((IntervalSnapshotManager) manager).getMaxFlushTime() : 0;
+    }
+
     @Override
     public void setMaxUnreplicatedInterval(int maxUnreplicatedInterval) {
         this.maxUnreplicatedInterval = maxUnreplicatedInterval;
@@ -1482,8 +1509,9 @@ public class DistributableSessionManager<O extends OutgoingDistributableSessionD
      * Places the current session contents in the distributed cache and replicates them to the cluster
      *
      * @param session the session. Cannot be <code>null</code>.
+     * @param listener notified of the number of bytes of each marshalled attribute value as it is replicated
      */
-    private void processSessionRepl(ClusteredSession<O> session) {
+    private void processSessionRepl(ClusteredSession<O> session, MarshalledValueWriteListener listener) {
         boolean endBatch = false;
         BatchingManager batchingManager = this.distributedCacheManager.getBatchingManager();
         try {
@@ -1495,7 +1523,7 @@ public class DistributableSessionManager<O extends OutgoingDistributableSessionD
                 endBatch = true;
             }
 
-            session.processSessionReplication();
+            session.processSessionReplication(listener);
         } catch (Exception ex) {
             log.debug("processSessionRepl(): failed with exception", ex);
 
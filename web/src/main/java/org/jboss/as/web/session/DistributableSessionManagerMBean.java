@@ -100,6 +100,25 @@ public interface DistributableSessionManagerMBean extends SessionManagerMBean {
      */
     int getSnapshotInterval();
 
+    /**
+     * Gets the number of modified sessions waiting to be replicated if "interval" mode is used.
+     *
+     * @return the number of queued sessions, or 0 if "instant" mode is used
+     */
+    int getSnapshotQueueDepth();
+
+    /**
+     * Gets the average number of milliseconds taken to replicate the sessions modified over an interval if "interval" mode is
+     * used.
+     */
+    long getAverageSnapshotFlushTime();
+
+    /**
+     * Gets the maximum number of milliseconds taken to replicate the sessions modified over an interval if "interval" mode is
+     * used.
+     */
+    long getMaxSnapshotFlushTime();
+
     /**
      * Get the maximum interval between requests, in seconds, after which a request will trigger replication of the session's
      * metadata regardless of whether the request has otherwise made the session dirty. Such replication ensures that other
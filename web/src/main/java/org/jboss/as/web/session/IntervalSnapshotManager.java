@@ -23,15 +23,30 @@ package org.jboss.as.web.session;
 
 import static org.jboss.as.web.WebMessages.MESSAGES;
 
-import java.util.HashSet;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.jboss.as.clustering.web.BatchingManager;
 import org.jboss.as.clustering.web.OutgoingDistributableSessionData;
 import org.jboss.logging.Logger;
 
 /**
  * A snapshot manager that collects all modified sessions over a given period of time and distributes them en bloc.
+ * <p>
+ * The sessions of every web context are distributed by a single scheduler thread shared by all interval snapshot managers,
+ * and the sessions collected by one manager over an interval are stored in a single batch. A manager queues at most
+ * {@link #getMaxQueueSize()} sessions; beyond that, requests replicate their session themselves, as in instant mode.
+ * </p>
  *
  * @author Thomas Peuss <jboss@peuss.de>
  * @author Brian Stansberry
@@ -40,67 +55,115 @@ import org.jboss.logging.Logger;
 public class IntervalSnapshotManager extends SnapshotManager implements Runnable {
     static Logger log = Logger.getLogger(IntervalSnapshotManager.class);
 
+    public static final int DEFAULT_MAX_QUEUE_SIZE = 10000;
+
     // the interval in ms
     private int interval = 1000;
 
+    // the maximum number of queued sessions
+    private final int maxQueueSize;
+
     // the modified sessions
     private Set<ClusteredSession<? extends OutgoingDistributableSessionData>> sessions = new LinkedHashSet<ClusteredSession<? extends OutgoingDistributableSessionData>>();
 
-    // the distribute thread
-    private Thread thread = null;
+    // the scheduled distribution task
+    private ScheduledFuture<?> future = null;
 
     // Is session processing allowed?
-    private boolean processingAllowed = false;
+    private volatile boolean processingAllowed = false;
+
+    // held while distributing sessions
+    private final Object processingLock = new Object();
 
-    // has the thread finished?
-    private boolean threadDone = false;
+    // flush statistics, in ms
+    private final AtomicLong flushCount = new AtomicLong();
+    private final AtomicLong totalFlushTime = new AtomicLong();
+    private volatile long maxFlushTime;
 
     public IntervalSnapshotManager(SessionManager manager, String path) {
-        super(manager, path);
+        this(manager, path, 1000);
     }
 
     public IntervalSnapshotManager(SessionManager manager, String path, int interval) {
+        this(manager, path, interval, DEFAULT_MAX_QUEUE_SIZE);
+    }
+
+    public IntervalSnapshotManager(SessionManager manager, String path, int interval, int maxQueueSize) {
         super(manager, path);
         this.interval = interval;
+        this.maxQueueSize = maxQueueSize;
     }
 
     /**
-     * Store the modified session in a hashmap for the distributor thread
+     * Store the modified session in a hashmap for the distributor thread, or replicate it now if too many sessions are queued
      */
     @Override
     public void snapshot(ClusteredSession<? extends OutgoingDistributableSessionData> session) {
+        boolean queued;
         try {
             // Don't hold a ref to the session for a long time
             synchronized (sessions) {
-                sessions.add(session);
+                queued = sessions.contains(session) || ((sessions.size() < maxQueueSize) && sessions.add(session));
             }
         } catch (Exception e) {
             log.error(MESSAGES.failedQueueingSessionReplication(session), e);
+            return;
+        }
+        if (!queued) {
+            try {
+                getManager().storeSession(session);
+            } catch (Exception e) {
+                getLog().warn(MESSAGES.failedSessionReplication(session.getIdInternal()), e);
+            }
         }
     }
 
     /**
-     * Distribute all modified sessions
+     * Distribute all modified sessions, in a single batch
      */
     protected void processSessions() {
-        Set<ClusteredSession<? extends OutgoingDistributableSessionData>> toProcess = null;
+        List<ClusteredSession<? extends OutgoingDistributableSessionData>> toProcess = null;
         synchronized (sessions) {
-            toProcess = new HashSet<ClusteredSession<? extends OutgoingDistributableSessionData>>(sessions);
+            if (sessions.isEmpty())
+                return;
+            toProcess = new ArrayList<ClusteredSession<? extends OutgoingDistributableSessionData>>(sessions);
             sessions.clear();
         }
 
+        long begin = System.currentTimeMillis();
         SessionManager mgr = getManager();
-        for (ClusteredSession<? extends OutgoingDistributableSessionData> session : toProcess) {
-            // Confirm we haven't been stopped
-            if (!processingAllowed)
-                break;
+        BatchingManager batchingManager = (mgr instanceof ClusteredSessionManager) ? ((ClusteredSessionManager<?>) mgr).getDistributedCacheManager().getBatchingManager() : null;
+        boolean endBatch = false;
+        try {
+            if ((batchingManager != null) && !batchingManager.isBatchInProgress()) {
+                batchingManager.startBatch();
+                endBatch = true;
+            }
+            for (ClusteredSession<? extends OutgoingDistributableSessionData> session : toProcess) {
+                // Confirm we haven't been stopped
+                if (!processingAllowed)
+                    break;
 
-            try {
-                mgr.storeSession(session);
-            } catch (Exception e) {
-                getLog().error(MESSAGES.failedToStoreSession(session.getRealId()), e);
+                try {
+                    mgr.storeSession(session);
+                } catch (Exception e) {
+                    getLog().error(MESSAGES.failedToStoreSession(session.getRealId()), e);
+                }
+            }
+        } catch (Exception e) {
+            getLog().error(MESSAGES.exceptionProcessingSessions(), e);
+        } finally {
+            if (endBatch) {
+                batchingManager.endBatch();
             }
         }
+
+        long elapsed = System.currentTimeMillis() - begin;
+        flushCount.incrementAndGet();
+        totalFlushTime.addAndGet(elapsed);
+        if (elapsed > maxFlushTime) {
+            maxFlushTime = elapsed;
+        }
     }
 
     /**
@@ -125,65 +188,119 @@ public class IntervalSnapshotManager extends SnapshotManager implements Runnable
     }
 
     /**
-     * Start the distributor thread
+     * Schedule the distribution of sessions on the shared distributor thread
      */
     protected void startThread() {
-        if (thread != null) {
+        if (future != null) {
             return;
         }
-
-        thread = new Thread(this, "ClusteredSessionDistributor[" + getContextPath() + "]");
-        thread.setDaemon(true);
-        thread.setContextClassLoader(getManager().getContainer().getLoader().getClassLoader());
-        threadDone = false;
-        thread.start();
+        future = SharedScheduler.acquire().scheduleWithFixedDelay(this, interval, interval, TimeUnit.MILLISECONDS);
     }
 
     /**
-     * Stop the distributor thread
+     * Cancel the distribution of sessions, waiting for any distribution in progress to complete
      */
     protected void stopThread() {
-        boolean intr = false;
-        try {
-            if (thread == null) {
+        if (future == null) {
+            return;
+        }
+        future.cancel(false);
+        synchronized (processingLock) {
+            future = null;
+        }
+        SharedScheduler.release();
+    }
+
+    /**
+     * Distribute the sessions modified during the last interval, using the class loader of the web application
+     */
+    @Override
+    public void run() {
+        synchronized (processingLock) {
+            if (!processingAllowed)
                 return;
-            }
-            threadDone = true;
-            thread.interrupt();
+            Thread thread = Thread.currentThread();
+            thread.setContextClassLoader(getManager().getContainer().getLoader().getClassLoader());
             try {
-                thread.join();
-            } catch (InterruptedException e) {
-                intr = true;
+                processSessions();
+            } catch (Exception e) {
+                getLog().error(MESSAGES.exceptionProcessingSessions(), e);
+            } finally {
+                // The thread is shared by all web applications, so it must not keep a reference to this one
+                thread.setContextClassLoader(SharedScheduler.NEUTRAL_LOADER);
             }
-            thread = null;
-        } finally {
-            if (intr)
-                Thread.currentThread().interrupt();
         }
     }
 
     /**
-     * Thread-loop
+     * Gets the maximum number of sessions queued for distribution.
      */
-    @Override
-    public void run() {
-        boolean intr = false;
-        try {
-            while (!threadDone) {
-                try {
-                    Thread.sleep(interval);
-                    processSessions();
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt();
-                    if (!threadDone)
-                        getLog().error(MESSAGES.exceptionProcessingSessions(), ie);
-                } catch (Exception e) {
-                    getLog().error(MESSAGES.exceptionProcessingSessions(), e);
-                }
+    public int getMaxQueueSize() {
+        return maxQueueSize;
+    }
+
+    /**
+     * Gets the number of sessions currently queued for distribution.
+     */
+    public int getQueueDepth() {
+        synchronized (sessions) {
+            return sessions.size();
+        }
+    }
+
+    /**
+     * Gets the average time, in milliseconds, taken to distribute the sessions queued over an interval.
+     */
+    public long getAverageFlushTime() {
+        long count = flushCount.get();
+        return (count > 0) ? totalFlushTime.get() / count : 0;
+    }
+
+    /**
+     * Gets the longest time, in milliseconds, taken to distribute the sessions queued over an interval.
+     */
+    public long getMaxFlushTime() {
+        return maxFlushTime;
+    }
+
+    /**
+     * The daemon thread that distributes the sessions of all interval snapshot managers, started on first use and stopped once
+     * no manager uses it any more. The thread does not inherit the context class loader, nor the access control context, of the
+     * web application that happens to start it, so that it does not keep the application alive once undeployed.
+     */
+    private static final class SharedScheduler {
+        static final ClassLoader NEUTRAL_LOADER = SharedScheduler.class.getClassLoader();
+
+        private static ScheduledExecutorService executor;
+        private static int users;
+
+        static synchronized ScheduledExecutorService acquire() {
+            if (users++ == 0) {
+                ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+                    @Override
+                    public Thread newThread(final Runnable task) {
+                        return AccessController.doPrivileged(new PrivilegedAction<Thread>() {
+                            @Override
+                            public Thread run() {
+                                Thread thread = new Thread(task, "ClusteredSessionDistributor");
+                                thread.setDaemon(true);
+                                thread.setContextClassLoader(NEUTRAL_LOADER);
+                                return thread;
+                            }
+                        });
+                    }
+                });
+                executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+                SharedScheduler.executor = executor;
+            }
+            return executor;
+        }
+
+        static synchronized void release() {
+            if (--users == 0) {
+                executor.shutdown();
+                executor = null;
             }
-        } finally {
-            if (intr)
-                Thread.currentThread().interrupt();
         }
     }
 }
@@ -48,6 +48,8 @@ public class ReplicationStatistics implements Serializable {
         public long minReplicationTime = Long.MAX_VALUE;
         public long maxReplicationTime;
         public long totalReplicationlTime;
+        public long maxReplicatedBytes;
+        public long totalReplicatedBytes;
 
         public long loadCount;
         public long minLoadTime = Long.MAX_VALUE;
@@ -62,6 +64,8 @@ public class ReplicationStatistics implements Serializable {
             minReplicationTime = Long.MAX_VALUE;
             maxReplicationTime = 0;
             totalReplicationlTime = 0;
+            maxReplicatedBytes = 0;
+            totalReplicatedBytes = 0;
             loadCount = 0;
             minLoadTime = Long.MAX_VALUE;
             maxLoadTime = 0;
@@ -99,6 +103,22 @@ public class ReplicationStatistics implements Serializable {
             stat.maxReplicationTime = elapsed;
     }
 
+    /**
+     * Update the replicated bytes of the TimeStatistic for the given ctx, once a marshalled value was written. Values may be
+     * written after the replication that stored them completed, so the statistics of a removed ctx are not recreated.
+     *
+     * @param ctx the method to update the statistics for.
+     * @param bytes the number of bytes of a marshalled attribute value, or attribute map, replicated.
+     */
+    public void updateReplicatedBytes(String ctx, long bytes) {
+        TimeStatistic stat = ctxStats.get(ctx);
+        if (stat == null)
+            return;
+        stat.totalReplicatedBytes += bytes;
+        if (stat.maxReplicatedBytes < bytes)
+            stat.maxReplicatedBytes = bytes;
+    }
+
     public void updateLoadStats(String ctx, long elapsed) {
         TimeStatistic stat = getTimeStatistic(ctx);
         stat.loadCount++;
@@ -157,6 +177,10 @@ public class ReplicationStatistics implements Serializable {
                 tmp.append(stat.maxReplicationTime);
                 tmp.append(", totalReplicationlTime=");
                 tmp.append(stat.totalReplicationlTime);
+                tmp.append(", maxReplicatedBytes=");
+                tmp.append(stat.maxReplicatedBytes);
+                tmp.append(", totalReplicatedBytes=");
+                tmp.append(stat.totalReplicatedBytes);
                 tmp.append(", loadCount=");
                 tmp.append(stat.loadCount);
                 tmp.append(", minLoadTime=");
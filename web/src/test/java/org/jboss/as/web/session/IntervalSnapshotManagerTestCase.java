@@ -0,0 +1,77 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.web.session;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.catalina.Session;
+import org.jboss.as.web.session.mocks.MockClusteredSessionManager;
+import org.jboss.as.web.session.mocks.MockSession;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link IntervalSnapshotManager}.
+ */
+public class IntervalSnapshotManagerTestCase {
+
+    @Test
+    public void testQueueBackpressure() throws Exception {
+        final List<Session> stored = new ArrayList<Session>();
+        MockClusteredSessionManager manager = new MockClusteredSessionManager() {
+            @Override
+            public boolean storeSession(Session session) {
+                stored.add(session);
+                return true;
+            }
+        };
+        MockSession first = new MockSession(manager);
+        MockSession second = new MockSession(manager);
+        MockSession third = new MockSession(manager);
+
+        // An interval long enough for the scheduled distribution never to run during the test
+        IntervalSnapshotManager snapshotManager = new IntervalSnapshotManager(manager, "/test", Integer.MAX_VALUE, 2);
+        snapshotManager.start();
+        try {
+            snapshotManager.snapshot(first);
+            snapshotManager.snapshot(second);
+            snapshotManager.snapshot(first);
+            assertEquals(2, snapshotManager.getQueueDepth());
+            assertEquals(0, stored.size());
+
+            // The queue is full, so the request replicates its own session
+            snapshotManager.snapshot(third);
+            assertEquals(2, snapshotManager.getQueueDepth());
+            assertEquals(Arrays.<Session>asList(third), stored);
+
+            snapshotManager.processSessions();
+            assertEquals(0, snapshotManager.getQueueDepth());
+            assertEquals(Arrays.<Session>asList(third, first, second), stored);
+        } finally {
+            snapshotManager.stop();
+        }
+    }
+}
@@ -26,6 +26,7 @@ import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
 
+import org.jboss.as.clustering.MarshalledValueWriteListener;
 import org.jboss.as.clustering.web.BatchingManager;
 import org.jboss.as.clustering.web.DistributedCacheManager;
 import org.jboss.as.clustering.web.IncomingDistributableSessionData;
@@ -131,7 +132,7 @@ public class MockDistributedCacheManager implements DistributedCacheManager<Outg
         // no-op
     }
 
-    public void storeSessionData(OutgoingDistributableSessionData sessionData) {
+    public void storeSessionData(OutgoingDistributableSessionData sessionData, MarshalledValueWriteListener listener) {
         // no-op
     }
 
@@ -25,6 +25,7 @@ package org.jboss.as.web.session.mocks;
 import javax.servlet.http.HttpSession;
 
 import org.apache.catalina.session.StandardSessionFacade;
+import org.jboss.as.clustering.MarshalledValueWriteListener;
 import org.jboss.as.clustering.web.OutgoingDistributableSessionData;
 import org.jboss.as.web.session.ClusteredSession;
 import org.jboss.as.web.session.notification.ClusteredSessionNotificationCause;
@@ -72,7 +73,7 @@ public class MockSession extends ClusteredSession<OutgoingDistributableSessionDa
     }
 
     @Override
-    public void processSessionReplication() {
+    public void processSessionReplication(MarshalledValueWriteListener listener) {
     }
 
     @Override
@@ -32,7 +32,10 @@ import org.jboss.as.server.deployment.DeploymentUnit;
  */
 public class WeldDeploymentMarker {
 
-    private static final AttachmentKey<Boolean> MARKER = AttachmentKey.create(Boolean.class);
+    /**
+     * The marker attachment key, for processors which declare the attachments they write.
+     */
+    public static final AttachmentKey<Boolean> MARKER = AttachmentKey.create(Boolean.class);
 
     /**
      * Mark the top level deployment as being a weld deployment. If the deployment is not a top level deployment the parent is
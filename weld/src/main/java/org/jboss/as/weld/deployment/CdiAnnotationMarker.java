@@ -31,7 +31,7 @@ public final class CdiAnnotationMarker {
     /**
      * Boolean attachment key.
      */
-    private static final AttachmentKey<Boolean> ATTACHMENT_KEY = AttachmentKey.create(Boolean.class);
+    static final AttachmentKey<Boolean> ATTACHMENT_KEY = AttachmentKey.create(Boolean.class);
 
     /**
      * Default constructor not visible.
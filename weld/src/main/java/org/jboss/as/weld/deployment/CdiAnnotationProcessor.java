@@ -21,18 +21,35 @@
  */
 package org.jboss.as.weld.deployment;
 
+import org.jboss.as.server.deployment.AttachmentKey;
 import org.jboss.as.server.deployment.Attachments;
+import org.jboss.as.server.deployment.ConcurrentDeploymentUnitProcessor;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
-import org.jboss.as.server.deployment.DeploymentUnitProcessor;
 import org.jboss.as.server.deployment.annotation.CompositeIndex;
 import org.jboss.as.weld.CdiAnnotations;
 
+import java.util.Set;
+
 /**
  * CdiAnnotationProcessor class. Used to verify the presence of CDI annotations.
  */
-public class CdiAnnotationProcessor implements DeploymentUnitProcessor {
+public class CdiAnnotationProcessor implements ConcurrentDeploymentUnitProcessor {
+
+    private static final Set<AttachmentKey<?>> READ_ATTACHMENTS = AttachmentKey.setOf(Attachments.COMPOSITE_ANNOTATION_INDEX);
+    private static final Set<AttachmentKey<?>> WRITTEN_ATTACHMENTS = AttachmentKey.setOf(CdiAnnotationMarker.ATTACHMENT_KEY);
+
+    @Override
+    public Set<AttachmentKey<?>> getReadAttachments() {
+        return READ_ATTACHMENTS;
+    }
+
+    @Override
+    public Set<AttachmentKey<?>> getWrittenAttachments() {
+        return WRITTEN_ATTACHMENTS;
+    }
+
     @Override
     public void deploy(final DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
         final DeploymentUnit deploymentUnit = phaseContext.getDeploymentUnit();
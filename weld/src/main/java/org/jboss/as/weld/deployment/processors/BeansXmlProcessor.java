@@ -29,11 +29,12 @@ import java.util.Set;
 import org.jboss.as.ee.structure.DeploymentType;
 import org.jboss.as.ee.structure.DeploymentTypeMarker;
 import org.jboss.as.ee.structure.SpecDescriptorPropertyReplacement;
+import org.jboss.as.server.deployment.AttachmentKey;
 import org.jboss.as.server.deployment.Attachments;
+import org.jboss.as.server.deployment.ConcurrentDeploymentUnitProcessor;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
-import org.jboss.as.server.deployment.DeploymentUnitProcessor;
 import org.jboss.as.server.deployment.SubDeploymentMarker;
 import org.jboss.as.server.deployment.module.ModuleRootMarker;
 import org.jboss.as.server.deployment.module.ResourceRoot;
@@ -51,11 +52,31 @@ import org.jboss.weld.bootstrap.spi.BeansXml;
  *
  * @author Stuart Douglas
  */
-public class BeansXmlProcessor implements DeploymentUnitProcessor {
+public class BeansXmlProcessor implements ConcurrentDeploymentUnitProcessor {
+
+    private static final Set<AttachmentKey<?>> READ_ATTACHMENTS = AttachmentKey.setOf(
+            Attachments.DEPLOYMENT_ROOT,
+            Attachments.RESOURCE_ROOTS,
+            org.jboss.as.ee.structure.Attachments.DEPLOYMENT_TYPE,
+            org.jboss.as.ee.structure.Attachments.SPEC_DESCRIPTOR_PROPERTY_REPLACEMENT,
+            org.jboss.as.ee.metadata.property.Attachments.FINAL_PROPERTY_RESOLVER);
+    private static final Set<AttachmentKey<?>> WRITTEN_ATTACHMENTS = AttachmentKey.setOf(
+            WeldDeploymentMetadata.ATTACHMENT_KEY,
+            WeldDeploymentMarker.MARKER);
 
     private static final String WEB_INF_BEANS_XML = "WEB-INF/beans.xml";
     private static final String META_INF_BEANS_XML = "META-INF/beans.xml";
 
+    @Override
+    public Set<AttachmentKey<?>> getReadAttachments() {
+        return READ_ATTACHMENTS;
+    }
+
+    @Override
+    public Set<AttachmentKey<?>> getWrittenAttachments() {
+        return WRITTEN_ATTACHMENTS;
+    }
+
     @Override
     public void deploy(DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
         final DeploymentUnit deploymentUnit = phaseContext.getDeploymentUnit();